@@ -35,7 +35,7 @@ public class RunCFPServer {
 			others.add(new PestoIdP2IdPRESTConnection(s, configuration.getId(),
 					configuration.getKeyStorePath(), configuration.getKeyStorePassword(),
 					configuration.getTrustStorePath(), configuration.getTrustStorePassword(),
-					configuration.getMyAuthorizationCookie()));
+					configuration.getMyAuthorizationCookie(), configuration.getHttpTransport()));
 
 		}
 		//Setup databases
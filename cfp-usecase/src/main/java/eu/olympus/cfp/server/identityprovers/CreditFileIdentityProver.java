@@ -180,9 +180,10 @@ public class CreditFileIdentityProver implements IdentityProver {
 			}
 			Map<String, Attribute> informationAttributes = parseInformationData(nl.item(0).getChildNodes());
 
-			//TODO do some proper adding
-			storage.addAttributes(username, identityAttributes);
-			storage.addAttributes(username, informationAttributes);
+			// Stored in one call, so the storage can write them in a single transaction
+			Map<String, Attribute> attributes = new HashMap<>(identityAttributes);
+			attributes.putAll(informationAttributes);
+			storage.addAttributes(username, attributes);
 
 		} catch (SAXException | IOException | ParserConfigurationException | OperationFailedException e) {
 			// TODO Auto-generated catch block
@@ -33,6 +33,7 @@ import eu.olympus.util.psmultisign.PSpublicParam;
 import eu.olympus.util.psmultisign.PSverfKey;
 import eu.olympus.util.rangeProof.RangePredicateToken;
 import eu.olympus.util.rangeProof.RangeProver;
+import eu.olympus.util.rangeProof.model.AggregatedRangeProof;
 import eu.olympus.util.rangeProof.model.PedersenBase;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -55,6 +56,7 @@ public class PSCredentialManagement implements CredentialManagement {
     private PairingBuilder builder;
     private Map<Integer,MSverfKey> verfKeysIdPs;
     private boolean storage;
+    private boolean aggregateRangeProofs;
     int numberOfIdPs;
     
     public PSCredentialManagement(boolean storage, CredentialStorage credentialStorage) {
@@ -64,6 +66,14 @@ public class PSCredentialManagement implements CredentialManagement {
     	this.credentialStorage=credentialStorage;
 	}
 
+	/**
+	 * Prove all the range predicates of a policy with one aggregated range proof instead of two proofs per predicate.
+	 * The tokens are then much smaller and faster to verify, but verifiers that predate aggregated proofs reject them.
+	 */
+	public void setAggregateRangeProofs(boolean aggregateRangeProofs) {
+		this.aggregateRangeProofs = aggregateRangeProofs;
+	}
+
 	public void setup(List<? extends PabcIdP> servers, byte[] seed) throws OperationFailedException, SetupException {
 		numberOfIdPs=servers.size();
 		PabcPublicParameters pp=servers.get(0).getPabcPublicParam();
@@ -142,7 +152,8 @@ public class PSCredentialManagement implements CredentialManagement {
 		}
 		if(!checkAttributeDefinitions())
 			throw new IllegalArgumentException("Conflicting sets of attribute names");
-		multiSignatureScheme = new PSms();
+		PSms psScheme = new PSms();
+		multiSignatureScheme = psScheme;
 		this.numberOfIdPs = schemePublicParameters.getN();
 		PSauxArg auxArg = (PSauxArg) schemePublicParameters.getAuxArg();
 		try {
@@ -157,7 +168,7 @@ public class PSCredentialManagement implements CredentialManagement {
 			throw new SetupException("Failed to retrieve Pairing Builder",e);
 			// Should never get here as setup of the scheme requires being able to do this instruction successfully
 		}
-		this.olympusVerificationKey = olympusVerificationKey;
+		this.olympusVerificationKey = olympusVerificationKey instanceof PSverfKey ? psScheme.precompute((PSverfKey) olympusVerificationKey) : olympusVerificationKey;
         this.attrDefMap=attributeDefinitions.stream().collect(Collectors.toMap(e-> e.getId().toLowerCase(),
                 Function.identity()));
 	}
@@ -285,11 +296,16 @@ public class PSCredentialManagement implements CredentialManagement {
                 String attrId = p.getAttributeName().toLowerCase();
                 AttributeDefinition definition = attrDefMap.get(attrId);
                 PedersenBase base = new PedersenBase(key.getVY().get(attrId), key.getVX()); //Base has to be g=Y_j h=X
-                rangePredicateTokenMap.put(attrId, prover.generateRangePredicateToken(base, temporalCredential.getElement(attrId), definition, p));
+                if (aggregateRangeProofs) {
+                    rangePredicateTokenMap.put(attrId, prover.addRangePredicate(base, temporalCredential.getElement(attrId), definition, p));
+                } else {
+                    rangePredicateTokenMap.put(attrId, prover.generateRangePredicateToken(base, temporalCredential.getElement(attrId), definition, p));
+                }
             }
+            AggregatedRangeProof aggregatedRangeProof = aggregateRangeProofs ? prover.generateAggregatedProof() : null;
             MSzkToken token = multiSignatureScheme.presentZKtokenModified(olympusVerificationKey, attributesToReveal,
                     prover.getGeneratedCommitments(), signedAttributes, policy.getPolicyId(), temporalCredential.getSignature());
-            return new PresentationToken(temporalCredential.getEpoch(), revealedAttributes, token, rangePredicateTokenMap);
+            return new PresentationToken(temporalCredential.getEpoch(), revealedAttributes, token, rangePredicateTokenMap, aggregatedRangeProof);
         }
     }
 
@@ -0,0 +1,109 @@
+package eu.olympus.model;
+
+/**
+ * Settings of the HTTP transport used by the REST connections between IdPs and from clients to
+ * IdPs. Pooling is disabled unless enabled explicitly; the default Jersey transport is then used,
+ * which opens a new connection for most requests.
+ */
+public class HttpTransportConfiguration {
+
+	public static final int DEFAULT_CONNECT_TIMEOUT = 5000;
+	public static final int DEFAULT_READ_TIMEOUT = 10000;
+
+	private boolean pooled = false;
+	private int maxConnectionsPerRoute = 20;
+	private int maxConnections = 100;
+	/** How many asynchronous requests may wait for a thread of the pool; further requests fail at once */
+	private int maxQueuedRequests = 1000;
+	/** How long, in miliseconds, an idle connection is kept open for reuse */
+	private long keepAlive = 60000;
+	/** Timeouts in miliseconds, 0 means no timeout */
+	private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+	private int readTimeout = DEFAULT_READ_TIMEOUT;
+	/** How long, in seconds, TLS sessions are cached for resumption. 0 means no limit */
+	private int tlsSessionTimeout = 86400;
+	/** Send requests and read replies in the protobuf format instead of JSON. All IdPs must support it */
+	private boolean protobuf = false;
+
+	public HttpTransportConfiguration() {
+	}
+
+	public HttpTransportConfiguration(boolean pooled, int maxConnectionsPerRoute, int maxConnections, long keepAlive) {
+		this.pooled = pooled;
+		this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+		this.maxConnections = maxConnections;
+		this.keepAlive = keepAlive;
+	}
+
+	public boolean isPooled() {
+		return pooled;
+	}
+
+	public void setPooled(boolean pooled) {
+		this.pooled = pooled;
+	}
+
+	public int getMaxConnectionsPerRoute() {
+		return maxConnectionsPerRoute;
+	}
+
+	public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+		this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+	}
+
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	public void setMaxConnections(int maxConnections) {
+		this.maxConnections = maxConnections;
+	}
+
+	public int getMaxQueuedRequests() {
+		return maxQueuedRequests;
+	}
+
+	public void setMaxQueuedRequests(int maxQueuedRequests) {
+		this.maxQueuedRequests = maxQueuedRequests;
+	}
+
+	public long getKeepAlive() {
+		return keepAlive;
+	}
+
+	public void setKeepAlive(long keepAlive) {
+		this.keepAlive = keepAlive;
+	}
+
+	public int getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	public void setConnectTimeout(int connectTimeout) {
+		this.connectTimeout = connectTimeout;
+	}
+
+	public int getReadTimeout() {
+		return readTimeout;
+	}
+
+	public void setReadTimeout(int readTimeout) {
+		this.readTimeout = readTimeout;
+	}
+
+	public int getTlsSessionTimeout() {
+		return tlsSessionTimeout;
+	}
+
+	public void setTlsSessionTimeout(int tlsSessionTimeout) {
+		this.tlsSessionTimeout = tlsSessionTimeout;
+	}
+
+	public boolean isProtobuf() {
+		return protobuf;
+	}
+
+	public void setProtobuf(boolean protobuf) {
+		this.protobuf = protobuf;
+	}
+}
@@ -28,6 +28,13 @@ public class PESTOConfigurationImpl extends ServerConfigurationImpl implements P
 	private long allowedTimeDiff = 10000;
 	private long waitTime = 1000;
 	private long sessionLength = 60000l;
+	private HttpTransportConfiguration httpTransport = new HttpTransportConfiguration();
+	private boolean statelessSessions = false;
+	private int expensiveRateLimit = 0;
+	private int userRateLimit = 0;
+	private String rateLimitAddressHeader = null;
+	private int cryptoThreads = 0;
+	private int cryptoQueueSize = 64;
 
 	public PESTOConfigurationImpl() {
 
@@ -113,6 +120,69 @@ public class PESTOConfigurationImpl extends ServerConfigurationImpl implements P
 		return this.waitTime;
 	}
 
+	public void setStatelessSessions(boolean statelessSessions) {
+		this.statelessSessions = statelessSessions;
+	}
+
+	@Override
+	public boolean isStatelessSessions() {
+		return statelessSessions;
+	}
+
+	public void setExpensiveRateLimit(int expensiveRateLimit) {
+		this.expensiveRateLimit = expensiveRateLimit;
+	}
+
+	@Override
+	public int getExpensiveRateLimit() {
+		return expensiveRateLimit;
+	}
+
+	public void setUserRateLimit(int userRateLimit) {
+		this.userRateLimit = userRateLimit;
+	}
+
+	@Override
+	public int getUserRateLimit() {
+		return userRateLimit;
+	}
+
+	public void setRateLimitAddressHeader(String rateLimitAddressHeader) {
+		this.rateLimitAddressHeader = rateLimitAddressHeader;
+	}
+
+	@Override
+	public String getRateLimitAddressHeader() {
+		return rateLimitAddressHeader;
+	}
+
+	public void setCryptoThreads(int cryptoThreads) {
+		this.cryptoThreads = cryptoThreads;
+	}
+
+	@Override
+	public int getCryptoThreads() {
+		return cryptoThreads;
+	}
+
+	public void setCryptoQueueSize(int cryptoQueueSize) {
+		this.cryptoQueueSize = cryptoQueueSize;
+	}
+
+	@Override
+	public int getCryptoQueueSize() {
+		return cryptoQueueSize;
+	}
+
+	public void setHttpTransport(HttpTransportConfiguration httpTransport) {
+		this.httpTransport = httpTransport;
+	}
+
+	@Override
+	public HttpTransportConfiguration getHttpTransport() {
+		return httpTransport;
+	}
+
 	@Override
 	public byte[] getLocalKeyShare() {
 		return localKeyShare;
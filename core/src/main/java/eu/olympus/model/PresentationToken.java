@@ -6,6 +6,7 @@ import eu.olympus.util.multisign.MSzkToken;
 import eu.olympus.util.psmultisign.PSzkToken;
 import eu.olympus.util.psmultisign.PSzkTokenModified;
 import eu.olympus.util.rangeProof.RangePredicateToken;
+import eu.olympus.util.rangeProof.model.AggregatedRangeProof;
 import java.util.HashMap;
 import java.util.Map;
 import org.apache.commons.codec.binary.Base64;
@@ -16,12 +17,22 @@ public class PresentationToken {
 	private final Map<String, Attribute> revealedAttributes;
 	private final Map<String, RangePredicateToken> rangeTokens;
 	private final MSzkToken zkToken;
+	private final AggregatedRangeProof aggregatedRangeProof;
 
 	public PresentationToken(long epoch, Map<String, Attribute> revealedAttributes, MSzkToken zkToken, Map<String, RangePredicateToken> rangeTokens) {
+		this(epoch, revealedAttributes, zkToken, rangeTokens, null);
+	}
+
+	/**
+	 * @param aggregatedRangeProof Proof for all the range predicates, in which case the range tokens only hold the
+	 *                             commitments. Null if each range token has its own proofs.
+	 */
+	public PresentationToken(long epoch, Map<String, Attribute> revealedAttributes, MSzkToken zkToken, Map<String, RangePredicateToken> rangeTokens, AggregatedRangeProof aggregatedRangeProof) {
 		this.epoch = epoch;
 		this.revealedAttributes = new HashMap<>(revealedAttributes);
 		this.rangeTokens = rangeTokens==null ? new HashMap<>() : new HashMap<>(rangeTokens);
 		this.zkToken = zkToken;
+		this.aggregatedRangeProof = aggregatedRangeProof;
 	}
 
 	public PresentationToken(String presentationToken) throws InvalidProtocolBufferException {
@@ -42,6 +53,7 @@ public class PresentationToken {
 		Map<String, PabcSerializer.RangePredToken> protoTokens= protoPT.getRangePredTokensMap();
 		for(String attrName: protoTokens.keySet())
 			rangeTokens.put(attrName,new RangePredicateToken(protoTokens.get(attrName)));
+		this.aggregatedRangeProof = protoPT.hasAggregatedRangeProof() ? new AggregatedRangeProof(protoPT.getAggregatedRangeProof()) : null;
 	}
 
 	public long getEpoch() {
@@ -64,6 +76,10 @@ public class PresentationToken {
 		return rangeTokens;
 	}
 
+	public AggregatedRangeProof getAggregatedRangeProof() {
+		return aggregatedRangeProof;
+	}
+
 	private PabcSerializer.PresentationToken toProto() {
 		Map<String, PabcSerializer.Attribute> protoAttributes = new HashMap<>();
 		for (String attrName : revealedAttributes.keySet())
@@ -72,12 +88,14 @@ public class PresentationToken {
 		for(String attrName:rangeTokens.keySet()){
 			protoTokens.put(attrName,rangeTokens.get(attrName).toProto());
 		}
+		PabcSerializer.PresentationToken.Builder protoBuilder = PabcSerializer.PresentationToken.newBuilder().setEpoch(epoch)
+				.putAllRevealedAttributes(protoAttributes).putAllRangePredTokens(protoTokens);
+		if (aggregatedRangeProof != null)
+			protoBuilder.setAggregatedRangeProof(aggregatedRangeProof.toProto());
 		if (zkToken instanceof PSzkToken)
-			return PabcSerializer.PresentationToken.newBuilder().setEpoch(epoch).setPsZkToken(((PSzkToken) zkToken).toProto())
-				.putAllRevealedAttributes(protoAttributes).putAllRangePredTokens(protoTokens).build();
+			return protoBuilder.setPsZkToken(((PSzkToken) zkToken).toProto()).build();
 		else
-			return PabcSerializer.PresentationToken.newBuilder().setEpoch(epoch).setPsZkTokenMod(((PSzkTokenModified) zkToken).toProto())
-					.putAllRevealedAttributes(protoAttributes).putAllRangePredTokens(protoTokens).build();
+			return protoBuilder.setPsZkTokenMod(((PSzkTokenModified) zkToken).toProto()).build();
 	}
 
 }
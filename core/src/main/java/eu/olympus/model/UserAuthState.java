@@ -0,0 +1,53 @@
+package eu.olympus.model;
+
+import java.security.PublicKey;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Snapshot of the stored state needed to authenticate a user, read from the database at once.
+ * For an unknown user only the authentication attempt fields are meaningful.
+ */
+public class UserAuthState {
+
+	private final boolean userExists;
+	private final PublicKey userKey;
+	private final long salt;
+	private final long lastAuthAttempt;
+	private final int failedAuthAttempts;
+	private final Map<String, MFAInformation> mfaInformation;
+
+	public UserAuthState(boolean userExists, PublicKey userKey, long salt, long lastAuthAttempt,
+			int failedAuthAttempts, Map<String, MFAInformation> mfaInformation) {
+		this.userExists = userExists;
+		this.userKey = userKey;
+		this.salt = salt;
+		this.lastAuthAttempt = lastAuthAttempt;
+		this.failedAuthAttempts = failedAuthAttempts;
+		this.mfaInformation = mfaInformation == null ? Collections.emptyMap() : mfaInformation;
+	}
+
+	public boolean userExists() {
+		return userExists;
+	}
+
+	public PublicKey getUserKey() {
+		return userKey;
+	}
+
+	public long getSalt() {
+		return salt;
+	}
+
+	public long getLastAuthAttempt() {
+		return lastAuthAttempt;
+	}
+
+	public int getFailedAuthAttempts() {
+		return failedAuthAttempts;
+	}
+
+	public Map<String, MFAInformation> getMFAInformation() {
+		return mfaInformation;
+	}
+}
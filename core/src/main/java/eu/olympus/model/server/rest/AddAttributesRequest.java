@@ -4,14 +4,14 @@ public class AddAttributesRequest {
 
 	private String username;
 	private long saltIndex;
-	private String signature;
+	private byte[] signature;
 	private String idProof;
-	private String sessionCookie;
+	private byte[] sessionCookie;
 	
 	public AddAttributesRequest() {
 	}
 	
-	public AddAttributesRequest(String username, String sessionCookie, long saltIndex, String signature, String idProof) {
+	public AddAttributesRequest(String username, byte[] sessionCookie, long saltIndex, byte[] signature, String idProof) {
 		this.username = username;
 		this.saltIndex = saltIndex;
 		this.signature = signature;
@@ -35,11 +35,11 @@ public class AddAttributesRequest {
 		this.saltIndex = saltIndex;
 	}
 
-	public String getSignature() {
+	public byte[] getSignature() {
 		return signature;
 	}
 
-	public void setSignature(String signature) {
+	public void setSignature(byte[] signature) {
 		this.signature = signature;
 	}
 
@@ -51,11 +51,11 @@ public class AddAttributesRequest {
 		this.idProof = idProof;
 	}
 
-	public String getSessionCookie() {
+	public byte[] getSessionCookie() {
 		return sessionCookie;
 	}
 
-	public void setSessionCookie(String sessionCookie) {
+	public void setSessionCookie(byte[] sessionCookie) {
 		this.sessionCookie = sessionCookie;
 	}
 
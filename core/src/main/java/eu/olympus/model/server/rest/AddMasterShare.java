@@ -2,11 +2,11 @@ package eu.olympus.model.server.rest;
 
 public class AddMasterShare {
   private String newSsid;
-  private String newShare;
+  private byte[] newShare;
 
   public AddMasterShare() {}
 
-  public AddMasterShare(String newSsid, String newShare) {
+  public AddMasterShare(String newSsid, byte[] newShare) {
     this.newSsid = newSsid;
     this.newShare = newShare;
   }
@@ -19,11 +19,11 @@ public class AddMasterShare {
     this.newSsid = newSsid;
   }
 
-  public String getNewShare() {
+  public byte[] getNewShare() {
     return newShare;
   }
 
-  public void setNewShare(String newShare) {
+  public void setNewShare(byte[] newShare) {
     this.newShare = newShare;
   }
 }
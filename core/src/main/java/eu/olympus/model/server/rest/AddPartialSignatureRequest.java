@@ -6,12 +6,12 @@ import javax.xml.bind.annotation.XmlRootElement;
 public class AddPartialSignatureRequest {
 
 	private String ssid;
-	private String string;
+	private byte[] string;
 	
 	public AddPartialSignatureRequest() {
 	}
 	
-	public AddPartialSignatureRequest(String ssid, String string) {
+	public AddPartialSignatureRequest(String ssid, byte[] string) {
 		this.ssid = ssid;
 		this.string = string;
 	}
@@ -24,11 +24,11 @@ public class AddPartialSignatureRequest {
 		this.ssid = ssid;
 	}
 
-	public String getString() {
+	public byte[] getString() {
 		return string;
 	}
 
-	public void setString(String string) {
+	public void setString(byte[] string) {
 		this.string = string;
 	}
 	
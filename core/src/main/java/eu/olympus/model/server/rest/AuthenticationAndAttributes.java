@@ -6,9 +6,9 @@ public class AuthenticationAndAttributes {
 
 	private String username;
 	private List<String> attributes;
-	private String cookie;
+	private byte[] cookie;
 
-	public AuthenticationAndAttributes(String username, String cookie, List<String> attributes) {
+	public AuthenticationAndAttributes(String username, byte[] cookie, List<String> attributes) {
 		this.username = username;
 		this.attributes = attributes;
 		this.cookie = cookie;
@@ -33,11 +33,11 @@ public class AuthenticationAndAttributes {
 		this.attributes = attributes;
 	}
 
-	public String getCookie() {
+	public byte[] getCookie() {
 		return cookie;
 	}
 
-	public void setCookie(String cookie) {
+	public void setCookie(byte[] cookie) {
 		this.cookie = cookie;
 	}
 }
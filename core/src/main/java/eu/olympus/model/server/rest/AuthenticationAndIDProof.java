@@ -4,9 +4,9 @@ public class AuthenticationAndIDProof {
 
 	private String username;
 	private IdentityProof identityProof;
-	private String cookie;
+	private byte[] cookie;
 
-	public AuthenticationAndIDProof(String username, String cookie, IdentityProof identityProof) {
+	public AuthenticationAndIDProof(String username, byte[] cookie, IdentityProof identityProof) {
 		this.username = username;
 		this.identityProof = identityProof;
 		this.cookie = cookie;
@@ -31,11 +31,11 @@ public class AuthenticationAndIDProof {
 		this.identityProof = idProof;
 	}
 
-	public String getCookie() {
+	public byte[] getCookie() {
 		return cookie;
 	}
 
-	public void setCookie(String cookie) {
+	public void setCookie(byte[] cookie) {
 		this.cookie = cookie;
 	}
 
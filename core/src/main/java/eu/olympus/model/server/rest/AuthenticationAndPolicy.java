@@ -6,9 +6,9 @@ public class AuthenticationAndPolicy {
 
 	private String username;
 	private Policy policy;
-	private String cookie;
+	private byte[] cookie;
 
-	public AuthenticationAndPolicy(String username, String cookie, Policy policy) {
+	public AuthenticationAndPolicy(String username, byte[] cookie, Policy policy) {
 		this.username = username;
 		this.policy = policy;
 		this.cookie = cookie;
@@ -33,11 +33,11 @@ public class AuthenticationAndPolicy {
 		this.policy = policy;
 	}
 
-	public String getCookie() {
+	public byte[] getCookie() {
 		return cookie;
 	}
 
-	public void setCookie(String cookie) {
+	public void setCookie(byte[] cookie) {
 		this.cookie = cookie;
 	}
 
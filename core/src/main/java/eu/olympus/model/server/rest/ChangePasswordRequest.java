@@ -6,15 +6,15 @@ public class ChangePasswordRequest {
 
 	private String username;
 	private SerializedKey publicKey;
-	private String oldSignature;
-	private String newSignature;
+	private byte[] oldSignature;
+	private byte[] newSignature;
 	private long salt;
-	private String sessionCookie;
+	private byte[] sessionCookie;
 	
 	public ChangePasswordRequest() {
 	}
 	
-	public ChangePasswordRequest(String username, String cookie, SerializedKey publicKey, String oldSignature, String newSignature, long salt) {
+	public ChangePasswordRequest(String username, byte[] cookie, SerializedKey publicKey, byte[] oldSignature, byte[] newSignature, long salt) {
 		this.username = username;
 		this.publicKey = publicKey;
 		this.oldSignature = oldSignature;
@@ -39,19 +39,19 @@ public class ChangePasswordRequest {
 		this.publicKey = publicKey;
 	}
 
-	public String getOldSignature() {
+	public byte[] getOldSignature() {
 		return oldSignature;
 	}
 
-	public void setOldSignature(String signature) {
+	public void setOldSignature(byte[] signature) {
 		this.oldSignature = signature;
 	}
 
-	public String getNewSignature() {
+	public byte[] getNewSignature() {
 		return newSignature;
 	}
 
-	public void setNewSignature(String signature) {
+	public void setNewSignature(byte[] signature) {
 		this.newSignature = signature;
 	}
 	
@@ -63,11 +63,11 @@ public class ChangePasswordRequest {
 		this.salt = salt;
 	}
 
-	public String getSessionCookie() {
+	public byte[] getSessionCookie() {
 		return sessionCookie;
 	}
 
-	public void setSessionCookie(String sessionCookie) {
+	public void setSessionCookie(byte[] sessionCookie) {
 		this.sessionCookie = sessionCookie;
 	}
 }
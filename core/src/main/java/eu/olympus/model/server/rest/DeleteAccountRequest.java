@@ -4,13 +4,13 @@ public class DeleteAccountRequest {
 
 	private String username;
 	private long saltIndex;
-	private String signature;
-	private String sessionCookie;
+	private byte[] signature;
+	private byte[] sessionCookie;
 	
 	public DeleteAccountRequest() {
 	}
 	
-	public DeleteAccountRequest(String username, String sessionCookie, long saltIndex, String signature) {
+	public DeleteAccountRequest(String username, byte[] sessionCookie, long saltIndex, byte[] signature) {
 		this.username = username;
 		this.saltIndex = saltIndex;
 		this.signature = signature;
@@ -38,20 +38,20 @@ public class DeleteAccountRequest {
 	}
 
 
-	public String getSignature() {
+	public byte[] getSignature() {
 		return signature;
 	}
 
 
-	public void setSignature(String signature) {
+	public void setSignature(byte[] signature) {
 		this.signature = signature;
 	}
 
-	public String getSessionCookie() {
+	public byte[] getSessionCookie() {
 		return sessionCookie;
 	}
 
-	public void setSessionCookie(String sessionCookie) {
+	public void setSessionCookie(byte[] sessionCookie) {
 		this.sessionCookie = sessionCookie;
 	}
 
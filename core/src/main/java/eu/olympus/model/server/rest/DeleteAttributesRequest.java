@@ -6,14 +6,14 @@ public class DeleteAttributesRequest {
 
 	private String username;
 	private long saltIndex;
-	private String signature;
+	private byte[] signature;
 	private List<String> attributes;
-	private String sessionCookie;
+	private byte[] sessionCookie;
 	
 	public DeleteAttributesRequest() {
 	}
 	
-	public DeleteAttributesRequest(String username, String sessionCookie, long saltIndex, String signature, List<String> attributes) {
+	public DeleteAttributesRequest(String username, byte[] sessionCookie, long saltIndex, byte[] signature, List<String> attributes) {
 		this.username = username;
 		this.saltIndex = saltIndex;
 		this.signature = signature;
@@ -42,12 +42,12 @@ public class DeleteAttributesRequest {
 	}
 
 
-	public String getSignature() {
+	public byte[] getSignature() {
 		return signature;
 	}
 
 
-	public void setSignature(String signature) {
+	public void setSignature(byte[] signature) {
 		this.signature = signature;
 	}
 
@@ -59,11 +59,11 @@ public class DeleteAttributesRequest {
 		this.attributes = attributes;
 	}
 
-	public String getSessionCookie() {
+	public byte[] getSessionCookie() {
 		return sessionCookie;
 	}
 
-	public void setSessionCookie(String sessionToken) {
+	public void setSessionCookie(byte[] sessionToken) {
 		this.sessionCookie = sessionToken;
 	}
 }
@@ -6,15 +6,15 @@ public class FinishRegistrationRequest {
 
 	private String username;
 	private SerializedKey publicKey;
-	private String signature;
+	private byte[] signature;
 	private long salt;
 	private String idProof;
-	private String sessionCookie;
+	private byte[] sessionCookie;
 	
 	public FinishRegistrationRequest() {
 	}
 	
-	public FinishRegistrationRequest(String username, String sessionCookie, SerializedKey publicKey, String signature, long salt,
+	public FinishRegistrationRequest(String username, byte[] sessionCookie, SerializedKey publicKey, byte[] signature, long salt,
 			String idProof) {
 		this.username = username;
 		this.idProof = idProof;
@@ -40,11 +40,11 @@ public class FinishRegistrationRequest {
 		this.publicKey = publicKey;
 	}
 
-	public String getSignature() {
+	public byte[] getSignature() {
 		return signature;
 	}
 
-	public void setSignature(String signature) {
+	public void setSignature(byte[] signature) {
 		this.signature = signature;
 	}
 
@@ -64,11 +64,11 @@ public class FinishRegistrationRequest {
 		this.idProof = idProof;
 	}
 
-	public String getSessionCookie() {
+	public byte[] getSessionCookie() {
 		return sessionCookie;
 	}
 
-	public void setSessionCookie(String sessionCookie) {
+	public void setSessionCookie(byte[] sessionCookie) {
 		this.sessionCookie = sessionCookie;
 	}
 
@@ -4,13 +4,13 @@ public class GetAllAttributesRequest {
 
 	private String username;
 	private long saltIndex;
-	private String signature;
-	private String sessionCookie;
+	private byte[] signature;
+	private byte[] sessionCookie;
 	
 	public GetAllAttributesRequest() {
 	}
 	
-	public GetAllAttributesRequest(String username, String sessionCookie, long saltIndex, String signature) {
+	public GetAllAttributesRequest(String username, byte[] sessionCookie, long saltIndex, byte[] signature) {
 		this.username = username;
 		this.saltIndex = saltIndex;
 		this.signature = signature;
@@ -38,20 +38,20 @@ public class GetAllAttributesRequest {
 	}
 
 
-	public String getSignature() {
+	public byte[] getSignature() {
 		return signature;
 	}
 
 
-	public void setSignature(String signature) {
+	public void setSignature(byte[] signature) {
 		this.signature = signature;
 	}
 
-	public String getSessionCookie() {
+	public byte[] getSessionCookie() {
 		return sessionCookie;
 	}
 
-	public void setSessionCookie(String sessionCookie) {
+	public void setSessionCookie(byte[] sessionCookie) {
 		this.sessionCookie = sessionCookie;
 	}
 }
@@ -4,15 +4,15 @@ public class OPRFRequest {
 
 	private String ssid;
 	private String username;
-	private String element;
+	private byte[] element;
 	private String mfaToken;
 	private String mfaType;
-	private String sessionCookie;
+	private byte[] sessionCookie;
 
 	public OPRFRequest() {
 	}
 	
-	public OPRFRequest(String ssid, String username, String element) {
+	public OPRFRequest(String ssid, String username, byte[] element) {
 		this.ssid = ssid;
 		this.username = username;
 		this.element = element;
@@ -34,19 +34,19 @@ public class OPRFRequest {
 		this.username = username;
 	}
 
-	public String getElement() {
+	public byte[] getElement() {
 		return element;
 	}
 	
-	public void setElement(String element) {
+	public void setElement(byte[] element) {
 		this.element = element;
 	}
 
-	public String getSessionCookie() {
+	public byte[] getSessionCookie() {
 		return sessionCookie;
 	}
 
-	public void setSessionCookie(String sessionCookie) {
+	public void setSessionCookie(byte[] sessionCookie) {
 		this.sessionCookie = sessionCookie;
 	}
 
@@ -1,17 +1,18 @@
 package eu.olympus.model.server.rest;
+import eu.olympus.util.pairingBLS461.PointEncoding;
 import org.miracl.core.BLS12461.FP12;
 
 public class OPRFRestResponse {
 
 	private String ssid;
-	private String element;
+	private byte[] element;
 	private String sessionCookie;
 	
 	public OPRFRestResponse() {
 		
 	}
 	
-	public OPRFRestResponse(String ssid, String element, String sessionCookie) {
+	public OPRFRestResponse(String ssid, byte[] element, String sessionCookie) {
 		this.ssid = ssid;
 		this.element = element;
 		this.sessionCookie = sessionCookie;
@@ -25,17 +26,16 @@ public class OPRFRestResponse {
 		this.ssid = ssid;
 	}
 
-	public String getElement() {
+	public byte[] getElement() {
 		return element;
 	}
 
-	public void setElement(String element) {
+	public void setElement(byte[] element) {
 		this.element = element;
 	}
 	
 	public static FP12 getAsElement(byte[] bytes) {
-		FP12 x = FP12.fromBytes(bytes);
-		return x;
+		return PointEncoding.decodeGT(bytes);
 	}
 
 	public String getSessionCookie() {
@@ -2,9 +2,9 @@ package eu.olympus.model.server.rest;
 
 public class PasswordAuthentication {
   private UsernameAndPassword usernameAndPassword;
-  private String cookie;
+  private byte[] cookie;
 
-  public PasswordAuthentication(UsernameAndPassword usernameAndPassword, String cookie) {
+  public PasswordAuthentication(UsernameAndPassword usernameAndPassword, byte[] cookie) {
     this.usernameAndPassword = usernameAndPassword;
     this.cookie = cookie;
   }
@@ -20,11 +20,11 @@ public class PasswordAuthentication {
     this.usernameAndPassword = usernameAndPassword;
   }
 
-  public String getCookie() {
+  public byte[] getCookie() {
     return cookie;
   }
 
-  public void setCookie(String cookie) {
+  public void setCookie(byte[] cookie) {
     this.cookie = cookie;
   }
 }
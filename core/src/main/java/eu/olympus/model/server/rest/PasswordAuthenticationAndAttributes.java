@@ -6,7 +6,7 @@ public class PasswordAuthenticationAndAttributes extends PasswordAuthentication
 
 	private List<String> attributes;
 
-	public PasswordAuthenticationAndAttributes(UsernameAndPassword usernameAndPassword, String cookie, List<String> attributes) {
+	public PasswordAuthenticationAndAttributes(UsernameAndPassword usernameAndPassword, byte[] cookie, List<String> attributes) {
 		super(usernameAndPassword, cookie);
 		this.attributes = attributes;
 	}
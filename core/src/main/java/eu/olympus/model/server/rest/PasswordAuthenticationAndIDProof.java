@@ -3,7 +3,7 @@ package eu.olympus.model.server.rest;
 public class PasswordAuthenticationAndIDProof extends PasswordAuthentication {
 	private IdentityProof identityProof;
 
-	public PasswordAuthenticationAndIDProof(UsernameAndPassword usernameAndPassword, String cookie, IdentityProof identityProof) {
+	public PasswordAuthenticationAndIDProof(UsernameAndPassword usernameAndPassword, byte[] cookie, IdentityProof identityProof) {
 		super(usernameAndPassword, cookie);
 		this.identityProof = identityProof;
 	}
@@ -7,7 +7,7 @@ public class PasswordAuthenticationAndMFAToken extends PasswordAuthentication {
 
 
 	public PasswordAuthenticationAndMFAToken(UsernameAndPassword usernameAndPassword,
-			String cookie, String token, String type) {
+			byte[] cookie, String token, String type) {
 		super(usernameAndPassword, cookie);
 		this.type = type;
 		this.setToken(token);
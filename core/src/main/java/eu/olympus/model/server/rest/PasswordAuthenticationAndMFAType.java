@@ -5,7 +5,7 @@ public class PasswordAuthenticationAndMFAType extends PasswordAuthentication {
 	private String type;
 
 	public PasswordAuthenticationAndMFAType(UsernameAndPassword usernameAndPassword,
-			String cookie, String type) {
+			byte[] cookie, String type) {
 		super(usernameAndPassword, cookie);
 		this.setType(type);
 
@@ -4,7 +4,7 @@ public class PasswordAuthenticationAndPassword extends PasswordAuthentication {
 
 	private String newPassword;
 
-	public PasswordAuthenticationAndPassword(UsernameAndPassword usernameAndPassword, String cookie, String newPassword) {
+	public PasswordAuthenticationAndPassword(UsernameAndPassword usernameAndPassword, byte[] cookie, String newPassword) {
 		super(usernameAndPassword, cookie);
 		this.newPassword = newPassword;
 	}
@@ -6,7 +6,7 @@ public class PasswordAuthenticationAndPolicy extends PasswordAuthentication{
 
   private Policy policy;
 
-  public PasswordAuthenticationAndPolicy(UsernameAndPassword authentication, String cookie, Policy policy) {
+  public PasswordAuthenticationAndPolicy(UsernameAndPassword authentication, byte[] cookie, Policy policy) {
     super(authentication, cookie);
     this.policy = policy;
   }
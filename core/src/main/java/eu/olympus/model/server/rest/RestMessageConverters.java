@@ -0,0 +1,661 @@
+package eu.olympus.model.server.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
+import eu.olympus.model.Attribute;
+import eu.olympus.model.Operation;
+import eu.olympus.model.Policy;
+import eu.olympus.model.Predicate;
+import eu.olympus.model.SerializedKey;
+import eu.olympus.protos.rest.RestMessages;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Conversion between the REST model classes and the messages generated from RestMessages.proto,
+ * used for the application/x-protobuf form of the IdP REST endpoints. Byte fields of the model go
+ * on the wire as they are, and null strings and bytes are left unset so that they stay null.
+ */
+public class RestMessageConverters {
+
+	/**
+	 * Reads and writes one model class through its generated message.
+	 */
+	public static class Converter<T, P extends Message> {
+		private final Parser<P> parser;
+		private final Function<P, T> fromProto;
+		private final Function<T, P> toProto;
+
+		private Converter(Parser<P> parser, Function<P, T> fromProto, Function<T, P> toProto) {
+			this.parser = parser;
+			this.fromProto = fromProto;
+			this.toProto = toProto;
+		}
+
+		public T read(InputStream in) throws IOException {
+			P proto = parser.parseFrom(in);
+			try {
+				return fromProto.apply(proto);
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+		}
+
+		public void write(T message, OutputStream out) throws IOException {
+			toProto.apply(message).writeTo(out);
+		}
+	}
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+	private static final Map<Class<?>, Converter<?, ?>> converters = new HashMap<>();
+
+	static {
+		register(SerializedKey.class, RestMessages.SerializedKey.parser(), RestMessageConverters::fromProto, RestMessageConverters::toProto);
+		register(UsernameAndPassword.class, RestMessages.UsernameAndPassword.parser(), RestMessageConverters::fromProto, RestMessageConverters::toProto);
+		register(Policy.class, RestMessages.Policy.parser(), RestMessageConverters::fromProto, RestMessageConverters::toProto);
+
+		// Pesto and PABC IdPs
+		register(OPRFRequest.class, RestMessages.OPRFRequest.parser(), proto -> {
+			OPRFRequest message = new OPRFRequest();
+			message.setSsid(string(proto.hasSsid(), proto.getSsid()));
+			message.setUsername(string(proto.hasUsername(), proto.getUsername()));
+			message.setElement(bytes(proto.hasElement(), proto.getElement()));
+			message.setMfaToken(string(proto.hasMfaToken(), proto.getMfaToken()));
+			message.setMfaType(string(proto.hasMfaType(), proto.getMfaType()));
+			message.setSessionCookie(bytes(proto.hasSessionCookie(), proto.getSessionCookie()));
+			return message;
+		}, message -> {
+			RestMessages.OPRFRequest.Builder builder = RestMessages.OPRFRequest.newBuilder();
+			set(message.getSsid(), builder::setSsid);
+			set(message.getUsername(), builder::setUsername);
+			set(message.getElement(), builder::setElement);
+			set(message.getMfaToken(), builder::setMfaToken);
+			set(message.getMfaType(), builder::setMfaType);
+			set(message.getSessionCookie(), builder::setSessionCookie);
+			return builder.build();
+		});
+		register(OPRFRestResponse.class, RestMessages.OPRFRestResponse.parser(), proto -> {
+			OPRFRestResponse message = new OPRFRestResponse();
+			message.setSsid(string(proto.hasSsid(), proto.getSsid()));
+			message.setElement(bytes(proto.hasElement(), proto.getElement()));
+			message.setSessionCookie(string(proto.hasSessionCookie(), proto.getSessionCookie()));
+			return message;
+		}, message -> {
+			RestMessages.OPRFRestResponse.Builder builder = RestMessages.OPRFRestResponse.newBuilder();
+			set(message.getSsid(), builder::setSsid);
+			set(message.getElement(), builder::setElement);
+			set(message.getSessionCookie(), builder::setSessionCookie);
+			return builder.build();
+		});
+		register(FinishRegistrationRequest.class, RestMessages.FinishRegistrationRequest.parser(), proto -> {
+			FinishRegistrationRequest message = new FinishRegistrationRequest();
+			message.setUsername(string(proto.hasUsername(), proto.getUsername()));
+			message.setPublicKey(proto.hasPublicKey() ? fromProto(proto.getPublicKey()) : null);
+			message.setSignature(bytes(proto.hasSignature(), proto.getSignature()));
+			message.setSalt(proto.getSalt());
+			message.setIdProof(string(proto.hasIdProof(), proto.getIdProof()));
+			message.setSessionCookie(bytes(proto.hasSessionCookie(), proto.getSessionCookie()));
+			return message;
+		}, message -> {
+			RestMessages.FinishRegistrationRequest.Builder builder = RestMessages.FinishRegistrationRequest.newBuilder()
+					.setSalt(message.getSalt());
+			set(message.getUsername(), builder::setUsername);
+			set(message.getPublicKey(), RestMessageConverters::toProto, builder::setPublicKey);
+			set(message.getSignature(), builder::setSignature);
+			set(message.getIdProof(), builder::setIdProof);
+			set(message.getSessionCookie(), builder::setSessionCookie);
+			return builder.build();
+		});
+		register(ChangePasswordRequest.class, RestMessages.ChangePasswordRequest.parser(), proto -> {
+			ChangePasswordRequest message = new ChangePasswordRequest();
+			message.setUsername(string(proto.hasUsername(), proto.getUsername()));
+			message.setPublicKey(proto.hasPublicKey() ? fromProto(proto.getPublicKey()) : null);
+			message.setOldSignature(bytes(proto.hasOldSignature(), proto.getOldSignature()));
+			message.setNewSignature(bytes(proto.hasNewSignature(), proto.getNewSignature()));
+			message.setSalt(proto.getSalt());
+			message.setSessionCookie(bytes(proto.hasSessionCookie(), proto.getSessionCookie()));
+			return message;
+		}, message -> {
+			RestMessages.ChangePasswordRequest.Builder builder = RestMessages.ChangePasswordRequest.newBuilder()
+					.setSalt(message.getSalt());
+			set(message.getUsername(), builder::setUsername);
+			set(message.getPublicKey(), RestMessageConverters::toProto, builder::setPublicKey);
+			set(message.getOldSignature(), builder::setOldSignature);
+			set(message.getNewSignature(), builder::setNewSignature);
+			set(message.getSessionCookie(), builder::setSessionCookie);
+			return builder.build();
+		});
+		register(AddAttributesRequest.class, RestMessages.AddAttributesRequest.parser(), proto -> {
+			AddAttributesRequest message = new AddAttributesRequest();
+			message.setUsername(string(proto.hasUsername(), proto.getUsername()));
+			message.setSaltIndex(proto.getSaltIndex());
+			message.setSignature(bytes(proto.hasSignature(), proto.getSignature()));
+			message.setIdProof(string(proto.hasIdProof(), proto.getIdProof()));
+			message.setSessionCookie(bytes(proto.hasSessionCookie(), proto.getSessionCookie()));
+			return message;
+		}, message -> {
+			RestMessages.AddAttributesRequest.Builder builder = RestMessages.AddAttributesRequest.newBuilder()
+					.setSaltIndex(message.getSaltIndex());
+			set(message.getUsername(), builder::setUsername);
+			set(message.getSignature(), builder::setSignature);
+			set(message.getIdProof(), builder::setIdProof);
+			set(message.getSessionCookie(), builder::setSessionCookie);
+			return builder.build();
+		});
+		register(GetAllAttributesRequest.class, RestMessages.GetAllAttributesRequest.parser(), proto -> {
+			GetAllAttributesRequest message = new GetAllAttributesRequest();
+			message.setUsername(string(proto.hasUsername(), proto.getUsername()));
+			message.setSaltIndex(proto.getSaltIndex());
+			message.setSignature(bytes(proto.hasSignature(), proto.getSignature()));
+			message.setSessionCookie(bytes(proto.hasSessionCookie(), proto.getSessionCookie()));
+			return message;
+		}, message -> {
+			RestMessages.GetAllAttributesRequest.Builder builder = RestMessages.GetAllAttributesRequest.newBuilder()
+					.setSaltIndex(message.getSaltIndex());
+			set(message.getUsername(), builder::setUsername);
+			set(message.getSignature(), builder::setSignature);
+			set(message.getSessionCookie(), builder::setSessionCookie);
+			return builder.build();
+		});
+		register(DeleteAttributesRequest.class, RestMessages.DeleteAttributesRequest.parser(), proto -> {
+			DeleteAttributesRequest message = new DeleteAttributesRequest();
+			message.setUsername(string(proto.hasUsername(), proto.getUsername()));
+			message.setSaltIndex(proto.getSaltIndex());
+			message.setSignature(bytes(proto.hasSignature(), proto.getSignature()));
+			message.setAttributes(new ArrayList<>(proto.getAttributesList()));
+			message.setSessionCookie(bytes(proto.hasSessionCookie(), proto.getSessionCookie()));
+			return message;
+		}, message -> {
+			RestMessages.DeleteAttributesRequest.Builder builder = RestMessages.DeleteAttributesRequest.newBuilder()
+					.setSaltIndex(message.getSaltIndex());
+			set(message.getUsername(), builder::setUsername);
+			set(message.getSignature(), builder::setSignature);
+			set(message.getAttributes(), builder::addAllAttributes);
+			set(message.getSessionCookie(), builder::setSessionCookie);
+			return builder.build();
+		});
+		register(DeleteAccountRequest.class, RestMessages.DeleteAccountRequest.parser(), proto -> {
+			DeleteAccountRequest message = new DeleteAccountRequest();
+			message.setUsername(string(proto.hasUsername(), proto.getUsername()));
+			message.setSaltIndex(proto.getSaltIndex());
+			message.setSignature(bytes(proto.hasSignature(), proto.getSignature()));
+			message.setSessionCookie(bytes(proto.hasSessionCookie(), proto.getSessionCookie()));
+			return message;
+		}, message -> {
+			RestMessages.DeleteAccountRequest.Builder builder = RestMessages.DeleteAccountRequest.newBuilder()
+					.setSaltIndex(message.getSaltIndex());
+			set(message.getUsername(), builder::setUsername);
+			set(message.getSignature(), builder::setSignature);
+			set(message.getSessionCookie(), builder::setSessionCookie);
+			return builder.build();
+		});
+		register(SecondFactorRequest.class, RestMessages.SecondFactorRequest.parser(), proto -> {
+			SecondFactorRequest message = new SecondFactorRequest();
+			message.setUsername(string(proto.hasUsername(), proto.getUsername()));
+			message.setSaltIndex(proto.getSaltIndex());
+			message.setSignature(bytes(proto.hasSignature(), proto.getSignature()));
+			message.setType(string(proto.hasType(), proto.getType()));
+			message.setSessionCookie(bytes(proto.hasSessionCookie(), proto.getSessionCookie()));
+			return message;
+		}, message -> {
+			RestMessages.SecondFactorRequest.Builder builder = RestMessages.SecondFactorRequest.newBuilder()
+					.setSaltIndex(message.getSaltIndex());
+			set(message.getUsername(), builder::setUsername);
+			set(message.getSignature(), builder::setSignature);
+			set(message.getType(), builder::setType);
+			set(message.getSessionCookie(), builder::setSessionCookie);
+			return builder.build();
+		});
+		register(SecondFactorConfirmation.class, RestMessages.SecondFactorConfirmation.parser(), proto -> {
+			SecondFactorConfirmation message = new SecondFactorConfirmation();
+			message.setUsername(string(proto.hasUsername(), proto.getUsername()));
+			message.setSaltIndex(proto.getSaltIndex());
+			message.setSignature(bytes(proto.hasSignature(), proto.getSignature()));
+			message.setToken(string(proto.hasToken(), proto.getToken()));
+			message.setType(string(proto.hasType(), proto.getType()));
+			message.setSessionCookie(bytes(proto.hasSessionCookie(), proto.getSessionCookie()));
+			return message;
+		}, message -> {
+			RestMessages.SecondFactorConfirmation.Builder builder = RestMessages.SecondFactorConfirmation.newBuilder()
+					.setSaltIndex(message.getSaltIndex());
+			set(message.getUsername(), builder::setUsername);
+			set(message.getSignature(), builder::setSignature);
+			set(message.getToken(), builder::setToken);
+			set(message.getType(), builder::setType);
+			set(message.getSessionCookie(), builder::setSessionCookie);
+			return builder.build();
+		});
+		register(SecondFactorDelete.class, RestMessages.SecondFactorDelete.parser(), proto -> {
+			SecondFactorDelete message = new SecondFactorDelete();
+			message.setUsername(string(proto.hasUsername(), proto.getUsername()));
+			message.setSaltIndex(proto.getSaltIndex());
+			message.setSignature(bytes(proto.hasSignature(), proto.getSignature()));
+			message.setToken(string(proto.hasToken(), proto.getToken()));
+			message.setType(string(proto.hasType(), proto.getType()));
+			message.setSessionCookie(bytes(proto.hasSessionCookie(), proto.getSessionCookie()));
+			return message;
+		}, message -> {
+			RestMessages.SecondFactorDelete.Builder builder = RestMessages.SecondFactorDelete.newBuilder()
+					.setSaltIndex(message.getSaltIndex());
+			set(message.getUsername(), builder::setUsername);
+			set(message.getSignature(), builder::setSignature);
+			set(message.getToken(), builder::setToken);
+			set(message.getType(), builder::setType);
+			set(message.getSessionCookie(), builder::setSessionCookie);
+			return builder.build();
+		});
+		register(SignatureAndPolicy.class, RestMessages.SignatureAndPolicy.parser(), proto -> {
+			SignatureAndPolicy message = new SignatureAndPolicy();
+			message.setUsername(string(proto.hasUsername(), proto.getUsername()));
+			message.setSaltIndex(proto.getSaltIndex());
+			message.setSignature(bytes(proto.hasSignature(), proto.getSignature()));
+			message.setPolicy(proto.hasPolicy() ? fromProto(proto.getPolicy()) : null);
+			message.setSessionCookie(bytes(proto.hasSessionCookie(), proto.getSessionCookie()));
+			return message;
+		}, message -> {
+			RestMessages.SignatureAndPolicy.Builder builder = RestMessages.SignatureAndPolicy.newBuilder()
+					.setSaltIndex(message.getSaltIndex());
+			set(message.getUsername(), builder::setUsername);
+			set(message.getSignature(), builder::setSignature);
+			set(message.getPolicy(), RestMessageConverters::toProto, builder::setPolicy);
+			set(message.getSessionCookie(), builder::setSessionCookie);
+			return builder.build();
+		});
+		register(SignatureAndTimestamp.class, RestMessages.SignatureAndTimestamp.parser(), proto -> {
+			SignatureAndTimestamp message = new SignatureAndTimestamp();
+			message.setUsername(string(proto.hasUsername(), proto.getUsername()));
+			message.setSaltIndex(proto.getSaltIndex());
+			message.setSignature(bytes(proto.hasSignature(), proto.getSignature()));
+			message.setTimestamp(proto.getTimestamp());
+			message.setSessionCookie(bytes(proto.hasSessionCookie(), proto.getSessionCookie()));
+			return message;
+		}, message -> {
+			RestMessages.SignatureAndTimestamp.Builder builder = RestMessages.SignatureAndTimestamp.newBuilder()
+					.setSaltIndex(message.getSaltIndex())
+					.setTimestamp(message.getTimestamp());
+			set(message.getUsername(), builder::setUsername);
+			set(message.getSignature(), builder::setSignature);
+			set(message.getSessionCookie(), builder::setSessionCookie);
+			return builder.build();
+		});
+		register(AttributeMap.class, RestMessages.AttributeMap.parser(), proto -> {
+			Map<String, Attribute> attributes = new LinkedHashMap<>();
+			proto.getAttributesMap().forEach((name, attribute) -> attributes.put(name, new Attribute(attribute)));
+			return new AttributeMap(attributes);
+		}, message -> {
+			RestMessages.AttributeMap.Builder builder = RestMessages.AttributeMap.newBuilder();
+			if (message.getAttributes() != null) {
+				message.getAttributes().forEach((name, attribute) -> builder.putAttributes(name, attribute.toProto()));
+			}
+			return builder.build();
+		});
+
+		// Between IdPs
+		register(AddPartialSignatureRequest.class, RestMessages.AddPartialSignatureRequest.parser(), proto -> {
+			AddPartialSignatureRequest message = new AddPartialSignatureRequest();
+			message.setSsid(string(proto.hasSsid(), proto.getSsid()));
+			message.setString(bytes(proto.hasString(), proto.getString()));
+			return message;
+		}, message -> {
+			RestMessages.AddPartialSignatureRequest.Builder builder = RestMessages.AddPartialSignatureRequest.newBuilder();
+			set(message.getSsid(), builder::setSsid);
+			set(message.getString(), builder::setString);
+			return builder.build();
+		});
+		register(AddPartialMFARequest.class, RestMessages.AddPartialMFARequest.parser(), proto -> {
+			AddPartialMFARequest message = new AddPartialMFARequest();
+			message.setSsid(string(proto.hasSsid(), proto.getSsid()));
+			message.setString(string(proto.hasString(), proto.getString()));
+			message.setType(string(proto.hasType(), proto.getType()));
+			return message;
+		}, message -> {
+			RestMessages.AddPartialMFARequest.Builder builder = RestMessages.AddPartialMFARequest.newBuilder();
+			set(message.getSsid(), builder::setSsid);
+			set(message.getString(), builder::setString);
+			set(message.getType(), builder::setType);
+			return builder.build();
+		});
+		register(AddMasterShare.class, RestMessages.AddMasterShare.parser(), proto -> {
+			AddMasterShare message = new AddMasterShare();
+			message.setNewSsid(string(proto.hasNewSsid(), proto.getNewSsid()));
+			message.setNewShare(bytes(proto.hasNewShare(), proto.getNewShare()));
+			return message;
+		}, message -> {
+			RestMessages.AddMasterShare.Builder builder = RestMessages.AddMasterShare.newBuilder();
+			set(message.getNewSsid(), builder::setNewSsid);
+			set(message.getNewShare(), builder::setNewShare);
+			return builder.build();
+		});
+		register(SetKeyShare.class, RestMessages.SetKeyShare.parser(), proto -> {
+			SetKeyShare message = new SetKeyShare();
+			message.setId(proto.getId());
+			message.setShares(bytes(proto.hasShares(), proto.getShares()));
+			return message;
+		}, message -> {
+			RestMessages.SetKeyShare.Builder builder = RestMessages.SetKeyShare.newBuilder()
+					.setId(message.getId());
+			set(message.getShares(), builder::setShares);
+			return builder.build();
+		});
+
+		// Password IdP
+		register(KeyAndCert.class, RestMessages.KeyAndCert.parser(), proto -> {
+			KeyAndCert message = new KeyAndCert();
+			message.setPrivKey(proto.hasPrivKey() ? fromProto(proto.getPrivKey()) : null);
+			message.setCertificate(string(proto.hasCertificate(), proto.getCertificate()));
+			return message;
+		}, message -> {
+			RestMessages.KeyAndCert.Builder builder = RestMessages.KeyAndCert.newBuilder();
+			set(message.getPrivKey(), RestMessageConverters::toProto, builder::setPrivKey);
+			set(message.getCertificate(), builder::setCertificate);
+			return builder.build();
+		});
+		register(UsernameAndCookie.class, RestMessages.UsernameAndCookie.parser(), proto -> {
+			UsernameAndCookie message = new UsernameAndCookie();
+			message.setUsername(string(proto.hasUsername(), proto.getUsername()));
+			message.setCookie(bytes(proto.hasCookie(), proto.getCookie()));
+			return message;
+		}, message -> {
+			RestMessages.UsernameAndCookie.Builder builder = RestMessages.UsernameAndCookie.newBuilder();
+			set(message.getUsername(), builder::setUsername);
+			set(message.getCookie(), builder::setCookie);
+			return builder.build();
+		});
+		register(AuthenticationAndIDProof.class, RestMessages.AuthenticationAndIDProof.parser(), proto -> {
+			AuthenticationAndIDProof message = new AuthenticationAndIDProof();
+			message.setUsername(string(proto.hasUsername(), proto.getUsername()));
+			message.setIdentityProof(proto.hasIdentityProof() ? identityProof(proto.getIdentityProof()) : null);
+			message.setCookie(bytes(proto.hasCookie(), proto.getCookie()));
+			return message;
+		}, message -> {
+			RestMessages.AuthenticationAndIDProof.Builder builder = RestMessages.AuthenticationAndIDProof.newBuilder();
+			set(message.getUsername(), builder::setUsername);
+			set(message.getIdentityProof(), RestMessageConverters::identityProof, builder::setIdentityProof);
+			set(message.getCookie(), builder::setCookie);
+			return builder.build();
+		});
+		register(AuthenticationAndPolicy.class, RestMessages.AuthenticationAndPolicy.parser(), proto -> {
+			AuthenticationAndPolicy message = new AuthenticationAndPolicy();
+			message.setUsername(string(proto.hasUsername(), proto.getUsername()));
+			message.setPolicy(proto.hasPolicy() ? fromProto(proto.getPolicy()) : null);
+			message.setCookie(bytes(proto.hasCookie(), proto.getCookie()));
+			return message;
+		}, message -> {
+			RestMessages.AuthenticationAndPolicy.Builder builder = RestMessages.AuthenticationAndPolicy.newBuilder();
+			set(message.getUsername(), builder::setUsername);
+			set(message.getPolicy(), RestMessageConverters::toProto, builder::setPolicy);
+			set(message.getCookie(), builder::setCookie);
+			return builder.build();
+		});
+		register(AuthenticationAndAttributes.class, RestMessages.AuthenticationAndAttributes.parser(), proto -> {
+			AuthenticationAndAttributes message = new AuthenticationAndAttributes();
+			message.setUsername(string(proto.hasUsername(), proto.getUsername()));
+			message.setAttributes(new ArrayList<>(proto.getAttributesList()));
+			message.setCookie(bytes(proto.hasCookie(), proto.getCookie()));
+			return message;
+		}, message -> {
+			RestMessages.AuthenticationAndAttributes.Builder builder = RestMessages.AuthenticationAndAttributes.newBuilder();
+			set(message.getUsername(), builder::setUsername);
+			set(message.getAttributes(), builder::addAllAttributes);
+			set(message.getCookie(), builder::setCookie);
+			return builder.build();
+		});
+		register(PasswordAuthentication.class, RestMessages.PasswordAuthentication.parser(), proto -> {
+			PasswordAuthentication message = new PasswordAuthentication();
+			message.setUsernameAndPassword(proto.hasUsernameAndPassword() ? fromProto(proto.getUsernameAndPassword()) : null);
+			message.setCookie(bytes(proto.hasCookie(), proto.getCookie()));
+			return message;
+		}, message -> {
+			RestMessages.PasswordAuthentication.Builder builder = RestMessages.PasswordAuthentication.newBuilder();
+			set(message.getUsernameAndPassword(), RestMessageConverters::toProto, builder::setUsernameAndPassword);
+			set(message.getCookie(), builder::setCookie);
+			return builder.build();
+		});
+		register(PasswordAuthenticationAndIDProof.class, RestMessages.PasswordAuthenticationAndIDProof.parser(), proto -> {
+			PasswordAuthenticationAndIDProof message = new PasswordAuthenticationAndIDProof();
+			message.setUsernameAndPassword(proto.hasUsernameAndPassword() ? fromProto(proto.getUsernameAndPassword()) : null);
+			message.setCookie(bytes(proto.hasCookie(), proto.getCookie()));
+			message.setIdentityProof(proto.hasIdentityProof() ? identityProof(proto.getIdentityProof()) : null);
+			return message;
+		}, message -> {
+			RestMessages.PasswordAuthenticationAndIDProof.Builder builder = RestMessages.PasswordAuthenticationAndIDProof.newBuilder();
+			set(message.getUsernameAndPassword(), RestMessageConverters::toProto, builder::setUsernameAndPassword);
+			set(message.getCookie(), builder::setCookie);
+			set(message.getIdentityProof(), RestMessageConverters::identityProof, builder::setIdentityProof);
+			return builder.build();
+		});
+		register(PasswordAuthenticationAndAttributes.class, RestMessages.PasswordAuthenticationAndAttributes.parser(), proto -> {
+			PasswordAuthenticationAndAttributes message = new PasswordAuthenticationAndAttributes();
+			message.setUsernameAndPassword(proto.hasUsernameAndPassword() ? fromProto(proto.getUsernameAndPassword()) : null);
+			message.setCookie(bytes(proto.hasCookie(), proto.getCookie()));
+			message.setAttributes(new ArrayList<>(proto.getAttributesList()));
+			return message;
+		}, message -> {
+			RestMessages.PasswordAuthenticationAndAttributes.Builder builder = RestMessages.PasswordAuthenticationAndAttributes.newBuilder();
+			set(message.getUsernameAndPassword(), RestMessageConverters::toProto, builder::setUsernameAndPassword);
+			set(message.getCookie(), builder::setCookie);
+			set(message.getAttributes(), builder::addAllAttributes);
+			return builder.build();
+		});
+		register(PasswordAuthenticationAndPassword.class, RestMessages.PasswordAuthenticationAndPassword.parser(), proto -> {
+			PasswordAuthenticationAndPassword message = new PasswordAuthenticationAndPassword();
+			message.setUsernameAndPassword(proto.hasUsernameAndPassword() ? fromProto(proto.getUsernameAndPassword()) : null);
+			message.setCookie(bytes(proto.hasCookie(), proto.getCookie()));
+			message.setNewPassword(string(proto.hasNewPassword(), proto.getNewPassword()));
+			return message;
+		}, message -> {
+			RestMessages.PasswordAuthenticationAndPassword.Builder builder = RestMessages.PasswordAuthenticationAndPassword.newBuilder();
+			set(message.getUsernameAndPassword(), RestMessageConverters::toProto, builder::setUsernameAndPassword);
+			set(message.getCookie(), builder::setCookie);
+			set(message.getNewPassword(), builder::setNewPassword);
+			return builder.build();
+		});
+		register(PasswordAuthenticationAndPolicy.class, RestMessages.PasswordAuthenticationAndPolicy.parser(), proto -> {
+			PasswordAuthenticationAndPolicy message = new PasswordAuthenticationAndPolicy();
+			message.setUsernameAndPassword(proto.hasUsernameAndPassword() ? fromProto(proto.getUsernameAndPassword()) : null);
+			message.setCookie(bytes(proto.hasCookie(), proto.getCookie()));
+			message.setPolicy(proto.hasPolicy() ? fromProto(proto.getPolicy()) : null);
+			return message;
+		}, message -> {
+			RestMessages.PasswordAuthenticationAndPolicy.Builder builder = RestMessages.PasswordAuthenticationAndPolicy.newBuilder();
+			set(message.getUsernameAndPassword(), RestMessageConverters::toProto, builder::setUsernameAndPassword);
+			set(message.getCookie(), builder::setCookie);
+			set(message.getPolicy(), RestMessageConverters::toProto, builder::setPolicy);
+			return builder.build();
+		});
+		register(PasswordAuthenticationAndMFAType.class, RestMessages.PasswordAuthenticationAndMFAType.parser(), proto -> {
+			PasswordAuthenticationAndMFAType message = new PasswordAuthenticationAndMFAType();
+			message.setUsernameAndPassword(proto.hasUsernameAndPassword() ? fromProto(proto.getUsernameAndPassword()) : null);
+			message.setCookie(bytes(proto.hasCookie(), proto.getCookie()));
+			message.setType(string(proto.hasType(), proto.getType()));
+			return message;
+		}, message -> {
+			RestMessages.PasswordAuthenticationAndMFAType.Builder builder = RestMessages.PasswordAuthenticationAndMFAType.newBuilder();
+			set(message.getUsernameAndPassword(), RestMessageConverters::toProto, builder::setUsernameAndPassword);
+			set(message.getCookie(), builder::setCookie);
+			set(message.getType(), builder::setType);
+			return builder.build();
+		});
+		register(PasswordAuthenticationAndMFAToken.class, RestMessages.PasswordAuthenticationAndMFAToken.parser(), proto -> {
+			PasswordAuthenticationAndMFAToken message = new PasswordAuthenticationAndMFAToken();
+			message.setUsernameAndPassword(proto.hasUsernameAndPassword() ? fromProto(proto.getUsernameAndPassword()) : null);
+			message.setCookie(bytes(proto.hasCookie(), proto.getCookie()));
+			message.setToken(string(proto.hasToken(), proto.getToken()));
+			message.setType(string(proto.hasType(), proto.getType()));
+			return message;
+		}, message -> {
+			RestMessages.PasswordAuthenticationAndMFAToken.Builder builder = RestMessages.PasswordAuthenticationAndMFAToken.newBuilder();
+			set(message.getUsernameAndPassword(), RestMessageConverters::toProto, builder::setUsernameAndPassword);
+			set(message.getCookie(), builder::setCookie);
+			set(message.getToken(), builder::setToken);
+			set(message.getType(), builder::setType);
+			return builder.build();
+		});
+		register(PasswordAuthenticationAndMFATokenNoCookie.class, RestMessages.PasswordAuthenticationAndMFATokenNoCookie.parser(), proto -> {
+			PasswordAuthenticationAndMFATokenNoCookie message = new PasswordAuthenticationAndMFATokenNoCookie();
+			message.setUsernameAndPassword(proto.hasUsernameAndPassword() ? fromProto(proto.getUsernameAndPassword()) : null);
+			message.setToken(string(proto.hasToken(), proto.getToken()));
+			message.setType(string(proto.hasType(), proto.getType()));
+			return message;
+		}, message -> {
+			RestMessages.PasswordAuthenticationAndMFATokenNoCookie.Builder builder = RestMessages.PasswordAuthenticationAndMFATokenNoCookie.newBuilder();
+			set(message.getUsernameAndPassword(), RestMessageConverters::toProto, builder::setUsernameAndPassword);
+			set(message.getToken(), builder::setToken);
+			set(message.getType(), builder::setType);
+			return builder.build();
+		});
+	}
+
+	private RestMessageConverters() {
+	}
+
+	/**
+	 * @return The converter of a message class, or null if it can only be sent as JSON.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Converter<T, ?> get(Class<T> type) {
+		return (Converter<T, ?>) converters.get(type);
+	}
+
+	private static <T, P extends Message> void register(Class<T> type, Parser<P> parser, Function<P, T> fromProto, Function<T, P> toProto) {
+		converters.put(type, new Converter<>(parser, fromProto, toProto));
+	}
+
+	private static SerializedKey fromProto(RestMessages.SerializedKey proto) {
+		SerializedKey key = new SerializedKey();
+		key.setAlgorithm(string(proto.hasAlgorithm(), proto.getAlgorithm()));
+		key.setFormat(string(proto.hasFormat(), proto.getFormat()));
+		key.setEncoded(string(proto.hasEncoded(), proto.getEncoded()));
+		return key;
+	}
+
+	private static RestMessages.SerializedKey toProto(SerializedKey key) {
+		RestMessages.SerializedKey.Builder builder = RestMessages.SerializedKey.newBuilder();
+		set(key.getAlgorithm(), builder::setAlgorithm);
+		set(key.getFormat(), builder::setFormat);
+		set(key.getEncoded(), builder::setEncoded);
+		return builder.build();
+	}
+
+	private static UsernameAndPassword fromProto(RestMessages.UsernameAndPassword proto) {
+		return new UsernameAndPassword(string(proto.hasUsername(), proto.getUsername()),
+				string(proto.hasPassword(), proto.getPassword()));
+	}
+
+	private static RestMessages.UsernameAndPassword toProto(UsernameAndPassword usernameAndPassword) {
+		RestMessages.UsernameAndPassword.Builder builder = RestMessages.UsernameAndPassword.newBuilder();
+		set(usernameAndPassword.getUsername(), builder::setUsername);
+		set(usernameAndPassword.getPassword(), builder::setPassword);
+		return builder.build();
+	}
+
+	private static Policy fromProto(RestMessages.Policy proto) {
+		List<Predicate> predicates = new ArrayList<>();
+		for (RestMessages.Predicate predicate : proto.getPredicatesList()) {
+			predicates.add(new Predicate(string(predicate.hasAttributeName(), predicate.getAttributeName()),
+					fromProto(predicate.getOperation()),
+					predicate.hasValue() ? new Attribute(predicate.getValue()) : null,
+					predicate.hasExtraValue() ? new Attribute(predicate.getExtraValue()) : null));
+		}
+		return new Policy(predicates, string(proto.hasPolicyId(), proto.getPolicyId()));
+	}
+
+	private static RestMessages.Policy toProto(Policy policy) {
+		RestMessages.Policy.Builder builder = RestMessages.Policy.newBuilder();
+		if (policy.getPredicates() != null) {
+			for (Predicate predicate : policy.getPredicates()) {
+				RestMessages.Predicate.Builder predicateBuilder = RestMessages.Predicate.newBuilder()
+						.setOperation(toProto(predicate.getOperation()));
+				set(predicate.getAttributeName(), predicateBuilder::setAttributeName);
+				set(predicate.getValue(), Attribute::toProto, predicateBuilder::setValue);
+				set(predicate.getExtraValue(), Attribute::toProto, predicateBuilder::setExtraValue);
+				builder.addPredicates(predicateBuilder);
+			}
+		}
+		set(policy.getPolicyId(), builder::setPolicyId);
+		return builder.build();
+	}
+
+	private static Operation fromProto(RestMessages.Operation operation) {
+		switch (operation) {
+			case LESSTHANOREQUAL: return Operation.LESSTHANOREQUAL;
+			case EQ: return Operation.EQ;
+			case GREATERTHANOREQUAL: return Operation.GREATERTHANOREQUAL;
+			case REVEAL: return Operation.REVEAL;
+			case INRANGE: return Operation.INRANGE;
+			default:
+				return null;
+		}
+	}
+
+	private static RestMessages.Operation toProto(Operation operation) {
+		if (operation == null) {
+			return RestMessages.Operation.OPERATION_UNSPECIFIED;
+		}
+		switch (operation) {
+			case LESSTHANOREQUAL: return RestMessages.Operation.LESSTHANOREQUAL;
+			case EQ: return RestMessages.Operation.EQ;
+			case GREATERTHANOREQUAL: return RestMessages.Operation.GREATERTHANOREQUAL;
+			case REVEAL: return RestMessages.Operation.REVEAL;
+			case INRANGE: return RestMessages.Operation.INRANGE;
+			default:
+				throw new IllegalArgumentException("No protobuf value for operation " + operation);
+		}
+	}
+
+	// Identity proofs are polymorphic, so they keep their JSON form
+	private static ByteString identityProof(IdentityProof proof) {
+		return ByteString.copyFromUtf8(proof.getStringRepresentation());
+	}
+
+	private static IdentityProof identityProof(ByteString json) {
+		try {
+			return mapper.readValue(json.toString(StandardCharsets.UTF_8), IdentityProof.class);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static String string(boolean present, String value) {
+		return present ? value : null;
+	}
+
+	private static byte[] bytes(boolean present, ByteString value) {
+		return present ? value.toByteArray() : null;
+	}
+
+	private static void set(String value, Function<String, ?> setter) {
+		if (value != null) {
+			setter.apply(value);
+		}
+	}
+
+	private static void set(byte[] value, Function<ByteString, ?> setter) {
+		if (value != null) {
+			setter.apply(ByteString.copyFrom(value));
+		}
+	}
+
+	private static void set(List<String> values, Function<Iterable<String>, ?> setter) {
+		if (values != null) {
+			setter.apply(values);
+		}
+	}
+
+	private static <V, P> void set(V value, Function<V, P> toProto, Function<P, ?> setter) {
+		if (value != null) {
+			setter.apply(toProto.apply(value));
+		}
+	}
+}
@@ -4,15 +4,15 @@ public class SecondFactorConfirmation {
 
 	private String username;
 	private long saltIndex;
-	private String signature;
+	private byte[] signature;
 	private String token;
 	private String type;
-	private String sessionCookie;
+	private byte[] sessionCookie;
 	
 	public SecondFactorConfirmation() {
 	}
 	
-	public SecondFactorConfirmation(String username, String cookie, long saltIndex, String signature, String token, String type) {
+	public SecondFactorConfirmation(String username, byte[] cookie, long saltIndex, byte[] signature, String token, String type) {
 		this.username = username;
 		this.saltIndex = saltIndex;
 		this.signature = signature;
@@ -37,11 +37,11 @@ public class SecondFactorConfirmation {
 		this.saltIndex = saltIndex;
 	}
 
-	public String getSignature() {
+	public byte[] getSignature() {
 		return signature;
 	}
 
-	public void setSignature(String signature) {
+	public void setSignature(byte[] signature) {
 		this.signature = signature;
 	}
 
@@ -61,11 +61,11 @@ public class SecondFactorConfirmation {
 		this.type = type;
 	}
 
-	public String getSessionCookie() {
+	public byte[] getSessionCookie() {
 		return sessionCookie;
 	}
 
-	public void setSessionCookie(String sessionCookie) {
+	public void setSessionCookie(byte[] sessionCookie) {
 		this.sessionCookie = sessionCookie;
 	}
 
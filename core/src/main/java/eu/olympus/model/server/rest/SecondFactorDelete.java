@@ -3,14 +3,14 @@ package eu.olympus.model.server.rest;
 public class SecondFactorDelete {
   private String username;
   private long saltIndex;
-  private String signature;
+  private byte[] signature;
   private String token;
   private String type;
-  private String sessionCookie;
+  private byte[] sessionCookie;
 
   public SecondFactorDelete() {}
 
-  public SecondFactorDelete(String username, String cookie, long saltIndex, String signature, String token, String type) {
+  public SecondFactorDelete(String username, byte[] cookie, long saltIndex, byte[] signature, String token, String type) {
 		this.username = username;
 		this.saltIndex = saltIndex;
 		this.signature = signature;
@@ -35,11 +35,11 @@ public class SecondFactorDelete {
     this.saltIndex = saltIndex;
   }
 
-  public String getSignature() {
+  public byte[] getSignature() {
     return signature;
   }
 
-  public void setSignature(String signature) {
+  public void setSignature(byte[] signature) {
     this.signature = signature;
   }
 
@@ -60,11 +60,11 @@ public class SecondFactorDelete {
     this.type = type;
   }
 
-  public String getSessionCookie() {
+  public byte[] getSessionCookie() {
     return sessionCookie;
   }
 
-  public void setSessionCookie(String sessionCookie) {
+  public void setSessionCookie(byte[] sessionCookie) {
     this.sessionCookie = sessionCookie;
   }
 }
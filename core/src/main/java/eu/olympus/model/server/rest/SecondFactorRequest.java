@@ -4,14 +4,14 @@ public class SecondFactorRequest {
 
 	private String username;
 	private long saltIndex;
-	private String signature;
+	private byte[] signature;
 	private String type;
-	private String sessionCookie;
+	private byte[] sessionCookie;
 	
 	public SecondFactorRequest() {
 	}
 	
-	public SecondFactorRequest(String username, String cookie, long saltIndex, String signature, String type) {
+	public SecondFactorRequest(String username, byte[] cookie, long saltIndex, byte[] signature, String type) {
 		this.username = username;
 		this.saltIndex = saltIndex;
 		this.signature = signature;
@@ -35,11 +35,11 @@ public class SecondFactorRequest {
 		this.saltIndex = saltIndex;
 	}
 
-	public String getSignature() {
+	public byte[] getSignature() {
 		return signature;
 	}
 
-	public void setSignature(String signature) {
+	public void setSignature(byte[] signature) {
 		this.signature = signature;
 	}
 
@@ -51,11 +51,11 @@ public class SecondFactorRequest {
 		this.type = type;
 	}
 
-	public String getSessionCookie() {
+	public byte[] getSessionCookie() {
 		return sessionCookie;
 	}
 
-	public void setSessionCookie(String sessionCookie) {
+	public void setSessionCookie(byte[] sessionCookie) {
 		this.sessionCookie = sessionCookie;
 	}
 
@@ -5,12 +5,12 @@ import javax.xml.bind.annotation.XmlRootElement;
 @XmlRootElement
 public class SetKeyShare {
   private int id;
-  private String share;
+  private byte[] share;
 
   public SetKeyShare() {
   }
 
-  public SetKeyShare(int id, String share) {
+  public SetKeyShare(int id, byte[] share) {
     this.id = id;
     this.share = share;
   }
@@ -23,11 +23,11 @@ public class SetKeyShare {
     this.id = id;
   }
 
-  public String getShares() {
+  public byte[] getShares() {
     return share;
   }
 
-  public void setShares(String share) {
+  public void setShares(byte[] share) {
     this.share = share;
   }
 }
@@ -6,14 +6,14 @@ public class SignatureAndPolicy {
 
 	private String username;
 	private long saltIndex;
-	private String signature;
+	private byte[] signature;
 	private Policy policy;
-	private String sessionCookie;
+	private byte[] sessionCookie;
 	
 	public SignatureAndPolicy() {
 	}
 	
-	public SignatureAndPolicy(String username, String sessionCookie, long saltIndex, String signature, Policy policy) {
+	public SignatureAndPolicy(String username, byte[] sessionCookie, long saltIndex, byte[] signature, Policy policy) {
 		this.username = username;
 		this.saltIndex = saltIndex;
 		this.signature = signature;
@@ -37,11 +37,11 @@ public class SignatureAndPolicy {
 		this.saltIndex = saltIndex;
 	}
 
-	public String getSignature() {
+	public byte[] getSignature() {
 		return signature;
 	}
 
-	public void setSignature(String signature) {
+	public void setSignature(byte[] signature) {
 		this.signature = signature;
 	}
 
@@ -53,11 +53,11 @@ public class SignatureAndPolicy {
 		this.policy = policy;
 	}
 
-	public String getSessionCookie() {
+	public byte[] getSessionCookie() {
 		return sessionCookie;
 	}
 
-	public void setSessionCookie(String sessionCookie) {
+	public void setSessionCookie(byte[] sessionCookie) {
 		this.sessionCookie = sessionCookie;
 	}
 }
@@ -4,15 +4,15 @@ public class SignatureAndTimestamp {
 
 	private String username;
 	private long saltIndex;
-	private String signature;
+	private byte[] signature;
 	private long timestamp;
-	private String sessionCookie;
+	private byte[] sessionCookie;
 
 	public SignatureAndTimestamp(){
 
 	}
 
-	public SignatureAndTimestamp(String username, String sessionCookie, long saltIndex, String signature,long timestamp) {
+	public SignatureAndTimestamp(String username, byte[] sessionCookie, long saltIndex, byte[] signature,long timestamp) {
 		this.username = username;
 		this.saltIndex = saltIndex;
 		this.signature = signature;
@@ -41,12 +41,12 @@ public class SignatureAndTimestamp {
 	}
 
 
-	public String getSignature() {
+	public byte[] getSignature() {
 		return signature;
 	}
 
 
-	public void setSignature(String signature) {
+	public void setSignature(byte[] signature) {
 		this.signature = signature;
 	}
 
@@ -58,11 +58,11 @@ public class SignatureAndTimestamp {
 		this.timestamp = timestamp;
 	}
 
-	public String getSessionCookie() {
+	public byte[] getSessionCookie() {
 		return sessionCookie;
 	}
 
-	public void setSessionCookie(String sessionCookie) {
+	public void setSessionCookie(byte[] sessionCookie) {
 		this.sessionCookie = sessionCookie;
 	}
 }
@@ -3,10 +3,10 @@ package eu.olympus.model.server.rest;
 public class UsernameAndCookie {
 
   private String username;
-  private String cookie;
+  private byte[] cookie;
 
 
-  public UsernameAndCookie(String username, String cookie) {
+  public UsernameAndCookie(String username, byte[] cookie) {
     this.username = username;
     this.cookie = cookie;
   }
@@ -22,11 +22,11 @@ public class UsernameAndCookie {
     this.username = username;
   }
 
-  public String getCookie() {
+  public byte[] getCookie() {
     return cookie;
   }
 
-  public void setCookie(String cookie) {
+  public void setCookie(byte[] cookie) {
     this.cookie = cookie;
   }
 
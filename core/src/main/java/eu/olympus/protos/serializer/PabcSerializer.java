@@ -248,6 +248,21 @@ public final class PabcSerializer {
      */
     eu.olympus.protos.serializer.PabcSerializer.PSzkTokenModifiedOrBuilder getPsZkTokenModOrBuilder();
 
+    /**
+     * <code>.eu.olympus.protos.serializer.AggregatedRangeProof aggregatedRangeProof = 6;</code>
+     * @return Whether the aggregatedRangeProof field is set.
+     */
+    boolean hasAggregatedRangeProof();
+    /**
+     * <code>.eu.olympus.protos.serializer.AggregatedRangeProof aggregatedRangeProof = 6;</code>
+     * @return The aggregatedRangeProof.
+     */
+    eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof getAggregatedRangeProof();
+    /**
+     * <code>.eu.olympus.protos.serializer.AggregatedRangeProof aggregatedRangeProof = 6;</code>
+     */
+    eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProofOrBuilder getAggregatedRangeProofOrBuilder();
+
     public eu.olympus.protos.serializer.PabcSerializer.PresentationToken.TokenCase getTokenCase();
   }
   /**
@@ -355,6 +370,19 @@ public final class PabcSerializer {
               tokenCase_ = 5;
               break;
             }
+            case 50: {
+              eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof.Builder subBuilder = null;
+              if (aggregatedRangeProof_ != null) {
+                subBuilder = aggregatedRangeProof_.toBuilder();
+              }
+              aggregatedRangeProof_ = input.readMessage(eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof.parser(), extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(aggregatedRangeProof_);
+                aggregatedRangeProof_ = subBuilder.buildPartial();
+              }
+
+              break;
+            }
             default: {
               if (!parseUnknownField(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -677,6 +705,32 @@ public final class PabcSerializer {
       return eu.olympus.protos.serializer.PabcSerializer.PSzkTokenModified.getDefaultInstance();
     }
 
+    public static final int AGGREGATEDRANGEPROOF_FIELD_NUMBER = 6;
+    private eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof aggregatedRangeProof_;
+    /**
+     * <code>.eu.olympus.protos.serializer.AggregatedRangeProof aggregatedRangeProof = 6;</code>
+     * @return Whether the aggregatedRangeProof field is set.
+     */
+    @java.lang.Override
+    public boolean hasAggregatedRangeProof() {
+      return aggregatedRangeProof_ != null;
+    }
+    /**
+     * <code>.eu.olympus.protos.serializer.AggregatedRangeProof aggregatedRangeProof = 6;</code>
+     * @return The aggregatedRangeProof.
+     */
+    @java.lang.Override
+    public eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof getAggregatedRangeProof() {
+      return aggregatedRangeProof_ == null ? eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof.getDefaultInstance() : aggregatedRangeProof_;
+    }
+    /**
+     * <code>.eu.olympus.protos.serializer.AggregatedRangeProof aggregatedRangeProof = 6;</code>
+     */
+    @java.lang.Override
+    public eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProofOrBuilder getAggregatedRangeProofOrBuilder() {
+      return getAggregatedRangeProof();
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -712,6 +766,9 @@ public final class PabcSerializer {
       if (tokenCase_ == 5) {
         output.writeMessage(5, (eu.olympus.protos.serializer.PabcSerializer.PSzkTokenModified) token_);
       }
+      if (aggregatedRangeProof_ != null) {
+        output.writeMessage(6, getAggregatedRangeProof());
+      }
       unknownFields.writeTo(output);
     }
 
@@ -753,6 +810,10 @@ public final class PabcSerializer {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(5, (eu.olympus.protos.serializer.PabcSerializer.PSzkTokenModified) token_);
       }
+      if (aggregatedRangeProof_ != null) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(6, getAggregatedRangeProof());
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -774,6 +835,11 @@ public final class PabcSerializer {
           other.internalGetRevealedAttributes())) return false;
       if (!internalGetRangePredTokens().equals(
           other.internalGetRangePredTokens())) return false;
+      if (hasAggregatedRangeProof() != other.hasAggregatedRangeProof()) return false;
+      if (hasAggregatedRangeProof()) {
+        if (!getAggregatedRangeProof()
+            .equals(other.getAggregatedRangeProof())) return false;
+      }
       if (!getTokenCase().equals(other.getTokenCase())) return false;
       switch (tokenCase_) {
         case 4:
@@ -809,6 +875,10 @@ public final class PabcSerializer {
         hash = (37 * hash) + RANGEPREDTOKENS_FIELD_NUMBER;
         hash = (53 * hash) + internalGetRangePredTokens().hashCode();
       }
+      if (hasAggregatedRangeProof()) {
+        hash = (37 * hash) + AGGREGATEDRANGEPROOF_FIELD_NUMBER;
+        hash = (53 * hash) + getAggregatedRangeProof().hashCode();
+      }
       switch (tokenCase_) {
         case 4:
           hash = (37 * hash) + PSZKTOKEN_FIELD_NUMBER;
@@ -984,6 +1054,12 @@ public final class PabcSerializer {
 
         internalGetMutableRevealedAttributes().clear();
         internalGetMutableRangePredTokens().clear();
+        if (aggregatedRangeProofBuilder_ == null) {
+          aggregatedRangeProof_ = null;
+        } else {
+          aggregatedRangeProof_ = null;
+          aggregatedRangeProofBuilder_ = null;
+        }
         tokenCase_ = 0;
         token_ = null;
         return this;
@@ -1032,6 +1108,11 @@ public final class PabcSerializer {
             result.token_ = psZkTokenModBuilder_.build();
           }
         }
+        if (aggregatedRangeProofBuilder_ == null) {
+          result.aggregatedRangeProof_ = aggregatedRangeProof_;
+        } else {
+          result.aggregatedRangeProof_ = aggregatedRangeProofBuilder_.build();
+        }
         result.tokenCase_ = tokenCase_;
         onBuilt();
         return result;
@@ -1088,6 +1169,9 @@ public final class PabcSerializer {
             other.internalGetRevealedAttributes());
         internalGetMutableRangePredTokens().mergeFrom(
             other.internalGetRangePredTokens());
+        if (other.hasAggregatedRangeProof()) {
+          mergeAggregatedRangeProof(other.getAggregatedRangeProof());
+        }
         switch (other.getTokenCase()) {
           case PSZKTOKEN: {
             mergePsZkToken(other.getPsZkToken());
@@ -1714,6 +1798,125 @@ public final class PabcSerializer {
         onChanged();;
         return psZkTokenModBuilder_;
       }
+
+      private eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof aggregatedRangeProof_;
+      private com.google.protobuf.SingleFieldBuilderV3<
+          eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof, eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof.Builder, eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProofOrBuilder> aggregatedRangeProofBuilder_;
+      /**
+       * <code>.eu.olympus.protos.serializer.AggregatedRangeProof aggregatedRangeProof = 6;</code>
+       * @return Whether the aggregatedRangeProof field is set.
+       */
+      public boolean hasAggregatedRangeProof() {
+        return aggregatedRangeProofBuilder_ != null || aggregatedRangeProof_ != null;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.AggregatedRangeProof aggregatedRangeProof = 6;</code>
+       * @return The aggregatedRangeProof.
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof getAggregatedRangeProof() {
+        if (aggregatedRangeProofBuilder_ == null) {
+          return aggregatedRangeProof_ == null ? eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof.getDefaultInstance() : aggregatedRangeProof_;
+        } else {
+          return aggregatedRangeProofBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.AggregatedRangeProof aggregatedRangeProof = 6;</code>
+       */
+      public Builder setAggregatedRangeProof(eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof value) {
+        if (aggregatedRangeProofBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          aggregatedRangeProof_ = value;
+          onChanged();
+        } else {
+          aggregatedRangeProofBuilder_.setMessage(value);
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.AggregatedRangeProof aggregatedRangeProof = 6;</code>
+       */
+      public Builder setAggregatedRangeProof(
+          eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof.Builder builderForValue) {
+        if (aggregatedRangeProofBuilder_ == null) {
+          aggregatedRangeProof_ = builderForValue.build();
+          onChanged();
+        } else {
+          aggregatedRangeProofBuilder_.setMessage(builderForValue.build());
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.AggregatedRangeProof aggregatedRangeProof = 6;</code>
+       */
+      public Builder mergeAggregatedRangeProof(eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof value) {
+        if (aggregatedRangeProofBuilder_ == null) {
+          if (aggregatedRangeProof_ != null) {
+            aggregatedRangeProof_ =
+              eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof.newBuilder(aggregatedRangeProof_).mergeFrom(value).buildPartial();
+          } else {
+            aggregatedRangeProof_ = value;
+          }
+          onChanged();
+        } else {
+          aggregatedRangeProofBuilder_.mergeFrom(value);
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.AggregatedRangeProof aggregatedRangeProof = 6;</code>
+       */
+      public Builder clearAggregatedRangeProof() {
+        if (aggregatedRangeProofBuilder_ == null) {
+          aggregatedRangeProof_ = null;
+          onChanged();
+        } else {
+          aggregatedRangeProof_ = null;
+          aggregatedRangeProofBuilder_ = null;
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.AggregatedRangeProof aggregatedRangeProof = 6;</code>
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof.Builder getAggregatedRangeProofBuilder() {
+        
+        onChanged();
+        return getAggregatedRangeProofFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.AggregatedRangeProof aggregatedRangeProof = 6;</code>
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProofOrBuilder getAggregatedRangeProofOrBuilder() {
+        if (aggregatedRangeProofBuilder_ != null) {
+          return aggregatedRangeProofBuilder_.getMessageOrBuilder();
+        } else {
+          return aggregatedRangeProof_ == null ?
+              eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof.getDefaultInstance() : aggregatedRangeProof_;
+        }
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.AggregatedRangeProof aggregatedRangeProof = 6;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilderV3<
+          eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof, eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof.Builder, eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProofOrBuilder> 
+          getAggregatedRangeProofFieldBuilder() {
+        if (aggregatedRangeProofBuilder_ == null) {
+          aggregatedRangeProofBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+              eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof, eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof.Builder, eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProofOrBuilder>(
+                  getAggregatedRangeProof(),
+                  getParentForChildren(),
+                  isClean());
+          aggregatedRangeProof_ = null;
+        }
+        return aggregatedRangeProofBuilder_;
+      }
       @java.lang.Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -2416,6 +2619,10 @@ public final class PabcSerializer {
     eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder getCommitVOrBuilder();
   }
   /**
+   * <pre>
+   * The proofs are not set when the token has an aggregatedRangeProof
+   * </pre>
+   *
    * Protobuf type {@code eu.olympus.protos.serializer.RangePredToken}
    */
   public static final class RangePredToken extends
@@ -2802,6 +3009,10 @@ public final class PabcSerializer {
       return builder;
     }
     /**
+     * <pre>
+     * The proofs are not set when the token has an aggregatedRangeProof
+     * </pre>
+     *
      * Protobuf type {@code eu.olympus.protos.serializer.RangePredToken}
      */
     public static final class Builder extends
@@ -3821,11 +4032,2081 @@ public final class PabcSerializer {
       return tHat_ == null ? eu.olympus.protos.serializer.PabcSerializer.ZpElement.getDefaultInstance() : tHat_;
     }
     /**
-     * <code>.eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+     * <code>.eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+     */
+    @java.lang.Override
+    public eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder getTHatOrBuilder() {
+      return getTHat();
+    }
+
+    public static final int A_FIELD_NUMBER = 6;
+    private eu.olympus.protos.serializer.PabcSerializer.Group1Element a_;
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element a = 6;</code>
+     * @return Whether the a field is set.
+     */
+    @java.lang.Override
+    public boolean hasA() {
+      return a_ != null;
+    }
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element a = 6;</code>
+     * @return The a.
+     */
+    @java.lang.Override
+    public eu.olympus.protos.serializer.PabcSerializer.Group1Element getA() {
+      return a_ == null ? eu.olympus.protos.serializer.PabcSerializer.Group1Element.getDefaultInstance() : a_;
+    }
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element a = 6;</code>
+     */
+    @java.lang.Override
+    public eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder getAOrBuilder() {
+      return getA();
+    }
+
+    public static final int S_FIELD_NUMBER = 7;
+    private eu.olympus.protos.serializer.PabcSerializer.Group1Element s_;
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element s = 7;</code>
+     * @return Whether the s field is set.
+     */
+    @java.lang.Override
+    public boolean hasS() {
+      return s_ != null;
+    }
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element s = 7;</code>
+     * @return The s.
+     */
+    @java.lang.Override
+    public eu.olympus.protos.serializer.PabcSerializer.Group1Element getS() {
+      return s_ == null ? eu.olympus.protos.serializer.PabcSerializer.Group1Element.getDefaultInstance() : s_;
+    }
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element s = 7;</code>
+     */
+    @java.lang.Override
+    public eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder getSOrBuilder() {
+      return getS();
+    }
+
+    public static final int INNERPRODUCTPROOF_FIELD_NUMBER = 8;
+    private eu.olympus.protos.serializer.PabcSerializer.InnerProductProof innerProductProof_;
+    /**
+     * <code>.eu.olympus.protos.serializer.InnerProductProof innerProductProof = 8;</code>
+     * @return Whether the innerProductProof field is set.
+     */
+    @java.lang.Override
+    public boolean hasInnerProductProof() {
+      return innerProductProof_ != null;
+    }
+    /**
+     * <code>.eu.olympus.protos.serializer.InnerProductProof innerProductProof = 8;</code>
+     * @return The innerProductProof.
+     */
+    @java.lang.Override
+    public eu.olympus.protos.serializer.PabcSerializer.InnerProductProof getInnerProductProof() {
+      return innerProductProof_ == null ? eu.olympus.protos.serializer.PabcSerializer.InnerProductProof.getDefaultInstance() : innerProductProof_;
+    }
+    /**
+     * <code>.eu.olympus.protos.serializer.InnerProductProof innerProductProof = 8;</code>
+     */
+    @java.lang.Override
+    public eu.olympus.protos.serializer.PabcSerializer.InnerProductProofOrBuilder getInnerProductProofOrBuilder() {
+      return getInnerProductProof();
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (t1_ != null) {
+        output.writeMessage(1, getT1());
+      }
+      if (t2_ != null) {
+        output.writeMessage(2, getT2());
+      }
+      if (tauX_ != null) {
+        output.writeMessage(3, getTauX());
+      }
+      if (mu_ != null) {
+        output.writeMessage(4, getMu());
+      }
+      if (tHat_ != null) {
+        output.writeMessage(5, getTHat());
+      }
+      if (a_ != null) {
+        output.writeMessage(6, getA());
+      }
+      if (s_ != null) {
+        output.writeMessage(7, getS());
+      }
+      if (innerProductProof_ != null) {
+        output.writeMessage(8, getInnerProductProof());
+      }
+      unknownFields.writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (t1_ != null) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(1, getT1());
+      }
+      if (t2_ != null) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(2, getT2());
+      }
+      if (tauX_ != null) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(3, getTauX());
+      }
+      if (mu_ != null) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(4, getMu());
+      }
+      if (tHat_ != null) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(5, getTHat());
+      }
+      if (a_ != null) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(6, getA());
+      }
+      if (s_ != null) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(7, getS());
+      }
+      if (innerProductProof_ != null) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(8, getInnerProductProof());
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof eu.olympus.protos.serializer.PabcSerializer.RangeProof)) {
+        return super.equals(obj);
+      }
+      eu.olympus.protos.serializer.PabcSerializer.RangeProof other = (eu.olympus.protos.serializer.PabcSerializer.RangeProof) obj;
+
+      if (hasT1() != other.hasT1()) return false;
+      if (hasT1()) {
+        if (!getT1()
+            .equals(other.getT1())) return false;
+      }
+      if (hasT2() != other.hasT2()) return false;
+      if (hasT2()) {
+        if (!getT2()
+            .equals(other.getT2())) return false;
+      }
+      if (hasTauX() != other.hasTauX()) return false;
+      if (hasTauX()) {
+        if (!getTauX()
+            .equals(other.getTauX())) return false;
+      }
+      if (hasMu() != other.hasMu()) return false;
+      if (hasMu()) {
+        if (!getMu()
+            .equals(other.getMu())) return false;
+      }
+      if (hasTHat() != other.hasTHat()) return false;
+      if (hasTHat()) {
+        if (!getTHat()
+            .equals(other.getTHat())) return false;
+      }
+      if (hasA() != other.hasA()) return false;
+      if (hasA()) {
+        if (!getA()
+            .equals(other.getA())) return false;
+      }
+      if (hasS() != other.hasS()) return false;
+      if (hasS()) {
+        if (!getS()
+            .equals(other.getS())) return false;
+      }
+      if (hasInnerProductProof() != other.hasInnerProductProof()) return false;
+      if (hasInnerProductProof()) {
+        if (!getInnerProductProof()
+            .equals(other.getInnerProductProof())) return false;
+      }
+      if (!unknownFields.equals(other.unknownFields)) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (hasT1()) {
+        hash = (37 * hash) + T1_FIELD_NUMBER;
+        hash = (53 * hash) + getT1().hashCode();
+      }
+      if (hasT2()) {
+        hash = (37 * hash) + T2_FIELD_NUMBER;
+        hash = (53 * hash) + getT2().hashCode();
+      }
+      if (hasTauX()) {
+        hash = (37 * hash) + TAUX_FIELD_NUMBER;
+        hash = (53 * hash) + getTauX().hashCode();
+      }
+      if (hasMu()) {
+        hash = (37 * hash) + MU_FIELD_NUMBER;
+        hash = (53 * hash) + getMu().hashCode();
+      }
+      if (hasTHat()) {
+        hash = (37 * hash) + THAT_FIELD_NUMBER;
+        hash = (53 * hash) + getTHat().hashCode();
+      }
+      if (hasA()) {
+        hash = (37 * hash) + A_FIELD_NUMBER;
+        hash = (53 * hash) + getA().hashCode();
+      }
+      if (hasS()) {
+        hash = (37 * hash) + S_FIELD_NUMBER;
+        hash = (53 * hash) + getS().hashCode();
+      }
+      if (hasInnerProductProof()) {
+        hash = (37 * hash) + INNERPRODUCTPROOF_FIELD_NUMBER;
+        hash = (53 * hash) + getInnerProductProof().hashCode();
+      }
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(eu.olympus.protos.serializer.PabcSerializer.RangeProof prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code eu.olympus.protos.serializer.RangeProof}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:eu.olympus.protos.serializer.RangeProof)
+        eu.olympus.protos.serializer.PabcSerializer.RangeProofOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return eu.olympus.protos.serializer.PabcSerializer.internal_static_eu_olympus_protos_serializer_RangeProof_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return eu.olympus.protos.serializer.PabcSerializer.internal_static_eu_olympus_protos_serializer_RangeProof_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                eu.olympus.protos.serializer.PabcSerializer.RangeProof.class, eu.olympus.protos.serializer.PabcSerializer.RangeProof.Builder.class);
+      }
+
+      // Construct using eu.olympus.protos.serializer.PabcSerializer.RangeProof.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+        }
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        if (t1Builder_ == null) {
+          t1_ = null;
+        } else {
+          t1_ = null;
+          t1Builder_ = null;
+        }
+        if (t2Builder_ == null) {
+          t2_ = null;
+        } else {
+          t2_ = null;
+          t2Builder_ = null;
+        }
+        if (tauXBuilder_ == null) {
+          tauX_ = null;
+        } else {
+          tauX_ = null;
+          tauXBuilder_ = null;
+        }
+        if (muBuilder_ == null) {
+          mu_ = null;
+        } else {
+          mu_ = null;
+          muBuilder_ = null;
+        }
+        if (tHatBuilder_ == null) {
+          tHat_ = null;
+        } else {
+          tHat_ = null;
+          tHatBuilder_ = null;
+        }
+        if (aBuilder_ == null) {
+          a_ = null;
+        } else {
+          a_ = null;
+          aBuilder_ = null;
+        }
+        if (sBuilder_ == null) {
+          s_ = null;
+        } else {
+          s_ = null;
+          sBuilder_ = null;
+        }
+        if (innerProductProofBuilder_ == null) {
+          innerProductProof_ = null;
+        } else {
+          innerProductProof_ = null;
+          innerProductProofBuilder_ = null;
+        }
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return eu.olympus.protos.serializer.PabcSerializer.internal_static_eu_olympus_protos_serializer_RangeProof_descriptor;
+      }
+
+      @java.lang.Override
+      public eu.olympus.protos.serializer.PabcSerializer.RangeProof getDefaultInstanceForType() {
+        return eu.olympus.protos.serializer.PabcSerializer.RangeProof.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public eu.olympus.protos.serializer.PabcSerializer.RangeProof build() {
+        eu.olympus.protos.serializer.PabcSerializer.RangeProof result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public eu.olympus.protos.serializer.PabcSerializer.RangeProof buildPartial() {
+        eu.olympus.protos.serializer.PabcSerializer.RangeProof result = new eu.olympus.protos.serializer.PabcSerializer.RangeProof(this);
+        if (t1Builder_ == null) {
+          result.t1_ = t1_;
+        } else {
+          result.t1_ = t1Builder_.build();
+        }
+        if (t2Builder_ == null) {
+          result.t2_ = t2_;
+        } else {
+          result.t2_ = t2Builder_.build();
+        }
+        if (tauXBuilder_ == null) {
+          result.tauX_ = tauX_;
+        } else {
+          result.tauX_ = tauXBuilder_.build();
+        }
+        if (muBuilder_ == null) {
+          result.mu_ = mu_;
+        } else {
+          result.mu_ = muBuilder_.build();
+        }
+        if (tHatBuilder_ == null) {
+          result.tHat_ = tHat_;
+        } else {
+          result.tHat_ = tHatBuilder_.build();
+        }
+        if (aBuilder_ == null) {
+          result.a_ = a_;
+        } else {
+          result.a_ = aBuilder_.build();
+        }
+        if (sBuilder_ == null) {
+          result.s_ = s_;
+        } else {
+          result.s_ = sBuilder_.build();
+        }
+        if (innerProductProofBuilder_ == null) {
+          result.innerProductProof_ = innerProductProof_;
+        } else {
+          result.innerProductProof_ = innerProductProofBuilder_.build();
+        }
+        onBuilt();
+        return result;
+      }
+
+      @java.lang.Override
+      public Builder clone() {
+        return super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof eu.olympus.protos.serializer.PabcSerializer.RangeProof) {
+          return mergeFrom((eu.olympus.protos.serializer.PabcSerializer.RangeProof)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(eu.olympus.protos.serializer.PabcSerializer.RangeProof other) {
+        if (other == eu.olympus.protos.serializer.PabcSerializer.RangeProof.getDefaultInstance()) return this;
+        if (other.hasT1()) {
+          mergeT1(other.getT1());
+        }
+        if (other.hasT2()) {
+          mergeT2(other.getT2());
+        }
+        if (other.hasTauX()) {
+          mergeTauX(other.getTauX());
+        }
+        if (other.hasMu()) {
+          mergeMu(other.getMu());
+        }
+        if (other.hasTHat()) {
+          mergeTHat(other.getTHat());
+        }
+        if (other.hasA()) {
+          mergeA(other.getA());
+        }
+        if (other.hasS()) {
+          mergeS(other.getS());
+        }
+        if (other.hasInnerProductProof()) {
+          mergeInnerProductProof(other.getInnerProductProof());
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        eu.olympus.protos.serializer.PabcSerializer.RangeProof parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (eu.olympus.protos.serializer.PabcSerializer.RangeProof) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+
+      private eu.olympus.protos.serializer.PabcSerializer.Group1Element t1_;
+      private com.google.protobuf.SingleFieldBuilderV3<
+          eu.olympus.protos.serializer.PabcSerializer.Group1Element, eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder, eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder> t1Builder_;
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element t1 = 1;</code>
+       * @return Whether the t1 field is set.
+       */
+      public boolean hasT1() {
+        return t1Builder_ != null || t1_ != null;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element t1 = 1;</code>
+       * @return The t1.
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.Group1Element getT1() {
+        if (t1Builder_ == null) {
+          return t1_ == null ? eu.olympus.protos.serializer.PabcSerializer.Group1Element.getDefaultInstance() : t1_;
+        } else {
+          return t1Builder_.getMessage();
+        }
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element t1 = 1;</code>
+       */
+      public Builder setT1(eu.olympus.protos.serializer.PabcSerializer.Group1Element value) {
+        if (t1Builder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          t1_ = value;
+          onChanged();
+        } else {
+          t1Builder_.setMessage(value);
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element t1 = 1;</code>
+       */
+      public Builder setT1(
+          eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder builderForValue) {
+        if (t1Builder_ == null) {
+          t1_ = builderForValue.build();
+          onChanged();
+        } else {
+          t1Builder_.setMessage(builderForValue.build());
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element t1 = 1;</code>
+       */
+      public Builder mergeT1(eu.olympus.protos.serializer.PabcSerializer.Group1Element value) {
+        if (t1Builder_ == null) {
+          if (t1_ != null) {
+            t1_ =
+              eu.olympus.protos.serializer.PabcSerializer.Group1Element.newBuilder(t1_).mergeFrom(value).buildPartial();
+          } else {
+            t1_ = value;
+          }
+          onChanged();
+        } else {
+          t1Builder_.mergeFrom(value);
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element t1 = 1;</code>
+       */
+      public Builder clearT1() {
+        if (t1Builder_ == null) {
+          t1_ = null;
+          onChanged();
+        } else {
+          t1_ = null;
+          t1Builder_ = null;
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element t1 = 1;</code>
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder getT1Builder() {
+        
+        onChanged();
+        return getT1FieldBuilder().getBuilder();
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element t1 = 1;</code>
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder getT1OrBuilder() {
+        if (t1Builder_ != null) {
+          return t1Builder_.getMessageOrBuilder();
+        } else {
+          return t1_ == null ?
+              eu.olympus.protos.serializer.PabcSerializer.Group1Element.getDefaultInstance() : t1_;
+        }
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element t1 = 1;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilderV3<
+          eu.olympus.protos.serializer.PabcSerializer.Group1Element, eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder, eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder> 
+          getT1FieldBuilder() {
+        if (t1Builder_ == null) {
+          t1Builder_ = new com.google.protobuf.SingleFieldBuilderV3<
+              eu.olympus.protos.serializer.PabcSerializer.Group1Element, eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder, eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder>(
+                  getT1(),
+                  getParentForChildren(),
+                  isClean());
+          t1_ = null;
+        }
+        return t1Builder_;
+      }
+
+      private eu.olympus.protos.serializer.PabcSerializer.Group1Element t2_;
+      private com.google.protobuf.SingleFieldBuilderV3<
+          eu.olympus.protos.serializer.PabcSerializer.Group1Element, eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder, eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder> t2Builder_;
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element t2 = 2;</code>
+       * @return Whether the t2 field is set.
+       */
+      public boolean hasT2() {
+        return t2Builder_ != null || t2_ != null;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element t2 = 2;</code>
+       * @return The t2.
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.Group1Element getT2() {
+        if (t2Builder_ == null) {
+          return t2_ == null ? eu.olympus.protos.serializer.PabcSerializer.Group1Element.getDefaultInstance() : t2_;
+        } else {
+          return t2Builder_.getMessage();
+        }
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element t2 = 2;</code>
+       */
+      public Builder setT2(eu.olympus.protos.serializer.PabcSerializer.Group1Element value) {
+        if (t2Builder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          t2_ = value;
+          onChanged();
+        } else {
+          t2Builder_.setMessage(value);
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element t2 = 2;</code>
+       */
+      public Builder setT2(
+          eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder builderForValue) {
+        if (t2Builder_ == null) {
+          t2_ = builderForValue.build();
+          onChanged();
+        } else {
+          t2Builder_.setMessage(builderForValue.build());
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element t2 = 2;</code>
+       */
+      public Builder mergeT2(eu.olympus.protos.serializer.PabcSerializer.Group1Element value) {
+        if (t2Builder_ == null) {
+          if (t2_ != null) {
+            t2_ =
+              eu.olympus.protos.serializer.PabcSerializer.Group1Element.newBuilder(t2_).mergeFrom(value).buildPartial();
+          } else {
+            t2_ = value;
+          }
+          onChanged();
+        } else {
+          t2Builder_.mergeFrom(value);
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element t2 = 2;</code>
+       */
+      public Builder clearT2() {
+        if (t2Builder_ == null) {
+          t2_ = null;
+          onChanged();
+        } else {
+          t2_ = null;
+          t2Builder_ = null;
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element t2 = 2;</code>
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder getT2Builder() {
+        
+        onChanged();
+        return getT2FieldBuilder().getBuilder();
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element t2 = 2;</code>
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder getT2OrBuilder() {
+        if (t2Builder_ != null) {
+          return t2Builder_.getMessageOrBuilder();
+        } else {
+          return t2_ == null ?
+              eu.olympus.protos.serializer.PabcSerializer.Group1Element.getDefaultInstance() : t2_;
+        }
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element t2 = 2;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilderV3<
+          eu.olympus.protos.serializer.PabcSerializer.Group1Element, eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder, eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder> 
+          getT2FieldBuilder() {
+        if (t2Builder_ == null) {
+          t2Builder_ = new com.google.protobuf.SingleFieldBuilderV3<
+              eu.olympus.protos.serializer.PabcSerializer.Group1Element, eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder, eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder>(
+                  getT2(),
+                  getParentForChildren(),
+                  isClean());
+          t2_ = null;
+        }
+        return t2Builder_;
+      }
+
+      private eu.olympus.protos.serializer.PabcSerializer.ZpElement tauX_;
+      private com.google.protobuf.SingleFieldBuilderV3<
+          eu.olympus.protos.serializer.PabcSerializer.ZpElement, eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder, eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder> tauXBuilder_;
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement tauX = 3;</code>
+       * @return Whether the tauX field is set.
+       */
+      public boolean hasTauX() {
+        return tauXBuilder_ != null || tauX_ != null;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement tauX = 3;</code>
+       * @return The tauX.
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.ZpElement getTauX() {
+        if (tauXBuilder_ == null) {
+          return tauX_ == null ? eu.olympus.protos.serializer.PabcSerializer.ZpElement.getDefaultInstance() : tauX_;
+        } else {
+          return tauXBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement tauX = 3;</code>
+       */
+      public Builder setTauX(eu.olympus.protos.serializer.PabcSerializer.ZpElement value) {
+        if (tauXBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          tauX_ = value;
+          onChanged();
+        } else {
+          tauXBuilder_.setMessage(value);
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement tauX = 3;</code>
+       */
+      public Builder setTauX(
+          eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder builderForValue) {
+        if (tauXBuilder_ == null) {
+          tauX_ = builderForValue.build();
+          onChanged();
+        } else {
+          tauXBuilder_.setMessage(builderForValue.build());
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement tauX = 3;</code>
+       */
+      public Builder mergeTauX(eu.olympus.protos.serializer.PabcSerializer.ZpElement value) {
+        if (tauXBuilder_ == null) {
+          if (tauX_ != null) {
+            tauX_ =
+              eu.olympus.protos.serializer.PabcSerializer.ZpElement.newBuilder(tauX_).mergeFrom(value).buildPartial();
+          } else {
+            tauX_ = value;
+          }
+          onChanged();
+        } else {
+          tauXBuilder_.mergeFrom(value);
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement tauX = 3;</code>
+       */
+      public Builder clearTauX() {
+        if (tauXBuilder_ == null) {
+          tauX_ = null;
+          onChanged();
+        } else {
+          tauX_ = null;
+          tauXBuilder_ = null;
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement tauX = 3;</code>
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder getTauXBuilder() {
+        
+        onChanged();
+        return getTauXFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement tauX = 3;</code>
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder getTauXOrBuilder() {
+        if (tauXBuilder_ != null) {
+          return tauXBuilder_.getMessageOrBuilder();
+        } else {
+          return tauX_ == null ?
+              eu.olympus.protos.serializer.PabcSerializer.ZpElement.getDefaultInstance() : tauX_;
+        }
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement tauX = 3;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilderV3<
+          eu.olympus.protos.serializer.PabcSerializer.ZpElement, eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder, eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder> 
+          getTauXFieldBuilder() {
+        if (tauXBuilder_ == null) {
+          tauXBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+              eu.olympus.protos.serializer.PabcSerializer.ZpElement, eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder, eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder>(
+                  getTauX(),
+                  getParentForChildren(),
+                  isClean());
+          tauX_ = null;
+        }
+        return tauXBuilder_;
+      }
+
+      private eu.olympus.protos.serializer.PabcSerializer.ZpElement mu_;
+      private com.google.protobuf.SingleFieldBuilderV3<
+          eu.olympus.protos.serializer.PabcSerializer.ZpElement, eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder, eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder> muBuilder_;
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement mu = 4;</code>
+       * @return Whether the mu field is set.
+       */
+      public boolean hasMu() {
+        return muBuilder_ != null || mu_ != null;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement mu = 4;</code>
+       * @return The mu.
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.ZpElement getMu() {
+        if (muBuilder_ == null) {
+          return mu_ == null ? eu.olympus.protos.serializer.PabcSerializer.ZpElement.getDefaultInstance() : mu_;
+        } else {
+          return muBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement mu = 4;</code>
+       */
+      public Builder setMu(eu.olympus.protos.serializer.PabcSerializer.ZpElement value) {
+        if (muBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          mu_ = value;
+          onChanged();
+        } else {
+          muBuilder_.setMessage(value);
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement mu = 4;</code>
+       */
+      public Builder setMu(
+          eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder builderForValue) {
+        if (muBuilder_ == null) {
+          mu_ = builderForValue.build();
+          onChanged();
+        } else {
+          muBuilder_.setMessage(builderForValue.build());
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement mu = 4;</code>
+       */
+      public Builder mergeMu(eu.olympus.protos.serializer.PabcSerializer.ZpElement value) {
+        if (muBuilder_ == null) {
+          if (mu_ != null) {
+            mu_ =
+              eu.olympus.protos.serializer.PabcSerializer.ZpElement.newBuilder(mu_).mergeFrom(value).buildPartial();
+          } else {
+            mu_ = value;
+          }
+          onChanged();
+        } else {
+          muBuilder_.mergeFrom(value);
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement mu = 4;</code>
+       */
+      public Builder clearMu() {
+        if (muBuilder_ == null) {
+          mu_ = null;
+          onChanged();
+        } else {
+          mu_ = null;
+          muBuilder_ = null;
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement mu = 4;</code>
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder getMuBuilder() {
+        
+        onChanged();
+        return getMuFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement mu = 4;</code>
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder getMuOrBuilder() {
+        if (muBuilder_ != null) {
+          return muBuilder_.getMessageOrBuilder();
+        } else {
+          return mu_ == null ?
+              eu.olympus.protos.serializer.PabcSerializer.ZpElement.getDefaultInstance() : mu_;
+        }
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement mu = 4;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilderV3<
+          eu.olympus.protos.serializer.PabcSerializer.ZpElement, eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder, eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder> 
+          getMuFieldBuilder() {
+        if (muBuilder_ == null) {
+          muBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+              eu.olympus.protos.serializer.PabcSerializer.ZpElement, eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder, eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder>(
+                  getMu(),
+                  getParentForChildren(),
+                  isClean());
+          mu_ = null;
+        }
+        return muBuilder_;
+      }
+
+      private eu.olympus.protos.serializer.PabcSerializer.ZpElement tHat_;
+      private com.google.protobuf.SingleFieldBuilderV3<
+          eu.olympus.protos.serializer.PabcSerializer.ZpElement, eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder, eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder> tHatBuilder_;
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       * @return Whether the tHat field is set.
+       */
+      public boolean hasTHat() {
+        return tHatBuilder_ != null || tHat_ != null;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       * @return The tHat.
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.ZpElement getTHat() {
+        if (tHatBuilder_ == null) {
+          return tHat_ == null ? eu.olympus.protos.serializer.PabcSerializer.ZpElement.getDefaultInstance() : tHat_;
+        } else {
+          return tHatBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       */
+      public Builder setTHat(eu.olympus.protos.serializer.PabcSerializer.ZpElement value) {
+        if (tHatBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          tHat_ = value;
+          onChanged();
+        } else {
+          tHatBuilder_.setMessage(value);
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       */
+      public Builder setTHat(
+          eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder builderForValue) {
+        if (tHatBuilder_ == null) {
+          tHat_ = builderForValue.build();
+          onChanged();
+        } else {
+          tHatBuilder_.setMessage(builderForValue.build());
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       */
+      public Builder mergeTHat(eu.olympus.protos.serializer.PabcSerializer.ZpElement value) {
+        if (tHatBuilder_ == null) {
+          if (tHat_ != null) {
+            tHat_ =
+              eu.olympus.protos.serializer.PabcSerializer.ZpElement.newBuilder(tHat_).mergeFrom(value).buildPartial();
+          } else {
+            tHat_ = value;
+          }
+          onChanged();
+        } else {
+          tHatBuilder_.mergeFrom(value);
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       */
+      public Builder clearTHat() {
+        if (tHatBuilder_ == null) {
+          tHat_ = null;
+          onChanged();
+        } else {
+          tHat_ = null;
+          tHatBuilder_ = null;
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder getTHatBuilder() {
+        
+        onChanged();
+        return getTHatFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder getTHatOrBuilder() {
+        if (tHatBuilder_ != null) {
+          return tHatBuilder_.getMessageOrBuilder();
+        } else {
+          return tHat_ == null ?
+              eu.olympus.protos.serializer.PabcSerializer.ZpElement.getDefaultInstance() : tHat_;
+        }
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilderV3<
+          eu.olympus.protos.serializer.PabcSerializer.ZpElement, eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder, eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder> 
+          getTHatFieldBuilder() {
+        if (tHatBuilder_ == null) {
+          tHatBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+              eu.olympus.protos.serializer.PabcSerializer.ZpElement, eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder, eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder>(
+                  getTHat(),
+                  getParentForChildren(),
+                  isClean());
+          tHat_ = null;
+        }
+        return tHatBuilder_;
+      }
+
+      private eu.olympus.protos.serializer.PabcSerializer.Group1Element a_;
+      private com.google.protobuf.SingleFieldBuilderV3<
+          eu.olympus.protos.serializer.PabcSerializer.Group1Element, eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder, eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder> aBuilder_;
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element a = 6;</code>
+       * @return Whether the a field is set.
+       */
+      public boolean hasA() {
+        return aBuilder_ != null || a_ != null;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element a = 6;</code>
+       * @return The a.
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.Group1Element getA() {
+        if (aBuilder_ == null) {
+          return a_ == null ? eu.olympus.protos.serializer.PabcSerializer.Group1Element.getDefaultInstance() : a_;
+        } else {
+          return aBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element a = 6;</code>
+       */
+      public Builder setA(eu.olympus.protos.serializer.PabcSerializer.Group1Element value) {
+        if (aBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          a_ = value;
+          onChanged();
+        } else {
+          aBuilder_.setMessage(value);
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element a = 6;</code>
+       */
+      public Builder setA(
+          eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder builderForValue) {
+        if (aBuilder_ == null) {
+          a_ = builderForValue.build();
+          onChanged();
+        } else {
+          aBuilder_.setMessage(builderForValue.build());
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element a = 6;</code>
+       */
+      public Builder mergeA(eu.olympus.protos.serializer.PabcSerializer.Group1Element value) {
+        if (aBuilder_ == null) {
+          if (a_ != null) {
+            a_ =
+              eu.olympus.protos.serializer.PabcSerializer.Group1Element.newBuilder(a_).mergeFrom(value).buildPartial();
+          } else {
+            a_ = value;
+          }
+          onChanged();
+        } else {
+          aBuilder_.mergeFrom(value);
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element a = 6;</code>
+       */
+      public Builder clearA() {
+        if (aBuilder_ == null) {
+          a_ = null;
+          onChanged();
+        } else {
+          a_ = null;
+          aBuilder_ = null;
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element a = 6;</code>
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder getABuilder() {
+        
+        onChanged();
+        return getAFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element a = 6;</code>
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder getAOrBuilder() {
+        if (aBuilder_ != null) {
+          return aBuilder_.getMessageOrBuilder();
+        } else {
+          return a_ == null ?
+              eu.olympus.protos.serializer.PabcSerializer.Group1Element.getDefaultInstance() : a_;
+        }
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element a = 6;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilderV3<
+          eu.olympus.protos.serializer.PabcSerializer.Group1Element, eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder, eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder> 
+          getAFieldBuilder() {
+        if (aBuilder_ == null) {
+          aBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+              eu.olympus.protos.serializer.PabcSerializer.Group1Element, eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder, eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder>(
+                  getA(),
+                  getParentForChildren(),
+                  isClean());
+          a_ = null;
+        }
+        return aBuilder_;
+      }
+
+      private eu.olympus.protos.serializer.PabcSerializer.Group1Element s_;
+      private com.google.protobuf.SingleFieldBuilderV3<
+          eu.olympus.protos.serializer.PabcSerializer.Group1Element, eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder, eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder> sBuilder_;
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element s = 7;</code>
+       * @return Whether the s field is set.
+       */
+      public boolean hasS() {
+        return sBuilder_ != null || s_ != null;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element s = 7;</code>
+       * @return The s.
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.Group1Element getS() {
+        if (sBuilder_ == null) {
+          return s_ == null ? eu.olympus.protos.serializer.PabcSerializer.Group1Element.getDefaultInstance() : s_;
+        } else {
+          return sBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element s = 7;</code>
+       */
+      public Builder setS(eu.olympus.protos.serializer.PabcSerializer.Group1Element value) {
+        if (sBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          s_ = value;
+          onChanged();
+        } else {
+          sBuilder_.setMessage(value);
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element s = 7;</code>
+       */
+      public Builder setS(
+          eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder builderForValue) {
+        if (sBuilder_ == null) {
+          s_ = builderForValue.build();
+          onChanged();
+        } else {
+          sBuilder_.setMessage(builderForValue.build());
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element s = 7;</code>
+       */
+      public Builder mergeS(eu.olympus.protos.serializer.PabcSerializer.Group1Element value) {
+        if (sBuilder_ == null) {
+          if (s_ != null) {
+            s_ =
+              eu.olympus.protos.serializer.PabcSerializer.Group1Element.newBuilder(s_).mergeFrom(value).buildPartial();
+          } else {
+            s_ = value;
+          }
+          onChanged();
+        } else {
+          sBuilder_.mergeFrom(value);
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element s = 7;</code>
+       */
+      public Builder clearS() {
+        if (sBuilder_ == null) {
+          s_ = null;
+          onChanged();
+        } else {
+          s_ = null;
+          sBuilder_ = null;
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element s = 7;</code>
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder getSBuilder() {
+        
+        onChanged();
+        return getSFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element s = 7;</code>
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder getSOrBuilder() {
+        if (sBuilder_ != null) {
+          return sBuilder_.getMessageOrBuilder();
+        } else {
+          return s_ == null ?
+              eu.olympus.protos.serializer.PabcSerializer.Group1Element.getDefaultInstance() : s_;
+        }
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.Group1Element s = 7;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilderV3<
+          eu.olympus.protos.serializer.PabcSerializer.Group1Element, eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder, eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder> 
+          getSFieldBuilder() {
+        if (sBuilder_ == null) {
+          sBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+              eu.olympus.protos.serializer.PabcSerializer.Group1Element, eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder, eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder>(
+                  getS(),
+                  getParentForChildren(),
+                  isClean());
+          s_ = null;
+        }
+        return sBuilder_;
+      }
+
+      private eu.olympus.protos.serializer.PabcSerializer.InnerProductProof innerProductProof_;
+      private com.google.protobuf.SingleFieldBuilderV3<
+          eu.olympus.protos.serializer.PabcSerializer.InnerProductProof, eu.olympus.protos.serializer.PabcSerializer.InnerProductProof.Builder, eu.olympus.protos.serializer.PabcSerializer.InnerProductProofOrBuilder> innerProductProofBuilder_;
+      /**
+       * <code>.eu.olympus.protos.serializer.InnerProductProof innerProductProof = 8;</code>
+       * @return Whether the innerProductProof field is set.
+       */
+      public boolean hasInnerProductProof() {
+        return innerProductProofBuilder_ != null || innerProductProof_ != null;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.InnerProductProof innerProductProof = 8;</code>
+       * @return The innerProductProof.
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.InnerProductProof getInnerProductProof() {
+        if (innerProductProofBuilder_ == null) {
+          return innerProductProof_ == null ? eu.olympus.protos.serializer.PabcSerializer.InnerProductProof.getDefaultInstance() : innerProductProof_;
+        } else {
+          return innerProductProofBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.InnerProductProof innerProductProof = 8;</code>
+       */
+      public Builder setInnerProductProof(eu.olympus.protos.serializer.PabcSerializer.InnerProductProof value) {
+        if (innerProductProofBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          innerProductProof_ = value;
+          onChanged();
+        } else {
+          innerProductProofBuilder_.setMessage(value);
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.InnerProductProof innerProductProof = 8;</code>
+       */
+      public Builder setInnerProductProof(
+          eu.olympus.protos.serializer.PabcSerializer.InnerProductProof.Builder builderForValue) {
+        if (innerProductProofBuilder_ == null) {
+          innerProductProof_ = builderForValue.build();
+          onChanged();
+        } else {
+          innerProductProofBuilder_.setMessage(builderForValue.build());
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.InnerProductProof innerProductProof = 8;</code>
+       */
+      public Builder mergeInnerProductProof(eu.olympus.protos.serializer.PabcSerializer.InnerProductProof value) {
+        if (innerProductProofBuilder_ == null) {
+          if (innerProductProof_ != null) {
+            innerProductProof_ =
+              eu.olympus.protos.serializer.PabcSerializer.InnerProductProof.newBuilder(innerProductProof_).mergeFrom(value).buildPartial();
+          } else {
+            innerProductProof_ = value;
+          }
+          onChanged();
+        } else {
+          innerProductProofBuilder_.mergeFrom(value);
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.InnerProductProof innerProductProof = 8;</code>
+       */
+      public Builder clearInnerProductProof() {
+        if (innerProductProofBuilder_ == null) {
+          innerProductProof_ = null;
+          onChanged();
+        } else {
+          innerProductProof_ = null;
+          innerProductProofBuilder_ = null;
+        }
+
+        return this;
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.InnerProductProof innerProductProof = 8;</code>
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.InnerProductProof.Builder getInnerProductProofBuilder() {
+        
+        onChanged();
+        return getInnerProductProofFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.InnerProductProof innerProductProof = 8;</code>
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.InnerProductProofOrBuilder getInnerProductProofOrBuilder() {
+        if (innerProductProofBuilder_ != null) {
+          return innerProductProofBuilder_.getMessageOrBuilder();
+        } else {
+          return innerProductProof_ == null ?
+              eu.olympus.protos.serializer.PabcSerializer.InnerProductProof.getDefaultInstance() : innerProductProof_;
+        }
+      }
+      /**
+       * <code>.eu.olympus.protos.serializer.InnerProductProof innerProductProof = 8;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilderV3<
+          eu.olympus.protos.serializer.PabcSerializer.InnerProductProof, eu.olympus.protos.serializer.PabcSerializer.InnerProductProof.Builder, eu.olympus.protos.serializer.PabcSerializer.InnerProductProofOrBuilder> 
+          getInnerProductProofFieldBuilder() {
+        if (innerProductProofBuilder_ == null) {
+          innerProductProofBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+              eu.olympus.protos.serializer.PabcSerializer.InnerProductProof, eu.olympus.protos.serializer.PabcSerializer.InnerProductProof.Builder, eu.olympus.protos.serializer.PabcSerializer.InnerProductProofOrBuilder>(
+                  getInnerProductProof(),
+                  getParentForChildren(),
+                  isClean());
+          innerProductProof_ = null;
+        }
+        return innerProductProofBuilder_;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      @java.lang.Override
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:eu.olympus.protos.serializer.RangeProof)
+    }
+
+    // @@protoc_insertion_point(class_scope:eu.olympus.protos.serializer.RangeProof)
+    private static final eu.olympus.protos.serializer.PabcSerializer.RangeProof DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new eu.olympus.protos.serializer.PabcSerializer.RangeProof();
+    }
+
+    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<RangeProof>
+        PARSER = new com.google.protobuf.AbstractParser<RangeProof>() {
+      @java.lang.Override
+      public RangeProof parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new RangeProof(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<RangeProof> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<RangeProof> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public eu.olympus.protos.serializer.PabcSerializer.RangeProof getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface AggregatedRangeProofOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:eu.olympus.protos.serializer.AggregatedRangeProof)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element t1 = 1;</code>
+     * @return Whether the t1 field is set.
+     */
+    boolean hasT1();
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element t1 = 1;</code>
+     * @return The t1.
+     */
+    eu.olympus.protos.serializer.PabcSerializer.Group1Element getT1();
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element t1 = 1;</code>
+     */
+    eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder getT1OrBuilder();
+
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element t2 = 2;</code>
+     * @return Whether the t2 field is set.
+     */
+    boolean hasT2();
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element t2 = 2;</code>
+     * @return The t2.
+     */
+    eu.olympus.protos.serializer.PabcSerializer.Group1Element getT2();
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element t2 = 2;</code>
+     */
+    eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder getT2OrBuilder();
+
+    /**
+     * <code>.eu.olympus.protos.serializer.ZpElement tauX = 3;</code>
+     * @return Whether the tauX field is set.
+     */
+    boolean hasTauX();
+    /**
+     * <code>.eu.olympus.protos.serializer.ZpElement tauX = 3;</code>
+     * @return The tauX.
+     */
+    eu.olympus.protos.serializer.PabcSerializer.ZpElement getTauX();
+    /**
+     * <code>.eu.olympus.protos.serializer.ZpElement tauX = 3;</code>
+     */
+    eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder getTauXOrBuilder();
+
+    /**
+     * <code>.eu.olympus.protos.serializer.ZpElement mu = 4;</code>
+     * @return Whether the mu field is set.
+     */
+    boolean hasMu();
+    /**
+     * <code>.eu.olympus.protos.serializer.ZpElement mu = 4;</code>
+     * @return The mu.
+     */
+    eu.olympus.protos.serializer.PabcSerializer.ZpElement getMu();
+    /**
+     * <code>.eu.olympus.protos.serializer.ZpElement mu = 4;</code>
+     */
+    eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder getMuOrBuilder();
+
+    /**
+     * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+     */
+    java.util.List<eu.olympus.protos.serializer.PabcSerializer.ZpElement> 
+        getTHatList();
+    /**
+     * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+     */
+    eu.olympus.protos.serializer.PabcSerializer.ZpElement getTHat(int index);
+    /**
+     * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+     */
+    int getTHatCount();
+    /**
+     * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+     */
+    java.util.List<? extends eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder> 
+        getTHatOrBuilderList();
+    /**
+     * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+     */
+    eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder getTHatOrBuilder(
+        int index);
+
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element a = 6;</code>
+     * @return Whether the a field is set.
+     */
+    boolean hasA();
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element a = 6;</code>
+     * @return The a.
+     */
+    eu.olympus.protos.serializer.PabcSerializer.Group1Element getA();
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element a = 6;</code>
+     */
+    eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder getAOrBuilder();
+
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element s = 7;</code>
+     * @return Whether the s field is set.
+     */
+    boolean hasS();
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element s = 7;</code>
+     * @return The s.
+     */
+    eu.olympus.protos.serializer.PabcSerializer.Group1Element getS();
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element s = 7;</code>
+     */
+    eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder getSOrBuilder();
+
+    /**
+     * <code>.eu.olympus.protos.serializer.InnerProductProof innerProductProof = 8;</code>
+     * @return Whether the innerProductProof field is set.
+     */
+    boolean hasInnerProductProof();
+    /**
+     * <code>.eu.olympus.protos.serializer.InnerProductProof innerProductProof = 8;</code>
+     * @return The innerProductProof.
+     */
+    eu.olympus.protos.serializer.PabcSerializer.InnerProductProof getInnerProductProof();
+    /**
+     * <code>.eu.olympus.protos.serializer.InnerProductProof innerProductProof = 8;</code>
+     */
+    eu.olympus.protos.serializer.PabcSerializer.InnerProductProofOrBuilder getInnerProductProofOrBuilder();
+  }
+  /**
+   * <pre>
+   * Range proof for the bounds of all the range predicates of a token, with one tHat for each bound
+   * </pre>
+   *
+   * Protobuf type {@code eu.olympus.protos.serializer.AggregatedRangeProof}
+   */
+  public static final class AggregatedRangeProof extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:eu.olympus.protos.serializer.AggregatedRangeProof)
+      AggregatedRangeProofOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use AggregatedRangeProof.newBuilder() to construct.
+    private AggregatedRangeProof(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private AggregatedRangeProof() {
+      tHat_ = java.util.Collections.emptyList();
+    }
+
+    @java.lang.Override
+    @SuppressWarnings({"unused"})
+    protected java.lang.Object newInstance(
+        UnusedPrivateParameter unused) {
+      return new AggregatedRangeProof();
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private AggregatedRangeProof(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      if (extensionRegistry == null) {
+        throw new java.lang.NullPointerException();
+      }
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            case 10: {
+              eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder subBuilder = null;
+              if (t1_ != null) {
+                subBuilder = t1_.toBuilder();
+              }
+              t1_ = input.readMessage(eu.olympus.protos.serializer.PabcSerializer.Group1Element.parser(), extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(t1_);
+                t1_ = subBuilder.buildPartial();
+              }
+
+              break;
+            }
+            case 18: {
+              eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder subBuilder = null;
+              if (t2_ != null) {
+                subBuilder = t2_.toBuilder();
+              }
+              t2_ = input.readMessage(eu.olympus.protos.serializer.PabcSerializer.Group1Element.parser(), extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(t2_);
+                t2_ = subBuilder.buildPartial();
+              }
+
+              break;
+            }
+            case 26: {
+              eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder subBuilder = null;
+              if (tauX_ != null) {
+                subBuilder = tauX_.toBuilder();
+              }
+              tauX_ = input.readMessage(eu.olympus.protos.serializer.PabcSerializer.ZpElement.parser(), extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(tauX_);
+                tauX_ = subBuilder.buildPartial();
+              }
+
+              break;
+            }
+            case 34: {
+              eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder subBuilder = null;
+              if (mu_ != null) {
+                subBuilder = mu_.toBuilder();
+              }
+              mu_ = input.readMessage(eu.olympus.protos.serializer.PabcSerializer.ZpElement.parser(), extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(mu_);
+                mu_ = subBuilder.buildPartial();
+              }
+
+              break;
+            }
+            case 42: {
+              if (!((mutable_bitField0_ & 0x00000001) != 0)) {
+                tHat_ = new java.util.ArrayList<eu.olympus.protos.serializer.PabcSerializer.ZpElement>();
+                mutable_bitField0_ |= 0x00000001;
+              }
+              tHat_.add(
+                  input.readMessage(eu.olympus.protos.serializer.PabcSerializer.ZpElement.parser(), extensionRegistry));
+              break;
+            }
+            case 50: {
+              eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder subBuilder = null;
+              if (a_ != null) {
+                subBuilder = a_.toBuilder();
+              }
+              a_ = input.readMessage(eu.olympus.protos.serializer.PabcSerializer.Group1Element.parser(), extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(a_);
+                a_ = subBuilder.buildPartial();
+              }
+
+              break;
+            }
+            case 58: {
+              eu.olympus.protos.serializer.PabcSerializer.Group1Element.Builder subBuilder = null;
+              if (s_ != null) {
+                subBuilder = s_.toBuilder();
+              }
+              s_ = input.readMessage(eu.olympus.protos.serializer.PabcSerializer.Group1Element.parser(), extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(s_);
+                s_ = subBuilder.buildPartial();
+              }
+
+              break;
+            }
+            case 66: {
+              eu.olympus.protos.serializer.PabcSerializer.InnerProductProof.Builder subBuilder = null;
+              if (innerProductProof_ != null) {
+                subBuilder = innerProductProof_.toBuilder();
+              }
+              innerProductProof_ = input.readMessage(eu.olympus.protos.serializer.PabcSerializer.InnerProductProof.parser(), extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(innerProductProof_);
+                innerProductProof_ = subBuilder.buildPartial();
+              }
+
+              break;
+            }
+            default: {
+              if (!parseUnknownField(
+                  input, unknownFields, extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000001) != 0)) {
+          tHat_ = java.util.Collections.unmodifiableList(tHat_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return eu.olympus.protos.serializer.PabcSerializer.internal_static_eu_olympus_protos_serializer_AggregatedRangeProof_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return eu.olympus.protos.serializer.PabcSerializer.internal_static_eu_olympus_protos_serializer_AggregatedRangeProof_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof.class, eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof.Builder.class);
+    }
+
+    public static final int T1_FIELD_NUMBER = 1;
+    private eu.olympus.protos.serializer.PabcSerializer.Group1Element t1_;
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element t1 = 1;</code>
+     * @return Whether the t1 field is set.
+     */
+    @java.lang.Override
+    public boolean hasT1() {
+      return t1_ != null;
+    }
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element t1 = 1;</code>
+     * @return The t1.
+     */
+    @java.lang.Override
+    public eu.olympus.protos.serializer.PabcSerializer.Group1Element getT1() {
+      return t1_ == null ? eu.olympus.protos.serializer.PabcSerializer.Group1Element.getDefaultInstance() : t1_;
+    }
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element t1 = 1;</code>
+     */
+    @java.lang.Override
+    public eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder getT1OrBuilder() {
+      return getT1();
+    }
+
+    public static final int T2_FIELD_NUMBER = 2;
+    private eu.olympus.protos.serializer.PabcSerializer.Group1Element t2_;
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element t2 = 2;</code>
+     * @return Whether the t2 field is set.
+     */
+    @java.lang.Override
+    public boolean hasT2() {
+      return t2_ != null;
+    }
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element t2 = 2;</code>
+     * @return The t2.
+     */
+    @java.lang.Override
+    public eu.olympus.protos.serializer.PabcSerializer.Group1Element getT2() {
+      return t2_ == null ? eu.olympus.protos.serializer.PabcSerializer.Group1Element.getDefaultInstance() : t2_;
+    }
+    /**
+     * <code>.eu.olympus.protos.serializer.Group1Element t2 = 2;</code>
+     */
+    @java.lang.Override
+    public eu.olympus.protos.serializer.PabcSerializer.Group1ElementOrBuilder getT2OrBuilder() {
+      return getT2();
+    }
+
+    public static final int TAUX_FIELD_NUMBER = 3;
+    private eu.olympus.protos.serializer.PabcSerializer.ZpElement tauX_;
+    /**
+     * <code>.eu.olympus.protos.serializer.ZpElement tauX = 3;</code>
+     * @return Whether the tauX field is set.
+     */
+    @java.lang.Override
+    public boolean hasTauX() {
+      return tauX_ != null;
+    }
+    /**
+     * <code>.eu.olympus.protos.serializer.ZpElement tauX = 3;</code>
+     * @return The tauX.
+     */
+    @java.lang.Override
+    public eu.olympus.protos.serializer.PabcSerializer.ZpElement getTauX() {
+      return tauX_ == null ? eu.olympus.protos.serializer.PabcSerializer.ZpElement.getDefaultInstance() : tauX_;
+    }
+    /**
+     * <code>.eu.olympus.protos.serializer.ZpElement tauX = 3;</code>
+     */
+    @java.lang.Override
+    public eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder getTauXOrBuilder() {
+      return getTauX();
+    }
+
+    public static final int MU_FIELD_NUMBER = 4;
+    private eu.olympus.protos.serializer.PabcSerializer.ZpElement mu_;
+    /**
+     * <code>.eu.olympus.protos.serializer.ZpElement mu = 4;</code>
+     * @return Whether the mu field is set.
+     */
+    @java.lang.Override
+    public boolean hasMu() {
+      return mu_ != null;
+    }
+    /**
+     * <code>.eu.olympus.protos.serializer.ZpElement mu = 4;</code>
+     * @return The mu.
+     */
+    @java.lang.Override
+    public eu.olympus.protos.serializer.PabcSerializer.ZpElement getMu() {
+      return mu_ == null ? eu.olympus.protos.serializer.PabcSerializer.ZpElement.getDefaultInstance() : mu_;
+    }
+    /**
+     * <code>.eu.olympus.protos.serializer.ZpElement mu = 4;</code>
+     */
+    @java.lang.Override
+    public eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder getMuOrBuilder() {
+      return getMu();
+    }
+
+    public static final int THAT_FIELD_NUMBER = 5;
+    private java.util.List<eu.olympus.protos.serializer.PabcSerializer.ZpElement> tHat_;
+    /**
+     * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+     */
+    @java.lang.Override
+    public java.util.List<eu.olympus.protos.serializer.PabcSerializer.ZpElement> getTHatList() {
+      return tHat_;
+    }
+    /**
+     * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+     */
+    @java.lang.Override
+    public java.util.List<? extends eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder> 
+        getTHatOrBuilderList() {
+      return tHat_;
+    }
+    /**
+     * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+     */
+    @java.lang.Override
+    public int getTHatCount() {
+      return tHat_.size();
+    }
+    /**
+     * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+     */
+    @java.lang.Override
+    public eu.olympus.protos.serializer.PabcSerializer.ZpElement getTHat(int index) {
+      return tHat_.get(index);
+    }
+    /**
+     * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
      */
     @java.lang.Override
-    public eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder getTHatOrBuilder() {
-      return getTHat();
+    public eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder getTHatOrBuilder(
+        int index) {
+      return tHat_.get(index);
     }
 
     public static final int A_FIELD_NUMBER = 6;
@@ -3932,8 +6213,8 @@ public final class PabcSerializer {
       if (mu_ != null) {
         output.writeMessage(4, getMu());
       }
-      if (tHat_ != null) {
-        output.writeMessage(5, getTHat());
+      for (int i = 0; i < tHat_.size(); i++) {
+        output.writeMessage(5, tHat_.get(i));
       }
       if (a_ != null) {
         output.writeMessage(6, getA());
@@ -3969,9 +6250,9 @@ public final class PabcSerializer {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(4, getMu());
       }
-      if (tHat_ != null) {
+      for (int i = 0; i < tHat_.size(); i++) {
         size += com.google.protobuf.CodedOutputStream
-          .computeMessageSize(5, getTHat());
+          .computeMessageSize(5, tHat_.get(i));
       }
       if (a_ != null) {
         size += com.google.protobuf.CodedOutputStream
@@ -3995,10 +6276,10 @@ public final class PabcSerializer {
       if (obj == this) {
        return true;
       }
-      if (!(obj instanceof eu.olympus.protos.serializer.PabcSerializer.RangeProof)) {
+      if (!(obj instanceof eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof)) {
         return super.equals(obj);
       }
-      eu.olympus.protos.serializer.PabcSerializer.RangeProof other = (eu.olympus.protos.serializer.PabcSerializer.RangeProof) obj;
+      eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof other = (eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof) obj;
 
       if (hasT1() != other.hasT1()) return false;
       if (hasT1()) {
@@ -4020,11 +6301,8 @@ public final class PabcSerializer {
         if (!getMu()
             .equals(other.getMu())) return false;
       }
-      if (hasTHat() != other.hasTHat()) return false;
-      if (hasTHat()) {
-        if (!getTHat()
-            .equals(other.getTHat())) return false;
-      }
+      if (!getTHatList()
+          .equals(other.getTHatList())) return false;
       if (hasA() != other.hasA()) return false;
       if (hasA()) {
         if (!getA()
@@ -4067,9 +6345,9 @@ public final class PabcSerializer {
         hash = (37 * hash) + MU_FIELD_NUMBER;
         hash = (53 * hash) + getMu().hashCode();
       }
-      if (hasTHat()) {
+      if (getTHatCount() > 0) {
         hash = (37 * hash) + THAT_FIELD_NUMBER;
-        hash = (53 * hash) + getTHat().hashCode();
+        hash = (53 * hash) + getTHatList().hashCode();
       }
       if (hasA()) {
         hash = (37 * hash) + A_FIELD_NUMBER;
@@ -4088,69 +6366,69 @@ public final class PabcSerializer {
       return hash;
     }
 
-    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseFrom(
+    public static eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof parseFrom(
         java.nio.ByteBuffer data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseFrom(
+    public static eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof parseFrom(
         java.nio.ByteBuffer data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseFrom(
+    public static eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseFrom(
+    public static eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseFrom(byte[] data)
+    public static eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseFrom(
+    public static eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseFrom(java.io.InputStream input)
+    public static eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return com.google.protobuf.GeneratedMessageV3
           .parseWithIOException(PARSER, input);
     }
-    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseFrom(
+    public static eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return com.google.protobuf.GeneratedMessageV3
           .parseWithIOException(PARSER, input, extensionRegistry);
     }
-    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseDelimitedFrom(java.io.InputStream input)
+    public static eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return com.google.protobuf.GeneratedMessageV3
           .parseDelimitedWithIOException(PARSER, input);
     }
-    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseDelimitedFrom(
+    public static eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return com.google.protobuf.GeneratedMessageV3
           .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
     }
-    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseFrom(
+    public static eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return com.google.protobuf.GeneratedMessageV3
           .parseWithIOException(PARSER, input);
     }
-    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof parseFrom(
+    public static eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -4163,7 +6441,7 @@ public final class PabcSerializer {
     public static Builder newBuilder() {
       return DEFAULT_INSTANCE.toBuilder();
     }
-    public static Builder newBuilder(eu.olympus.protos.serializer.PabcSerializer.RangeProof prototype) {
+    public static Builder newBuilder(eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof prototype) {
       return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
     }
     @java.lang.Override
@@ -4179,26 +6457,30 @@ public final class PabcSerializer {
       return builder;
     }
     /**
-     * Protobuf type {@code eu.olympus.protos.serializer.RangeProof}
+     * <pre>
+     * Range proof for the bounds of all the range predicates of a token, with one tHat for each bound
+     * </pre>
+     *
+     * Protobuf type {@code eu.olympus.protos.serializer.AggregatedRangeProof}
      */
     public static final class Builder extends
         com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
-        // @@protoc_insertion_point(builder_implements:eu.olympus.protos.serializer.RangeProof)
-        eu.olympus.protos.serializer.PabcSerializer.RangeProofOrBuilder {
+        // @@protoc_insertion_point(builder_implements:eu.olympus.protos.serializer.AggregatedRangeProof)
+        eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProofOrBuilder {
       public static final com.google.protobuf.Descriptors.Descriptor
           getDescriptor() {
-        return eu.olympus.protos.serializer.PabcSerializer.internal_static_eu_olympus_protos_serializer_RangeProof_descriptor;
+        return eu.olympus.protos.serializer.PabcSerializer.internal_static_eu_olympus_protos_serializer_AggregatedRangeProof_descriptor;
       }
 
       @java.lang.Override
       protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
           internalGetFieldAccessorTable() {
-        return eu.olympus.protos.serializer.PabcSerializer.internal_static_eu_olympus_protos_serializer_RangeProof_fieldAccessorTable
+        return eu.olympus.protos.serializer.PabcSerializer.internal_static_eu_olympus_protos_serializer_AggregatedRangeProof_fieldAccessorTable
             .ensureFieldAccessorsInitialized(
-                eu.olympus.protos.serializer.PabcSerializer.RangeProof.class, eu.olympus.protos.serializer.PabcSerializer.RangeProof.Builder.class);
+                eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof.class, eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof.Builder.class);
       }
 
-      // Construct using eu.olympus.protos.serializer.PabcSerializer.RangeProof.newBuilder()
+      // Construct using eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
@@ -4211,6 +6493,7 @@ public final class PabcSerializer {
       private void maybeForceBuilderInitialization() {
         if (com.google.protobuf.GeneratedMessageV3
                 .alwaysUseFieldBuilders) {
+          getTHatFieldBuilder();
         }
       }
       @java.lang.Override
@@ -4241,10 +6524,10 @@ public final class PabcSerializer {
           muBuilder_ = null;
         }
         if (tHatBuilder_ == null) {
-          tHat_ = null;
+          tHat_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
         } else {
-          tHat_ = null;
-          tHatBuilder_ = null;
+          tHatBuilder_.clear();
         }
         if (aBuilder_ == null) {
           a_ = null;
@@ -4270,17 +6553,17 @@ public final class PabcSerializer {
       @java.lang.Override
       public com.google.protobuf.Descriptors.Descriptor
           getDescriptorForType() {
-        return eu.olympus.protos.serializer.PabcSerializer.internal_static_eu_olympus_protos_serializer_RangeProof_descriptor;
+        return eu.olympus.protos.serializer.PabcSerializer.internal_static_eu_olympus_protos_serializer_AggregatedRangeProof_descriptor;
       }
 
       @java.lang.Override
-      public eu.olympus.protos.serializer.PabcSerializer.RangeProof getDefaultInstanceForType() {
-        return eu.olympus.protos.serializer.PabcSerializer.RangeProof.getDefaultInstance();
+      public eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof getDefaultInstanceForType() {
+        return eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof.getDefaultInstance();
       }
 
       @java.lang.Override
-      public eu.olympus.protos.serializer.PabcSerializer.RangeProof build() {
-        eu.olympus.protos.serializer.PabcSerializer.RangeProof result = buildPartial();
+      public eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof build() {
+        eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
@@ -4288,8 +6571,9 @@ public final class PabcSerializer {
       }
 
       @java.lang.Override
-      public eu.olympus.protos.serializer.PabcSerializer.RangeProof buildPartial() {
-        eu.olympus.protos.serializer.PabcSerializer.RangeProof result = new eu.olympus.protos.serializer.PabcSerializer.RangeProof(this);
+      public eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof buildPartial() {
+        eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof result = new eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof(this);
+        int from_bitField0_ = bitField0_;
         if (t1Builder_ == null) {
           result.t1_ = t1_;
         } else {
@@ -4311,6 +6595,10 @@ public final class PabcSerializer {
           result.mu_ = muBuilder_.build();
         }
         if (tHatBuilder_ == null) {
+          if (((bitField0_ & 0x00000001) != 0)) {
+            tHat_ = java.util.Collections.unmodifiableList(tHat_);
+            bitField0_ = (bitField0_ & ~0x00000001);
+          }
           result.tHat_ = tHat_;
         } else {
           result.tHat_ = tHatBuilder_.build();
@@ -4368,16 +6656,16 @@ public final class PabcSerializer {
       }
       @java.lang.Override
       public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof eu.olympus.protos.serializer.PabcSerializer.RangeProof) {
-          return mergeFrom((eu.olympus.protos.serializer.PabcSerializer.RangeProof)other);
+        if (other instanceof eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof) {
+          return mergeFrom((eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof)other);
         } else {
           super.mergeFrom(other);
           return this;
         }
       }
 
-      public Builder mergeFrom(eu.olympus.protos.serializer.PabcSerializer.RangeProof other) {
-        if (other == eu.olympus.protos.serializer.PabcSerializer.RangeProof.getDefaultInstance()) return this;
+      public Builder mergeFrom(eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof other) {
+        if (other == eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof.getDefaultInstance()) return this;
         if (other.hasT1()) {
           mergeT1(other.getT1());
         }
@@ -4390,8 +6678,31 @@ public final class PabcSerializer {
         if (other.hasMu()) {
           mergeMu(other.getMu());
         }
-        if (other.hasTHat()) {
-          mergeTHat(other.getTHat());
+        if (tHatBuilder_ == null) {
+          if (!other.tHat_.isEmpty()) {
+            if (tHat_.isEmpty()) {
+              tHat_ = other.tHat_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+            } else {
+              ensureTHatIsMutable();
+              tHat_.addAll(other.tHat_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.tHat_.isEmpty()) {
+            if (tHatBuilder_.isEmpty()) {
+              tHatBuilder_.dispose();
+              tHatBuilder_ = null;
+              tHat_ = other.tHat_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+              tHatBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getTHatFieldBuilder() : null;
+            } else {
+              tHatBuilder_.addAllMessages(other.tHat_);
+            }
+          }
         }
         if (other.hasA()) {
           mergeA(other.getA());
@@ -4417,11 +6728,11 @@ public final class PabcSerializer {
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        eu.olympus.protos.serializer.PabcSerializer.RangeProof parsedMessage = null;
+        eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (eu.olympus.protos.serializer.PabcSerializer.RangeProof) e.getUnfinishedMessage();
+          parsedMessage = (eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof) e.getUnfinishedMessage();
           throw e.unwrapIOException();
         } finally {
           if (parsedMessage != null) {
@@ -4430,6 +6741,7 @@ public final class PabcSerializer {
         }
         return this;
       }
+      private int bitField0_;
 
       private eu.olympus.protos.serializer.PabcSerializer.Group1Element t1_;
       private com.google.protobuf.SingleFieldBuilderV3<
@@ -4907,118 +7219,239 @@ public final class PabcSerializer {
         return muBuilder_;
       }
 
-      private eu.olympus.protos.serializer.PabcSerializer.ZpElement tHat_;
-      private com.google.protobuf.SingleFieldBuilderV3<
+      private java.util.List<eu.olympus.protos.serializer.PabcSerializer.ZpElement> tHat_ =
+        java.util.Collections.emptyList();
+      private void ensureTHatIsMutable() {
+        if (!((bitField0_ & 0x00000001) != 0)) {
+          tHat_ = new java.util.ArrayList<eu.olympus.protos.serializer.PabcSerializer.ZpElement>(tHat_);
+          bitField0_ |= 0x00000001;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
           eu.olympus.protos.serializer.PabcSerializer.ZpElement, eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder, eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder> tHatBuilder_;
+
       /**
-       * <code>.eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
-       * @return Whether the tHat field is set.
+       * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
        */
-      public boolean hasTHat() {
-        return tHatBuilder_ != null || tHat_ != null;
+      public java.util.List<eu.olympus.protos.serializer.PabcSerializer.ZpElement> getTHatList() {
+        if (tHatBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(tHat_);
+        } else {
+          return tHatBuilder_.getMessageList();
+        }
       }
       /**
-       * <code>.eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
-       * @return The tHat.
+       * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
        */
-      public eu.olympus.protos.serializer.PabcSerializer.ZpElement getTHat() {
+      public int getTHatCount() {
         if (tHatBuilder_ == null) {
-          return tHat_ == null ? eu.olympus.protos.serializer.PabcSerializer.ZpElement.getDefaultInstance() : tHat_;
+          return tHat_.size();
         } else {
-          return tHatBuilder_.getMessage();
+          return tHatBuilder_.getCount();
         }
       }
       /**
-       * <code>.eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
        */
-      public Builder setTHat(eu.olympus.protos.serializer.PabcSerializer.ZpElement value) {
+      public eu.olympus.protos.serializer.PabcSerializer.ZpElement getTHat(int index) {
+        if (tHatBuilder_ == null) {
+          return tHat_.get(index);
+        } else {
+          return tHatBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       */
+      public Builder setTHat(
+          int index, eu.olympus.protos.serializer.PabcSerializer.ZpElement value) {
         if (tHatBuilder_ == null) {
           if (value == null) {
             throw new NullPointerException();
           }
-          tHat_ = value;
+          ensureTHatIsMutable();
+          tHat_.set(index, value);
           onChanged();
         } else {
-          tHatBuilder_.setMessage(value);
+          tHatBuilder_.setMessage(index, value);
         }
-
         return this;
       }
       /**
-       * <code>.eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
        */
       public Builder setTHat(
-          eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder builderForValue) {
+          int index, eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder builderForValue) {
         if (tHatBuilder_ == null) {
-          tHat_ = builderForValue.build();
+          ensureTHatIsMutable();
+          tHat_.set(index, builderForValue.build());
           onChanged();
         } else {
-          tHatBuilder_.setMessage(builderForValue.build());
+          tHatBuilder_.setMessage(index, builderForValue.build());
         }
-
         return this;
       }
       /**
-       * <code>.eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
        */
-      public Builder mergeTHat(eu.olympus.protos.serializer.PabcSerializer.ZpElement value) {
+      public Builder addTHat(eu.olympus.protos.serializer.PabcSerializer.ZpElement value) {
         if (tHatBuilder_ == null) {
-          if (tHat_ != null) {
-            tHat_ =
-              eu.olympus.protos.serializer.PabcSerializer.ZpElement.newBuilder(tHat_).mergeFrom(value).buildPartial();
-          } else {
-            tHat_ = value;
+          if (value == null) {
+            throw new NullPointerException();
           }
+          ensureTHatIsMutable();
+          tHat_.add(value);
           onChanged();
         } else {
-          tHatBuilder_.mergeFrom(value);
+          tHatBuilder_.addMessage(value);
         }
-
         return this;
       }
       /**
-       * <code>.eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       */
+      public Builder addTHat(
+          int index, eu.olympus.protos.serializer.PabcSerializer.ZpElement value) {
+        if (tHatBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureTHatIsMutable();
+          tHat_.add(index, value);
+          onChanged();
+        } else {
+          tHatBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       */
+      public Builder addTHat(
+          eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder builderForValue) {
+        if (tHatBuilder_ == null) {
+          ensureTHatIsMutable();
+          tHat_.add(builderForValue.build());
+          onChanged();
+        } else {
+          tHatBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       */
+      public Builder addTHat(
+          int index, eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder builderForValue) {
+        if (tHatBuilder_ == null) {
+          ensureTHatIsMutable();
+          tHat_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          tHatBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       */
+      public Builder addAllTHat(
+          java.lang.Iterable<? extends eu.olympus.protos.serializer.PabcSerializer.ZpElement> values) {
+        if (tHatBuilder_ == null) {
+          ensureTHatIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, tHat_);
+          onChanged();
+        } else {
+          tHatBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
        */
       public Builder clearTHat() {
         if (tHatBuilder_ == null) {
-          tHat_ = null;
+          tHat_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
           onChanged();
         } else {
-          tHat_ = null;
-          tHatBuilder_ = null;
+          tHatBuilder_.clear();
         }
-
         return this;
       }
       /**
-       * <code>.eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
        */
-      public eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder getTHatBuilder() {
-        
-        onChanged();
-        return getTHatFieldBuilder().getBuilder();
+      public Builder removeTHat(int index) {
+        if (tHatBuilder_ == null) {
+          ensureTHatIsMutable();
+          tHat_.remove(index);
+          onChanged();
+        } else {
+          tHatBuilder_.remove(index);
+        }
+        return this;
       }
       /**
-       * <code>.eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
        */
-      public eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder getTHatOrBuilder() {
+      public eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder getTHatBuilder(
+          int index) {
+        return getTHatFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder getTHatOrBuilder(
+          int index) {
+        if (tHatBuilder_ == null) {
+          return tHat_.get(index);  } else {
+          return tHatBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       */
+      public java.util.List<? extends eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder> 
+           getTHatOrBuilderList() {
         if (tHatBuilder_ != null) {
-          return tHatBuilder_.getMessageOrBuilder();
+          return tHatBuilder_.getMessageOrBuilderList();
         } else {
-          return tHat_ == null ?
-              eu.olympus.protos.serializer.PabcSerializer.ZpElement.getDefaultInstance() : tHat_;
+          return java.util.Collections.unmodifiableList(tHat_);
         }
       }
       /**
-       * <code>.eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
        */
-      private com.google.protobuf.SingleFieldBuilderV3<
+      public eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder addTHatBuilder() {
+        return getTHatFieldBuilder().addBuilder(
+            eu.olympus.protos.serializer.PabcSerializer.ZpElement.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       */
+      public eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder addTHatBuilder(
+          int index) {
+        return getTHatFieldBuilder().addBuilder(
+            index, eu.olympus.protos.serializer.PabcSerializer.ZpElement.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .eu.olympus.protos.serializer.ZpElement tHat = 5;</code>
+       */
+      public java.util.List<eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder> 
+           getTHatBuilderList() {
+        return getTHatFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
           eu.olympus.protos.serializer.PabcSerializer.ZpElement, eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder, eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder> 
           getTHatFieldBuilder() {
         if (tHatBuilder_ == null) {
-          tHatBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+          tHatBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
               eu.olympus.protos.serializer.PabcSerializer.ZpElement, eu.olympus.protos.serializer.PabcSerializer.ZpElement.Builder, eu.olympus.protos.serializer.PabcSerializer.ZpElementOrBuilder>(
-                  getTHat(),
+                  tHat_,
+                  ((bitField0_ & 0x00000001) != 0),
                   getParentForChildren(),
                   isClean());
           tHat_ = null;
@@ -5395,41 +7828,41 @@ public final class PabcSerializer {
       }
 
 
-      // @@protoc_insertion_point(builder_scope:eu.olympus.protos.serializer.RangeProof)
+      // @@protoc_insertion_point(builder_scope:eu.olympus.protos.serializer.AggregatedRangeProof)
     }
 
-    // @@protoc_insertion_point(class_scope:eu.olympus.protos.serializer.RangeProof)
-    private static final eu.olympus.protos.serializer.PabcSerializer.RangeProof DEFAULT_INSTANCE;
+    // @@protoc_insertion_point(class_scope:eu.olympus.protos.serializer.AggregatedRangeProof)
+    private static final eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof DEFAULT_INSTANCE;
     static {
-      DEFAULT_INSTANCE = new eu.olympus.protos.serializer.PabcSerializer.RangeProof();
+      DEFAULT_INSTANCE = new eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof();
     }
 
-    public static eu.olympus.protos.serializer.PabcSerializer.RangeProof getDefaultInstance() {
+    public static eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof getDefaultInstance() {
       return DEFAULT_INSTANCE;
     }
 
-    private static final com.google.protobuf.Parser<RangeProof>
-        PARSER = new com.google.protobuf.AbstractParser<RangeProof>() {
+    private static final com.google.protobuf.Parser<AggregatedRangeProof>
+        PARSER = new com.google.protobuf.AbstractParser<AggregatedRangeProof>() {
       @java.lang.Override
-      public RangeProof parsePartialFrom(
+      public AggregatedRangeProof parsePartialFrom(
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws com.google.protobuf.InvalidProtocolBufferException {
-        return new RangeProof(input, extensionRegistry);
+        return new AggregatedRangeProof(input, extensionRegistry);
       }
     };
 
-    public static com.google.protobuf.Parser<RangeProof> parser() {
+    public static com.google.protobuf.Parser<AggregatedRangeProof> parser() {
       return PARSER;
     }
 
     @java.lang.Override
-    public com.google.protobuf.Parser<RangeProof> getParserForType() {
+    public com.google.protobuf.Parser<AggregatedRangeProof> getParserForType() {
       return PARSER;
     }
 
     @java.lang.Override
-    public eu.olympus.protos.serializer.PabcSerializer.RangeProof getDefaultInstanceForType() {
+    public eu.olympus.protos.serializer.PabcSerializer.AggregatedRangeProof getDefaultInstanceForType() {
       return DEFAULT_INSTANCE;
     }
 
@@ -19618,6 +22051,11 @@ public final class PabcSerializer {
   private static final 
     com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
       internal_static_eu_olympus_protos_serializer_RangeProof_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_eu_olympus_protos_serializer_AggregatedRangeProof_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_eu_olympus_protos_serializer_AggregatedRangeProof_fieldAccessorTable;
   private static final com.google.protobuf.Descriptors.Descriptor
     internal_static_eu_olympus_protos_serializer_InnerProductProof_descriptor;
   private static final 
@@ -19728,7 +22166,7 @@ public final class PabcSerializer {
   static {
     java.lang.String[] descriptorData = {
       "\n\020Serializer.proto\022\034eu.olympus.protos.se" +
-      "rializer\"\300\004\n\021PresentationToken\022\r\n\005epoch\030" +
+      "rializer\"\222\005\n\021PresentationToken\022\r\n\005epoch\030" +
       "\001 \001(\003\022c\n\022revealedAttributes\030\002 \003(\0132G.eu.o" +
       "lympus.protos.serializer.PresentationTok" +
       "en.RevealedAttributesEntry\022]\n\017rangePredT" +
@@ -19737,104 +22175,118 @@ public final class PabcSerializer {
       "y\022<\n\tpsZkToken\030\004 \001(\0132\'.eu.olympus.protos" +
       ".serializer.PSzkTokenH\000\022G\n\014psZkTokenMod\030" +
       "\005 \001(\0132/.eu.olympus.protos.serializer.PSz" +
-      "kTokenModifiedH\000\032b\n\027RevealedAttributesEn" +
-      "try\022\013\n\003key\030\001 \001(\t\0226\n\005value\030\002 \001(\0132\'.eu.oly" +
-      "mpus.protos.serializer.Attribute:\0028\001\032d\n\024" +
-      "RangePredTokensEntry\022\013\n\003key\030\001 \001(\t\022;\n\005val" +
-      "ue\030\002 \001(\0132,.eu.olympus.protos.serializer." +
-      "RangePredToken:\0028\001B\007\n\005token\"S\n\tAttribute" +
-      "\022\013\n\003obj\030\001 \001(\014\0229\n\004type\030\002 \001(\0162+.eu.olympus" +
-      ".protos.serializer.AttributeType\"\324\001\n\016Ran" +
-      "gePredToken\022A\n\017proofLowerBound\030\001 \001(\0132(.e" +
-      "u.olympus.protos.serializer.RangeProof\022A" +
-      "\n\017proofUpperBound\030\002 \001(\0132(.eu.olympus.pro" +
-      "tos.serializer.RangeProof\022<\n\007commitV\030\003 \001" +
+      "kTokenModifiedH\000\022P\n\024aggregatedRangeProof" +
+      "\030\006 \001(\01322.eu.olympus.protos.serializer.Ag" +
+      "gregatedRangeProof\032b\n\027RevealedAttributes" +
+      "Entry\022\013\n\003key\030\001 \001(\t\0226\n\005value\030\002 \001(\0132\'.eu.o" +
+      "lympus.protos.serializer.Attribute:\0028\001\032d" +
+      "\n\024RangePredTokensEntry\022\013\n\003key\030\001 \001(\t\022;\n\005v" +
+      "alue\030\002 \001(\0132,.eu.olympus.protos.serialize" +
+      "r.RangePredToken:\0028\001B\007\n\005token\"S\n\tAttribu" +
+      "te\022\013\n\003obj\030\001 \001(\014\0229\n\004type\030\002 \001(\0162+.eu.olymp" +
+      "us.protos.serializer.AttributeType\"\324\001\n\016R" +
+      "angePredToken\022A\n\017proofLowerBound\030\001 \001(\0132(" +
+      ".eu.olympus.protos.serializer.RangeProof" +
+      "\022A\n\017proofUpperBound\030\002 \001(\0132(.eu.olympus.p" +
+      "rotos.serializer.RangeProof\022<\n\007commitV\030\003" +
+      " \001(\0132+.eu.olympus.protos.serializer.Grou" +
+      "p1Element\"\335\003\n\nRangeProof\0227\n\002t1\030\001 \001(\0132+.e" +
+      "u.olympus.protos.serializer.Group1Elemen" +
+      "t\0227\n\002t2\030\002 \001(\0132+.eu.olympus.protos.serial" +
+      "izer.Group1Element\0225\n\004tauX\030\003 \001(\0132\'.eu.ol" +
+      "ympus.protos.serializer.ZpElement\0223\n\002mu\030" +
+      "\004 \001(\0132\'.eu.olympus.protos.serializer.ZpE" +
+      "lement\0225\n\004tHat\030\005 \001(\0132\'.eu.olympus.protos" +
+      ".serializer.ZpElement\0226\n\001a\030\006 \001(\0132+.eu.ol" +
+      "ympus.protos.serializer.Group1Element\0226\n" +
+      "\001s\030\007 \001(\0132+.eu.olympus.protos.serializer." +
+      "Group1Element\022J\n\021innerProductProof\030\010 \001(\013" +
+      "2/.eu.olympus.protos.serializer.InnerPro" +
+      "ductProof\"\347\003\n\024AggregatedRangeProof\0227\n\002t1" +
+      "\030\001 \001(\0132+.eu.olympus.protos.serializer.Gr" +
+      "oup1Element\0227\n\002t2\030\002 \001(\0132+.eu.olympus.pro" +
+      "tos.serializer.Group1Element\0225\n\004tauX\030\003 \001" +
+      "(\0132\'.eu.olympus.protos.serializer.ZpElem" +
+      "ent\0223\n\002mu\030\004 \001(\0132\'.eu.olympus.protos.seri" +
+      "alizer.ZpElement\0225\n\004tHat\030\005 \003(\0132\'.eu.olym" +
+      "pus.protos.serializer.ZpElement\0226\n\001a\030\006 \001" +
       "(\0132+.eu.olympus.protos.serializer.Group1" +
-      "Element\"\335\003\n\nRangeProof\0227\n\002t1\030\001 \001(\0132+.eu." +
-      "olympus.protos.serializer.Group1Element\022" +
-      "7\n\002t2\030\002 \001(\0132+.eu.olympus.protos.serializ" +
-      "er.Group1Element\0225\n\004tauX\030\003 \001(\0132\'.eu.olym" +
-      "pus.protos.serializer.ZpElement\0223\n\002mu\030\004 " +
-      "\001(\0132\'.eu.olympus.protos.serializer.ZpEle" +
-      "ment\0225\n\004tHat\030\005 \001(\0132\'.eu.olympus.protos.s" +
-      "erializer.ZpElement\0226\n\001a\030\006 \001(\0132+.eu.olym" +
-      "pus.protos.serializer.Group1Element\0226\n\001s" +
-      "\030\007 \001(\0132+.eu.olympus.protos.serializer.Gr" +
-      "oup1Element\022J\n\021innerProductProof\030\010 \001(\0132/" +
-      ".eu.olympus.protos.serializer.InnerProdu" +
-      "ctProof\"\353\001\n\021InnerProductProof\0226\n\001l\030\001 \003(\013" +
-      "2+.eu.olympus.protos.serializer.Group1El" +
-      "ement\0226\n\001r\030\002 \003(\0132+.eu.olympus.protos.ser" +
-      "ializer.Group1Element\0222\n\001a\030\003 \001(\0132\'.eu.ol" +
-      "ympus.protos.serializer.ZpElement\0222\n\001b\030\004" +
+      "Element\0226\n\001s\030\007 \001(\0132+.eu.olympus.protos.s" +
+      "erializer.Group1Element\022J\n\021innerProductP" +
+      "roof\030\010 \001(\0132/.eu.olympus.protos.serialize" +
+      "r.InnerProductProof\"\353\001\n\021InnerProductProo" +
+      "f\0226\n\001l\030\001 \003(\0132+.eu.olympus.protos.seriali" +
+      "zer.Group1Element\0226\n\001r\030\002 \003(\0132+.eu.olympu" +
+      "s.protos.serializer.Group1Element\0222\n\001a\030\003" +
       " \001(\0132\'.eu.olympus.protos.serializer.ZpEl" +
-      "ement\"\350\003\n\tPSzkToken\022;\n\006sigma1\030\001 \001(\0132+.eu" +
-      ".olympus.protos.serializer.Group2Element" +
-      "\022;\n\006sigma2\030\002 \001(\0132+.eu.olympus.protos.ser" +
-      "ializer.Group2Element\0222\n\001c\030\003 \001(\0132\'.eu.ol" +
-      "ympus.protos.serializer.ZpElement\022[\n\022rev" +
-      "ealedAttributes\030\004 \003(\0132?.eu.olympus.proto" +
-      "s.serializer.PSzkToken.RevealedAttribute" +
-      "sEntry\0223\n\002vt\030\005 \001(\0132\'.eu.olympus.protos.s" +
-      "erializer.ZpElement\0227\n\006vaPrim\030\006 \001(\0132\'.eu" +
-      ".olympus.protos.serializer.ZpElement\032b\n\027" +
-      "RevealedAttributesEntry\022\013\n\003key\030\001 \001(\t\0226\n\005" +
-      "value\030\002 \001(\0132\'.eu.olympus.protos.serializ" +
-      "er.ZpElement:\0028\001\"\235\005\n\021PSzkTokenModified\022;" +
-      "\n\006sigma1\030\001 \001(\0132+.eu.olympus.protos.seria" +
-      "lizer.Group2Element\022;\n\006sigma2\030\002 \001(\0132+.eu" +
-      ".olympus.protos.serializer.Group2Element" +
-      "\0222\n\001c\030\003 \001(\0132\'.eu.olympus.protos.serializ" +
-      "er.ZpElement\022c\n\022revealedAttributes\030\004 \003(\013" +
-      "2G.eu.olympus.protos.serializer.PSzkToke" +
-      "nModified.RevealedAttributesEntry\0223\n\002vt\030" +
-      "\005 \001(\0132\'.eu.olympus.protos.serializer.ZpE" +
-      "lement\0227\n\006vaPrim\030\006 \001(\0132\'.eu.olympus.prot" +
-      "os.serializer.ZpElement\022K\n\006vGamma\030\007 \003(\0132" +
-      ";.eu.olympus.protos.serializer.PSzkToken" +
-      "Modified.VGammaEntry\032b\n\027RevealedAttribut" +
-      "esEntry\022\013\n\003key\030\001 \001(\t\0226\n\005value\030\002 \001(\0132\'.eu" +
-      ".olympus.protos.serializer.ZpElement:\0028\001" +
-      "\032V\n\013VGammaEntry\022\013\n\003key\030\001 \001(\t\0226\n\005value\030\002 " +
-      "\001(\0132\'.eu.olympus.protos.serializer.ZpEle" +
-      "ment:\0028\001\"\026\n\tZpElement\022\t\n\001x\030\001 \001(\014\"=\n\rGrou" +
-      "p1Element\022,\n\001x\030\001 \001(\0132!.eu.olympus.protos" +
-      ".serializer.ECP\">\n\rGroup2Element\022-\n\001x\030\001 " +
-      "\001(\0132\".eu.olympus.protos.serializer.ECP2\"" +
-      "\033\n\003ECP\022\t\n\001x\030\001 \001(\014\022\t\n\001y\030\002 \001(\014\"6\n\004ECP2\022\n\n\002" +
-      "xa\030\001 \001(\014\022\n\n\002xb\030\002 \001(\014\022\n\n\002ya\030\003 \001(\014\022\n\n\002yb\030\004" +
-      " \001(\014\"\323\002\n\tPSverfKey\0227\n\002vx\030\001 \001(\0132+.eu.olym" +
-      "pus.protos.serializer.Group1Element\0229\n\004v" +
-      "y_m\030\002 \001(\0132+.eu.olympus.protos.serializer" +
-      ".Group1Element\022=\n\010vy_epoch\030\003 \001(\0132+.eu.ol" +
-      "ympus.protos.serializer.Group1Element\022;\n" +
-      "\002vy\030\004 \003(\0132/.eu.olympus.protos.serializer" +
-      ".PSverfKey.VyEntry\032V\n\007VyEntry\022\013\n\003key\030\001 \001" +
-      "(\t\022:\n\005value\030\002 \001(\0132+.eu.olympus.protos.se" +
-      "rializer.Group1Element:\0028\001\"\237\002\n\014PScredent" +
-      "ial\022\r\n\005epoch\030\001 \001(\003\022^\n\022revealedAttributes" +
-      "\030\002 \003(\0132B.eu.olympus.protos.serializer.PS" +
-      "credential.RevealedAttributesEntry\022<\n\tsi" +
-      "gnature\030\003 \001(\0132).eu.olympus.protos.serial" +
-      "izer.PSsignature\032b\n\027RevealedAttributesEn" +
-      "try\022\013\n\003key\030\001 \001(\t\0226\n\005value\030\002 \001(\0132\'.eu.oly" +
-      "mpus.protos.serializer.Attribute:\0028\001\"\277\001\n" +
-      "\013PSsignature\0226\n\005mPrim\030\001 \001(\0132\'.eu.olympus" +
-      ".protos.serializer.ZpElement\022;\n\006sigma1\030\002" +
+      "ement\0222\n\001b\030\004 \001(\0132\'.eu.olympus.protos.ser" +
+      "ializer.ZpElement\"\350\003\n\tPSzkToken\022;\n\006sigma" +
+      "1\030\001 \001(\0132+.eu.olympus.protos.serializer.G" +
+      "roup2Element\022;\n\006sigma2\030\002 \001(\0132+.eu.olympu" +
+      "s.protos.serializer.Group2Element\0222\n\001c\030\003" +
+      " \001(\0132\'.eu.olympus.protos.serializer.ZpEl" +
+      "ement\022[\n\022revealedAttributes\030\004 \003(\0132?.eu.o" +
+      "lympus.protos.serializer.PSzkToken.Revea" +
+      "ledAttributesEntry\0223\n\002vt\030\005 \001(\0132\'.eu.olym" +
+      "pus.protos.serializer.ZpElement\0227\n\006vaPri" +
+      "m\030\006 \001(\0132\'.eu.olympus.protos.serializer.Z" +
+      "pElement\032b\n\027RevealedAttributesEntry\022\013\n\003k" +
+      "ey\030\001 \001(\t\0226\n\005value\030\002 \001(\0132\'.eu.olympus.pro" +
+      "tos.serializer.ZpElement:\0028\001\"\235\005\n\021PSzkTok" +
+      "enModified\022;\n\006sigma1\030\001 \001(\0132+.eu.olympus." +
+      "protos.serializer.Group2Element\022;\n\006sigma" +
+      "2\030\002 \001(\0132+.eu.olympus.protos.serializer.G" +
+      "roup2Element\0222\n\001c\030\003 \001(\0132\'.eu.olympus.pro" +
+      "tos.serializer.ZpElement\022c\n\022revealedAttr" +
+      "ibutes\030\004 \003(\0132G.eu.olympus.protos.seriali" +
+      "zer.PSzkTokenModified.RevealedAttributes" +
+      "Entry\0223\n\002vt\030\005 \001(\0132\'.eu.olympus.protos.se" +
+      "rializer.ZpElement\0227\n\006vaPrim\030\006 \001(\0132\'.eu." +
+      "olympus.protos.serializer.ZpElement\022K\n\006v" +
+      "Gamma\030\007 \003(\0132;.eu.olympus.protos.serializ" +
+      "er.PSzkTokenModified.VGammaEntry\032b\n\027Reve" +
+      "aledAttributesEntry\022\013\n\003key\030\001 \001(\t\0226\n\005valu" +
+      "e\030\002 \001(\0132\'.eu.olympus.protos.serializer.Z" +
+      "pElement:\0028\001\032V\n\013VGammaEntry\022\013\n\003key\030\001 \001(\t" +
+      "\0226\n\005value\030\002 \001(\0132\'.eu.olympus.protos.seri" +
+      "alizer.ZpElement:\0028\001\"\026\n\tZpElement\022\t\n\001x\030\001" +
+      " \001(\014\"=\n\rGroup1Element\022,\n\001x\030\001 \001(\0132!.eu.ol" +
+      "ympus.protos.serializer.ECP\">\n\rGroup2Ele" +
+      "ment\022-\n\001x\030\001 \001(\0132\".eu.olympus.protos.seri" +
+      "alizer.ECP2\"\033\n\003ECP\022\t\n\001x\030\001 \001(\014\022\t\n\001y\030\002 \001(\014" +
+      "\"6\n\004ECP2\022\n\n\002xa\030\001 \001(\014\022\n\n\002xb\030\002 \001(\014\022\n\n\002ya\030\003" +
+      " \001(\014\022\n\n\002yb\030\004 \001(\014\"\323\002\n\tPSverfKey\0227\n\002vx\030\001 \001" +
+      "(\0132+.eu.olympus.protos.serializer.Group1" +
+      "Element\0229\n\004vy_m\030\002 \001(\0132+.eu.olympus.proto" +
+      "s.serializer.Group1Element\022=\n\010vy_epoch\030\003" +
       " \001(\0132+.eu.olympus.protos.serializer.Grou" +
-      "p2Element\022;\n\006sigma2\030\003 \001(\0132+.eu.olympus.p" +
-      "rotos.serializer.Group2Element\"\317\001\n\rIdent" +
-      "ityProof\022\021\n\tsignature\030\001 \001(\t\022O\n\nattribute" +
-      "s\030\002 \003(\0132;.eu.olympus.protos.serializer.I" +
-      "dentityProof.AttributesEntry\032Z\n\017Attribut" +
-      "esEntry\022\013\n\003key\030\001 \001(\t\0226\n\005value\030\002 \001(\0132\'.eu" +
-      ".olympus.protos.serializer.Attribute:\0028\001" +
-      "\"R\n\rPSpublicParam\022\t\n\001n\030\001 \001(\005\0226\n\006auxArg\030\002" +
-      " \001(\0132&.eu.olympus.protos.serializer.PSau" +
-      "xArg\"3\n\010PSauxArg\022\023\n\013pairingName\030\001 \001(\t\022\022\n" +
-      "\nattributes\030\002 \003(\t*?\n\rAttributeType\022\n\n\006ST" +
-      "RING\020\000\022\013\n\007INTEGER\020\001\022\010\n\004DATE\020\002\022\013\n\007BOOLEAN" +
-      "\020\003B\020B\016PabcSerializerb\006proto3"
+      "p1Element\022;\n\002vy\030\004 \003(\0132/.eu.olympus.proto" +
+      "s.serializer.PSverfKey.VyEntry\032V\n\007VyEntr" +
+      "y\022\013\n\003key\030\001 \001(\t\022:\n\005value\030\002 \001(\0132+.eu.olymp" +
+      "us.protos.serializer.Group1Element:\0028\001\"\237" +
+      "\002\n\014PScredential\022\r\n\005epoch\030\001 \001(\003\022^\n\022reveal" +
+      "edAttributes\030\002 \003(\0132B.eu.olympus.protos.s" +
+      "erializer.PScredential.RevealedAttribute" +
+      "sEntry\022<\n\tsignature\030\003 \001(\0132).eu.olympus.p" +
+      "rotos.serializer.PSsignature\032b\n\027Revealed" +
+      "AttributesEntry\022\013\n\003key\030\001 \001(\t\0226\n\005value\030\002 " +
+      "\001(\0132\'.eu.olympus.protos.serializer.Attri" +
+      "bute:\0028\001\"\277\001\n\013PSsignature\0226\n\005mPrim\030\001 \001(\0132" +
+      "\'.eu.olympus.protos.serializer.ZpElement" +
+      "\022;\n\006sigma1\030\002 \001(\0132+.eu.olympus.protos.ser" +
+      "ializer.Group2Element\022;\n\006sigma2\030\003 \001(\0132+." +
+      "eu.olympus.protos.serializer.Group2Eleme" +
+      "nt\"\317\001\n\rIdentityProof\022\021\n\tsignature\030\001 \001(\t\022" +
+      "O\n\nattributes\030\002 \003(\0132;.eu.olympus.protos." +
+      "serializer.IdentityProof.AttributesEntry" +
+      "\032Z\n\017AttributesEntry\022\013\n\003key\030\001 \001(\t\0226\n\005valu" +
+      "e\030\002 \001(\0132\'.eu.olympus.protos.serializer.A" +
+      "ttribute:\0028\001\"R\n\rPSpublicParam\022\t\n\001n\030\001 \001(\005" +
+      "\0226\n\006auxArg\030\002 \001(\0132&.eu.olympus.protos.ser" +
+      "ializer.PSauxArg\"3\n\010PSauxArg\022\023\n\013pairingN" +
+      "ame\030\001 \001(\t\022\022\n\nattributes\030\002 \003(\t*?\n\rAttribu" +
+      "teType\022\n\n\006STRING\020\000\022\013\n\007INTEGER\020\001\022\010\n\004DATE\020" +
+      "\002\022\013\n\007BOOLEAN\020\003B\020B\016PabcSerializerb\006proto3"
     };
     descriptor = com.google.protobuf.Descriptors.FileDescriptor
       .internalBuildGeneratedFileFrom(descriptorData,
@@ -19845,7 +22297,7 @@ public final class PabcSerializer {
     internal_static_eu_olympus_protos_serializer_PresentationToken_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_eu_olympus_protos_serializer_PresentationToken_descriptor,
-        new java.lang.String[] { "Epoch", "RevealedAttributes", "RangePredTokens", "PsZkToken", "PsZkTokenMod", "Token", });
+        new java.lang.String[] { "Epoch", "RevealedAttributes", "RangePredTokens", "PsZkToken", "PsZkTokenMod", "AggregatedRangeProof", "Token", });
     internal_static_eu_olympus_protos_serializer_PresentationToken_RevealedAttributesEntry_descriptor =
       internal_static_eu_olympus_protos_serializer_PresentationToken_descriptor.getNestedTypes().get(0);
     internal_static_eu_olympus_protos_serializer_PresentationToken_RevealedAttributesEntry_fieldAccessorTable = new
@@ -19876,14 +22328,20 @@ public final class PabcSerializer {
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_eu_olympus_protos_serializer_RangeProof_descriptor,
         new java.lang.String[] { "T1", "T2", "TauX", "Mu", "THat", "A", "S", "InnerProductProof", });
-    internal_static_eu_olympus_protos_serializer_InnerProductProof_descriptor =
+    internal_static_eu_olympus_protos_serializer_AggregatedRangeProof_descriptor =
       getDescriptor().getMessageTypes().get(4);
+    internal_static_eu_olympus_protos_serializer_AggregatedRangeProof_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_eu_olympus_protos_serializer_AggregatedRangeProof_descriptor,
+        new java.lang.String[] { "T1", "T2", "TauX", "Mu", "THat", "A", "S", "InnerProductProof", });
+    internal_static_eu_olympus_protos_serializer_InnerProductProof_descriptor =
+      getDescriptor().getMessageTypes().get(5);
     internal_static_eu_olympus_protos_serializer_InnerProductProof_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_eu_olympus_protos_serializer_InnerProductProof_descriptor,
         new java.lang.String[] { "L", "R", "A", "B", });
     internal_static_eu_olympus_protos_serializer_PSzkToken_descriptor =
-      getDescriptor().getMessageTypes().get(5);
+      getDescriptor().getMessageTypes().get(6);
     internal_static_eu_olympus_protos_serializer_PSzkToken_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_eu_olympus_protos_serializer_PSzkToken_descriptor,
@@ -19895,7 +22353,7 @@ public final class PabcSerializer {
         internal_static_eu_olympus_protos_serializer_PSzkToken_RevealedAttributesEntry_descriptor,
         new java.lang.String[] { "Key", "Value", });
     internal_static_eu_olympus_protos_serializer_PSzkTokenModified_descriptor =
-      getDescriptor().getMessageTypes().get(6);
+      getDescriptor().getMessageTypes().get(7);
     internal_static_eu_olympus_protos_serializer_PSzkTokenModified_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_eu_olympus_protos_serializer_PSzkTokenModified_descriptor,
@@ -19913,37 +22371,37 @@ public final class PabcSerializer {
         internal_static_eu_olympus_protos_serializer_PSzkTokenModified_VGammaEntry_descriptor,
         new java.lang.String[] { "Key", "Value", });
     internal_static_eu_olympus_protos_serializer_ZpElement_descriptor =
-      getDescriptor().getMessageTypes().get(7);
+      getDescriptor().getMessageTypes().get(8);
     internal_static_eu_olympus_protos_serializer_ZpElement_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_eu_olympus_protos_serializer_ZpElement_descriptor,
         new java.lang.String[] { "X", });
     internal_static_eu_olympus_protos_serializer_Group1Element_descriptor =
-      getDescriptor().getMessageTypes().get(8);
+      getDescriptor().getMessageTypes().get(9);
     internal_static_eu_olympus_protos_serializer_Group1Element_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_eu_olympus_protos_serializer_Group1Element_descriptor,
         new java.lang.String[] { "X", });
     internal_static_eu_olympus_protos_serializer_Group2Element_descriptor =
-      getDescriptor().getMessageTypes().get(9);
+      getDescriptor().getMessageTypes().get(10);
     internal_static_eu_olympus_protos_serializer_Group2Element_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_eu_olympus_protos_serializer_Group2Element_descriptor,
         new java.lang.String[] { "X", });
     internal_static_eu_olympus_protos_serializer_ECP_descriptor =
-      getDescriptor().getMessageTypes().get(10);
+      getDescriptor().getMessageTypes().get(11);
     internal_static_eu_olympus_protos_serializer_ECP_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_eu_olympus_protos_serializer_ECP_descriptor,
         new java.lang.String[] { "X", "Y", });
     internal_static_eu_olympus_protos_serializer_ECP2_descriptor =
-      getDescriptor().getMessageTypes().get(11);
+      getDescriptor().getMessageTypes().get(12);
     internal_static_eu_olympus_protos_serializer_ECP2_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_eu_olympus_protos_serializer_ECP2_descriptor,
         new java.lang.String[] { "Xa", "Xb", "Ya", "Yb", });
     internal_static_eu_olympus_protos_serializer_PSverfKey_descriptor =
-      getDescriptor().getMessageTypes().get(12);
+      getDescriptor().getMessageTypes().get(13);
     internal_static_eu_olympus_protos_serializer_PSverfKey_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_eu_olympus_protos_serializer_PSverfKey_descriptor,
@@ -19955,7 +22413,7 @@ public final class PabcSerializer {
         internal_static_eu_olympus_protos_serializer_PSverfKey_VyEntry_descriptor,
         new java.lang.String[] { "Key", "Value", });
     internal_static_eu_olympus_protos_serializer_PScredential_descriptor =
-      getDescriptor().getMessageTypes().get(13);
+      getDescriptor().getMessageTypes().get(14);
     internal_static_eu_olympus_protos_serializer_PScredential_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_eu_olympus_protos_serializer_PScredential_descriptor,
@@ -19967,13 +22425,13 @@ public final class PabcSerializer {
         internal_static_eu_olympus_protos_serializer_PScredential_RevealedAttributesEntry_descriptor,
         new java.lang.String[] { "Key", "Value", });
     internal_static_eu_olympus_protos_serializer_PSsignature_descriptor =
-      getDescriptor().getMessageTypes().get(14);
+      getDescriptor().getMessageTypes().get(15);
     internal_static_eu_olympus_protos_serializer_PSsignature_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_eu_olympus_protos_serializer_PSsignature_descriptor,
         new java.lang.String[] { "MPrim", "Sigma1", "Sigma2", });
     internal_static_eu_olympus_protos_serializer_IdentityProof_descriptor =
-      getDescriptor().getMessageTypes().get(15);
+      getDescriptor().getMessageTypes().get(16);
     internal_static_eu_olympus_protos_serializer_IdentityProof_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_eu_olympus_protos_serializer_IdentityProof_descriptor,
@@ -19985,13 +22443,13 @@ public final class PabcSerializer {
         internal_static_eu_olympus_protos_serializer_IdentityProof_AttributesEntry_descriptor,
         new java.lang.String[] { "Key", "Value", });
     internal_static_eu_olympus_protos_serializer_PSpublicParam_descriptor =
-      getDescriptor().getMessageTypes().get(16);
+      getDescriptor().getMessageTypes().get(17);
     internal_static_eu_olympus_protos_serializer_PSpublicParam_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_eu_olympus_protos_serializer_PSpublicParam_descriptor,
         new java.lang.String[] { "N", "AuxArg", });
     internal_static_eu_olympus_protos_serializer_PSauxArg_descriptor =
-      getDescriptor().getMessageTypes().get(17);
+      getDescriptor().getMessageTypes().get(18);
     internal_static_eu_olympus_protos_serializer_PSauxArg_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_eu_olympus_protos_serializer_PSauxArg_descriptor,
@@ -20,11 +20,14 @@ import eu.olympus.server.interfaces.TokenGenerator;
 import eu.olympus.server.rest.CommonRESTEndpoints;
 import eu.olympus.server.rest.Role;
 import eu.olympus.server.storage.InMemoryKeyDB;
+import eu.olympus.util.BoundedExecutor;
 import java.security.PublicKey;
 import java.security.cert.Certificate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.apache.commons.codec.binary.Base64;
 import org.miracl.core.BLS12461.ECP;
 import org.slf4j.Logger;
@@ -35,6 +38,10 @@ public abstract class AbstractPestoIdP implements PestoBasedIdP {
     private static final Logger logger = LoggerFactory.getLogger(PestoIdPImpl.class);
     private final ObjectMapper objectMapper;
     private final int rateLimit;
+    private int expensiveRateLimit;
+    private int userRateLimit;
+    private String rateLimitAddressHeader;
+    private BoundedExecutor cryptoExecutor;
     private int id;
     protected ServerCryptoModule cryptoModule;
     protected PestoAuthenticationHandler authenticationHandler;
@@ -62,6 +69,14 @@ public abstract class AbstractPestoIdP implements PestoBasedIdP {
 
             KeyShares master = new KeyShares(pestoConfiguration.getKeyMaterial(), pestoConfiguration.getRsaBlindings(),
                 pestoConfiguration.getOprfKey(),pestoConfiguration.getOprfBlindings());
+            authenticationHandler.setStatelessSessions(pestoConfiguration.isStatelessSessions());
+            expensiveRateLimit = pestoConfiguration.getExpensiveRateLimit();
+            userRateLimit = pestoConfiguration.getUserRateLimit();
+            rateLimitAddressHeader = pestoConfiguration.getRateLimitAddressHeader();
+            if (cryptoExecutor != null) {
+                cryptoExecutor.shutdown();
+            }
+            cryptoExecutor = createCryptoExecutor(pestoConfiguration);
             boolean res = authenticationHandler.setup(ssid, master, pestoConfiguration.getLocalKeyShare(), pestoConfiguration.getRemoteShares(), pestoConfiguration.getId(),
                 pestoConfiguration.getAllowedTimeDifference(), pestoConfiguration.getWaitTime(), pestoConfiguration.getSessionLength(), servers);
             id = pestoConfiguration.getId();
@@ -80,6 +95,34 @@ public abstract class AbstractPestoIdP implements PestoBasedIdP {
         return rateLimit;
     }
 
+    @Override
+    public BoundedExecutor getCryptoExecutor(){
+        return cryptoExecutor;
+    }
+
+    private static BoundedExecutor createCryptoExecutor(PESTOConfiguration configuration) {
+        if (configuration.getCryptoThreads() < 0) {
+            return null;
+        }
+        int threads = configuration.getCryptoThreads() == 0 ? Runtime.getRuntime().availableProcessors() : configuration.getCryptoThreads();
+        return new BoundedExecutor("crypto", threads, configuration.getCryptoQueueSize());
+    }
+
+    @Override
+    public int getExpensiveRateLimit(){
+        return expensiveRateLimit;
+    }
+
+    @Override
+    public int getUserRateLimit(){
+        return userRateLimit;
+    }
+
+    @Override
+    public String getRateLimitAddressHeader(){
+        return rateLimitAddressHeader;
+    }
+
     @Override
     public void addSession(String cookie, Authorization authorization) {
         this.authenticationHandler.storeAuthorization(cookie, authorization);;
@@ -125,6 +168,19 @@ public abstract class AbstractPestoIdP implements PestoBasedIdP {
         }
     }
 
+    @Override
+    public CompletableFuture<byte[]> finishRegistrationAsync(String username, byte[] cookie, PublicKey publicKey, byte[] signature, long salt, String idProof) {
+        try {
+            validateSession(Base64.encodeBase64String(cookie), Arrays.asList(Role.USER));
+        } catch (AuthenticationFailedException e) {
+            return failed(new UserCreationFailedException("Failed to finish registration", e));
+        }
+        return authenticationHandler.finishRegistrationAsync(username, cookie, publicKey, signature, salt, idProof)
+            .exceptionally(e -> {
+                throw new CompletionException(new UserCreationFailedException("Failed to finish registration", unwrap(e)));
+            });
+    }
+
     @Override
     public Certificate getCertificate() {
         return cert;
@@ -201,6 +257,16 @@ public abstract class AbstractPestoIdP implements PestoBasedIdP {
         return authenticationHandler.changePassword(username, cookie, publicKey, oldSignature, newSignature, salt);
     }
 
+    @Override
+    public CompletableFuture<byte[]> changePasswordAsync(String username, byte[] cookie, PublicKey publicKey, byte[] oldSignature, byte[] newSignature, long salt) {
+        try {
+            validateSession(Base64.encodeBase64String(cookie), Arrays.asList(Role.USER));
+        } catch (AuthenticationFailedException e) {
+            return failed(e);
+        }
+        return authenticationHandler.changePasswordAsync(username, cookie, publicKey, oldSignature, newSignature, salt);
+    }
+
     @Override
     public String requestMFA(String username, byte[] cookie, long salt, String type, byte[] signature) throws OperationFailedException {
         try {
@@ -215,6 +281,34 @@ public abstract class AbstractPestoIdP implements PestoBasedIdP {
         }
     }
 
+    @Override
+    public CompletableFuture<String> requestMFAAsync(String username, byte[] cookie, long salt, String type, byte[] signature) {
+        try {
+            validateSession(Base64.encodeBase64String(cookie), Arrays.asList(Role.USER));
+            boolean authenticated = authenticationHandler.validateUsernameAndSignature(username, cookie, salt, signature, CommonRESTEndpoints.REQUEST_MFA  + type);
+            if(!authenticated) {
+                throw new OperationFailedException("Authentication failed");
+            }
+        }catch (AuthenticationFailedException | OperationFailedException e) {
+            return failed(new OperationFailedException("Failed to request MFA",e));
+        }
+        return authenticationHandler.requestMFASecretAsync(username, type)
+            .exceptionally(e -> {
+                throw new CompletionException(new OperationFailedException("Failed to request MFA", unwrap(e)));
+            });
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable e) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    private static Exception unwrap(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof Exception ? (Exception) cause : new CompletionException(cause);
+    }
+
     @Override
     public boolean confirmMFA(String username, byte[] cookie, long salt, String token, String type, byte[] signature) throws AuthenticationFailedException, OperationFailedException {
         validateSession(Base64.encodeBase64String(cookie), Arrays.asList(Role.USER));
@@ -41,6 +41,8 @@ public abstract class AuthenticationHandler {
 	protected final UserAuthorizationDatabase sessions;
 	protected final Map<String, MFAAuthenticator> mfaAuthenticators;
 	protected final ServerCryptoModule crypto;
+	/** Set when sessions are kept in the cookies themselves instead of in the session storage */
+	protected volatile StatelessSessionCookies statelessSessions;
 	private final Storage database;
 	private final List<IdentityProver> identityProvers;
 
@@ -222,12 +224,11 @@ public abstract class AuthenticationHandler {
 	}
 
 	public boolean deleteAttributes(String username, List<String> attributes) throws OperationFailedException {
-		boolean failedDelete = true;
-
+		List<String> names = new ArrayList<>(attributes.size());
 		for (String currentAttribute: attributes) {
-			failedDelete &= this.database.deleteAttribute(username, currentAttribute.toLowerCase());
+			names.add(currentAttribute.toLowerCase());
 		}
-		return failedDelete;
+		return this.database.deleteAttributes(username, names);
 	}
 
 	public boolean deleteAccount(String username) throws OperationFailedException {
@@ -243,8 +244,41 @@ public abstract class AuthenticationHandler {
 		this.sessions.storeCookie(cookie, authorization);
 	}
 
+	/**
+	 * Create a cookie for a new session. The session is stored in the cookie itself if stateless
+	 * sessions are used, and in the session storage otherwise.
+	 * @param authorization The session
+	 * @return The session cookie
+	 */
+	protected String createSession(Authorization authorization) {
+		StatelessSessionCookies stateless = statelessSessions;
+		if(stateless != null) {
+			return stateless.encode(authorization);
+		}
+		String cookie = Base64.encodeBase64String(crypto.getBytes(64));
+		storeAuthorization(cookie, authorization);
+		return cookie;
+	}
+
+	// Stateless cookies are checked without a lookup, other cookies (eg. configured server tokens) are looked up
+	private Authorization lookupSession(String cookie) {
+		StatelessSessionCookies stateless = statelessSessions;
+		if(stateless != null) {
+			Authorization authorization = stateless.decode(cookie);
+			if(authorization != null) {
+				return authorization;
+			}
+		}
+		return sessions.lookupCookie(cookie);
+	}
+
 	public String refreshCookie(String cookie) {
 		logger.info("refreshCookie: "+cookie);
+		StatelessSessionCookies stateless = statelessSessions;
+		Authorization session = stateless != null ? stateless.decode(cookie) : null;
+		if(session != null) {
+			return stateless.encode(session);
+		}
 		String newCookie = Base64.encodeBase64String(crypto.getBytes(64));
 		try {
 			Authorization auth = this.sessions.lookupCookie(cookie);
@@ -268,7 +302,7 @@ public abstract class AuthenticationHandler {
 	 * @throws AuthenticationFailedException
 	 */
 	public void validateSession(String cookie, List<Role> requestedRoles) throws AuthenticationFailedException {
-		Authorization authorization = sessions.lookupCookie(cookie);
+		Authorization authorization = lookupSession(cookie);
 		if(authorization == null) {
 			throw new AuthenticationFailedException("Session cookie invalid");
 		}
@@ -315,6 +349,21 @@ public abstract class AuthenticationHandler {
 		return true;
 	}
 
+	/**
+	 * Validate an MFA token as validateMFAToken, using MFA information the caller already read
+	 * for an existing user.
+	 * @param username The username
+	 * @param mfaInfo The MFA information of the user
+	 * @param token The MFA token to verify
+	 * @param type The type of MFA token
+	 */
+	protected boolean validateMFAToken(String username, Map<String, MFAInformation> mfaInfo, String token, String type) throws OperationFailedException {
+		if (isMFAActivated(mfaInfo)) {
+			return conservativeMFAValidation(username, token, type);
+		}
+		return true;
+	}
+
 	/**
 	 * Returns true if there is ANY active MFA for this user
 	 * @param username The username
@@ -328,7 +377,10 @@ public abstract class AuthenticationHandler {
 			logger.error("Database failed operation", e);
 			throw new OperationFailedException(e);
 		}
+		return isMFAActivated(mfaInfo);
+	}
 
+	private boolean isMFAActivated(Map<String, MFAInformation> mfaInfo) {
 		//Check if user has activate MFA
 		for(String info: mfaInfo.keySet()) {
 			if(mfaInfo.get(info).isActivated()) {
@@ -127,9 +127,7 @@ public class PasswordHandler extends AuthenticationHandler {
 
 	@Override
 	public String generateSessionCookie(String username) {
-		String cookie = org.apache.commons.codec.binary.Base64.encodeBase64String(crypto.getBytes(64));
-		storeAuthorization(cookie, new Authorization(username, Arrays.asList(Role.USER), System.currentTimeMillis()+this.sessionLength));
-		return cookie;
+		return createSession(new Authorization(username, Arrays.asList(Role.USER), System.currentTimeMillis()+this.sessionLength));
 	}
 
 }
@@ -3,6 +3,7 @@ package eu.olympus.server;
 import eu.olympus.model.Authorization;
 import eu.olympus.model.KeyShares;
 import eu.olympus.model.OPRFResponse;
+import eu.olympus.model.UserAuthState;
 import eu.olympus.model.exceptions.AuthenticationFailedException;
 import eu.olympus.model.exceptions.ExistingUserException;
 import eu.olympus.model.exceptions.KeyGenerationFailedException;
@@ -25,6 +26,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.codec.Charsets;
 import org.apache.commons.codec.binary.Base64;
 import org.miracl.core.BLS12461.ECP;
@@ -50,6 +59,14 @@ public class PestoAuthenticationHandler extends AuthenticationHandler{
 	private long maxWaitTime;
 	private long sessionLength;
 	private long timeoutFactor;
+	private boolean useStatelessSessions = false;
+	/** Runs the work that follows collecting the partial values of the other servers, so it is not
+	 *	done on the thread that delivered the last value, which is serving a request of another server.
+	 *	The queue is unbounded: once the partial values have been sent the other servers complete the
+	 *	operation, so this server must complete it too rather than shed it.
+	 */
+	private final ThreadPoolExecutor continuationExecutor;
+	private static final byte[] SESSION_KEY_LABEL = "session-cookie-key".getBytes(Charsets.UTF_8);
 
 	public PestoAuthenticationHandler(PestoDatabase database, ServerCryptoModule crypto,
 			UserAuthorizationDatabase sessionDB,
@@ -57,6 +74,25 @@ public class PestoAuthenticationHandler extends AuthenticationHandler{
 		super(database, sessionDB, mfaAuthenticators, crypto);
 		this.database = database;
 		this.refreshDB = (InMemoryKeyDB)sessionDB;
+		int threads = Runtime.getRuntime().availableProcessors();
+		AtomicInteger count = new AtomicInteger();
+		this.continuationExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), r -> {
+					Thread thread = new Thread(r, "pesto-continuation-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		continuationExecutor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Choose whether the sessions are kept in self-contained MACed cookies instead of in the session
+	 * storage. Must be set before setup. The MAC key is derived from the epoch keys, so replicas of
+	 * an IdP set up with the same configuration accept each other's cookies, and it is rotated on
+	 * every refresh.
+	 */
+	public void setStatelessSessions(boolean useStatelessSessions) {
+		this.useStatelessSessions = useStatelessSessions;
 	}
 
 	public boolean setup(String ssid, KeyShares master, byte[] localKeyShare, Map<Integer, byte[]> remoteShares,
@@ -84,20 +120,22 @@ public class PestoAuthenticationHandler extends AuthenticationHandler{
 	
 		// Compute first epoch keys
 		KeyShares epochKeys =  this.refresher.updateSharesFromMaster(ssid.getBytes(Charsets.UTF_8), master);
+		this.statelessSessions = useStatelessSessions ? new StatelessSessionCookies(sessionKey(epochKeys)) : null;
 		return this.crypto.setupServer(epochKeys);
 	}
 
 	public OPRFResponse performOPRF(String salt, String username, ECP x, String mfaToken, String mfaType) throws AuthenticationFailedException, OperationFailedException {
 		// We set valid to true by default since the user might not exist at this point, in which case any MFA token should be valid
 		boolean valid = true;
-		if(mayNotAuthenticate(database.getLastAuthAttempt(username), database.getNumberOfFailedAuthAttempts(username), timeoutFactor)){
+		UserAuthState state = database.getUserAuthState(username);
+		if(mayNotAuthenticate(state.getLastAuthAttempt(), state.getFailedAuthAttempts(), timeoutFactor)){
 			throw new AuthenticationFailedException("User is timed out");
 		}
-		if (database.hasUser(username)) {
-			if(!checkSalt(username,new Long(salt))){
+		if (state.userExists()) {
+			if(!checkSalt(state.getSalt(),new Long(salt))){
 				throw new AuthenticationFailedException("Failed to validate salt.");
 			}
-			valid = validateMFAToken(username, mfaToken, mfaType);
+			valid = validateMFAToken(username, state.getMFAInformation(), mfaToken, mfaType);
 		}
 		if(!valid) {
 			throw new AuthenticationFailedException("Failed to validate MFA token.");
@@ -116,15 +154,16 @@ public class PestoAuthenticationHandler extends AuthenticationHandler{
 			byte[] myShare = database.getKeyShare(id);
 			addMasterShare(mySsid, myShare);
 			// Send the other parties' shares
+			List<CompletableFuture<Void>> sentShares = new ArrayList<>(servers.size());
 			for (IdPRESTWrapper idp : servers) {
-				idp.addMasterShare(mySsid, database.getKeyShare(idp.getId()));
+				sentShares.add(logFailure(idp, "addMasterShare", idp.addMasterShareAsync(mySsid, database.getKeyShare(idp.getId()))));
 			}
-			long startTime = System.currentTimeMillis();
-			// Stop in case a server is dead
-			while (refreshDB.getMasterShares().size() < servers.size() + 1 &&
-					System.currentTimeMillis() < startTime + maxWaitTime) {
-				// Keep querying the database to check when all partial signatures are in
-				Thread.sleep(2);
+			// Wait until all shares are in, but stop in case a server is dead
+			refreshDB.waitForMasterShares(servers.size() + 1, maxWaitTime);
+			// The connections must have received their new authorization before the key shares are sent
+			if (!awaitAll(sentShares)) {
+				logger.info("Could not send the master shares to all servers");
+				return false;
 			}
 			List<byte[]> shares = refreshDB.getMasterShares();
 			List<String> ssids = refreshDB.getSsids();
@@ -142,14 +181,22 @@ public class PestoAuthenticationHandler extends AuthenticationHandler{
 			}
 			// Update shares in Crypto
 			byte[] combinedSsids = refresher.combineSsids(ssids);
-			refresher.updateSharesFromMaster(combinedSsids, combined);
+			KeyShares epochKeys = refresher.updateSharesFromMaster(combinedSsids, combined);
+			if (statelessSessions != null) {
+				statelessSessions.rotateKey(sessionKey(epochKeys));
+			}
 
 			// Reshare the masterkey
 			List<byte[]> updatedShares = refresher.reshareMasterKeys(combined, servers.size()+1);
 			database.setKeyShare(id, updatedShares.get(id));
 			// Send the shares of my master key to the other servers
+			List<CompletableFuture<Void>> sentKeyShares = new ArrayList<>(servers.size());
 			for (IdPRESTWrapper idp : servers) {
-				idp.setKeyShare(id, updatedShares.get(idp.getId()));
+				sentKeyShares.add(logFailure(idp, "setKeyShare", idp.setKeyShareAsync(id, updatedShares.get(idp.getId()))));
+			}
+			if (!awaitAll(sentKeyShares)) {
+				logger.info("Could not send the new key shares to all servers");
+				return false;
 			}
 
 			return true;
@@ -207,10 +254,32 @@ public class PestoAuthenticationHandler extends AuthenticationHandler{
 	}
 	
 	public byte[] finishRegistration(String username, byte[] cookie, PublicKey publicKey, byte[] signature, long salt, String idProof) throws UserCreationFailedException, OperationFailedException {
+		try {
+			return await(finishRegistrationAsync(username, cookie, publicKey, signature, salt, idProof));
+		} catch (UserCreationFailedException | OperationFailedException | RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new UserCreationFailedException("Failed to finish registration", e);
+		}
+	}
+
+	/**
+	 * Verify a registration and send the partial signature on the user's key to the other servers.
+	 * The returned future completes once all partial signatures are in, or the servers took longer
+	 * than maxWaitTime, so no thread is held while waiting for the other servers.
+	 * @return The combined signature on the user's key, or a future failed with
+	 * 		UserCreationFailedException or OperationFailedException
+	 */
+	public CompletableFuture<byte[]> finishRegistrationAsync(String username, byte[] cookie, PublicKey publicKey, byte[] signature, long salt, String idProof) {
 		//todo validate cookie
-		if(this.database.hasUser(username)) {
-			throw new ExistingUserException();
+		try {
+			if(this.database.hasUser(username)) {
+				throw new ExistingUserException();
+			}
+		} catch (UserCreationFailedException | OperationFailedException e) {
+			return failed(e);
 		}
+		CompletableFuture<byte[]> registration;
 		try {
 			if(!checkSaltRange(salt)){
 				throw new AuthenticationFailedException("Failed to validate salt.");
@@ -219,10 +288,8 @@ public class PestoAuthenticationHandler extends AuthenticationHandler{
 			List<byte[]> list = new ArrayList<byte[]>();
 			list.add(nonce);
 			list.add(username.getBytes(Charsets.UTF_8));
-			if (idProof == null) {
-				idProof = "";
-			}
-			list.add((CommonRESTEndpoints.CREATE_USER_AND_ADD_ATTRIBUTES+idProof).getBytes(Charsets.UTF_8));
+			String proof = idProof == null ? "" : idProof;
+			list.add((CommonRESTEndpoints.CREATE_USER_AND_ADD_ATTRIBUTES+proof).getBytes(Charsets.UTF_8));
 			list.add(cookie);
 			if (!crypto.verifySignature(publicKey, list, signature)) {
 				throw new UserCreationFailedException("Invalid signature");
@@ -231,18 +298,28 @@ public class PestoAuthenticationHandler extends AuthenticationHandler{
 			byte[] serverSignature = crypto.sign(publicKey, nonce, id);
 			addPartialServerSignature(username, serverSignature);
 			for (IdPRESTWrapper idp : servers) {
-				idp.addPartialServerSignature(username, serverSignature);
+				logFailure(idp, "addPartialServerSignature", idp.addPartialServerSignatureAsync(username, serverSignature));
 			}
 
-			long startTime = System.currentTimeMillis();
-			// Stop in case a server is dead
-			while (this.refreshDB.getPartialSignatures(username).size() < servers.size() + 1
-					&& System.currentTimeMillis() < startTime + maxWaitTime) {
-				// Keep querying the database to check when all partial signatures are in
-				Thread.sleep(2);
-			}
-			
-			if (refreshDB.getPartialSignatures(username).size() < servers.size() + 1) {
+			// Continue once all partial signatures are in, but stop in case a server is dead
+			registration = refreshDB.awaitPartialSignatures(username, servers.size() + 1, maxWaitTime).thenApplyAsync(complete -> {
+				try {
+					return completeRegistration(username, publicKey, salt, proof, complete);
+				} catch (UserCreationFailedException e) {
+					throw new CompletionException(e);
+				}
+			}, continuationExecutor);
+		} catch (SignatureException | AuthenticationFailedException e) {
+			registration = failed(new UserCreationFailedException("Failed to finish registration", e));
+		} catch (UserCreationFailedException e) {
+			registration = failed(e);
+		}
+		return registration.whenComplete((result, e) -> this.refreshDB.deletePartialSignatures(username));
+	}
+
+	private byte[] completeRegistration(String username, PublicKey publicKey, long salt, String idProof, boolean complete) throws UserCreationFailedException {
+		try {
+			if (!complete) {
 				logger.warn("PestoAuthenticationHandler "+id+" did not receive enough partial signatures: "+refreshDB.getPartialSignatures(username).size()+" expected "+(servers.size()+1));
 				throw new UserCreationFailedException("Did not hear back from all the servers");
 			}
@@ -262,10 +339,8 @@ public class PestoAuthenticationHandler extends AuthenticationHandler{
 				addAttributes(username, idProof);
 			}
 			return combinedSignature;
-		} catch (SignatureException | KeyGenerationFailedException | OperationFailedException | InterruptedException | AuthenticationFailedException e) {
+		} catch (SignatureException | KeyGenerationFailedException | OperationFailedException e) {
 			throw new UserCreationFailedException("Failed to finish registration", e);
-		} finally {
-			this.refreshDB.deletePartialSignatures(username);
 		}
 	}
 
@@ -278,16 +353,17 @@ public class PestoAuthenticationHandler extends AuthenticationHandler{
 	 * @return
 	 */
 	public boolean validateUsernameAndSignature(String username, byte[] sessionData, long salt, byte[] signature, String operation) throws OperationFailedException {
-		if (mayNotAuthenticate(database.getLastAuthAttempt(username), database.getNumberOfFailedAuthAttempts(username), timeoutFactor)) {
+		UserAuthState state = database.getUserAuthState(username);
+		if (mayNotAuthenticate(state.getLastAuthAttempt(), state.getFailedAuthAttempts(), timeoutFactor)) {
 			logger.info("Too many failed passwords attempts");
 			return false;
 		}
-		PublicKey userKey = this.database.getUserKey(username);
+		PublicKey userKey = state.getUserKey();
 		if (userKey == null) {
 			logger.warn("PestoAuthenticationHandler.validateUsernameAndSignature no userkey, returning false");
 			return false;
 		}
-		if (!checkSalt(username,salt)) {
+		if (!checkSalt(state.getSalt(),salt)) {
 			logger.warn("PestoAuthenticationHandler.validateUsernameAndSignature bad salt, returning false");
 			return false;
 		}
@@ -298,12 +374,7 @@ public class PestoAuthenticationHandler extends AuthenticationHandler{
 		list.add(operation.getBytes(Charsets.UTF_8));
 		list.add(sessionData != null ? sessionData : new byte[0]);
 		boolean valid = crypto.verifySignature(userKey, list, signature);
-		database.setSalt(username, salt);
-		if(!valid){
-			this.database.failedAuthAttempt(username);
-		} else {
-			this.database.clearFailedAuthAttempts(username);
-		}
+		database.recordAuthAttempt(username, salt, valid);
 		return valid;
 	}
 
@@ -313,33 +384,49 @@ public class PestoAuthenticationHandler extends AuthenticationHandler{
 	 * @throws OperationFailedException
 	 */
 	public String requestMFASecret(String username, String type) throws OperationFailedException {
+		try {
+			return await(requestMFASecretAsync(username, type));
+		} catch (OperationFailedException | RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new OperationFailedException("Failed to request MFA secret", e);
+		}
+	}
+
+	/**
+	 * Generate a partial MFA secret and send it to the other servers. The returned future completes
+	 * once all partial secrets are in, or the servers took longer than maxWaitTime.
+	 * @return The combined secret, or a future failed with OperationFailedException
+	 */
+	public CompletableFuture<String> requestMFASecretAsync(String username, String type) {
 		try {
 			if (!this.database.hasUser(username)) {
-				throw new NonExistingUserException();
-			}
-			String secret = mfaAuthenticators.get(type).generateSecret();
-			addPartialMFASecret(username, secret, type);
-			for (IdPRESTWrapper idp : servers) {
-				idp.addPartialMFASecret(username, secret, type);
+				return failed(new OperationFailedException("Failed to request MFA secret", new NonExistingUserException()));
 			}
+		} catch (OperationFailedException e) {
+			return failed(e);
+		}
+		String secret = mfaAuthenticators.get(type).generateSecret();
+		addPartialMFASecret(username, secret, type);
+		for (IdPRESTWrapper idp : servers) {
+			logFailure(idp, "addPartialMFASecret", idp.addPartialMFASecretAsync(username, secret, type));
+		}
 
-			long startTime = System.currentTimeMillis();
-			// Stop in case a server is dead
-			while (this.refreshDB.getPartialMFASecrets(hashValues(username, type)).size() < servers.size() + 1 && System.currentTimeMillis() < startTime + maxWaitTime) {
-				// Keep querying the database to check when all partial secrets are in
-				Thread.sleep(2);
-			}
-			List<String> input = this.refreshDB.getPartialMFASecrets(hashValues(username, type));
-			if (input.size() < servers.size() + 1) {
-				logger.warn("PestoAuthentication Handler "+id+" did not receive enough partial MFA secrets: "+this.refreshDB.getPartialMFASecrets(hashValues(username, type)).size()+" expected "+(servers.size()+1));
-				throw new UserCreationFailedException("Did not hear back from all the servers");
+		// Continue once all partial secrets are in, but stop in case a server is dead
+		return this.refreshDB.awaitPartialMFASecrets(hashValues(username, type), servers.size() + 1, maxWaitTime).thenApplyAsync(complete -> {
+			try {
+				List<String> input = this.refreshDB.getPartialMFASecrets(hashValues(username, type));
+				if (!complete) {
+					logger.warn("PestoAuthentication Handler "+id+" did not receive enough partial MFA secrets: "+input.size()+" expected "+(servers.size()+1));
+					throw new OperationFailedException("Failed to request MFA secret", new UserCreationFailedException("Did not hear back from all the servers"));
+				}
+				String combinedSecret = mfaAuthenticators.get(type).combineSecrets(input);
+				this.database.assignMFASecret(username, type, combinedSecret);
+				return combinedSecret;
+			} catch (OperationFailedException e) {
+				throw new CompletionException(e);
 			}
-			String combinedSecret = mfaAuthenticators.get(type).combineSecrets(input);
-			this.database.assignMFASecret(username, type, combinedSecret);
-			return combinedSecret;
-		} catch (NonExistingUserException | UserCreationFailedException | InterruptedException e){
-				throw new OperationFailedException("Failed to request MFA secret", e);
-		}
+		}, continuationExecutor);
 	}
 	
 	/**
@@ -348,8 +435,7 @@ public class PestoAuthenticationHandler extends AuthenticationHandler{
 	 * @param salt
 	 * @return true if the request is valid. False otherwise.
 	 */
-	private boolean checkSalt(String username, long salt) throws OperationFailedException {
-			long oldSalt = this.database.getLastSalt(username);
+	private boolean checkSalt(long oldSalt, long salt) {
 			if (salt <= oldSalt) {
 				// Someone is reusing salt
 				return false;
@@ -364,11 +450,29 @@ public class PestoAuthenticationHandler extends AuthenticationHandler{
 	}
 
 	public byte[] changePassword(String username, byte[] cookie, PublicKey publicKey, byte[] oldSignature, byte[] newSignature, long salt) throws OperationFailedException, AuthenticationFailedException {
+		try {
+			return await(changePasswordAsync(username, cookie, publicKey, oldSignature, newSignature, salt));
+		} catch (OperationFailedException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new OperationFailedException("Failed to change password", e);
+		}
+	}
+
+	/**
+	 * Verify a password change and send the partial signature on the new key to the other servers.
+	 * The returned future completes once all partial signatures are in, or the servers took longer
+	 * than maxWaitTime.
+	 * @return The combined signature on the new key, or a future failed with OperationFailedException
+	 */
+	public CompletableFuture<byte[]> changePasswordAsync(String username, byte[] cookie, PublicKey publicKey, byte[] oldSignature, byte[] newSignature, long salt) {
+		CompletableFuture<byte[]> change;
 		try{
-			if(!this.database.hasUser(username)) {
+			UserAuthState state = this.database.getUserAuthState(username);
+			if(!state.userExists()) {
 				throw new NonExistingUserException();
 			}
-			if(!checkSalt(username,new Long(salt))){
+			if(!checkSalt(state.getSalt(),new Long(salt))){
 				throw new AuthenticationFailedException("Failed to validate salt.");
 			}
 
@@ -382,7 +486,7 @@ public class PestoAuthenticationHandler extends AuthenticationHandler{
 			if (!crypto.verifySignature(publicKey, list, newSignature)) {
 				throw new AuthenticationFailedException("Failed : Invalid signature");
 			}
-			if (!crypto.verifySignature(this.database.getUserKey(username), newSignature,
+			if (!crypto.verifySignature(state.getUserKey(), newSignature,
 				oldSignature)) {
 				throw new AuthenticationFailedException("Failed : Invalid signature");
 			}
@@ -390,47 +494,101 @@ public class PestoAuthenticationHandler extends AuthenticationHandler{
 			byte[] serverSignature = crypto.sign(publicKey, nonce, id);
 			addPartialServerSignature(username, serverSignature);
 			for (IdPRESTWrapper idp : servers) {
-				idp.addPartialServerSignature(username, serverSignature);
+				logFailure(idp, "addPartialServerSignature", idp.addPartialServerSignatureAsync(username, serverSignature));
 			}
 
-			long startTime = System.currentTimeMillis();
-			// Stop in case a server is dead
-			while (this.refreshDB.getPartialSignatures(username).size() < servers.size() + 1
-				&& System.currentTimeMillis() < startTime + maxWaitTime) {
-				// Keep querying the database to check when all partial signatures are in
-				Thread.sleep(2);
-			}
-			if (refreshDB.getPartialSignatures(username).size() < servers.size() + 1) {
-				throw new OperationFailedException("Did not hear back from all the servers");
-			}
+			// Continue once all partial signatures are in, but stop in case a server is dead
+			change = refreshDB.awaitPartialSignatures(username, servers.size() + 1, maxWaitTime).thenApplyAsync(complete -> {
+				try {
+					return completePasswordChange(username, publicKey, salt, complete);
+				} catch (Exception e) {
+					throw new CompletionException(new OperationFailedException("Failed to change password", e));
+				}
+			}, continuationExecutor);
+		} catch (Exception e) {
+			change = failed(new OperationFailedException("Failed to change password",e));
+		}
+		return change.whenComplete((result, e) -> this.refreshDB.deletePartialSignatures(username));
+	}
 
-			//	Verify combined signature
-			byte[] combinedSignature = crypto
-				.combineSignatures(this.refreshDB.getPartialSignatures(username));
-			byte[] input = KeySerializer.serialize(publicKey).getBytes();
-			boolean valid = crypto.verifySignature(crypto.getStandardRSAkey(), input, combinedSignature);
+	private byte[] completePasswordChange(String username, PublicKey publicKey, long salt, boolean complete) throws Exception {
+		if (!complete) {
+			throw new OperationFailedException("Did not hear back from all the servers");
+		}
 
-			if (!valid) {
-				throw new OperationFailedException(
-					"Invalid server signature on received public key from user " + username);
+		//	Verify combined signature
+		byte[] combinedSignature = crypto
+			.combineSignatures(this.refreshDB.getPartialSignatures(username));
+		byte[] input = KeySerializer.serialize(publicKey).getBytes();
+		boolean valid = crypto.verifySignature(crypto.getStandardRSAkey(), input, combinedSignature);
+
+		if (!valid) {
+			throw new OperationFailedException(
+				"Invalid server signature on received public key from user " + username);
+		}
+		this.database.replaceUserKey(username, publicKey, salt);
+		return combinedSignature;
+	}
+
+	/**
+	 * Wait for a future, rethrowing the exception it failed with.
+	 */
+	private static <T> T await(CompletableFuture<T> future) throws Exception {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
 			}
-			this.database.replaceUserKey(username, publicKey, salt);
-			return combinedSignature;
-		} catch (Exception e) {
-				throw new OperationFailedException("Failed to change password",e);
-		} finally {
-			this.refreshDB.deletePartialSignatures(username);
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw e;
 		}
 	}
 
+	private static <T> CompletableFuture<T> failed(Throwable e) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		future.completeExceptionally(e);
+		return future;
+	}
+
+	private byte[] sessionKey(KeyShares epochKeys) {
+		return crypto.hashList(Arrays.asList(SESSION_KEY_LABEL, epochKeys.toBytes()));
+	}
 
 	@Override
 	public String generateSessionCookie(String username) {
-		String cookie = Base64.encodeBase64String(crypto.getBytes(64));
-		storeAuthorization(cookie, new Authorization(username, Arrays.asList(Role.USER), System.currentTimeMillis()+this.sessionLength));
-		return cookie;
+		return createSession(new Authorization(username, Arrays.asList(Role.USER), System.currentTimeMillis()+this.sessionLength));
 	}
 	
+	/**
+	 * Wait for requests sent to the other servers. The requests run in parallel, so each server
+	 * gets at most maxWaitTime to answer.
+	 * @return true if all requests succeeded in time
+	 */
+	private boolean awaitAll(List<CompletableFuture<Void>> requests) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + maxWaitTime;
+		boolean success = true;
+		for (CompletableFuture<Void> request : requests) {
+			try {
+				request.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+			} catch (ExecutionException | TimeoutException e) {
+				success = false;
+			}
+		}
+		return success;
+	}
+
+	private CompletableFuture<Void> logFailure(IdPRESTWrapper idp, String operation, CompletableFuture<Void> request) {
+		return request.whenComplete((result, e) -> {
+			if (e != null) {
+				logger.warn("PestoAuthenticationHandler "+id+": "+operation+" to server "+idp.getId()+" failed", e);
+			}
+		});
+	}
+
 	private String hashValues(String name, String tp) {
 		return Base64.encodeBase64String(crypto.hashList(Arrays.asList(name.getBytes(Charsets.UTF_8), tp.getBytes(Charsets.UTF_8))));
 	}
@@ -2,12 +2,15 @@ package eu.olympus.server;
 
 import eu.olympus.model.KeyShares;
 import eu.olympus.server.interfaces.ServerCryptoModule;
+import eu.olympus.util.BoundedCache;
 import eu.olympus.util.CommonCrypto;
 import eu.olympus.util.KeySerializer;
 import eu.olympus.util.RSASignatureUtil;
 import eu.olympus.util.SoftwareCommonCrypto;
 import eu.olympus.util.Util;
+import eu.olympus.util.pairingBLS461.FixedBaseGroup3ElementBLS461;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.PublicKey;
 import java.security.SignatureException;
@@ -21,6 +24,11 @@ import org.miracl.core.HMAC;
 
 public class SoftwareServerCryptoModule extends SoftwareCommonCrypto implements ServerCryptoModule {
 
+	public static final int GENERATOR_WINDOW_BITS = 4;
+	// An affine ECP2 takes around 1KB, so the default cache stays around 10MB
+	public static final int DEFAULT_HASH_CACHE_SIZE = 10000;
+	public static final long DEFAULT_HASH_CACHE_TTL = 600000;
+
 	private BigInteger modulus;
 	private BigInteger privateKey;
 	private Map<Integer, BigInteger> rsaBlindings;
@@ -28,10 +36,24 @@ public class SoftwareServerCryptoModule extends SoftwareCommonCrypto implements
 	private final FP12 generator =
 			PAIR.fexp(PAIR.ate(ECP2.generator(),
 			ECP.generator()));
+	// Fixed-base table for the blinding exponentiations. It only depends on the generator, so it is kept across key refreshes
+	private FixedBaseGroup3ElementBLS461 generatorTable;
 	private BIG oprfKey;
+	// Usernames hashed to G2 for the OPRF. The hash does not depend on any key, so it survives key refreshes
+	private final BoundedCache<ByteBuffer, ECP2> hashCache;
 	
 	public SoftwareServerCryptoModule(Random random) {
+		this(random, DEFAULT_HASH_CACHE_SIZE, DEFAULT_HASH_CACHE_TTL);
+	}
+
+	/**
+	 * @param random Source of randomness.
+	 * @param hashCacheSize Maximum number of inputs whose hash to G2 is cached by hashAndPair.
+	 * @param hashCacheTTL Time (ms) a cached hash is kept, or 0 to keep it until evicted.
+	 */
+	public SoftwareServerCryptoModule(Random random, int hashCacheSize, long hashCacheTTL) {
 		super(random);
+		this.hashCache = new BoundedCache<>(hashCacheSize, hashCacheTTL);
 	}
 
 	@Override
@@ -42,6 +64,10 @@ public class SoftwareServerCryptoModule extends SoftwareCommonCrypto implements
 			this.oprfKey = Util.BigIntegerToBIG(share.getOprfKey());
 			this.rsaBlindings = share.getRsaBlindings();
 			this.oprfBlindings = share.getOprfBlindings();
+			if(generatorTable == null) {
+				generatorTable = new FixedBaseGroup3ElementBLS461(generator, GENERATOR_WINDOW_BITS);
+				generatorTable.pow(new BIG(1)); // Build the table now instead of on the first login
+			}
 			return true;
 		} catch(Exception e) {
 			return false;
@@ -80,7 +106,9 @@ public class SoftwareServerCryptoModule extends SoftwareCommonCrypto implements
 
 	@Override
 	public FP12 hashAndPair(byte[] input, ECP x) {
-		ECP2 t = hashToGroup2(input).mul(oprfKey);
+		ECP2 hash = hashCache.get(ByteBuffer.wrap(input.clone()), key -> hashToGroup2(key.array()));
+		// Multiply a copy, as the cached point is shared between threads
+		ECP2 t = new ECP2(hash).mul(oprfKey);
 		FP12 y = PAIR.fexp(PAIR.ate(t, x));
 		return y;
 	}
@@ -92,7 +120,7 @@ public class SoftwareServerCryptoModule extends SoftwareCommonCrypto implements
 		for(int i : oprfBlindings.keySet()) {
 			if(i != (myId)) { //skip s_(i,i)
 				BIG value = hashToBIG(oprfBlindings.get(i).toByteArray(), ssid);
-				FP12 val = generator.pow(value);
+				FP12 val = generatorTable.pow(value);
 				if(i< myId) {
 					val.inverse();						
 				}
@@ -102,6 +130,20 @@ public class SoftwareServerCryptoModule extends SoftwareCommonCrypto implements
 		return product;
 	}
 
+	/**
+	 * @return Number of hashAndPair calls that found the hash of the input in the cache.
+	 */
+	public long getHashCacheHits() {
+		return hashCache.getHits();
+	}
+
+	/**
+	 * @return Number of hashAndPair calls that had to hash the input to G2.
+	 */
+	public long getHashCacheMisses() {
+		return hashCache.getMisses();
+	}
+
 	// Implements secure and constant time hashing to curve
 	// Based on BLS.bls_hash_to_point
 	@Override
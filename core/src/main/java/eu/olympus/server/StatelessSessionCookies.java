@@ -0,0 +1,128 @@
+package eu.olympus.server;
+
+import eu.olympus.model.Authorization;
+import eu.olympus.server.rest.Role;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.apache.commons.codec.binary.Base64;
+
+/**
+ * Self-contained session cookies. The cookie holds the username, roles and expiration of the
+ * session, authenticated with a MAC under a key of the IdP, so validating it needs no storage
+ * lookup, and any replica of the IdP holding the same key accepts it.
+ * Cookies MACed with the previous key are accepted until they expire, so sessions survive a key
+ * rotation. Stateless cookies can not be revoked before they expire.
+ */
+public class StatelessSessionCookies {
+
+	private static final String MAC_ALGORITHM = "HmacSHA256";
+	private static final int MAC_BYTES = 32;
+	private static final int NONCE_BYTES = 16;
+	private static final byte VERSION = 1;
+	private static final Role[] ROLES = Role.values();
+
+	private final SecureRandom random = new SecureRandom();
+	private volatile SecretKeySpec currentKey;
+	private volatile SecretKeySpec previousKey;
+
+	/**
+	 * @param key The MAC key, at least 32 bytes.
+	 */
+	public StatelessSessionCookies(byte[] key) {
+		this.currentKey = toKey(key);
+	}
+
+	/**
+	 * Replace the MAC key. Cookies under the replaced key stay valid until they expire, older
+	 * cookies are rejected.
+	 * @param key The new MAC key, at least 32 bytes.
+	 */
+	public synchronized void rotateKey(byte[] key) {
+		SecretKeySpec newKey = toKey(key);
+		this.previousKey = currentKey;
+		this.currentKey = newKey;
+	}
+
+	/**
+	 * Create a cookie for a session.
+	 * @param authorization The session
+	 * @return The base64 encoded cookie
+	 */
+	public String encode(Authorization authorization) {
+		byte[] username = authorization.getId().getBytes(StandardCharsets.UTF_8);
+		List<Role> roles = authorization.getRoles();
+		ByteBuffer buffer = ByteBuffer.allocate(1 + NONCE_BYTES + 8 + 1 + roles.size() + username.length + MAC_BYTES);
+		byte[] nonce = new byte[NONCE_BYTES];
+		random.nextBytes(nonce);
+		buffer.put(VERSION).put(nonce).putLong(authorization.getExpiration()).put((byte) roles.size());
+		for (Role role : roles) {
+			buffer.put((byte) role.ordinal());
+		}
+		buffer.put(username);
+		buffer.put(mac(currentKey, buffer.array(), buffer.position()));
+		return Base64.encodeBase64String(buffer.array());
+	}
+
+	/**
+	 * Get the session of a cookie.
+	 * @param cookie The base64 encoded cookie
+	 * @return The session, or null if the cookie is not a stateless cookie MACed with one of the
+	 * current keys. The expiration is not checked.
+	 */
+	public Authorization decode(String cookie) {
+		byte[] bytes = Base64.decodeBase64(cookie);
+		int length = bytes.length - MAC_BYTES;
+		if (length < 1 + NONCE_BYTES + 8 + 1 || bytes[0] != VERSION) {
+			return null;
+		}
+		byte[] tag = Arrays.copyOfRange(bytes, length, bytes.length);
+		SecretKeySpec previous = previousKey;
+		if (!MessageDigest.isEqual(tag, mac(currentKey, bytes, length))
+				&& (previous == null || !MessageDigest.isEqual(tag, mac(previous, bytes, length)))) {
+			return null;
+		}
+		ByteBuffer buffer = ByteBuffer.wrap(bytes, 1 + NONCE_BYTES, length - 1 - NONCE_BYTES);
+		long expiration = buffer.getLong();
+		int roleCount = buffer.get() & 0xff;
+		if (roleCount > buffer.remaining()) {
+			return null;
+		}
+		List<Role> roles = new ArrayList<>(roleCount);
+		for (int i = 0; i < roleCount; i++) {
+			int role = buffer.get();
+			if (role < 0 || role >= ROLES.length) {
+				return null;
+			}
+			roles.add(ROLES[role]);
+		}
+		String username = new String(bytes, buffer.position(), buffer.remaining(), StandardCharsets.UTF_8);
+		return new Authorization(username, roles, expiration);
+	}
+
+	private static SecretKeySpec toKey(byte[] key) {
+		if (key == null || key.length < MAC_BYTES) {
+			throw new IllegalArgumentException("Session cookie key must be at least " + MAC_BYTES + " bytes");
+		}
+		return new SecretKeySpec(key, MAC_ALGORITHM);
+	}
+
+	private static byte[] mac(SecretKeySpec key, byte[] data, int length) {
+		try {
+			Mac mac = Mac.getInstance(MAC_ALGORITHM);
+			mac.init(key);
+			mac.update(data, 0, length);
+			return mac.doFinal();
+		} catch (GeneralSecurityException e) {
+			// HmacSHA256 is available on every Java platform
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -62,6 +62,7 @@ public class ThresholdPSSharesGenerator implements CredentialGenerator {
         publicKey=keys.getSecond();
         lifetime = configuration.getLifetime();
         this.timestampLeeway = configuration.getAllowedTimeDifference();
+        builder.calibrate();
         return publicParameters;
     }
 
@@ -1,6 +1,7 @@
 package eu.olympus.server.interfaces;
 
 import eu.olympus.model.exceptions.OperationFailedException;
+import java.util.concurrent.CompletableFuture;
 
 public interface IdPRESTWrapper extends VirtualIdP {
 
@@ -17,4 +18,49 @@ public interface IdPRESTWrapper extends VirtualIdP {
 
     public void setKeyShare(int id, byte[] newShare) throws OperationFailedException;
 
+    /**
+     * Asynchronous version of addPartialServerSignature, used to contact all servers at once.
+     * Implementations doing remote calls should override it. The default calls
+     * addPartialServerSignature before returning.
+     */
+    public default CompletableFuture<Void> addPartialServerSignatureAsync(String ssid, byte[] signature) {
+        return runNow(() -> addPartialServerSignature(ssid, signature));
+    }
+
+    /**
+     * Asynchronous version of addPartialMFASecret, see addPartialServerSignatureAsync.
+     */
+    public default CompletableFuture<Void> addPartialMFASecretAsync(String ssid, String secret, String type) {
+        return runNow(() -> addPartialMFASecret(ssid, secret, type));
+    }
+
+    /**
+     * Asynchronous version of addMasterShare, see addPartialServerSignatureAsync.
+     */
+    public default CompletableFuture<Void> addMasterShareAsync(String newSsid, byte[] share) {
+        return runNow(() -> addMasterShare(newSsid, share));
+    }
+
+    /**
+     * Asynchronous version of setKeyShare, see addPartialServerSignatureAsync.
+     */
+    public default CompletableFuture<Void> setKeyShareAsync(int id, byte[] newShare) {
+        return runNow(() -> setKeyShare(id, newShare));
+    }
+
+    static CompletableFuture<Void> runNow(Call call) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        try {
+            call.run();
+            result.complete(null);
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    interface Call {
+        void run() throws Exception;
+    }
 }
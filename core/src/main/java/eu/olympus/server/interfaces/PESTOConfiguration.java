@@ -2,6 +2,7 @@ package eu.olympus.server.interfaces;
 
 import java.math.BigInteger;
 
+import eu.olympus.model.HttpTransportConfiguration;
 import eu.olympus.model.RSASharedKey;
 import java.util.Map;
 
@@ -30,4 +31,28 @@ public interface PESTOConfiguration extends ServerConfiguration {
 	public byte[] getLocalKeyShare();
 	
 	public long getSessionLength();
+
+	/** True if the sessions are kept in self-contained MACed cookies instead of in the session storage */
+	public boolean isStatelessSessions();
+
+	/** Settings of the HTTP transport used to contact the other IdPs, null for the default transport */
+	public HttpTransportConfiguration getHttpTransport();
+
+	/** Requests per second per client address to the OPRF and credential share, 0 to use the general rate limit */
+	public int getExpensiveRateLimit();
+
+	/** Requests per second per username to the OPRF and credential share, 0 for no limit */
+	public int getUserRateLimit();
+
+	/**
+	 * Header holding the client address the rate limits apply to (e.g. X-Forwarded-For), null to use the address of the
+	 * connection. Only set it if the IdP can only be reached through a reverse proxy that sets the header
+	 */
+	public String getRateLimitAddressHeader();
+
+	/** Threads doing the expensive cryptography of requests, 0 for one per processor, negative to use the request threads */
+	public int getCryptoThreads();
+
+	/** Maximum number of requests waiting for a crypto thread, further requests are answered with 429 */
+	public int getCryptoQueueSize();
 }
@@ -7,24 +7,68 @@ import eu.olympus.model.exceptions.AuthenticationFailedException;
 import eu.olympus.model.exceptions.OperationFailedException;
 import eu.olympus.model.exceptions.UserCreationFailedException;
 import eu.olympus.server.rest.Role;
+import eu.olympus.util.BoundedExecutor;
 import java.security.PublicKey;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import org.miracl.core.BLS12461.ECP;
 
 public interface PestoBasedIdP extends IdPRESTWrapper{
 
     /**
-     * The maximum number of operations the IDP will handle.
+     * The maximum number of requests per second the IDP will handle from a single client address,
+     * for each class of endpoints.
      */
     public int getRateLimit();
 
+    /**
+     * The maximum number of requests per second the IDP will handle from a single client address
+     * to the expensive endpoints (OPRF and credential share), or 0 to use getRateLimit.
+     */
+    public default int getExpensiveRateLimit() {
+        return 0;
+    }
+
+    /**
+     * The maximum number of requests per second the IDP will handle for a single username to the
+     * expensive endpoints, or 0 for no limit.
+     */
+    public default int getUserRateLimit() {
+        return 0;
+    }
+
+    /**
+     * The header a trusted reverse proxy puts the client address in (e.g. X-Forwarded-For), for
+     * rate limiting by client address, or null to use the address of the connection.
+     */
+    public default String getRateLimitAddressHeader() {
+        return null;
+    }
+
+    /**
+     * The executor running the expensive cryptography of requests, or null to run it on the
+     * request threads.
+     */
+    public default BoundedExecutor getCryptoExecutor() {
+        return null;
+    }
+
     public OPRFResponse performOPRF(String ssid, String username, ECP x, String mfaToken, String mfaType) throws UserCreationFailedException, AuthenticationFailedException, OperationFailedException;
 
     public boolean startRefresh();
 
     public byte[] finishRegistration(String username, byte[] cookie, PublicKey publicKey, byte[] signature, long salt, String idProof) throws Exception;
 
+    /**
+     * As finishRegistration, but returns as soon as the partial signatures are sent to the other
+     * IdPs and completes the future once they have all answered.
+     */
+    public default CompletableFuture<byte[]> finishRegistrationAsync(String username, byte[] cookie, PublicKey publicKey, byte[] signature, long salt, String idProof) {
+        return completed(() -> finishRegistration(username, cookie, publicKey, signature, salt, idProof));
+    }
+
     public boolean addAttributes(String username, byte[] cookie, long salt, byte[] signature, String idProof) throws AuthenticationFailedException, OperationFailedException;
 
     public Map<String, Attribute> getAllAttributes(String username, byte[] cookie, long salt, byte[] signature) throws AuthenticationFailedException, OperationFailedException;
@@ -35,10 +79,24 @@ public interface PestoBasedIdP extends IdPRESTWrapper{
 
     public byte[] changePassword(String username, byte[] cookie, PublicKey publicKey, byte[] oldSignature, byte[] newSignature, long salt) throws Exception;
 
+    /**
+     * As changePassword, but completes the future once the other IdPs have answered.
+     */
+    public default CompletableFuture<byte[]> changePasswordAsync(String username, byte[] cookie, PublicKey publicKey, byte[] oldSignature, byte[] newSignature, long salt) {
+        return completed(() -> changePassword(username, cookie, publicKey, oldSignature, newSignature, salt));
+    }
+
     public boolean confirmMFA(String username, byte[] cookie, long salt, String token, String type, byte[] signature) throws AuthenticationFailedException, OperationFailedException;
 
     public String requestMFA(String username, byte[] cookie, long salt, String type, byte[] signature) throws AuthenticationFailedException, OperationFailedException;
 
+    /**
+     * As requestMFA, but completes the future once the other IdPs have answered.
+     */
+    public default CompletableFuture<String> requestMFAAsync(String username, byte[] cookie, long salt, String type, byte[] signature) {
+        return completed(() -> requestMFA(username, cookie, salt, type, signature));
+    }
+
     /**
      * Removes a MFA type. The MFA MUST exist and be active for the removal to be successful.
      * Furthermore, this can only be done after MFA authentication and requires a new MFA token be verified.
@@ -75,4 +133,17 @@ public interface PestoBasedIdP extends IdPRESTWrapper{
      * @return A new cookie
      */
     public String refreshCookie(String cookie);
+
+    /**
+     * Run a blocking call and wrap its outcome in a completed future.
+     */
+    static <T> CompletableFuture<T> completed(Callable<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            future.complete(call.call());
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
 }
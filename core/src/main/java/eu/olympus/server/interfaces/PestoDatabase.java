@@ -1,5 +1,6 @@
 package eu.olympus.server.interfaces;
 
+import eu.olympus.model.UserAuthState;
 import eu.olympus.model.exceptions.OperationFailedException;
 import java.security.PublicKey;
 
@@ -68,4 +69,40 @@ public interface PestoDatabase extends Storage {
 	 */
 	public byte[] getKeyShare(int id) throws OperationFailedException;
 
+	/**
+	 * Get everything needed to authenticate a user: whether the user exists, the public key, the
+	 * last salt, the failed authentication attempts and the MFA information.
+	 * Implementations should read it in a single query, the default implementation uses the
+	 * separate getters, and expects getUserKey to return null for an unknown user.
+	 * @param username The username of the user
+	 * @return The state of the user
+	 */
+	public default UserAuthState getUserAuthState(String username) throws OperationFailedException {
+		long lastAuthAttempt = getLastAuthAttempt(username);
+		int failedAuthAttempts = getNumberOfFailedAuthAttempts(username);
+		boolean exists = hasUser(username);
+		PublicKey key = getUserKey(username);
+		// The key and salt are always stored together
+		long salt = key == null ? 0 : getLastSalt(username);
+		return new UserAuthState(exists, key, salt, lastAuthAttempt, failedAuthAttempts,
+				exists ? getMFAInformation(username) : null);
+	}
+
+	/**
+	 * Store the salt of an authentication attempt and register its outcome, as setSalt followed
+	 * by failedAuthAttempt or clearFailedAuthAttempts. Implementations should do it atomically, the
+	 * default implementation does not.
+	 * @param username The username of the user
+	 * @param salt The salt used in the attempt
+	 * @param successful True if the user was authenticated
+	 */
+	public default void recordAuthAttempt(String username, long salt, boolean successful) throws OperationFailedException {
+		setSalt(username, salt);
+		if (successful) {
+			clearFailedAuthAttempts(username);
+		} else {
+			failedAuthAttempt(username);
+		}
+	}
+
 }
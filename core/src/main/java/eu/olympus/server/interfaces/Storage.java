@@ -4,6 +4,7 @@ import eu.olympus.model.Attribute;
 import eu.olympus.model.MFAInformation;
 
 import eu.olympus.model.exceptions.OperationFailedException;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -51,6 +52,21 @@ public interface Storage {
 	 */
 	public boolean deleteAttribute(String username, String attributeName) throws OperationFailedException;
 
+	/**
+	 * Delete a number of attributes from a specific user. Implementations should do it in a
+	 * single transaction, the default implementation deletes them one by one.
+	 * @param username The username of the user.
+	 * @param attributeNames The names of the attributes to delete
+	 * @return True if all the attributes were deleted
+	 */
+	public default boolean deleteAttributes(String username, List<String> attributeNames) throws OperationFailedException {
+		boolean deleted = true;
+		for (String attributeName : attributeNames) {
+			deleted &= deleteAttribute(username, attributeName);
+		}
+		return deleted;
+	}
+
 	/**
 	 * Delete the user and all attached attributes.
 	 * @param username The user to delete
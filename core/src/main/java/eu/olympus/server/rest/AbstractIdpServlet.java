@@ -4,7 +4,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import eu.olympus.model.OPRFResponse;
 import eu.olympus.model.exceptions.AuthenticationFailedException;
 import eu.olympus.model.exceptions.OperationFailedException;
-import eu.olympus.model.exceptions.UserCreationFailedException;
 import eu.olympus.model.server.rest.AddAttributesRequest;
 import eu.olympus.model.server.rest.AddMasterShare;
 import eu.olympus.model.server.rest.AddPartialMFARequest;
@@ -22,17 +21,29 @@ import eu.olympus.model.server.rest.SecondFactorDelete;
 import eu.olympus.model.server.rest.SecondFactorRequest;
 import eu.olympus.model.server.rest.SetKeyShare;
 import eu.olympus.server.AbstractPestoIdP;
+import eu.olympus.server.interfaces.PestoBasedIdP;
+import eu.olympus.util.BoundedExecutor;
 import eu.olympus.util.KeySerializer;
 import eu.olympus.util.keyManagement.PemUtil;
+import eu.olympus.util.pairingBLS461.PointEncoding;
 import java.security.PublicKey;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import javax.servlet.ServletContext;
+import javax.ws.rs.BadRequestException;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
 import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import org.apache.commons.codec.binary.Base64;
@@ -48,58 +59,76 @@ public abstract class AbstractIdpServlet {
     @Context
     ServletContext context;
     private static final Logger logger = LoggerFactory.getLogger(AbstractIdpServlet.class);
+    // Only used for trace logging, an ObjectMapper is thread safe once configured
+    private static final ObjectMapper mapper = new ObjectMapper();
 
     @Path(PestoRESTEndpoints.REQUEST_OPRF)
     @POST
-    @Produces(MediaType.APPLICATION_JSON)
-    @Consumes(MediaType.APPLICATION_JSON)
-    public OPRFRestResponse requestOPRF(OPRFRequest request) throws UserCreationFailedException, AuthenticationFailedException, OperationFailedException {
+    @Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+    @Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+    public OPRFRestResponse requestOPRF(OPRFRequest request) throws Exception {
         logger.info("idp/"+PestoRESTEndpoints.REQUEST_OPRF);
-        logger.trace(getJson(request));
+        trace(logger, request);
+        checkUserRateLimit(request.getUsername());
         AbstractPestoIdP idp = (AbstractPestoIdP) context.getAttribute("idp");
-        ECP element = ECP.fromBytes(Base64.decodeBase64(request.getElement()));
-        OPRFResponse resp = idp.performOPRF(request.getSsid(),
-            request.getUsername(), element, request.getMfaToken(), request.getMfaType());
-        byte[] fp12Bytes = new byte[12* CONFIG_BIG.MODBYTES];
-        resp.getY().toBytes(fp12Bytes);
-        return new OPRFRestResponse(resp.getSsid(), Base64.encodeBase64String(fp12Bytes), resp.getSessionCookie());
+        byte[] bytes = request.getElement();
+        ECP element;
+        try {
+            element = PointEncoding.decodeG1(bytes);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+        OPRFResponse resp = runCrypto(() -> idp.performOPRF(request.getSsid(),
+            request.getUsername(), element, request.getMfaToken(), request.getMfaType()));
+        // Clients sending compressed points can decode a compressed response, older ones get all of y
+        byte[] fp12Bytes;
+        if (PointEncoding.isCompressedG1(bytes)) {
+            fp12Bytes = PointEncoding.encodeGT(resp.getY());
+        } else {
+            fp12Bytes = new byte[12* CONFIG_BIG.MODBYTES];
+            resp.getY().toBytes(fp12Bytes);
+        }
+        return new OPRFRestResponse(resp.getSsid(), fp12Bytes, resp.getSessionCookie());
     }
 
     @Path(PestoRESTEndpoints.REQUEST_MFA)
     @POST
-    @Produces(MediaType.APPLICATION_JSON)
-    @Consumes(MediaType.APPLICATION_JSON)
-    public String requestMFA(SecondFactorRequest request) throws AuthenticationFailedException, OperationFailedException {
+    @Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+    @Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+    public void requestMFA(SecondFactorRequest request, @Suspended AsyncResponse response) {
         logger.info("idp/"+PestoRESTEndpoints.REQUEST_MFA);
-        logger.trace(getJson(request));
+        trace(logger, request);
         AbstractPestoIdP idp = (AbstractPestoIdP) context.getAttribute("idp");
-        return idp.requestMFA(request.getUsername(), Base64.decodeBase64(request.getSessionCookie()), request.getSaltIndex(), request.getType(), Base64.decodeBase64(request.getSignature()));
+        resume(response, idp.requestMFAAsync(request.getUsername(), request.getSessionCookie(), request.getSaltIndex(), request.getType(), request.getSignature()));
     }
 
     @Path(PestoRESTEndpoints.CONFIRM_MFA)
     @POST
-    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+    @Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
     public Boolean confirmMFA(SecondFactorConfirmation request) throws AuthenticationFailedException, OperationFailedException {
         logger.info("idp/"+PestoRESTEndpoints.CONFIRM_MFA);
-        logger.trace(getJson(request));
+        trace(logger, request);
         AbstractPestoIdP idp = (AbstractPestoIdP) context.getAttribute("idp");
-        return idp.confirmMFA(request.getUsername(), Base64.decodeBase64(request.getSessionCookie()), request.getSaltIndex(), request.getToken(), request.getType(), Base64.decodeBase64(request.getSignature()));
+        return idp.confirmMFA(request.getUsername(), request.getSessionCookie(), request.getSaltIndex(), request.getToken(), request.getType(), request.getSignature());
     }
 
     @Path(PestoRESTEndpoints.REMOVE_MFA)
     @POST
-    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+    @Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
     public Boolean removeMFA(SecondFactorDelete request) throws AuthenticationFailedException, OperationFailedException {
         logger.info("idp/"+PestoRESTEndpoints.REMOVE_MFA);
-        logger.trace(getJson(request));
+        trace(logger, request);
         AbstractPestoIdP idp = (AbstractPestoIdP) context.getAttribute("idp");
-        return idp.removeMFA(request.getUsername(), Base64.decodeBase64(request.getSessionCookie()), request.getSaltIndex(), request.getToken(), request.getType(), Base64.decodeBase64(request.getSignature()));
+        return idp.removeMFA(request.getUsername(), request.getSessionCookie(), request.getSaltIndex(), request.getToken(), request.getType(), request.getSignature());
     }
 
     @Secured({Role.ADMIN})
     @Path(PestoRESTEndpoints.START_REFRESH)
     @POST
-    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+    @Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
     public Boolean startRefresh() {
         logger.info("idp/"+PestoRESTEndpoints.START_REFRESH);
         AbstractPestoIdP idp = (AbstractPestoIdP) context.getAttribute("idp");
@@ -109,22 +138,22 @@ public abstract class AbstractIdpServlet {
     @Secured({Role.SERVER})
     @Path(PestoRESTEndpoints.ADD_PARTIAL_SIGNATURE)
     @POST
-    @Consumes(MediaType.APPLICATION_JSON)
+    @Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
     public void addPartialSignature(AddPartialSignatureRequest request) {
         logger.info("idp/"+PestoRESTEndpoints.ADD_PARTIAL_SIGNATURE);
-        logger.trace(getJson(request));
+        trace(logger, request);
         AbstractPestoIdP idp = (AbstractPestoIdP) context.getAttribute("idp");
-        idp.addPartialServerSignature(request.getSsid(), Base64.decodeBase64(request.getString()));
+        idp.addPartialServerSignature(request.getSsid(), request.getString());
         logger.info("idp/"+PestoRESTEndpoints.ADD_PARTIAL_SIGNATURE+" completed");
     }
 
     @Secured({Role.SERVER})
     @Path(PestoRESTEndpoints.ADD_PARTIAL_MFA_SECRET)
     @POST
-    @Consumes(MediaType.APPLICATION_JSON)
+    @Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
     public void addMFASecret(AddPartialMFARequest request) {
         logger.info("idp/"+PestoRESTEndpoints.ADD_PARTIAL_SIGNATURE);
-        logger.trace(getJson(request));
+        trace(logger, request);
         AbstractPestoIdP idp = (AbstractPestoIdP) context.getAttribute("idp");
         idp.addPartialMFASecret(request.getSsid(), request.getString(), request.getType());
     }
@@ -132,25 +161,25 @@ public abstract class AbstractIdpServlet {
     @Secured({Role.SERVER})
     @Path(PestoRESTEndpoints.SET_KEY_SHARE)
     @POST
-    @Consumes(MediaType.APPLICATION_JSON)
+    @Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
     public void setKeyShare(SetKeyShare request) throws OperationFailedException {
         logger.info("idp/"+PestoRESTEndpoints.SET_KEY_SHARE);
-        logger.trace(getJson(request));
+        trace(logger, request);
         AbstractPestoIdP idp = (AbstractPestoIdP) context.getAttribute("idp");
-        idp.setKeyShare(request.getId(), Base64.decodeBase64(request.getShares()));
+        idp.setKeyShare(request.getId(), request.getShares());
     }
 
     @Secured({Role.SERVER})
     @Path(PestoRESTEndpoints.ADD_MASTER_SHARE)
     @POST
-    @Consumes(MediaType.APPLICATION_JSON)
+    @Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
     public Response addMasterShare(AddMasterShare request, @HeaderParam(value = "Authorization") String authorization) {
         logger.info("idp/"+PestoRESTEndpoints.ADD_MASTER_SHARE);
-        logger.trace(getJson(request));
+        trace(logger, request);
         AbstractPestoIdP idp = (AbstractPestoIdP) context.getAttribute("idp");
         String newCookie = idp.refreshCookie(authorization.substring(BEARERTOKENSTRING.length()));
         try {
-            idp.addMasterShare(request.getNewSsid(), Base64.decodeBase64(request.getNewShare()));
+            idp.addMasterShare(request.getNewSsid(), request.getNewShare());
         } catch(Exception e) {
             logger.info("addMasterShare failed.", e);
             return Response.serverError().header("Authorization", "Authorization "+newCookie).build();
@@ -160,21 +189,21 @@ public abstract class AbstractIdpServlet {
 
     @Path(PestoRESTEndpoints.FINISH_REGISTRATION)
     @POST
-    @Produces(MediaType.APPLICATION_JSON)
-    @Consumes(MediaType.APPLICATION_JSON)
-    public String finishRegistration(FinishRegistrationRequest request) throws Exception {
+    @Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+    @Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+    public void finishRegistration(FinishRegistrationRequest request, @Suspended AsyncResponse response) throws Exception {
         logger.info("idp/"+PestoRESTEndpoints.FINISH_REGISTRATION);
-        logger.trace(getJson(request));
+        trace(logger, request);
         AbstractPestoIdP idp = (AbstractPestoIdP) context.getAttribute("idp");
-        return Base64.encodeBase64String(idp.finishRegistration(request.getUsername(),
-            Base64.decodeBase64(request.getSessionCookie()), (PublicKey) KeySerializer.deSerialize(request.getPublicKey()), Base64.decodeBase64(request.getSignature()),
-            request.getSalt(), request.getIdProof()));
+        resume(response, idp.finishRegistrationAsync(request.getUsername(),
+            request.getSessionCookie(), (PublicKey) KeySerializer.deSerialize(request.getPublicKey()), request.getSignature(),
+            request.getSalt(), request.getIdProof()).thenApply(Base64::encodeBase64String));
     }
 
 
     @Path(PestoRESTEndpoints.GET_PUBLIC_KEY)
     @GET
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
     public String getCertificate() throws Exception {
         logger.info("idp/getcertificate");
         AbstractPestoIdP idp = (AbstractPestoIdP) context.getAttribute("idp");
@@ -183,65 +212,122 @@ public abstract class AbstractIdpServlet {
 
     @Path(PestoRESTEndpoints.ADD_ATTRIBUTES)
     @POST
-    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+    @Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
     public Boolean addAttributes(AddAttributesRequest request) throws Exception {
         logger.info("idp/"+PestoRESTEndpoints.ADD_ATTRIBUTES);
-        logger.trace(getJson(request));
+        trace(logger, request);
         AbstractPestoIdP idp = (AbstractPestoIdP) context.getAttribute("idp");
-        return idp.addAttributes(request.getUsername(), Base64.decodeBase64(request.getSessionCookie()), request.getSaltIndex(),
-            Base64.decodeBase64(request.getSignature()), request.getIdProof());
+        return idp.addAttributes(request.getUsername(), request.getSessionCookie(), request.getSaltIndex(),
+            request.getSignature(), request.getIdProof());
     }
 
     @Path(PestoRESTEndpoints.GET_ALL_ATTRIBUTES)
     @POST
-    @Consumes(MediaType.APPLICATION_JSON)
-    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+    @Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
     public AttributeMap getAllAttributes(GetAllAttributesRequest request) throws Exception {
         logger.info("idp/"+PestoRESTEndpoints.GET_ALL_ATTRIBUTES);
-        logger.trace(getJson(request));
+        trace(logger, request);
         AbstractPestoIdP idp = (AbstractPestoIdP) context.getAttribute("idp");
-        return new AttributeMap(idp.getAllAttributes(request.getUsername(), Base64.decodeBase64(request.getSessionCookie()), request.getSaltIndex(),
-            Base64.decodeBase64(request.getSignature())));
+        return new AttributeMap(idp.getAllAttributes(request.getUsername(), request.getSessionCookie(), request.getSaltIndex(),
+            request.getSignature()));
     }
 
     @Path(PestoRESTEndpoints.DELETE_ATTRIBUTES)
     @POST
-    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+    @Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
     public Boolean deleteAttributes(DeleteAttributesRequest request) throws Exception {
         logger.info("idp/"+PestoRESTEndpoints.DELETE_ATTRIBUTES);
-        logger.trace(getJson(request));
+        trace(logger, request);
         AbstractPestoIdP idp = (AbstractPestoIdP) context.getAttribute("idp");
-        return idp.deleteAttributes(request.getUsername(), Base64.decodeBase64(request.getSessionCookie()), request.getSaltIndex(),
-            Base64.decodeBase64(request.getSignature()), request.getAttributes());
+        return idp.deleteAttributes(request.getUsername(), request.getSessionCookie(), request.getSaltIndex(),
+            request.getSignature(), request.getAttributes());
     }
 
     @Path(PestoRESTEndpoints.CHANGE_PASSWORD)
     @POST
-    @Produces(MediaType.APPLICATION_JSON)
-    @Consumes(MediaType.APPLICATION_JSON)
-    public String changePassword(ChangePasswordRequest request) throws Exception {
+    @Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+    @Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+    public void changePassword(ChangePasswordRequest request, @Suspended AsyncResponse response) throws Exception {
         logger.info("idp/"+PestoRESTEndpoints.CHANGE_PASSWORD);
-        logger.trace(getJson(request));
+        trace(logger, request);
         AbstractPestoIdP idp = (AbstractPestoIdP) context.getAttribute("idp");
-        return Base64.encodeBase64String(idp.changePassword(request.getUsername(),
-            Base64.decodeBase64(request.getSessionCookie()), (PublicKey)KeySerializer.deSerialize(request.getPublicKey()), Base64.decodeBase64(request.getOldSignature()),
-            Base64.decodeBase64(request.getNewSignature()), request.getSalt()));
+        resume(response, idp.changePasswordAsync(request.getUsername(),
+            request.getSessionCookie(), (PublicKey)KeySerializer.deSerialize(request.getPublicKey()), request.getOldSignature(),
+            request.getNewSignature(), request.getSalt()).thenApply(Base64::encodeBase64String));
     }
 
     @Path(PestoRESTEndpoints.DELETE_ACCOUNT)
     @POST
-    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+    @Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
     public Boolean deleteAccount(DeleteAccountRequest request) throws Exception {
         logger.info("idp/"+PestoRESTEndpoints.DELETE_ACCOUNT);
-        logger.trace(getJson(request));
+        trace(logger, request);
         AbstractPestoIdP idp = (AbstractPestoIdP) context.getAttribute("idp");
-        return idp.deleteAccount(request.getUsername(), Base64.decodeBase64(request.getSessionCookie()), request.getSaltIndex(),
-            Base64.decodeBase64(request.getSignature()));
+        return idp.deleteAccount(request.getUsername(), request.getSessionCookie(), request.getSaltIndex(),
+            request.getSignature());
+    }
+
+    /**
+     * Drop the request if the username has used up its budget for the expensive endpoints.
+     */
+    protected void checkUserRateLimit(String username) {
+        long wait = RequestRateLimiter.get(context).acquireUser(username);
+        if (wait > 0) {
+            logger.warn("Rate limit reached for user "+username);
+            throw new WebApplicationException(RateLimitFilter.rateLimited(wait));
+        }
+    }
+
+    /**
+     * Run the expensive cryptography of a request on the crypto executor of the IdP, if it has one.
+     * If the executor is saturated the request is answered with 429 at once.
+     */
+    protected <T> T runCrypto(Callable<T> task) throws Exception {
+        BoundedExecutor executor = ((PestoBasedIdP) context.getAttribute("idp")).getCryptoExecutor();
+        if (executor == null) {
+            return task.call();
+        }
+        try {
+            return executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Crypto executor saturated ("+executor.getQueueDepth()+" queued), dropping request");
+            // Suggest waiting about as long as the queued requests have been waiting
+            long retryAfter = Math.max(1, (long) Math.ceil(executor.getAverageWaitMillis() / 1000));
+            throw new WebApplicationException(Response.status(Response.Status.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, retryAfter).build());
+        }
+    }
+
+    /**
+     * Answer a suspended request once the result is ready. Operations waiting on the other IdPs
+     * use this, so the request thread is released while the other IdPs answer.
+     */
+    protected static <T> void resume(AsyncResponse response, CompletableFuture<T> result) {
+        result.whenComplete((value, e) -> {
+            if (e == null) {
+                response.resume(value);
+            } else {
+                response.resume(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            }
+        });
+    }
+
+    /**
+     * Log a request as JSON, if trace logging is enabled for the given logger.
+     */
+    protected static void trace(Logger logger, Object request) {
+        if (logger.isTraceEnabled()) {
+            logger.trace(getJson(request));
+        }
     }
 
-    protected String getJson(Object obj) {
+    protected static String getJson(Object obj) {
         try {
-            return new ObjectMapper().writeValueAsString(obj);
+            return mapper.writeValueAsString(obj);
         } catch(Exception e) {
             return "Could not convert "+obj+": "+e.getLocalizedMessage();
         }
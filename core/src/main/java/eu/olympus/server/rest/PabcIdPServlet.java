@@ -13,7 +13,6 @@ import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
-import org.apache.commons.codec.binary.Base64;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,19 +25,20 @@ public class PabcIdPServlet extends AbstractIdpServlet{
 
     @Path(PestoRESTEndpoints.GET_CREDENTIAL_SHARE)
     @POST
-    @Produces(MediaType.APPLICATION_JSON)
-    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+    @Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
     public String getCredentialShare(SignatureAndTimestamp request) throws Exception {
         logger.info("idp/"+PestoRESTEndpoints.GET_CREDENTIAL_SHARE);
-        logger.trace(getJson(request));
+        trace(logger, request);
+        checkUserRateLimit(request.getUsername());
         PabcIdPImpl idp = (PabcIdPImpl) context.getAttribute("idp");
-        return idp.getCredentialShare(request.getUsername(),
-            Base64.decodeBase64(request.getSessionCookie()), request.getSaltIndex(), Base64.decodeBase64(request.getSignature()),request.getTimestamp());
+        return runCrypto(() -> idp.getCredentialShare(request.getUsername(),
+            request.getSessionCookie(), request.getSaltIndex(), request.getSignature(),request.getTimestamp()));
     }
 
     @Path(PestoRESTEndpoints.GET_PABC_PUBLIC_KEY_SHARE)
     @GET
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
     public SerializedKey getPABCPublicKeyShare() {
         logger.info("idp/"+PestoRESTEndpoints.GET_PABC_PUBLIC_KEY_SHARE);
         PabcIdPImpl idp = (PabcIdPImpl) context.getAttribute("idp");
@@ -28,7 +28,6 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
-import org.apache.commons.codec.binary.Base64;
 
 @Path("/idp")
 public class PasswordIdPServlet {
@@ -37,7 +36,7 @@ public class PasswordIdPServlet {
 
 	@Path(CommonRESTEndpoints.SETUP)
 	@POST
-	@Consumes(MediaType.APPLICATION_JSON)
+	@Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
 	public void setup(KeyAndCert keyPair) throws Exception {
 		idp.setup((RSAPrivateKey)KeySerializer.deSerialize(keyPair.getPrivKey()),
 				CertificateUtil.decodePemCert(keyPair.getCertificate()));
@@ -45,7 +44,7 @@ public class PasswordIdPServlet {
 
 	@Path(CommonRESTEndpoints.GET_PUBLIC_KEY)
 	@GET
-	@Produces(MediaType.APPLICATION_JSON)
+	@Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
 	public String getCertificate() throws Exception {
 			return PemUtil.encodeDerToPem(idp.getCertificate().getEncoded(), "CERTIFICATE");
 	}
@@ -53,21 +52,22 @@ public class PasswordIdPServlet {
 
 	@Path(CommonRESTEndpoints.CREATE_USER)
 	@POST
-	@Consumes(MediaType.APPLICATION_JSON)
+	@Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
 	public void createUser(UsernameAndPassword creationData) throws UserCreationFailedException, OperationFailedException {
 		idp.createUser(creationData);
 	}
 
 	@Path(CommonRESTEndpoints.ADD_ATTRIBUTES)
 	@POST
-	@Consumes(MediaType.APPLICATION_JSON)
+	@Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
 	public void addAttributes(AuthenticationAndIDProof creationData) throws AuthenticationFailedException, InvalidProtocolBufferException, OperationFailedException {
-		idp.addAttributes(creationData.getUsername(), Base64.decodeBase64(creationData.getCookie()), creationData.getIdentityProof());
+		idp.addAttributes(creationData.getUsername(), creationData.getCookie(), creationData.getIdentityProof());
 	}
 
 
 	@Path(CommonRESTEndpoints.CREATE_USER_AND_ADD_ATTRIBUTES)
 	@POST	
+	@Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
 	public void createUserAndAddAttributes(PasswordAuthenticationAndIDProof creationData)
 			throws UserCreationFailedException {
 		idp.createUserAndAddAttributes(creationData.getUsernameAndPassword(), creationData.getIdentityProof());
@@ -76,74 +76,78 @@ public class PasswordIdPServlet {
 
 	@Path(CommonRESTEndpoints.AUTHENTICATE)
 	@POST
-	@Produces(MediaType.APPLICATION_JSON)
-	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+	@Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
 	public String authenticate(AuthenticationAndPolicy authenticationData) throws Exception {
-		return idp.authenticate(authenticationData.getUsername(), Base64.decodeBase64(authenticationData.getCookie()), authenticationData.getPolicy());
+		return idp.authenticate(authenticationData.getUsername(), authenticationData.getCookie(), authenticationData.getPolicy());
 	}
 	
 	@Path(CommonRESTEndpoints.DELETE_ATTRIBUTES)
 	@POST
-	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+	@Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
 	public Boolean deleteAttributes(AuthenticationAndAttributes authenticationData) throws Exception {
-		return idp.deleteAttribute(authenticationData.getUsername(), Base64.decodeBase64(authenticationData.getCookie()), authenticationData.getAttributes());
+		return idp.deleteAttribute(authenticationData.getUsername(), authenticationData.getCookie(), authenticationData.getAttributes());
 	}
 	
 	@Path(CommonRESTEndpoints.DELETE_ACCOUNT)
 	@POST
-	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+	@Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
 	public Boolean deleteAccount(PasswordAuthentication authenticationData) throws Exception {
-		return idp.deleteAccount(authenticationData.getUsernameAndPassword(), Base64.decodeBase64(authenticationData.getCookie()));
+		return idp.deleteAccount(authenticationData.getUsernameAndPassword(), authenticationData.getCookie());
 	}
 	
 	@Path(CommonRESTEndpoints.GET_ALL_ATTRIBUTES)
 	@POST
-	@Produces(MediaType.APPLICATION_JSON)
-	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+	@Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
 	public AttributeMap getAllAttributes(UsernameAndCookie authenticationData) throws AuthenticationFailedException, OperationFailedException {
-		return new AttributeMap(idp.getAllAttributes(authenticationData.getUsername(), Base64.decodeBase64(authenticationData.getCookie())));
+		return new AttributeMap(idp.getAllAttributes(authenticationData.getUsername(), authenticationData.getCookie()));
 	}
 	
 	@Path(CommonRESTEndpoints.CHANGE_PASSWORD)
 	@POST
-	@Consumes(MediaType.APPLICATION_JSON)
+	@Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
 	public void changePassword(PasswordAuthenticationAndPassword passwordData) throws UserCreationFailedException, AuthenticationFailedException, OperationFailedException {
 		idp.changePassword(passwordData.getUsernameAndPassword(), passwordData.getNewPassword(),
-				Base64.decodeBase64(passwordData.getCookie()));
+				passwordData.getCookie());
 	}
 		
 	@Path(CommonRESTEndpoints.REQUEST_MFA)
 	@POST
-	@Produces(MediaType.APPLICATION_JSON)
-	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+	@Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
 	public String requestMFA(PasswordAuthenticationAndMFAType request) throws AuthenticationFailedException, OperationFailedException {
 		return idp
-				.requestMFA(request.getUsernameAndPassword(), Base64.decodeBase64(request.getCookie()),
+				.requestMFA(request.getUsernameAndPassword(), request.getCookie(),
 						request.getType());
 	}
 	
 	@Path(CommonRESTEndpoints.CONFIRM_MFA)
 	@POST
-	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+	@Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
 	public boolean confirmMFA(PasswordAuthenticationAndMFAToken request) throws AuthenticationFailedException, OperationFailedException {
 		return idp
-				.confirmMFA(request.getUsernameAndPassword(), Base64.decodeBase64(request.getCookie()),
+				.confirmMFA(request.getUsernameAndPassword(), request.getCookie(),
 						request.getToken(),
 						request.getType());
 	}
 
 	@Path(CommonRESTEndpoints.REMOVE_MFA)
 	@POST
-	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+	@Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
 	public boolean removeMFA(PasswordAuthenticationAndMFAToken request) throws AuthenticationFailedException, OperationFailedException {
-		return idp.removeMFA(request.getUsernameAndPassword(), Base64.decodeBase64(request.getCookie()),
+		return idp.removeMFA(request.getUsernameAndPassword(), request.getCookie(),
 				request.getToken(), request.getType());
 	}
 
 	@Path(PasswordRESTEndpoints.START_SESSION)
 	@POST
-	@Produces(MediaType.APPLICATION_JSON)
-	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+	@Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
 	public String startSession(PasswordAuthenticationAndMFATokenNoCookie request) throws AuthenticationFailedException, OperationFailedException {
 		return idp
 				.startSession(request.getUsernameAndPassword(), request.getToken(), request.getType());
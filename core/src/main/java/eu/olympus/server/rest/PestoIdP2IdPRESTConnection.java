@@ -1,5 +1,6 @@
 package eu.olympus.server.rest;
 
+import eu.olympus.model.HttpTransportConfiguration;
 import eu.olympus.model.server.rest.AddMasterShare;
 import eu.olympus.model.server.rest.AddPartialMFARequest;
 import eu.olympus.model.server.rest.AddPartialSignatureRequest;
@@ -9,14 +10,16 @@ import eu.olympus.util.keyManagement.CertificateUtil;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 import javax.net.ssl.HostnameVerifier;
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
-import org.apache.commons.codec.binary.Base64;
 import org.apache.http.conn.ssl.DefaultHostnameVerifier;
+import org.glassfish.jersey.client.ClientProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,8 +31,11 @@ import org.slf4j.LoggerFactory;
 public class PestoIdP2IdPRESTConnection implements IdPRESTWrapper {
 	private String host;
 	private Client client;
+	private MediaType mediaType;
+	private int connectTimeout;
+	private int readTimeout;
 	private int id;
-	private String authentication;
+	private volatile String authentication;
 	private static final Logger logger = LoggerFactory.getLogger(PestoIdP2IdPRESTConnection.class);
 	
 	/**
@@ -38,8 +44,17 @@ public class PestoIdP2IdPRESTConnection implements IdPRESTWrapper {
 	 */
 	public PestoIdP2IdPRESTConnection(String url, int id, String keyStore,
 			String keyStorePW, String trustStore, String trustStorePW, String authentication) {
-		this(url, id, authentication);
+		this(url, id, keyStore, keyStorePW, trustStore, trustStorePW, authentication, null);
+	}
 
+	/**
+	 * Create a new mutual authenticated and encrypted TLS rest connections to an IdP
+	 * @param url includes port, eg. http://127.0.0.1:9090
+	 * @param transport HTTP transport settings, or null for the default transport
+	 */
+	public PestoIdP2IdPRESTConnection(String url, int id, String keyStore,
+			String keyStorePW, String trustStore, String trustStorePW, String authentication,
+			HttpTransportConfiguration transport) {
 		Properties systemProps = System.getProperties();
 		systemProps.put("javax.net.ssl.keyStorePassword", keyStorePW);
 		systemProps.put("javax.net.ssl.keyStore", keyStore);
@@ -48,14 +63,38 @@ public class PestoIdP2IdPRESTConnection implements IdPRESTWrapper {
 		// Ensure that there is a certificate in the trust store for the webserver connecting
 		HostnameVerifier verifier = new DefaultHostnameVerifier();
 		javax.net.ssl.HttpsURLConnection.setDefaultHostnameVerifier(verifier);
+		// The client is created after the TLS properties are set, as a pooled client reads them once
+		this.id = id;
+		this.authentication = "Bearer "+authentication;
+		this.host = url+"/idp/";
+		this.client = RESTClientFactory.newClient(transport);
+		this.mediaType = RESTClientFactory.mediaType(transport);
+		setTimeouts(transport);
 	}
 
 	public PestoIdP2IdPRESTConnection(String url, int id,
 			String authentication) {
+		this(url, id, authentication, null);
+	}
+
+	/**
+	 * @param transport HTTP transport settings, or null for the default transport
+	 */
+	public PestoIdP2IdPRESTConnection(String url, int id,
+			String authentication, HttpTransportConfiguration transport) {
 		this.id = id;
 		this.authentication = "Bearer "+authentication;
 		this.host = url+"/idp/";
-	    this.client = ClientBuilder.newClient();
+		this.client = RESTClientFactory.newClient(transport);
+		this.mediaType = RESTClientFactory.mediaType(transport);
+		setTimeouts(transport);
+	}
+
+	// Unless configured with 0 (no timeout), every request to this IdP is bounded, so a peer that stops answering
+	// does not hold a connection (or, for the blocking calls, a thread) after the handler has stopped waiting for it
+	private void setTimeouts(HttpTransportConfiguration transport) {
+		this.connectTimeout = transport != null ? transport.getConnectTimeout() : HttpTransportConfiguration.DEFAULT_CONNECT_TIMEOUT;
+		this.readTimeout = transport != null ? transport.getReadTimeout() : HttpTransportConfiguration.DEFAULT_READ_TIMEOUT;
 	}
 
 	@Override
@@ -65,8 +104,10 @@ public class PestoIdP2IdPRESTConnection implements IdPRESTWrapper {
 
 	@Override
 	public Certificate getCertificate() throws CertificateException {
-		Response response = client.target(host+PestoRESTEndpoints.GET_PUBLIC_KEY).request()
+		Response response = client.target(host+PestoRESTEndpoints.GET_PUBLIC_KEY).request(mediaType)
 			.header("Authorization", authentication)
+			.property(ClientProperties.CONNECT_TIMEOUT, connectTimeout)
+			.property(ClientProperties.READ_TIMEOUT, readTimeout)
 			.get();
 		logger.info("PestoIdP2IdP: getCertificate returned: "+response.getStatus());
 		return CertificateUtil.decodePemCert(response.readEntity(String.class));
@@ -74,39 +115,82 @@ public class PestoIdP2IdPRESTConnection implements IdPRESTWrapper {
 
 	@Override
 	public void addPartialServerSignature(String ssid, byte[] signature) {
-		AddPartialSignatureRequest request = new AddPartialSignatureRequest(ssid, Base64.encodeBase64String(signature));
-		logger.info("Attempting to retrieve partial signature from: " + host);
-		Response response = client.target(host+PestoRESTEndpoints.ADD_PARTIAL_SIGNATURE).request()
-			.header("Authorization", authentication)
-			.post(Entity.entity(request, MediaType.APPLICATION_JSON));
-		logger.info("PestoIdP2IdP: addPartialServerSignature returned: "+response.getStatus());
+		await(addPartialServerSignatureAsync(ssid, signature));
 	}
 
 	@Override
 	public void addPartialMFASecret(String ssid, String secret, String type) {
-		AddPartialMFARequest request = new AddPartialMFARequest(ssid, secret, type);
-		Response response = client.target(host+PestoRESTEndpoints.ADD_PARTIAL_MFA_SECRET).request()
-			.header("Authorization", authentication)
-			.post(Entity.entity(request, MediaType.APPLICATION_JSON));
-		logger.info("PestoIdP2IdP: addPartialMFASecret returned: "+response.getStatus());
+		await(addPartialMFASecretAsync(ssid, secret, type));
 	}
 	
 	@Override
 	public void addMasterShare(String newSsid, byte[] newShare) {
-		AddMasterShare request = new AddMasterShare(newSsid, Base64.encodeBase64String(newShare));
-		Response resp = client.target(host+PestoRESTEndpoints.ADD_MASTER_SHARE).request()
-			.header("Authorization", authentication)
-			.post(Entity.entity(request, MediaType.APPLICATION_JSON));
-		logger.info("PestoIdP2IdP: addMasterShare returned: "+resp.getStatus());
-		authentication = resp.getHeaderString("Authorization");
+		await(addMasterShareAsync(newSsid, newShare));
 	}
 
 	@Override
 	public void setKeyShare(int id, byte[] newShare) {
-		SetKeyShare request = new SetKeyShare(id, Base64.encodeBase64String(newShare));
-		Response response = client.target(host+PestoRESTEndpoints.SET_KEY_SHARE).request()
+		await(setKeyShareAsync(id, newShare));
+	}
+
+	@Override
+	public CompletableFuture<Void> addPartialServerSignatureAsync(String ssid, byte[] signature) {
+		AddPartialSignatureRequest request = new AddPartialSignatureRequest(ssid, signature);
+		logger.info("Attempting to retrieve partial signature from: " + host);
+		return post(PestoRESTEndpoints.ADD_PARTIAL_SIGNATURE, request, response ->
+			logger.info("PestoIdP2IdP: addPartialServerSignature returned: "+response.getStatus()));
+	}
+
+	@Override
+	public CompletableFuture<Void> addPartialMFASecretAsync(String ssid, String secret, String type) {
+		AddPartialMFARequest request = new AddPartialMFARequest(ssid, secret, type);
+		return post(PestoRESTEndpoints.ADD_PARTIAL_MFA_SECRET, request, response ->
+			logger.info("PestoIdP2IdP: addPartialMFASecret returned: "+response.getStatus()));
+	}
+
+	@Override
+	public CompletableFuture<Void> addMasterShareAsync(String newSsid, byte[] newShare) {
+		AddMasterShare request = new AddMasterShare(newSsid, newShare);
+		return post(PestoRESTEndpoints.ADD_MASTER_SHARE, request, resp -> {
+			logger.info("PestoIdP2IdP: addMasterShare returned: "+resp.getStatus());
+			authentication = resp.getHeaderString("Authorization");
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> setKeyShareAsync(int id, byte[] newShare) {
+		SetKeyShare request = new SetKeyShare(id, newShare);
+		return post(PestoRESTEndpoints.SET_KEY_SHARE, request, response ->
+			logger.info("PestoIdP2IdP: setKeyShare returned: "+response.getStatus()));
+	}
+
+	private static void await(CompletableFuture<Void> request) {
+		try {
+			request.join();
+		} catch (CompletionException e) {
+			// Throw what the blocking call would have thrown
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private CompletableFuture<Void> post(String endpoint, Object request, Consumer<Response> handler) {
+		return client.target(host+endpoint).request(mediaType)
 			.header("Authorization", authentication)
-			.post(Entity.entity(request, MediaType.APPLICATION_JSON));
-		logger.info("PestoIdP2IdP: setKeyShare returned: "+response.getStatus());
+			.property(ClientProperties.CONNECT_TIMEOUT, connectTimeout)
+			.property(ClientProperties.READ_TIMEOUT, readTimeout)
+			.rx()
+			.post(Entity.entity(request, mediaType))
+			.toCompletableFuture()
+			.thenAccept(response -> {
+				// Closing the response frees the connection for reuse
+				try {
+					handler.accept(response);
+				} finally {
+					response.close();
+				}
+			});
 	}
 }
@@ -9,7 +9,6 @@ import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
-import org.apache.commons.codec.binary.Base64;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,14 +20,14 @@ public class PestoIdPServlet extends AbstractIdpServlet{
 
 	@Path(PestoRESTEndpoints.AUTHENTICATE)
 	@POST
-	@Produces(MediaType.APPLICATION_JSON)
-	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
+	@Consumes({MediaType.APPLICATION_JSON, ProtobufMessageProvider.APPLICATION_PROTOBUF})
 	public String authenticate(SignatureAndPolicy request) throws Exception {
 		logger.info("idp/"+PestoRESTEndpoints.AUTHENTICATE);
-		logger.trace(getJson(request));
+		trace(logger, request);
 		PestoIdP idp = (PestoIdP) context.getAttribute("idp");
-		return idp.authenticate(request.getUsername(), Base64.decodeBase64(request.getSessionCookie()),
-				request.getSaltIndex(), Base64.decodeBase64(request.getSignature()),
-				request.getPolicy());
+		return runCrypto(() -> idp.authenticate(request.getUsername(), request.getSessionCookie(),
+				request.getSaltIndex(), request.getSignature(),
+				request.getPolicy()));
 	}
 }
@@ -0,0 +1,226 @@
+package eu.olympus.server.rest;
+
+import eu.olympus.model.HttpTransportConfiguration;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
+import javax.ws.rs.ProcessingException;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.ssl.SSLContexts;
+import org.apache.http.util.EntityUtils;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.message.internal.Statuses;
+
+/**
+ * Jersey connector sending the requests through a pool of persistent (keep-alive) connections.
+ * All connections of the pool share one SSLContext, so new TLS connections to a server resume
+ * the session of earlier ones instead of doing a full handshake.
+ * The response entity stream must be read or the response closed for the connection to go back
+ * to the pool.
+ * Asynchronous requests run on a thread pool of the connector, with at most one thread per
+ * pooled connection. At most maxQueuedRequests wait for a thread; beyond that a request fails at
+ * once instead of queueing without bound.
+ */
+public class PooledHttpConnector implements Connector {
+
+	private final PoolingHttpClientConnectionManager connectionManager;
+	private final CloseableHttpClient httpClient;
+	private final RequestConfig requestConfig;
+	private final ThreadPoolExecutor executor;
+
+	public PooledHttpConnector(HttpTransportConfiguration configuration) {
+		// Uses the javax.net.ssl system properties, like the default transport
+		SSLContext sslContext = SSLContexts.createSystemDefault();
+		sslContext.getClientSessionContext().setSessionTimeout(configuration.getTlsSessionTimeout());
+		// The connections set the default hostname verifier
+		HostnameVerifier verifier = HttpsURLConnection.getDefaultHostnameVerifier();
+		this.connectionManager = new PoolingHttpClientConnectionManager(
+				RegistryBuilder.<ConnectionSocketFactory>create()
+						.register("http", PlainConnectionSocketFactory.getSocketFactory())
+						.register("https", new SSLConnectionSocketFactory(sslContext, verifier))
+						.build());
+		connectionManager.setDefaultMaxPerRoute(configuration.getMaxConnectionsPerRoute());
+		connectionManager.setMaxTotal(configuration.getMaxConnections());
+		connectionManager.setValidateAfterInactivity(1000);
+		this.requestConfig = RequestConfig.custom()
+				.setConnectTimeout(configuration.getConnectTimeout())
+				.setSocketTimeout(configuration.getReadTimeout())
+				.build();
+		this.httpClient = HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(requestConfig)
+				.setKeepAliveStrategy((response, context) -> configuration.getKeepAlive())
+				// Connections live as long as they are in use; only those idle for keepAlive are closed
+				.evictExpiredConnections()
+				.evictIdleConnections(configuration.getKeepAlive(), TimeUnit.MILLISECONDS)
+				.disableCookieManagement()
+				.build();
+		// Requests beyond the pool size would only wait for a connection, so that many threads are enough
+		AtomicInteger threads = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(configuration.getMaxConnections(), configuration.getMaxConnections(),
+				60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(configuration.getMaxQueuedRequests()), runnable -> {
+					Thread thread = new Thread(runnable, "pooled-http-" + threads.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	@Override
+	public ClientResponse apply(ClientRequest request) {
+		try {
+			CloseableHttpResponse response = httpClient.execute(toHttpRequest(request));
+			ClientResponse clientResponse = new ClientResponse(
+					Statuses.from(response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase()), request);
+			for (Header header : response.getAllHeaders()) {
+				clientResponse.header(header.getName(), header.getValue());
+			}
+			HttpEntity entity = response.getEntity();
+			if (entity == null) {
+				response.close();
+			} else {
+				// Closing the stream releases the connection back to the pool
+				InputStream content = entity.getContent();
+				clientResponse.setEntityStream(new ReleasingInputStream(content, response));
+			}
+			return clientResponse;
+		} catch (IOException e) {
+			throw new ProcessingException(e);
+		}
+	}
+
+	@Override
+	public Future<?> apply(ClientRequest request, AsyncConnectorCallback callback) {
+		// The blocking request runs on the threads of the connector, so the caller is not held until the reply
+		CompletableFuture<ClientResponse> response;
+		try {
+			response = CompletableFuture.supplyAsync(() -> apply(request), executor);
+		} catch (RejectedExecutionException e) {
+			ProcessingException failure = new ProcessingException("Too many queued requests", e);
+			callback.failure(failure);
+			response = new CompletableFuture<>();
+			response.completeExceptionally(failure);
+			return response;
+		}
+		return response.whenComplete((result, e) -> {
+			if (e == null) {
+				callback.response(result);
+			} else {
+				callback.failure(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+			}
+		});
+	}
+
+	@Override
+	public String getName() {
+		return "Pooled Apache HttpClient";
+	}
+
+	@Override
+	public void close() {
+		executor.shutdown();
+		try {
+			httpClient.close();
+		} catch (IOException e) {
+			throw new ProcessingException(e);
+		}
+	}
+
+	/**
+	 * @return Number of open connections that are currently unused.
+	 */
+	public int getIdleConnections() {
+		return connectionManager.getTotalStats().getAvailable();
+	}
+
+	private HttpUriRequest toHttpRequest(ClientRequest request) throws IOException {
+		RequestBuilder builder = RequestBuilder.create(request.getMethod()).setUri(request.getUri());
+		// Timeouts set on the request override those of the transport, as with the default Jersey transport
+		builder.setConfig(RequestConfig.copy(requestConfig)
+				.setConnectTimeout(request.resolveProperty(ClientProperties.CONNECT_TIMEOUT, requestConfig.getConnectTimeout()))
+				.setSocketTimeout(request.resolveProperty(ClientProperties.READ_TIMEOUT, requestConfig.getSocketTimeout()))
+				.build());
+		if (request.hasEntity()) {
+			ByteArrayOutputStream body = new ByteArrayOutputStream();
+			request.setStreamProvider(contentLength -> body);
+			request.writeEntity();
+			builder.setEntity(new ByteArrayEntity(body.toByteArray()));
+		}
+		// The headers are only final once the entity has been written
+		for (Map.Entry<String, List<String>> header : request.getStringHeaders().entrySet()) {
+			if (HTTP.CONTENT_LEN.equalsIgnoreCase(header.getKey())) {
+				continue;
+			}
+			for (String value : header.getValue()) {
+				builder.addHeader(header.getKey(), value);
+			}
+		}
+		return builder.build();
+	}
+
+	private static class ReleasingInputStream extends InputStream {
+		private final InputStream content;
+		private final CloseableHttpResponse response;
+
+		private ReleasingInputStream(InputStream content, CloseableHttpResponse response) {
+			this.content = content;
+			this.response = response;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return content.read();
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			return content.read(b, off, len);
+		}
+
+		@Override
+		public int available() throws IOException {
+			return content.available();
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				// Consuming what is left keeps the connection reusable
+				EntityUtils.consume(response.getEntity());
+			} finally {
+				response.close();
+			}
+		}
+	}
+}
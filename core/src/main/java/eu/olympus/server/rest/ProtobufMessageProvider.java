@@ -0,0 +1,79 @@
+package eu.olympus.server.rest;
+
+import com.google.protobuf.BoolValue;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.StringValue;
+import eu.olympus.model.server.rest.RestMessageConverters;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Reads and writes the REST messages in the protobuf wire format, as an alternative to JSON. The
+ * messages are generated from RestMessages.proto, see RestMessageConverters.
+ * Plain String and Boolean results are wrapped in google.protobuf.StringValue and BoolValue.
+ * Registered on both the IdPs and the REST connections to them.
+ */
+@Provider
+@Produces(ProtobufMessageProvider.APPLICATION_PROTOBUF)
+@Consumes(ProtobufMessageProvider.APPLICATION_PROTOBUF)
+public class ProtobufMessageProvider implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+
+    public static final String APPLICATION_PROTOBUF = "application/x-protobuf";
+    public static final MediaType APPLICATION_PROTOBUF_TYPE = new MediaType("application", "x-protobuf");
+
+    private static boolean supports(Class<?> type) {
+        return type == String.class || type == Boolean.class || type == boolean.class
+            || RestMessageConverters.get(type) != null;
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return supports(type);
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+        MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException {
+        Class<?> messageType = type;
+        try {
+            if (messageType == String.class) {
+                return StringValue.parseFrom(entityStream).getValue();
+            }
+            if (messageType == Boolean.class || messageType == boolean.class) {
+                return BoolValue.parseFrom(entityStream).getValue();
+            }
+            return RestMessageConverters.get(messageType).read(entityStream);
+        } catch (InvalidProtocolBufferException e) {
+            throw new BadRequestException("Malformed protobuf message", e);
+        }
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return supports(type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void writeTo(Object message, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        if (message instanceof String) {
+            StringValue.of((String) message).writeTo(entityStream);
+        } else if (message instanceof Boolean) {
+            BoolValue.of((Boolean) message).writeTo(entityStream);
+        } else {
+            ((RestMessageConverters.Converter<Object, ?>) RestMessageConverters.get(message.getClass())).write(message, entityStream);
+        }
+    }
+}
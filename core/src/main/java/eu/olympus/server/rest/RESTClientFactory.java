@@ -0,0 +1,45 @@
+package eu.olympus.server.rest;
+
+import eu.olympus.model.HttpTransportConfiguration;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+
+/**
+ * Creates the JAX-RS clients used by the REST connections to the IdPs.
+ */
+public class RESTClientFactory {
+
+	private RESTClientFactory() {
+	}
+
+	/**
+	 * Create a client using the given transport settings. If the settings are null or pooling is
+	 * disabled the default Jersey transport is used.
+	 * Note that a pooled client reads the javax.net.ssl system properties when it is created.
+	 */
+	public static Client newClient(HttpTransportConfiguration transport) {
+		if (transport == null) {
+			return ClientBuilder.newClient().register(ProtobufMessageProvider.class);
+		}
+		ClientConfig config = new ClientConfig()
+				.property(ClientProperties.CONNECT_TIMEOUT, transport.getConnectTimeout())
+				.property(ClientProperties.READ_TIMEOUT, transport.getReadTimeout());
+		if (transport.isPooled()) {
+			config.connectorProvider((client, configuration) -> new PooledHttpConnector(transport));
+		}
+		return ClientBuilder.newClient(config).register(ProtobufMessageProvider.class);
+	}
+
+	/**
+	 * The media type the REST connections send and accept with the given transport settings.
+	 */
+	public static MediaType mediaType(HttpTransportConfiguration transport) {
+		if (transport != null && transport.isProtobuf()) {
+			return ProtobufMessageProvider.APPLICATION_PROTOBUF_TYPE;
+		}
+		return MediaType.APPLICATION_JSON_TYPE;
+	}
+}
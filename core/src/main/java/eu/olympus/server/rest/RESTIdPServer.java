@@ -19,6 +19,7 @@ public class RESTIdPServer {
 	private Server server;
 	private ServerConnector plainConnector = null;
 	private ServerConnector sslConnector = null;
+	private ServletContextHandler context;
 	
 	private static RESTIdPServer myself = null;
 	
@@ -49,7 +50,7 @@ public class RESTIdPServer {
 	
     public void start(int port, List<String> types, int tlsPort, String keyStorePath, String ksPassword, String kmPassword) throws Exception {
     	logger.info("STARTING REST IdP SERVER : " +port +" - " +idp.getClass().getSimpleName());
-        ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
+        context = new ServletContextHandler(ServletContextHandler.SESSIONS);
         context.setContextPath("/");
         context.setAttribute("idp", idp);
        
@@ -85,10 +86,13 @@ public class RESTIdPServer {
         server.setHandler(context);
         types.add("eu.olympus.server.rest.AuthenticationFilter");
         types.add("eu.olympus.server.rest.RateLimitFilter");
+        types.add("eu.olympus.server.rest.ProtobufMessageProvider");
 
         ServletHolder jerseyServlet = context.addServlet(
         		org.glassfish.jersey.servlet.ServletContainer.class, "/*");
         jerseyServlet.setInitOrder(0);
+        // Operations waiting on the other IdPs suspend their request instead of holding a thread
+        jerseyServlet.setAsyncSupported(true);
         // Tells the Jersey Servlet which REST service/class to load.
 		jerseyServlet.setInitParameter(
 				"jersey.config.server.provider.classnames",
@@ -102,6 +106,13 @@ public class RESTIdPServer {
         server.start();
     }
     	
+    /**
+     * The rate limiter of the running server, giving access to its metrics.
+     */
+    public RequestRateLimiter getRateLimiter() {
+    	return RequestRateLimiter.get(context.getServletContext());
+    }
+
     public void stop() throws Exception {
     	logger.info("STOPPING REST IdP SERVER");
     	this.plainConnector.close();
@@ -1,12 +1,21 @@
 package eu.olympus.server.rest;
 
-import com.revinate.guava.util.concurrent.RateLimiter;
-import eu.olympus.server.interfaces.PestoBasedIdP;
+import eu.olympus.server.rest.RequestRateLimiter.EndpointClass;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Priority;
 import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.Path;
 import javax.ws.rs.Priorities;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ResourceInfo;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
@@ -14,33 +23,62 @@ import javax.ws.rs.ext.Provider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-@Secured
+/**
+ * Rate limits every resource method, secured or not, by client address and endpoint class (see
+ * RequestRateLimiter). Requests over the limit are answered with 429 Too Many Requests and a
+ * Retry-After header saying when the client gets a permit again.
+ */
 @Provider
 @Priority(Priorities.AUTHENTICATION)
 public class RateLimitFilter implements ContainerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
-    private RateLimiter rateLimiter;
-    private static final String AUTHENTICATION_SCHEME = "Bearer";
+    private static final Set<String> EXPENSIVE_ENDPOINTS = new HashSet<>(Arrays.asList(
+        PestoRESTEndpoints.REQUEST_OPRF, PestoRESTEndpoints.GET_CREDENTIAL_SHARE));
+    // The class of each resource method, so the annotations are only inspected once
+    private static final Map<Method, EndpointClass> endpointClasses = new ConcurrentHashMap<>();
     @Context
     ServletContext context;
+    @Context
+    ResourceInfo resourceInfo;
+    @Context
+    HttpServletRequest request;
 
-    private RateLimiter getRateLimiter(){
-        if(rateLimiter == null){
-            PestoBasedIdP idp = (PestoBasedIdP) context.getAttribute("idp");
-            rateLimiter = RateLimiter.create(idp.getRateLimit());
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        Method method = resourceInfo.getResourceMethod();
+        if(method == null){
+            return;
+        }
+        EndpointClass endpointClass = endpointClasses.computeIfAbsent(method, RateLimitFilter::classify);
+        RequestRateLimiter limiter = RequestRateLimiter.get(context);
+        String address = limiter.clientAddress(request);
+        long wait = limiter.acquire(endpointClass, address);
+        if(wait > 0){
+            logger.warn("Rate limited reached for "+address+", dropping "+requestContext.getUriInfo().getPath());
+            requestContext.abortWith(rateLimited(wait));
         }
-        return rateLimiter;
     }
 
-    @Override
-    public void filter(ContainerRequestContext requestContext) {
-            if(!getRateLimiter().tryAcquire(1)){
-                logger.warn("Rate limited reached, dropping "+requestContext.getUriInfo().getPath());
-                requestContext.abortWith(
-                    Response.status(Response.Status.NOT_ACCEPTABLE)
-                        .header(HttpHeaders.WWW_AUTHENTICATE,
-                            AUTHENTICATION_SCHEME)
-                        .build());
-            }
+    /**
+     * The response to a request dropped because of a rate limit.
+     * @param wait Time in ns until the client gets a permit again.
+     */
+    static Response rateLimited(long wait) {
+        // Retry-After is in whole seconds, rounded up so a client retrying on time is not rejected again
+        long seconds = Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        return Response.status(Response.Status.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, seconds)
+            .build();
+    }
+
+    private static EndpointClass classify(Method method) {
+        if(method.isAnnotationPresent(Secured.class)){
+            return EndpointClass.SERVER;
+        }
+        Path path = method.getAnnotation(Path.class);
+        if(path != null && EXPENSIVE_ENDPOINTS.contains(path.value())){
+            return EndpointClass.EXPENSIVE;
+        }
+        return EndpointClass.USER;
     }
 }
@@ -0,0 +1,159 @@
+package eu.olympus.server.rest;
+
+import eu.olympus.server.interfaces.PestoBasedIdP;
+import eu.olympus.util.KeyedRateLimiter;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * The rate limits of the REST interface of an IdP. Every client address has its own budget for each
+ * class of endpoints, and the expensive endpoints additionally have a budget per username.
+ * A limit of 0 or less disables it.
+ * The client address is the address of the TCP connection, unless a header set by a trusted
+ * reverse proxy (e.g. X-Forwarded-For) is configured, see clientAddress.
+ */
+public class RequestRateLimiter {
+
+	public enum EndpointClass {
+		/** Administrator and server-to-server endpoints */
+		SERVER,
+		/** Endpoints doing expensive cryptography, the OPRF and the credential share */
+		EXPENSIVE,
+		/** All other endpoints */
+		USER
+	}
+
+	static final String CONTEXT_ATTRIBUTE = "rateLimiter";
+	// Bound on the number of client addresses or usernames tracked per limiter
+	private static final int MAX_KEYS = 100000;
+
+	private final KeyedRateLimiter[] sourceLimiters = new KeyedRateLimiter[EndpointClass.values().length];
+	private final KeyedRateLimiter userLimiter;
+	private final String addressHeader;
+
+	/**
+	 * @param rateLimit Requests per second per client address to the server and user endpoints.
+	 * @param expensiveRateLimit Requests per second per client address to the expensive endpoints,
+	 * or 0 to use rateLimit.
+	 * @param userRateLimit Requests per second per username to the expensive endpoints, or 0 for no
+	 * limit.
+	 */
+	public RequestRateLimiter(int rateLimit, int expensiveRateLimit, int userRateLimit) {
+		this(rateLimit, expensiveRateLimit, userRateLimit, null);
+	}
+
+	/**
+	 * @param rateLimit Requests per second per client address to the server and user endpoints.
+	 * @param expensiveRateLimit Requests per second per client address to the expensive endpoints,
+	 * or 0 to use rateLimit.
+	 * @param userRateLimit Requests per second per username to the expensive endpoints, or 0 for no
+	 * limit.
+	 * @param addressHeader Header holding the client address, set by a trusted reverse proxy, or
+	 * null to use the address of the connection.
+	 */
+	public RequestRateLimiter(int rateLimit, int expensiveRateLimit, int userRateLimit, String addressHeader) {
+		this.addressHeader = addressHeader;
+		sourceLimiters[EndpointClass.SERVER.ordinal()] = create(rateLimit);
+		sourceLimiters[EndpointClass.USER.ordinal()] = create(rateLimit);
+		sourceLimiters[EndpointClass.EXPENSIVE.ordinal()] = create(expensiveRateLimit > 0 ? expensiveRateLimit : rateLimit);
+		userLimiter = create(userRateLimit);
+	}
+
+	/**
+	 * Get the rate limiter of a servlet context, created from the limits of its IdP on first use.
+	 */
+	public static RequestRateLimiter get(ServletContext context) {
+		RequestRateLimiter limiter = (RequestRateLimiter) context.getAttribute(CONTEXT_ATTRIBUTE);
+		if (limiter == null) {
+			synchronized (RequestRateLimiter.class) {
+				limiter = (RequestRateLimiter) context.getAttribute(CONTEXT_ATTRIBUTE);
+				if (limiter == null) {
+					Object idp = context.getAttribute("idp");
+					if (idp instanceof PestoBasedIdP) {
+						PestoBasedIdP pestoIdP = (PestoBasedIdP) idp;
+						limiter = new RequestRateLimiter(pestoIdP.getRateLimit(), pestoIdP.getExpensiveRateLimit(),
+								pestoIdP.getUserRateLimit(), pestoIdP.getRateLimitAddressHeader());
+					} else {
+						limiter = new RequestRateLimiter(0, 0, 0);
+					}
+					context.setAttribute(CONTEXT_ATTRIBUTE, limiter);
+				}
+			}
+		}
+		return limiter;
+	}
+
+	/**
+	 * The address a request is rate limited by. With an address header configured, this is the
+	 * last address in the header, the one added by the proxy in front of the IdP; earlier entries
+	 * come from the client and can not be trusted. Requests without the header fall back to the
+	 * address of the connection. Only configure the header if the IdP can only be reached through
+	 * a proxy that sets it, otherwise clients can choose their own address.
+	 */
+	public String clientAddress(HttpServletRequest request) {
+		if (addressHeader != null) {
+			String forwarded = request.getHeader(addressHeader);
+			if (forwarded != null) {
+				String address = forwarded.substring(forwarded.lastIndexOf(',') + 1).trim();
+				if (!address.isEmpty()) {
+					return address;
+				}
+			}
+		}
+		return request.getRemoteAddr();
+	}
+
+	/**
+	 * Acquire a permit for a request from a client address.
+	 * @return True if the request may be handled.
+	 */
+	public boolean tryAcquire(EndpointClass endpointClass, String address) {
+		return acquire(endpointClass, address) == 0;
+	}
+
+	/**
+	 * Acquire a permit for a request from a client address.
+	 * @return 0 if the request may be handled, otherwise the time in ns until the address gets a
+	 * permit again.
+	 */
+	public long acquire(EndpointClass endpointClass, String address) {
+		KeyedRateLimiter limiter = sourceLimiters[endpointClass.ordinal()];
+		return limiter == null || address == null ? 0 : limiter.acquire(address);
+	}
+
+	/**
+	 * Acquire a permit for a request to an expensive endpoint for a username.
+	 * @return True if the request may be handled.
+	 */
+	public boolean tryAcquireUser(String username) {
+		return acquireUser(username) == 0;
+	}
+
+	/**
+	 * Acquire a permit for a request to an expensive endpoint for a username.
+	 * @return 0 if the request may be handled, otherwise the time in ns until the username gets a
+	 * permit again.
+	 */
+	public long acquireUser(String username) {
+		return userLimiter == null || username == null ? 0 : userLimiter.acquire(username);
+	}
+
+	/**
+	 * @return The limiter of the client addresses for a class of endpoints, null if not limited.
+	 */
+	public KeyedRateLimiter getLimiter(EndpointClass endpointClass) {
+		return sourceLimiters[endpointClass.ordinal()];
+	}
+
+	/**
+	 * @return The limiter of the usernames for the expensive endpoints, null if not limited.
+	 */
+	public KeyedRateLimiter getUserLimiter() {
+		return userLimiter;
+	}
+
+	private static KeyedRateLimiter create(int permitsPerSecond) {
+		// Allow a second worth of requests at once, like the single limiter used before
+		return permitsPerSecond > 0 ? new KeyedRateLimiter(permitsPerSecond, permitsPerSecond, MAX_KEYS) : null;
+	}
+}
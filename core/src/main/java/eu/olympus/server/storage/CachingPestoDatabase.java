@@ -0,0 +1,338 @@
+package eu.olympus.server.storage;
+
+import eu.olympus.model.Attribute;
+import eu.olympus.model.MFAInformation;
+import eu.olympus.model.UserAuthState;
+import eu.olympus.model.exceptions.OperationFailedException;
+import eu.olympus.server.interfaces.PestoDatabase;
+import eu.olympus.util.BoundedCache;
+import java.security.PublicKey;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Read-through cache in front of a PestoDatabase. The decoded public keys, salts, attribute maps
+ * and authentication states of the most recently used users are kept in bounded caches, and
+ * invalidated whenever they are changed through this wrapper. The wrapped database must therefore
+ * not be modified by other means while it is in use.
+ */
+public class CachingPestoDatabase implements PestoDatabase {
+
+	public static final int DEFAULT_MAX_USERS = 10000;
+	public static final long DEFAULT_TTL = 600000;
+
+	private static final int STRIPES = 64;
+
+	private final PestoDatabase database;
+	private final BoundedCache<String, PublicKey> keys;
+	private final BoundedCache<String, Long> salts;
+	private final BoundedCache<String, Map<String, Attribute>> attributes;
+	private final BoundedCache<String, UserAuthState> states;
+	// Incremented on every write to a user, so a value read before the write is not cached after it
+	private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+
+	public CachingPestoDatabase(PestoDatabase database) {
+		this(database, DEFAULT_MAX_USERS, DEFAULT_TTL);
+	}
+
+	/**
+	 * @param database The database to cache.
+	 * @param maxUsers Maximum number of users kept in each of the caches.
+	 * @param ttlMillis Time (ms) a cached value is used, or 0 to keep it until it is invalidated or evicted.
+	 */
+	public CachingPestoDatabase(PestoDatabase database, int maxUsers, long ttlMillis) {
+		this.database = database;
+		this.keys = new BoundedCache<>(maxUsers, ttlMillis);
+		this.salts = new BoundedCache<>(maxUsers, ttlMillis);
+		this.attributes = new BoundedCache<>(maxUsers, ttlMillis);
+		this.states = new BoundedCache<>(maxUsers, ttlMillis);
+	}
+
+	@Override
+	public PublicKey getUserKey(String username) throws OperationFailedException {
+		PublicKey key = keys.getIfPresent(username);
+		if (key == null) {
+			long version = version(username);
+			key = database.getUserKey(username);
+			cache(keys, username, key, version);
+		}
+		return key;
+	}
+
+	@Override
+	public long getLastSalt(String username) throws OperationFailedException {
+		Long salt = salts.getIfPresent(username);
+		if (salt == null) {
+			long version = version(username);
+			salt = database.getLastSalt(username);
+			cache(salts, username, salt, version);
+		}
+		return salt;
+	}
+
+	@Override
+	public Map<String, Attribute> getAttributes(String username) throws OperationFailedException {
+		Map<String, Attribute> res = attributes.getIfPresent(username);
+		if (res == null) {
+			long version = version(username);
+			res = database.getAttributes(username);
+			cache(attributes, username, new HashMap<>(res), version);
+			return res;
+		}
+		// The callers may modify the map
+		return new HashMap<>(res);
+	}
+
+	@Override
+	public UserAuthState getUserAuthState(String username) throws OperationFailedException {
+		UserAuthState state = states.getIfPresent(username);
+		if (state == null) {
+			long version = version(username);
+			state = database.getUserAuthState(username);
+			cache(states, username, state, version);
+		}
+		return state;
+	}
+
+	@Override
+	public void addUser(String username, PublicKey key, long salt) throws OperationFailedException {
+		try {
+			database.addUser(username, key, salt);
+		} finally {
+			invalidate(username);
+		}
+	}
+
+	@Override
+	public void setSalt(String username, long salt) throws OperationFailedException {
+		try {
+			database.setSalt(username, salt);
+		} finally {
+			invalidate(username);
+		}
+	}
+
+	@Override
+	public void replaceUserKey(String username, PublicKey publicKey, long salt) throws OperationFailedException {
+		try {
+			database.replaceUserKey(username, publicKey, salt);
+		} finally {
+			invalidate(username);
+		}
+	}
+
+	@Override
+	public void recordAuthAttempt(String username, long salt, boolean successful) throws OperationFailedException {
+		try {
+			database.recordAuthAttempt(username, salt, successful);
+		} finally {
+			invalidate(username);
+		}
+	}
+
+	@Override
+	public void addAttributes(String username, Map<String, Attribute> attributes) throws OperationFailedException {
+		try {
+			database.addAttributes(username, attributes);
+		} finally {
+			invalidate(username);
+		}
+	}
+
+	@Override
+	public void addAttribute(String username, String key, Attribute value) throws OperationFailedException {
+		try {
+			database.addAttribute(username, key, value);
+		} finally {
+			invalidate(username);
+		}
+	}
+
+	@Override
+	public boolean deleteAttribute(String username, String attributeName) throws OperationFailedException {
+		try {
+			return database.deleteAttribute(username, attributeName);
+		} finally {
+			invalidate(username);
+		}
+	}
+
+	@Override
+	public boolean deleteAttributes(String username, List<String> attributeNames) throws OperationFailedException {
+		try {
+			return database.deleteAttributes(username, attributeNames);
+		} finally {
+			invalidate(username);
+		}
+	}
+
+	@Override
+	public boolean deleteUser(String username) throws OperationFailedException {
+		try {
+			return database.deleteUser(username);
+		} finally {
+			invalidate(username);
+		}
+	}
+
+	@Override
+	public void assignMFASecret(String username, String type, String secret) throws OperationFailedException {
+		try {
+			database.assignMFASecret(username, type, secret);
+		} finally {
+			invalidate(username);
+		}
+	}
+
+	@Override
+	public void activateMFA(String username, String type) throws OperationFailedException {
+		try {
+			database.activateMFA(username, type);
+		} finally {
+			invalidate(username);
+		}
+	}
+
+	@Override
+	public void deleteMFA(String username, String type) throws OperationFailedException {
+		try {
+			database.deleteMFA(username, type);
+		} finally {
+			invalidate(username);
+		}
+	}
+
+	@Override
+	public void failedAuthAttempt(String username) throws OperationFailedException {
+		try {
+			database.failedAuthAttempt(username);
+		} finally {
+			invalidate(username);
+		}
+	}
+
+	@Override
+	public void clearFailedAuthAttempts(String username) throws OperationFailedException {
+		try {
+			database.clearFailedAuthAttempts(username);
+		} finally {
+			invalidate(username);
+		}
+	}
+
+	@Override
+	public boolean hasUser(String username) throws OperationFailedException {
+		return database.hasUser(username);
+	}
+
+	@Override
+	public Map<String, MFAInformation> getMFAInformation(String username) throws OperationFailedException {
+		return database.getMFAInformation(username);
+	}
+
+	@Override
+	public long getLastAuthAttempt(String username) throws OperationFailedException {
+		return database.getLastAuthAttempt(username);
+	}
+
+	@Override
+	public int getNumberOfFailedAuthAttempts(String username) throws OperationFailedException {
+		return database.getNumberOfFailedAuthAttempts(username);
+	}
+
+	@Override
+	public int getNumberOfFailedMFAAttempts(String username) throws OperationFailedException {
+		return database.getNumberOfFailedMFAAttempts(username);
+	}
+
+	@Override
+	public void failedMFAAttempt(String username) throws OperationFailedException {
+		database.failedMFAAttempt(username);
+	}
+
+	@Override
+	public void clearFailedMFAAttempts(String username) throws OperationFailedException {
+		database.clearFailedMFAAttempts(username);
+	}
+
+	@Override
+	public long getLastMFAAttempt(String username) throws OperationFailedException {
+		return database.getLastMFAAttempt(username);
+	}
+
+	@Override
+	public byte[] getKeyDigest() throws OperationFailedException {
+		return database.getKeyDigest();
+	}
+
+	@Override
+	public void setKeyDigest(byte[] digest) throws OperationFailedException {
+		database.setKeyDigest(digest);
+	}
+
+	@Override
+	public void setKeyShare(int id, byte[] shares) throws OperationFailedException {
+		database.setKeyShare(id, shares);
+	}
+
+	@Override
+	public byte[] getKeyShare(int id) throws OperationFailedException {
+		return database.getKeyShare(id);
+	}
+
+	public long getHits() {
+		return keys.getHits() + salts.getHits() + attributes.getHits() + states.getHits();
+	}
+
+	public long getMisses() {
+		return keys.getMisses() + salts.getMisses() + attributes.getMisses() + states.getMisses();
+	}
+
+	/**
+	 * @return The fraction of the cached lookups answered from the cache, or 0 if there were none.
+	 */
+	public double getHitRatio() {
+		long hits = getHits();
+		long total = hits + getMisses();
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	/**
+	 * Remove all cached values. The hit and miss counters are not reset.
+	 */
+	public void clear() {
+		keys.clear();
+		salts.clear();
+		attributes.clear();
+		states.clear();
+	}
+
+	private <V> void cache(BoundedCache<String, V> cache, String username, V value, long version) {
+		if (value == null) {
+			return;
+		}
+		cache.put(username, value);
+		// A write raced with the read, the value may be stale
+		if (version(username) != version) {
+			cache.invalidate(username);
+		}
+	}
+
+	private void invalidate(String username) {
+		versions.incrementAndGet(stripe(username));
+		keys.invalidate(username);
+		salts.invalidate(username);
+		attributes.invalidate(username);
+		states.invalidate(username);
+	}
+
+	private long version(String username) {
+		return versions.get(stripe(username));
+	}
+
+	private static int stripe(String username) {
+		return (username.hashCode() & 0x7fffffff) % STRIPES;
+	}
+}
@@ -1,10 +1,17 @@
 package eu.olympus.server.storage;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import eu.olympus.model.Authorization;
 import eu.olympus.server.interfaces.UserAuthorizationDatabase;
@@ -14,21 +21,95 @@ import eu.olympus.server.interfaces.UserAuthorizationDatabase;
  * WARNING: This should NOT EVER be implemented as a persistent database as it only contains values
  * that should be temporary. Furthermore the values will be the IdP's master shares are thus are
  * highly security critical and should not be stored on an insecure disc.
+ * Expired sessions, and partial values of registrations that were never finished, are removed
+ * periodically by a background task, so the memory use does not grow with the uptime.
  */
 public class InMemoryKeyDB implements UserAuthorizationDatabase {
 
-  private List<byte[]> masterShares;
+  public static final long DEFAULT_CLEANUP_INTERVAL = 60000;
+  public static final long DEFAULT_PARTIAL_VALUE_LIFETIME = 600000;
+
+  // One daemon thread cleans up all instances
+  private static final ScheduledExecutorService cleaner = Executors.newSingleThreadScheduledExecutor(r -> {
+	  Thread thread = new Thread(r, "InMemoryKeyDB-cleanup");
+	  thread.setDaemon(true);
+	  return thread;
+  });
+
+  private PartialValues<byte[]> masterShares;
   private List<String> ssids;
-  private Map<String, List<byte[]>> partialServerSignatures;
-  private Map<String, List<String>> partialMFASecrets;
+  private final Map<String, PartialValues<byte[]>> partialServerSignatures;
+  private final Map<String, PartialValues<String>> partialMFASecrets;
   private final Map<String, Authorization> cookieMap;
+  private final long partialValueLifetime;
 
   public InMemoryKeyDB() {
-    this.masterShares = Collections.synchronizedList(new ArrayList<>());
-	this.partialServerSignatures = Collections.synchronizedMap(new ConcurrentHashMap<>());
-	this.partialMFASecrets = Collections.synchronizedMap(new ConcurrentHashMap<>());
+	  this(DEFAULT_CLEANUP_INTERVAL, DEFAULT_PARTIAL_VALUE_LIFETIME);
+  }
+
+  /**
+   * @param cleanupInterval Time, in miliseconds, between removals of expired values, or 0 to only remove them
+   * 		on calls to removeExpired
+   * @param partialValueLifetime Time, in miliseconds, partial signatures and MFA secrets are kept if not deleted
+   */
+  public InMemoryKeyDB(long cleanupInterval, long partialValueLifetime) {
+	if(cleanupInterval < 0 || partialValueLifetime <= 0) {
+		throw new IllegalArgumentException("Cleanup interval must be non negative and partial value lifetime positive");
+	}
+    this.masterShares = new PartialValues<>();
+	this.partialServerSignatures = new ConcurrentHashMap<>();
+	this.partialMFASecrets = new ConcurrentHashMap<>();
     this.ssids = Collections.synchronizedList(new ArrayList<>());
 	this.cookieMap = new ConcurrentHashMap<>();
+	this.partialValueLifetime = partialValueLifetime;
+	if(cleanupInterval > 0) {
+		CleanupTask task = new CleanupTask(this);
+		task.future = cleaner.scheduleWithFixedDelay(task, cleanupInterval, cleanupInterval, TimeUnit.MILLISECONDS);
+	}
+  }
+
+  /**
+   * Remove the sessions that have expired, and the partial signatures and MFA secrets older than
+   * the partial value lifetime.
+   */
+  public void removeExpired() {
+	long now = System.currentTimeMillis();
+	cookieMap.values().removeIf(auth -> auth.getExpiration() < now);
+	removeOld(partialServerSignatures, now);
+	removeOld(partialMFASecrets, now);
+  }
+
+  private <T> void removeOld(Map<String, PartialValues<T>> values, long now) {
+	for(Map.Entry<String, PartialValues<T>> entry : values.entrySet()) {
+		if(now - entry.getValue().created >= partialValueLifetime) {
+			remove(values, entry.getKey(), entry.getValue());
+		}
+	}
+  }
+
+  /**
+   * Add a value in the same atomic step as looking up the values of the session, so it cannot
+   * end up in values that were concurrently deleted. Waiters are completed after the step.
+   */
+  private static <T> void add(Map<String, PartialValues<T>> values, String username, T value) {
+	List<Waiter> ready = new ArrayList<>();
+	values.compute(username, (k, current) -> {
+		PartialValues<T> partial = current != null ? current : new PartialValues<>();
+		ready.addAll(partial.add(value));
+		return partial;
+	});
+	for (Waiter waiter : ready) {
+		waiter.future.complete(true);
+	}
+  }
+
+  /**
+   * Remove and discard the values of a session, unless they were replaced in the meantime.
+   */
+  private static <T> void remove(Map<String, PartialValues<T>> values, String username, PartialValues<T> expected) {
+	if(expected != null && values.remove(username, expected)) {
+		expected.discard();
+	}
   }
 
   /**
@@ -37,8 +118,8 @@ public class InMemoryKeyDB implements UserAuthorizationDatabase {
    * @param share The actual masterkey-shares
    */
   public synchronized void addMasterShare(String ssid, byte[] share) {
-    masterShares.add(share);
     ssids.add(ssid);
+    masterShares.add(share);
   }
 
   /**
@@ -46,7 +127,22 @@ public class InMemoryKeyDB implements UserAuthorizationDatabase {
    * @return Returns the list of currently stored master shares
    */
   public synchronized List<byte[]> getMasterShares(){
-    return masterShares;
+    return masterShares.values;
+  }
+
+  /**
+   * Wait until the given amount of master shares has been stored.
+   * @param amount The amount of shares to wait for
+   * @param timeout The maximal time to wait, in miliseconds
+   * @return True if the shares arrived in time, false if the timeout was reached or the shares were deleted
+   * @throws InterruptedException If interrupted while waiting
+   */
+  public boolean waitForMasterShares(int amount, long timeout) throws InterruptedException {
+    PartialValues<byte[]> current;
+    synchronized (this) {
+      current = masterShares;
+    }
+    return current.await(amount, timeout);
   }
 
   /**
@@ -62,7 +158,8 @@ public class InMemoryKeyDB implements UserAuthorizationDatabase {
    * Delete the currently stored shares of the restored master key
    */
   public synchronized void deleteMasterShares() {
-    masterShares = Collections.synchronizedList(new ArrayList<>());
+    masterShares.discard();
+    masterShares = new PartialValues<>();
     ssids = Collections.synchronizedList(new ArrayList<>());
   }
   
@@ -72,11 +169,8 @@ public class InMemoryKeyDB implements UserAuthorizationDatabase {
 	 * @param username The username of the user owning the signature
 	 * @param signature The signature to store
 	 */
-	public synchronized void addPartialSignature(String username, byte[] signature) {
-		if(!this.partialServerSignatures.containsKey(username)) {
-			this.partialServerSignatures.put(username, new ArrayList<byte[]>());
-		}
-		this.partialServerSignatures.get(username).add(signature);
+	public void addPartialSignature(String username, byte[] signature) {
+		add(this.partialServerSignatures, username, signature);
 	}
 	
 	/**
@@ -84,16 +178,42 @@ public class InMemoryKeyDB implements UserAuthorizationDatabase {
 	 * @param username The username to lookup
 	 * @return A List of partial signatures
 	 */
-	public synchronized List<byte[]> getPartialSignatures(String username) {
-		return this.partialServerSignatures.get(username) != null ? this.partialServerSignatures.get(username) : new ArrayList<>();	
+	public List<byte[]> getPartialSignatures(String username) {
+		PartialValues<byte[]> signatures = this.partialServerSignatures.get(username);
+		return signatures != null ? signatures.values : new ArrayList<>();
+	}
+
+	/**
+	 * Wait until the given amount of partial signatures belonging to a user has been stored.
+	 * @param username The username to wait for
+	 * @param amount The amount of signatures to wait for
+	 * @param timeout The maximal time to wait, in miliseconds
+	 * @return True if the signatures arrived in time, false if the timeout was reached or the signatures were deleted
+	 * @throws InterruptedException If interrupted while waiting
+	 */
+	public boolean waitForPartialSignatures(String username, int amount, long timeout) throws InterruptedException {
+		return this.partialServerSignatures.computeIfAbsent(username, k -> new PartialValues<>()).await(amount, timeout);
 	}
 	
+	/**
+	 * Get a future completed once the given amount of partial signatures belonging to a user has
+	 * been stored, without blocking a thread while waiting.
+	 * @param username The username to wait for
+	 * @param amount The amount of signatures to wait for
+	 * @param timeout The maximal time to wait, in miliseconds
+	 * @return A future completed with true if the signatures arrived in time, false if the timeout was reached or
+	 * 		the signatures were deleted
+	 */
+	public CompletableFuture<Boolean> awaitPartialSignatures(String username, int amount, long timeout) {
+		return this.partialServerSignatures.computeIfAbsent(username, k -> new PartialValues<>()).whenReady(amount, timeout);
+	}
+
 	/**
 	 * Remove all partial signatures belonging to a user.
 	 * @param username The username of the owner of the signatures to delete
 	 */
-	public synchronized void deletePartialSignatures(String username) {
-		this.partialServerSignatures.remove(username);
+	public void deletePartialSignatures(String username) {
+		remove(this.partialServerSignatures, username, this.partialServerSignatures.get(username));
 	}
 
 	/**
@@ -102,11 +222,8 @@ public class InMemoryKeyDB implements UserAuthorizationDatabase {
 	 * @param username The username of the user owning the secret
 	 * @param secret The secret to store
 	 */
-	public synchronized void addPartialMFASecret(String username, String secret) {
-		if(!this.partialMFASecrets.containsKey(username)) {
-			this.partialMFASecrets.put(username, new ArrayList<String>());
-		}
-		this.partialMFASecrets.get(username).add(secret);
+	public void addPartialMFASecret(String username, String secret) {
+		add(this.partialMFASecrets, username, secret);
 	}
 	
 	/**
@@ -114,30 +231,163 @@ public class InMemoryKeyDB implements UserAuthorizationDatabase {
 	 * @param username The username to lookup
 	 * @return A List of partial signatures
 	 */
-	public synchronized List<String> getPartialMFASecrets(String username) {
-		return this.partialMFASecrets.get(username) != null ? this.partialMFASecrets.get(username) : new ArrayList<>();	
+	public List<String> getPartialMFASecrets(String username) {
+		PartialValues<String> secrets = this.partialMFASecrets.get(username);
+		return secrets != null ? secrets.values : new ArrayList<>();
+	}
+
+	/**
+	 * Wait until the given amount of partial secrets belonging to a user has been stored.
+	 * @param username The username to wait for
+	 * @param amount The amount of secrets to wait for
+	 * @param timeout The maximal time to wait, in miliseconds
+	 * @return True if the secrets arrived in time, false if the timeout was reached or the secrets were deleted
+	 * @throws InterruptedException If interrupted while waiting
+	 */
+	public boolean waitForPartialMFASecrets(String username, int amount, long timeout) throws InterruptedException {
+		return this.partialMFASecrets.computeIfAbsent(username, k -> new PartialValues<>()).await(amount, timeout);
 	}
 	
+	/**
+	 * Get a future completed once the given amount of partial secrets belonging to a user has been
+	 * stored, without blocking a thread while waiting.
+	 * @param username The username to wait for
+	 * @param amount The amount of secrets to wait for
+	 * @param timeout The maximal time to wait, in miliseconds
+	 * @return A future completed with true if the secrets arrived in time, false if the timeout was reached or
+	 * 		the secrets were deleted
+	 */
+	public CompletableFuture<Boolean> awaitPartialMFASecrets(String username, int amount, long timeout) {
+		return this.partialMFASecrets.computeIfAbsent(username, k -> new PartialValues<>()).whenReady(amount, timeout);
+	}
+
 	/**
 	 * Remove all partial secrets belonging to a user.
 	 * @param username The username of the owner of the secrets to delete
 	 */
-	public synchronized void deletePartialMFASecrets(String username) {
-		this.partialMFASecrets.remove(username);
+	public void deletePartialMFASecrets(String username) {
+		remove(this.partialMFASecrets, username, this.partialMFASecrets.get(username));
 	}
 	
 	@Override
-	public synchronized void storeCookie(String cookie, Authorization user) {
+	public void storeCookie(String cookie, Authorization user) {
 		this.cookieMap.put(cookie, user);
 	}
 
 	@Override
-	public synchronized Authorization lookupCookie(String cookie) {
+	public Authorization lookupCookie(String cookie) {
 		return this.cookieMap.get(cookie);
 	}
 	
 	@Override
-	public synchronized void deleteCookie(String cookie) {
+	public void deleteCookie(String cookie) {
 		this.cookieMap.remove(cookie);
 	}
+
+	/**
+	 * Periodic cleanup of a database. It only holds a weak reference, so it does not keep an
+	 * unused database alive, and stops once the database has been garbage collected.
+	 */
+	private static class CleanupTask implements Runnable {
+		private final WeakReference<InMemoryKeyDB> db;
+		private volatile ScheduledFuture<?> future;
+
+		private CleanupTask(InMemoryKeyDB db) {
+			this.db = new WeakReference<>(db);
+		}
+
+		@Override
+		public void run() {
+			InMemoryKeyDB current = db.get();
+			if(current != null) {
+				current.removeExpired();
+			} else if(future != null) {
+				future.cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * Values sent by the servers for one session. Waiting for them is done on the values
+	 * themselves, so waiters are only woken by the session they are waiting for, and do not hold
+	 * the database lock while waiting.
+	 * Futures are completed outside the lock, as their continuations run on the completing thread.
+	 */
+	private static class PartialValues<T> {
+		private final List<T> values = Collections.synchronizedList(new ArrayList<>());
+		private final long created = System.currentTimeMillis();
+		private final List<Waiter> waiters = new ArrayList<>();
+		private boolean discarded = false;
+
+		/**
+		 * @return The waiters that are now ready, to be completed by the caller
+		 */
+		private synchronized List<Waiter> add(T value) {
+			List<Waiter> ready = new ArrayList<>();
+			values.add(value);
+			notifyAll();
+			waiters.removeIf(waiter -> {
+				if (waiter.future.isDone()) {
+					return true;
+				}
+				if (values.size() >= waiter.amount) {
+					ready.add(waiter);
+					return true;
+				}
+				return false;
+			});
+			return ready;
+		}
+
+		private void discard() {
+			List<Waiter> pending;
+			synchronized (this) {
+				discarded = true;
+				notifyAll();
+				pending = new ArrayList<>(waiters);
+				waiters.clear();
+			}
+			for (Waiter waiter : pending) {
+				waiter.future.complete(false);
+			}
+		}
+
+		private CompletableFuture<Boolean> whenReady(int amount, long timeout) {
+			CompletableFuture<Boolean> future = new CompletableFuture<>();
+			synchronized (this) {
+				boolean ready = !discarded && values.size() >= amount;
+				if (ready || discarded || timeout <= 0) {
+					future.complete(ready);
+					return future;
+				}
+				waiters.add(new Waiter(amount, future));
+			}
+			// The timer thread only hands the completion over, so slow continuations do not hold it up
+			ScheduledFuture<?> timer = cleaner.schedule(() -> ForkJoinPool.commonPool().execute(() -> future.complete(false)),
+					timeout, TimeUnit.MILLISECONDS);
+			// Do not keep the future and its continuations referenced by the timer once it is done
+			future.whenComplete((result, e) -> timer.cancel(false));
+			return future;
+		}
+
+		private synchronized boolean await(int amount, long timeout) throws InterruptedException {
+			long deadline = System.currentTimeMillis() + timeout;
+			long remaining = timeout;
+			while (!discarded && values.size() < amount && remaining > 0) {
+				wait(remaining);
+				remaining = deadline - System.currentTimeMillis();
+			}
+			return !discarded && values.size() >= amount;
+		}
+	}
+
+	private static class Waiter {
+		private final int amount;
+		private final CompletableFuture<Boolean> future;
+
+		private Waiter(int amount, CompletableFuture<Boolean> future) {
+			this.amount = amount;
+			this.future = future;
+		}
+	}
 }
@@ -0,0 +1,1222 @@
+package eu.olympus.server.storage;
+
+import eu.olympus.model.Attribute;
+import eu.olympus.model.MFAInformation;
+import eu.olympus.model.SerializedKey;
+import eu.olympus.model.UserAuthState;
+import eu.olympus.model.exceptions.OperationFailedException;
+import eu.olympus.model.exceptions.SetupException;
+import eu.olympus.protos.serializer.PabcSerializer;
+import eu.olympus.server.interfaces.PestoDatabase;
+import eu.olympus.util.KeySerializer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * PestoDatabase kept in memory-mapped files, for deployments with millions of users.
+ * Every user is a record in an append-only log split in fixed size segment files. The salt and the
+ * attempt counters of a record are updated in place, any other change appends a new version of the
+ * record and marks the old one as dead. A hash table from username to record location is kept in a
+ * memory-mapped index file, so a cleanly closed database is reopened without reading the log. After
+ * a crash the index is rebuilt by scanning the segments.
+ * Segments that are mostly dead are compacted in the background by moving their live records to the
+ * end of the log.
+ * Changes are written to the page cache, so they survive a crash of the process but not of the
+ * machine unless flush is called.
+ */
+public class MappedLogPestoDatabase implements PestoDatabase, Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(MappedLogPestoDatabase.class);
+
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+	public static final long DEFAULT_COMPACTION_INTERVAL = 60000;
+
+	// A sealed segment is compacted once less than this fraction of it is live
+	private static final double COMPACTION_THRESHOLD = 0.5;
+	// Records moved per acquisition of the write lock during compaction
+	private static final int COMPACTION_BATCH = 1000;
+
+	private static final byte DEAD = 0;
+	private static final byte USER = 1;
+	private static final byte BLOB = 2;
+
+	// Record layout. The length is written last, a record with length 0 was never completed
+	private static final int LENGTH = 0;
+	private static final int TYPE = 4;
+	private static final int SALT = 5;
+	private static final int LAST_AUTH = 13;
+	private static final int AUTH_ATTEMPTS = 21;
+	private static final int LAST_MFA = 25;
+	private static final int MFA_ATTEMPTS = 33;
+	private static final int KEY_LENGTH = 37;
+	private static final int KEY = 39;
+	// Variable parts of a user record, each stored as an int length followed by the bytes
+	private static final int PUBLIC_KEY = 0;
+	private static final int ATTRIBUTES = 1;
+	private static final int MFA = 2;
+
+	// Index layout
+	private static final long MAGIC = 0x4f4c594d50555331L;
+	private static final int HEADER_SIZE = 64;
+	private static final int HEADER_MAGIC = 0;
+	private static final int HEADER_CAPACITY = 8;
+	private static final int HEADER_SIZE_FIELD = 12;
+	private static final int HEADER_CLEAN = 16;
+	private static final int HEADER_ACTIVE = 20;
+	private static final int HEADER_WRITE_POSITION = 24;
+	private static final int SLOT_SIZE = 16;
+	private static final int INITIAL_CAPACITY = 1 << 16;
+	private static final int MAX_CAPACITY = 1 << 26;
+	private static final double MAX_LOAD = 0.7;
+
+	private static final String INDEX_FILE = "index";
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".log";
+	private static final String KEY_DIGEST = "keyDigest";
+	private static final String KEY_SHARE = "keyShare.";
+
+	private final Path directory;
+	private final int segmentSize;
+	private final StampedLock lock = new StampedLock();
+	private final Object compaction = new Object();
+	private final ScheduledExecutorService compactor;
+	private Segment[] segments = new Segment[16];
+	private Segment active;
+	private FileChannel indexChannel;
+	private MappedByteBuffer index;
+	private int capacity;
+	private int size;
+	private volatile boolean closed;
+
+	public MappedLogPestoDatabase(Path directory) throws SetupException {
+		this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_COMPACTION_INTERVAL);
+	}
+
+	/**
+	 * @param directory Directory holding the files of the database, created if it does not exist.
+	 * @param segmentSize Size (bytes) of the segment files, bounding the size of a single user.
+	 * @param compactionInterval Time (ms) between compactions, or 0 to only compact on request.
+	 */
+	public MappedLogPestoDatabase(Path directory, int segmentSize, long compactionInterval) throws SetupException {
+		if (segmentSize < 1024 || compactionInterval < 0) {
+			throw new IllegalArgumentException("Invalid segment size or compaction interval");
+		}
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		try {
+			Files.createDirectories(directory);
+			open();
+		} catch (IOException e) {
+			throw new SetupException("Could not open database in " + directory, e);
+		}
+		if (compactionInterval > 0) {
+			compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "MappedLogPestoDatabase-compaction");
+				thread.setDaemon(true);
+				return thread;
+			});
+			compactor.scheduleWithFixedDelay(this::compactQuietly, compactionInterval, compactionInterval,
+					TimeUnit.MILLISECONDS);
+		} else {
+			compactor = null;
+		}
+	}
+
+	@Override
+	public void addUser(String username, PublicKey key, long salt) throws OperationFailedException {
+		byte[] serializedKey = KeySerializer.serialize(key).getBytes();
+		long stamp = writeLock();
+		try {
+			// Re-adding a user replaces it and drops its attributes, like InMemoryPestoDatabase.
+			// SqlitePestoDatabase rejects it instead, callers check hasUser first
+			long location = append(USER, username, salt, 0, 0, 0, 0, serializedKey, new byte[0], new byte[0]);
+			put(username, USER, location);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public PublicKey getUserKey(String username) throws OperationFailedException {
+		byte[] serializedKey;
+		long stamp = readLock();
+		try {
+			int slot = find(username, USER);
+			if (slot < 0) {
+				return null;
+			}
+			long location = slotLocation(slot);
+			serializedKey = part(segment(location).buffer, offset(location), PUBLIC_KEY);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+		return decodeKey(serializedKey);
+	}
+
+	@Override
+	public long getLastSalt(String username) throws OperationFailedException {
+		return readLong(username, SALT);
+	}
+
+	@Override
+	public void setSalt(String username, long salt) throws OperationFailedException {
+		long stamp = writeLock();
+		try {
+			int slot = find(username, USER);
+			if (slot >= 0) {
+				long location = slotLocation(slot);
+				segment(location).buffer.putLong(offset(location) + SALT, salt);
+			}
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public void replaceUserKey(String username, PublicKey publicKey, long salt) throws OperationFailedException {
+		byte[] serializedKey = KeySerializer.serialize(publicKey).getBytes();
+		long stamp = writeLock();
+		try {
+			long location = userLocation(username);
+			ByteBuffer buffer = segment(location).buffer;
+			int offset = offset(location);
+			long newLocation = append(USER, username, salt, buffer.getLong(offset + LAST_AUTH),
+					buffer.getInt(offset + AUTH_ATTEMPTS), buffer.getLong(offset + LAST_MFA),
+					buffer.getInt(offset + MFA_ATTEMPTS), serializedKey, part(buffer, offset, ATTRIBUTES),
+					part(buffer, offset, MFA));
+			put(username, USER, newLocation);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public UserAuthState getUserAuthState(String username) throws OperationFailedException {
+		long salt, lastAuthAttempt;
+		int failedAuthAttempts;
+		byte[] serializedKey, mfa;
+		long stamp = readLock();
+		try {
+			int slot = find(username, USER);
+			if (slot < 0) {
+				return new UserAuthState(false, null, 0, 0, 0, null);
+			}
+			long location = slotLocation(slot);
+			ByteBuffer buffer = segment(location).buffer;
+			int offset = offset(location);
+			salt = buffer.getLong(offset + SALT);
+			lastAuthAttempt = buffer.getLong(offset + LAST_AUTH);
+			failedAuthAttempts = buffer.getInt(offset + AUTH_ATTEMPTS);
+			serializedKey = part(buffer, offset, PUBLIC_KEY);
+			mfa = part(buffer, offset, MFA);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+		return new UserAuthState(true, decodeKey(serializedKey), salt, lastAuthAttempt, failedAuthAttempts,
+				decodeMFA(mfa));
+	}
+
+	@Override
+	public void recordAuthAttempt(String username, long salt, boolean successful) throws OperationFailedException {
+		long stamp = writeLock();
+		try {
+			int slot = find(username, USER);
+			if (slot < 0) {
+				return;
+			}
+			long location = slotLocation(slot);
+			ByteBuffer buffer = segment(location).buffer;
+			int offset = offset(location);
+			buffer.putLong(offset + SALT, salt);
+			if (successful) {
+				buffer.putInt(offset + AUTH_ATTEMPTS, 0);
+			} else {
+				buffer.putInt(offset + AUTH_ATTEMPTS, buffer.getInt(offset + AUTH_ATTEMPTS) + 1);
+				buffer.putLong(offset + LAST_AUTH, System.currentTimeMillis());
+			}
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public boolean hasUser(String username) throws OperationFailedException {
+		long stamp = readLock();
+		try {
+			return find(username, USER) >= 0;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public Map<String, Attribute> getAttributes(String username) throws OperationFailedException {
+		byte[] attributes;
+		long stamp = readLock();
+		try {
+			int slot = find(username, USER);
+			if (slot < 0) {
+				return new HashMap<>();
+			}
+			long location = slotLocation(slot);
+			attributes = part(segment(location).buffer, offset(location), ATTRIBUTES);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+		return decodeAttributes(attributes);
+	}
+
+	@Override
+	public void addAttributes(String username, Map<String, Attribute> attributes) throws OperationFailedException {
+		long stamp = writeLock();
+		try {
+			long location = userLocation(username);
+			Map<String, Attribute> stored = decodeAttributes(part(segment(location).buffer, offset(location), ATTRIBUTES));
+			stored.putAll(attributes);
+			rewrite(username, location, encodeAttributes(stored), null);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public void addAttribute(String username, String key, Attribute value) throws OperationFailedException {
+		addAttributes(username, Collections.singletonMap(key, value));
+	}
+
+	@Override
+	public boolean deleteAttribute(String username, String attributeName) throws OperationFailedException {
+		return deleteAttributes(username, Collections.singletonList(attributeName));
+	}
+
+	@Override
+	public boolean deleteAttributes(String username, List<String> attributeNames) throws OperationFailedException {
+		long stamp = writeLock();
+		try {
+			int slot = find(username, USER);
+			if (slot < 0) {
+				return false;
+			}
+			long location = slotLocation(slot);
+			Map<String, Attribute> stored = decodeAttributes(part(segment(location).buffer, offset(location), ATTRIBUTES));
+			int deleted = 0;
+			Set<String> distinctNames = new HashSet<>(attributeNames);
+			for (String attributeName : distinctNames) {
+				if (stored.remove(attributeName) != null) {
+					deleted++;
+				}
+			}
+			if (deleted > 0) {
+				rewrite(username, location, encodeAttributes(stored), null);
+			}
+			return deleted == distinctNames.size();
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public boolean deleteUser(String username) throws OperationFailedException {
+		long stamp = writeLock();
+		try {
+			int slot = find(username, USER);
+			if (slot < 0) {
+				return false;
+			}
+			remove(slot);
+			return true;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public void assignMFASecret(String username, String type, String secret) throws OperationFailedException {
+		long stamp = writeLock();
+		try {
+			long location = userLocation(username);
+			Map<String, MFAInformation> mfa = decodeMFA(part(segment(location).buffer, offset(location), MFA));
+			mfa.put(type, new MFAInformation(type, secret, System.currentTimeMillis(), false));
+			rewrite(username, location, null, encodeMFA(mfa));
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public Map<String, MFAInformation> getMFAInformation(String username) throws OperationFailedException {
+		byte[] mfa;
+		long stamp = readLock();
+		try {
+			int slot = find(username, USER);
+			if (slot < 0) {
+				return new HashMap<>();
+			}
+			long location = slotLocation(slot);
+			mfa = part(segment(location).buffer, offset(location), MFA);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+		return decodeMFA(mfa);
+	}
+
+	@Override
+	public void activateMFA(String username, String type) throws OperationFailedException {
+		long stamp = writeLock();
+		try {
+			long location = userLocation(username);
+			Map<String, MFAInformation> mfa = decodeMFA(part(segment(location).buffer, offset(location), MFA));
+			MFAInformation info = mfa.get(type);
+			if (info == null) {
+				throw new OperationFailedException("No MFA of type " + type + " assigned");
+			}
+			info.setActivated(true);
+			rewrite(username, location, null, encodeMFA(mfa));
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public void deleteMFA(String username, String type) throws OperationFailedException {
+		long stamp = writeLock();
+		try {
+			long location = userLocation(username);
+			Map<String, MFAInformation> mfa = decodeMFA(part(segment(location).buffer, offset(location), MFA));
+			if (mfa.remove(type) != null) {
+				rewrite(username, location, null, encodeMFA(mfa));
+			}
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public long getLastAuthAttempt(String username) throws OperationFailedException {
+		return readLong(username, LAST_AUTH);
+	}
+
+	@Override
+	public int getNumberOfFailedAuthAttempts(String username) throws OperationFailedException {
+		return readInt(username, AUTH_ATTEMPTS);
+	}
+
+	@Override
+	public void failedAuthAttempt(String username) throws OperationFailedException {
+		failedAttempt(username, AUTH_ATTEMPTS, LAST_AUTH);
+	}
+
+	@Override
+	public void clearFailedAuthAttempts(String username) throws OperationFailedException {
+		clearAttempts(username, AUTH_ATTEMPTS);
+	}
+
+	@Override
+	public int getNumberOfFailedMFAAttempts(String username) throws OperationFailedException {
+		return readInt(username, MFA_ATTEMPTS);
+	}
+
+	@Override
+	public void failedMFAAttempt(String username) throws OperationFailedException {
+		failedAttempt(username, MFA_ATTEMPTS, LAST_MFA);
+	}
+
+	@Override
+	public void clearFailedMFAAttempts(String username) throws OperationFailedException {
+		clearAttempts(username, MFA_ATTEMPTS);
+	}
+
+	@Override
+	public long getLastMFAAttempt(String username) throws OperationFailedException {
+		return readLong(username, LAST_MFA);
+	}
+
+	@Override
+	public byte[] getKeyDigest() throws OperationFailedException {
+		return getBlob(KEY_DIGEST);
+	}
+
+	@Override
+	public void setKeyDigest(byte[] digest) throws OperationFailedException {
+		setBlob(KEY_DIGEST, digest);
+	}
+
+	@Override
+	public void setKeyShare(int id, byte[] shares) throws OperationFailedException {
+		setBlob(KEY_SHARE + id, shares);
+	}
+
+	@Override
+	public byte[] getKeyShare(int id) throws OperationFailedException {
+		return getBlob(KEY_SHARE + id);
+	}
+
+	/**
+	 * @return The number of users and key entries stored.
+	 */
+	public int size() {
+		long stamp = readLock();
+		try {
+			return size;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Write all changes to disk.
+	 */
+	public void flush() {
+		long stamp = writeLock();
+		try {
+			for (Segment segment : segments) {
+				if (segment != null) {
+					segment.buffer.force();
+				}
+			}
+			index.force();
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Compact the sealed segments of which less than half is live, moving their live records to the
+	 * end of the log and deleting the segment files. Lookups and updates are only blocked while a
+	 * batch of records is moved.
+	 */
+	public void compact() throws IOException {
+		// Concurrent runs could pick the same segment and both move and delete it
+		synchronized (compaction) {
+			compactSegments();
+		}
+	}
+
+	private void compactSegments() throws IOException {
+		while (true) {
+			Segment victim = null;
+			long stamp = writeLock();
+			try {
+				for (Segment segment : segments) {
+					if (segment != null && segment != active
+							&& (segment.liveBytes == 0 || segment.liveBytes < COMPACTION_THRESHOLD * end(segment))) {
+						victim = segment;
+						break;
+					}
+				}
+			} finally {
+				lock.unlockWrite(stamp);
+			}
+			if (victim == null || !compact(victim)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Stop the compaction, write all changes to disk and mark the index as consistent, so the next
+	 * open does not have to rebuild it.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (compactor != null) {
+			compactor.shutdownNow();
+		}
+		long stamp = lock.writeLock();
+		try {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			for (Segment segment : segments) {
+				if (segment != null) {
+					segment.buffer.force();
+					segment.channel.close();
+				}
+			}
+			writeHeader(true);
+			index.force();
+			indexChannel.close();
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	private void open() throws IOException {
+		List<Integer> ids = new ArrayList<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				ids.add(Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+			}
+		}
+		Collections.sort(ids);
+		for (int id : ids) {
+			openSegment(id);
+		}
+		Path indexFile = directory.resolve(INDEX_FILE);
+		if (!ids.isEmpty() && Files.exists(indexFile) && reopenIndex(indexFile, ids.get(ids.size() - 1))) {
+			for (int i = 0; i < capacity; i++) {
+				long location = slotLocation(i);
+				if (slotHash(i) != 0) {
+					segment(location).liveBytes += segment(location).buffer.getInt(offset(location) + LENGTH);
+				}
+			}
+		} else {
+			if (!ids.isEmpty()) {
+				logger.warn("Database in " + directory + " was not closed cleanly, rebuilding the index");
+			}
+			createIndex(indexFile, INITIAL_CAPACITY);
+			for (int id : ids) {
+				scan(segments[id]);
+			}
+			active = ids.isEmpty() ? openSegment(0) : segments[ids.get(ids.size() - 1)];
+			clearTail(active);
+		}
+		writeHeader(false);
+		index.force();
+	}
+
+	private boolean reopenIndex(Path indexFile, int lastSegment) throws IOException {
+		indexChannel = FileChannel.open(indexFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		if (indexChannel.size() < HEADER_SIZE) {
+			indexChannel.close();
+			return false;
+		}
+		MappedByteBuffer header = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+		int storedCapacity = header.getInt(HEADER_CAPACITY);
+		if (header.getLong(HEADER_MAGIC) != MAGIC || header.getInt(HEADER_CLEAN) != 1
+				|| header.getInt(HEADER_ACTIVE) != lastSegment
+				|| indexChannel.size() != HEADER_SIZE + (long) storedCapacity * SLOT_SIZE) {
+			indexChannel.close();
+			return false;
+		}
+		capacity = storedCapacity;
+		size = header.getInt(HEADER_SIZE_FIELD);
+		index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * SLOT_SIZE);
+		active = segments[lastSegment];
+		active.writePosition = header.getInt(HEADER_WRITE_POSITION);
+		return true;
+	}
+
+	private void createIndex(Path indexFile, int initialCapacity) throws IOException {
+		if (indexChannel != null) {
+			indexChannel.close();
+		}
+		Files.deleteIfExists(indexFile);
+		indexChannel = FileChannel.open(indexFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) initialCapacity * SLOT_SIZE);
+		capacity = initialCapacity;
+		size = 0;
+	}
+
+	// Index every record of a segment, later versions replacing earlier ones
+	private void scan(Segment segment) throws IOException {
+		ByteBuffer buffer = segment.buffer;
+		int offset = 0;
+		int length;
+		while (offset + KEY <= segment.capacity && (length = buffer.getInt(offset + LENGTH)) > 0) {
+			byte type = buffer.get(offset + TYPE);
+			if (type != DEAD) {
+				char[] key = new char[buffer.getShort(offset + KEY_LENGTH)];
+				for (int i = 0; i < key.length; i++) {
+					key[i] = buffer.getChar(offset + KEY + 2 * i);
+				}
+				segment.liveBytes += length;
+				try {
+					put(new String(key), type, location(segment.id, offset));
+				} catch (OperationFailedException e) {
+					throw new IOException(e.getMessage(), e);
+				}
+			}
+			offset += length;
+		}
+		segment.writePosition = offset;
+	}
+
+	// Zero the segment past its last complete record. An append torn by the crash may have left bytes
+	// there, which would otherwise be read as records once shorter records are written over its start
+	private static void clearTail(Segment segment) {
+		ByteBuffer buffer = segment.buffer;
+		int position = segment.writePosition;
+		while (position < segment.capacity && (position & 7) != 0) {
+			buffer.put(position++, (byte) 0);
+		}
+		for (; position + 8 <= segment.capacity; position += 8) {
+			buffer.putLong(position, 0);
+		}
+		for (; position < segment.capacity; position++) {
+			buffer.put(position, (byte) 0);
+		}
+	}
+
+	private Segment openSegment(int id) throws IOException {
+		Path file = directory.resolve(SEGMENT_PREFIX + id + SEGMENT_SUFFIX);
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		boolean created = channel.size() == 0;
+		// Existing segments keep the size they were created with
+		int segmentCapacity = created ? segmentSize : (int) channel.size();
+		Segment segment = new Segment(id, file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentCapacity));
+		if (created) {
+			segment.writePosition = 0;
+		}
+		if (id >= segments.length) {
+			Segment[] grown = new Segment[Math.max(segments.length * 2, id + 1)];
+			System.arraycopy(segments, 0, grown, 0, segments.length);
+			segments = grown;
+		}
+		segments[id] = segment;
+		return segment;
+	}
+
+	private boolean compact(Segment segment) throws IOException {
+		int offset = 0;
+		while (true) {
+			long stamp = lock.writeLock();
+			try {
+				if (closed) {
+					return false;
+				}
+				ByteBuffer buffer = segment.buffer;
+				for (int i = 0; i < COMPACTION_BATCH; i++) {
+					int length;
+					if (offset + KEY > segment.capacity || (length = buffer.getInt(offset + LENGTH)) <= 0) {
+						segments[segment.id] = null;
+						segment.channel.close();
+						Files.delete(segment.path);
+						return true;
+					}
+					if (buffer.get(offset + TYPE) != DEAD) {
+						move(segment, offset, length);
+					}
+					offset += length;
+				}
+			} finally {
+				lock.unlockWrite(stamp);
+			}
+		}
+	}
+
+	private void move(Segment segment, int offset, int length) throws IOException {
+		long location = location(segment.id, offset);
+		long hash = hash(segment.buffer, offset);
+		int slot = hashSlot(hash);
+		int probes = 0;
+		long slotHash;
+		while ((slotHash = slotHash(slot)) != hash || slotLocation(slot) != location) {
+			if (slotHash == 0 || ++probes >= capacity) {
+				// Nothing can reach the record, so it is dropped with its segment
+				logger.warn("Record at " + offset + " of segment " + segment.id + " is live but not indexed, dropping it");
+				return;
+			}
+			slot = (slot + 1) & (capacity - 1);
+		}
+		int target = reserve(length);
+		ByteBuffer source = segment.buffer.duplicate();
+		source.position(offset + TYPE).limit(offset + length);
+		ByteBuffer destination = active.buffer.duplicate();
+		destination.position(target + TYPE);
+		destination.put(source);
+		active.buffer.putInt(target + LENGTH, length);
+		active.writePosition += length;
+		active.liveBytes += length;
+		index.putLong(slotPosition(slot) + 8, location(active.id, target));
+		markDead(location);
+	}
+
+	private void compactQuietly() {
+		try {
+			compact();
+		} catch (Exception e) {
+			if (!closed) {
+				logger.warn("Compaction of " + directory + " failed", e);
+			}
+		}
+	}
+
+	// Append a record and return its location
+	private long append(byte type, String key, long salt, long lastAuth, int authAttempts, long lastMFA,
+			int mfaAttempts, byte[]... parts) throws OperationFailedException {
+		if (key.length() > Short.MAX_VALUE) {
+			throw new OperationFailedException("Key too long");
+		}
+		long length = KEY + 2L * key.length();
+		for (byte[] part : parts) {
+			length += 4 + part.length;
+		}
+		if (length > segmentSize) {
+			throw new OperationFailedException("Record of " + length + " bytes does not fit in a segment");
+		}
+		int offset;
+		try {
+			offset = reserve((int) length);
+		} catch (IOException e) {
+			throw new OperationFailedException("Could not create segment", e);
+		}
+		ByteBuffer buffer = active.buffer.duplicate();
+		buffer.position(offset + TYPE);
+		buffer.put(type);
+		buffer.putLong(salt);
+		buffer.putLong(lastAuth);
+		buffer.putInt(authAttempts);
+		buffer.putLong(lastMFA);
+		buffer.putInt(mfaAttempts);
+		buffer.putShort((short) key.length());
+		for (int i = 0; i < key.length(); i++) {
+			buffer.putChar(key.charAt(i));
+		}
+		for (byte[] part : parts) {
+			buffer.putInt(part.length);
+			buffer.put(part);
+		}
+		active.buffer.putInt(offset + LENGTH, (int) length);
+		active.writePosition += length;
+		active.liveBytes += length;
+		return location(active.id, offset);
+	}
+
+	// Make room for a record in the active segment, starting a new one if needed
+	private int reserve(int length) throws IOException {
+		if (active.writePosition + length > active.capacity) {
+			active = openSegment(active.id + 1);
+		}
+		return active.writePosition;
+	}
+
+	// Replace the attributes and/or MFA information of a user by appending a new version of the record
+	private void rewrite(String username, long location, byte[] attributes, byte[] mfa) throws OperationFailedException {
+		ByteBuffer buffer = segment(location).buffer;
+		int offset = offset(location);
+		long newLocation = append(USER, username, buffer.getLong(offset + SALT), buffer.getLong(offset + LAST_AUTH),
+				buffer.getInt(offset + AUTH_ATTEMPTS), buffer.getLong(offset + LAST_MFA),
+				buffer.getInt(offset + MFA_ATTEMPTS), part(buffer, offset, PUBLIC_KEY),
+				attributes == null ? part(buffer, offset, ATTRIBUTES) : attributes,
+				mfa == null ? part(buffer, offset, MFA) : mfa);
+		put(username, USER, newLocation);
+	}
+
+	private long userLocation(String username) throws OperationFailedException {
+		int slot = find(username, USER);
+		if (slot < 0) {
+			throw new OperationFailedException("User " + username + " does not exist");
+		}
+		return slotLocation(slot);
+	}
+
+	private long readLong(String username, int field) {
+		long stamp = readLock();
+		try {
+			int slot = find(username, USER);
+			if (slot < 0) {
+				return 0;
+			}
+			long location = slotLocation(slot);
+			return segment(location).buffer.getLong(offset(location) + field);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	private int readInt(String username, int field) {
+		long stamp = readLock();
+		try {
+			int slot = find(username, USER);
+			if (slot < 0) {
+				return 0;
+			}
+			long location = slotLocation(slot);
+			return segment(location).buffer.getInt(offset(location) + field);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	private void failedAttempt(String username, int counter, int timestamp) {
+		long stamp = writeLock();
+		try {
+			int slot = find(username, USER);
+			if (slot >= 0) {
+				long location = slotLocation(slot);
+				ByteBuffer buffer = segment(location).buffer;
+				int offset = offset(location);
+				buffer.putInt(offset + counter, buffer.getInt(offset + counter) + 1);
+				buffer.putLong(offset + timestamp, System.currentTimeMillis());
+			}
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	private void clearAttempts(String username, int counter) {
+		long stamp = writeLock();
+		try {
+			int slot = find(username, USER);
+			if (slot >= 0) {
+				long location = slotLocation(slot);
+				segment(location).buffer.putInt(offset(location) + counter, 0);
+			}
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	private byte[] getBlob(String key) {
+		long stamp = readLock();
+		try {
+			int slot = find(key, BLOB);
+			if (slot < 0) {
+				return null;
+			}
+			long location = slotLocation(slot);
+			return part(segment(location).buffer, offset(location), 0);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	private void setBlob(String key, byte[] value) throws OperationFailedException {
+		long stamp = writeLock();
+		try {
+			put(key, BLOB, append(BLOB, key, 0, 0, 0, 0, 0, value));
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	// Copy a variable part of a record
+	private static byte[] part(ByteBuffer buffer, int offset, int part) {
+		int position = offset + KEY + 2 * buffer.getShort(offset + KEY_LENGTH);
+		for (int i = 0; i < part; i++) {
+			position += 4 + buffer.getInt(position);
+		}
+		byte[] res = new byte[buffer.getInt(position)];
+		ByteBuffer source = buffer.duplicate();
+		source.position(position + 4);
+		source.get(res);
+		return res;
+	}
+
+	private int find(String key, byte type) {
+		long hash = hash(key);
+		int slot = hashSlot(hash);
+		long slotHash;
+		while ((slotHash = slotHash(slot)) != 0) {
+			if (slotHash == hash && matches(slotLocation(slot), key, type)) {
+				return slot;
+			}
+			slot = (slot + 1) & (capacity - 1);
+		}
+		return -1;
+	}
+
+	private boolean matches(long location, String key, byte type) {
+		ByteBuffer buffer = segment(location).buffer;
+		int offset = offset(location);
+		if (buffer.get(offset + TYPE) != type || buffer.getShort(offset + KEY_LENGTH) != key.length()) {
+			return false;
+		}
+		for (int i = 0; i < key.length(); i++) {
+			if (buffer.getChar(offset + KEY + 2 * i) != key.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Point the key at a new record, marking the previous version dead
+	private void put(String key, byte type, long location) throws OperationFailedException {
+		int slot = find(key, type);
+		if (slot >= 0) {
+			markDead(slotLocation(slot));
+			index.putLong(slotPosition(slot) + 8, location);
+			return;
+		}
+		if (size + 1 > capacity * MAX_LOAD) {
+			try {
+				growIndex();
+			} catch (IOException e) {
+				throw new OperationFailedException("Could not grow index", e);
+			}
+		}
+		long hash = hash(key);
+		slot = hashSlot(hash);
+		while (slotHash(slot) != 0) {
+			slot = (slot + 1) & (capacity - 1);
+		}
+		index.putLong(slotPosition(slot), hash);
+		index.putLong(slotPosition(slot) + 8, location);
+		size++;
+	}
+
+	// Remove an entry and its record, shifting back the entries probed past it
+	private void remove(int slot) {
+		markDead(slotLocation(slot));
+		int empty = slot;
+		int next = slot;
+		while (true) {
+			next = (next + 1) & (capacity - 1);
+			long hash = slotHash(next);
+			if (hash == 0) {
+				break;
+			}
+			int home = hashSlot(hash);
+			// Move the entry unless its home slot lies cyclically in (empty, next]
+			if (empty <= next ? (home <= empty || home > next) : (home <= empty && home > next)) {
+				index.putLong(slotPosition(empty), hash);
+				index.putLong(slotPosition(empty) + 8, slotLocation(next));
+				empty = next;
+			}
+		}
+		index.putLong(slotPosition(empty), 0);
+		index.putLong(slotPosition(empty) + 8, 0);
+		size--;
+	}
+
+	private void growIndex() throws IOException {
+		if (capacity >= MAX_CAPACITY) {
+			throw new IOException("Index is full");
+		}
+		int newCapacity = capacity * 2;
+		Path file = directory.resolve(INDEX_FILE);
+		Path newFile = directory.resolve(INDEX_FILE + ".new");
+		Files.deleteIfExists(newFile);
+		FileChannel newChannel = FileChannel.open(newFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		MappedByteBuffer newIndex = newChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+				HEADER_SIZE + (long) newCapacity * SLOT_SIZE);
+		for (int i = 0; i < capacity; i++) {
+			long hash = slotHash(i);
+			if (hash == 0) {
+				continue;
+			}
+			int slot = (int) (hash & (newCapacity - 1));
+			while (newIndex.getLong(HEADER_SIZE + slot * SLOT_SIZE) != 0) {
+				slot = (slot + 1) & (newCapacity - 1);
+			}
+			newIndex.putLong(HEADER_SIZE + slot * SLOT_SIZE, hash);
+			newIndex.putLong(HEADER_SIZE + slot * SLOT_SIZE + 8, slotLocation(i));
+		}
+		indexChannel.close();
+		Files.move(newFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		indexChannel = newChannel;
+		index = newIndex;
+		capacity = newCapacity;
+	}
+
+	private void writeHeader(boolean clean) {
+		index.putLong(HEADER_MAGIC, MAGIC);
+		index.putInt(HEADER_CAPACITY, capacity);
+		index.putInt(HEADER_SIZE_FIELD, size);
+		index.putInt(HEADER_ACTIVE, active.id);
+		index.putInt(HEADER_WRITE_POSITION, active.writePosition);
+		index.putInt(HEADER_CLEAN, clean ? 1 : 0);
+	}
+
+	private void markDead(long location) {
+		Segment segment = segment(location);
+		int offset = offset(location);
+		segment.buffer.put(offset + TYPE, DEAD);
+		segment.liveBytes -= segment.buffer.getInt(offset + LENGTH);
+	}
+
+	// End of the records of a segment, found by walking the records if unknown
+	private static int end(Segment segment) {
+		if (segment.writePosition < 0) {
+			int offset = 0;
+			int length;
+			while (offset + KEY <= segment.capacity && (length = segment.buffer.getInt(offset + LENGTH)) > 0) {
+				offset += length;
+			}
+			segment.writePosition = offset;
+		}
+		return segment.writePosition;
+	}
+
+	private long readLock() {
+		long stamp = lock.readLock();
+		if (closed) {
+			lock.unlockRead(stamp);
+			throw new IllegalStateException("Database is closed");
+		}
+		return stamp;
+	}
+
+	private long writeLock() {
+		long stamp = lock.writeLock();
+		if (closed) {
+			lock.unlockWrite(stamp);
+			throw new IllegalStateException("Database is closed");
+		}
+		return stamp;
+	}
+
+	private Segment segment(long location) {
+		return segments[(int) (location >>> 32)];
+	}
+
+	private static int offset(long location) {
+		return (int) location;
+	}
+
+	private static long location(int segment, int offset) {
+		return ((long) segment << 32) | offset;
+	}
+
+	private int hashSlot(long hash) {
+		return (int) (hash & (capacity - 1));
+	}
+
+	private static int slotPosition(int slot) {
+		return HEADER_SIZE + slot * SLOT_SIZE;
+	}
+
+	private long slotHash(int slot) {
+		return index.getLong(slotPosition(slot));
+	}
+
+	private long slotLocation(int slot) {
+		return index.getLong(slotPosition(slot) + 8);
+	}
+
+	private static long hash(String key) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < key.length(); i++) {
+			hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+		}
+		return mix(hash);
+	}
+
+	private static long hash(ByteBuffer buffer, int offset) {
+		long hash = 0xcbf29ce484222325L;
+		int length = buffer.getShort(offset + KEY_LENGTH);
+		for (int i = 0; i < length; i++) {
+			hash = (hash ^ buffer.getChar(offset + KEY + 2 * i)) * 0x100000001b3L;
+		}
+		return mix(hash);
+	}
+
+	// Spread the bits over the low end used for the slot, 0 marks an empty slot
+	private static long mix(long hash) {
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		return hash == 0 ? 1 : hash;
+	}
+
+	private static PublicKey decodeKey(byte[] serializedKey) throws OperationFailedException {
+		try {
+			return (PublicKey) KeySerializer.deSerialize(new SerializedKey(serializedKey));
+		} catch (Exception e) {
+			throw new OperationFailedException("Could not decode public key", e);
+		}
+	}
+
+	private static byte[] encodeAttributes(Map<String, Attribute> attributes) throws OperationFailedException {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			for (Map.Entry<String, Attribute> entry : attributes.entrySet()) {
+				byte[] attribute = entry.getValue().toProto().toByteArray();
+				out.writeUTF(entry.getKey());
+				out.writeInt(attribute.length);
+				out.write(attribute);
+			}
+			return bytes.toByteArray();
+		} catch (IOException e) {
+			throw new OperationFailedException("Could not encode attributes", e);
+		}
+	}
+
+	private static Map<String, Attribute> decodeAttributes(byte[] encoded) throws OperationFailedException {
+		Map<String, Attribute> res = new HashMap<>();
+		try {
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded));
+			while (in.available() > 0) {
+				String name = in.readUTF();
+				byte[] attribute = new byte[in.readInt()];
+				in.readFully(attribute);
+				res.put(name, new Attribute(PabcSerializer.Attribute.parseFrom(attribute)));
+			}
+		} catch (IOException e) {
+			throw new OperationFailedException("Could not decode attributes", e);
+		}
+		return res;
+	}
+
+	private static byte[] encodeMFA(Map<String, MFAInformation> mfa) throws OperationFailedException {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			for (MFAInformation info : mfa.values()) {
+				out.writeUTF(info.getType());
+				out.writeUTF(info.getSecret());
+				out.writeLong(info.getCreation());
+				out.writeBoolean(info.isActivated());
+			}
+			return bytes.toByteArray();
+		} catch (IOException e) {
+			throw new OperationFailedException("Could not encode MFA information", e);
+		}
+	}
+
+	private static Map<String, MFAInformation> decodeMFA(byte[] encoded) throws OperationFailedException {
+		Map<String, MFAInformation> res = new HashMap<>();
+		try {
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded));
+			while (in.available() > 0) {
+				MFAInformation info = new MFAInformation(in.readUTF(), in.readUTF(), in.readLong(), in.readBoolean());
+				res.put(info.getType(), info);
+			}
+		} catch (IOException e) {
+			throw new OperationFailedException("Could not decode MFA information", e);
+		}
+		return res;
+	}
+
+	private static class Segment {
+		private final int id;
+		private final Path path;
+		private final FileChannel channel;
+		private final MappedByteBuffer buffer;
+		private final int capacity;
+		// End of the records, -1 if not yet known
+		private int writePosition = -1;
+		private long liveBytes;
+
+		private Segment(int id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+			this.id = id;
+			this.path = path;
+			this.channel = channel;
+			this.buffer = buffer;
+			this.capacity = buffer.capacity();
+		}
+	}
+}
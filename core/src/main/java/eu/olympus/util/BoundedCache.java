@@ -0,0 +1,238 @@
+package eu.olympus.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread safe cache with a hard bound on the number of entries, least recently used eviction and an optional
+ * time to live. The entries are split over a number of independently locked segments (each one LRU on its own),
+ * so concurrent lookups for different keys rarely contend.
+ * Values are computed outside the locks, so a slow loader does not block other lookups, at the cost of
+ * possibly computing the same value twice for concurrent misses on the same key.
+ */
+public class BoundedCache<K, V> {
+
+	private static final int SEGMENTS = 16;
+
+	private final List<Segment<K, V>> segments;
+	private final long ttlMillis;
+	private final LongSupplier clock;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * @param maxEntries Maximum number of entries kept in the cache.
+	 * @param ttlMillis Time (ms) an entry stays valid after being added, or 0 for no expiration.
+	 */
+	public BoundedCache(int maxEntries, long ttlMillis) {
+		this(maxEntries, ttlMillis, System::currentTimeMillis);
+	}
+
+	/**
+	 * @param maxEntries Maximum number of entries kept in the cache.
+	 * @param ttlMillis Time (ms) an entry stays valid after being added, or 0 for no expiration.
+	 * @param clock Source of the current time in ms.
+	 */
+	public BoundedCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+		if(maxEntries < 1 || ttlMillis < 0) {
+			throw new IllegalArgumentException("Cache size must be positive and time to live non negative");
+		}
+		int segmentCount = Math.min(SEGMENTS, maxEntries);
+		this.segments = new ArrayList<>(segmentCount);
+		for(int i = 0; i < segmentCount; i++) {
+			// Spread the remainder so the capacities add up to exactly maxEntries
+			segments.add(new Segment<>(maxEntries / segmentCount + (i < maxEntries % segmentCount ? 1 : 0)));
+		}
+		this.ttlMillis = ttlMillis;
+		this.clock = clock;
+	}
+
+	/**
+	 * Get the cached value for a key, computing and caching it if it is not present or has expired.
+	 * @param key The key.
+	 * @param loader Function used to compute the value on a miss. It must not return null.
+	 * @return The value for the key.
+	 */
+	public V get(K key, Function<K, V> loader) {
+		Segment<K, V> segment = segmentFor(key);
+		long now = clock.getAsLong();
+		synchronized (segment) {
+			Entry<V> entry = segment.get(key);
+			if(entry != null && !isExpired(entry, now)) {
+				hits.incrementAndGet();
+				return entry.value;
+			}
+		}
+		misses.incrementAndGet();
+		V value = loader.apply(key);
+		synchronized (segment) {
+			segment.put(key, new Entry<>(value, now));
+		}
+		return value;
+	}
+
+	/**
+	 * Get the cached value for a key without computing it.
+	 * @param key The key.
+	 * @return The value for the key, or null if it is not present or has expired.
+	 */
+	public V getIfPresent(K key) {
+		Segment<K, V> segment = segmentFor(key);
+		long now = clock.getAsLong();
+		synchronized (segment) {
+			Entry<V> entry = segment.get(key);
+			if(entry != null && !isExpired(entry, now)) {
+				hits.incrementAndGet();
+				return entry.value;
+			}
+		}
+		misses.incrementAndGet();
+		return null;
+	}
+
+	/**
+	 * Add or replace the value for a key.
+	 * @param key The key.
+	 * @param value The value. It must not be null.
+	 */
+	public void put(K key, V value) {
+		Segment<K, V> segment = segmentFor(key);
+		long now = clock.getAsLong();
+		synchronized (segment) {
+			segment.put(key, new Entry<>(value, now));
+		}
+	}
+
+	/**
+	 * Remove the entry for a key, if present.
+	 * @param key The key.
+	 */
+	public void invalidate(K key) {
+		Segment<K, V> segment = segmentFor(key);
+		synchronized (segment) {
+			segment.remove(key);
+		}
+	}
+
+	/**
+	 * Remove all entries. The hit and miss counters are not reset.
+	 */
+	public void clear() {
+		for(Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	/**
+	 * @return Number of entries currently held, including expired entries not yet evicted.
+	 */
+	public int size() {
+		int size = 0;
+		for(Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Remove the expired entries. Expired entries are otherwise only replaced on lookup or evicted when
+	 * their segment is full.
+	 */
+	public void removeExpired() {
+		if(ttlMillis == 0) {
+			return;
+		}
+		long now = clock.getAsLong();
+		for(Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				Iterator<Entry<V>> it = segment.values();
+				while(it.hasNext()) {
+					if(isExpired(it.next(), now)) {
+						it.remove();
+					}
+				}
+			}
+		}
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	private boolean isExpired(Entry<V> entry, long now) {
+		return ttlMillis != 0 && now - entry.created >= ttlMillis;
+	}
+
+	private Segment<K, V> segmentFor(K key) {
+		int h = key.hashCode();
+		h ^= (h >>> 16);
+		return segments.get((h & 0x7fffffff) % segments.size());
+	}
+
+	private static class Entry<V> {
+		private final V value;
+		private final long created;
+
+		private Entry(V value, long created) {
+			this.value = value;
+			this.created = created;
+		}
+	}
+
+	/**
+	 * LRU map of one segment. Callers synchronize on the segment.
+	 */
+	private static class Segment<K, V> {
+		private final Map<K, Entry<V>> entries;
+
+		private Segment(int capacity) {
+			this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				// Qualified, as Entry alone names the inherited LinkedHashMap.Entry here
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<K, BoundedCache.Entry<V>> eldest) {
+					return size() > capacity;
+				}
+			};
+		}
+
+		private Entry<V> get(K key) {
+			return entries.get(key);
+		}
+
+		private void put(K key, Entry<V> entry) {
+			entries.put(key, entry);
+		}
+
+		private void remove(K key) {
+			entries.remove(key);
+		}
+
+		private void clear() {
+			entries.clear();
+		}
+
+		private int size() {
+			return entries.size();
+		}
+
+		private Iterator<Entry<V>> values() {
+			return entries.values().iterator();
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package eu.olympus.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed size pool of daemon threads with a bounded queue, used to keep expensive work off the
+ * threads serving requests. When the queue is full new tasks are rejected at once instead of
+ * waiting, so callers can shed load early. Keeps track of the time tasks wait in the queue.
+ */
+public class BoundedExecutor {
+
+	private final ThreadPoolExecutor executor;
+	private final LongAdder waitNanos = new LongAdder();
+	private final LongAdder started = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+
+	/**
+	 * @param name Prefix of the thread names.
+	 * @param threads Number of threads.
+	 * @param queueSize Maximum number of tasks waiting for a thread.
+	 */
+	public BoundedExecutor(String name, int threads, int queueSize) {
+		if(threads < 1 || queueSize < 1) {
+			throw new IllegalArgumentException("Number of threads and queue size must be positive");
+		}
+		AtomicInteger count = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueSize), r -> {
+					Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	/**
+	 * Run a task on the pool and wait for its result.
+	 * @param task The task.
+	 * @return The result of the task.
+	 * @throws RejectedExecutionException If the queue is full or the executor is shut down.
+	 * @throws Exception The exception thrown by the task.
+	 */
+	public <T> T execute(Callable<T> task) throws Exception {
+		Future<T> future = submit(task);
+		try {
+			return future.get();
+		} catch(ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			if(cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw e;
+		} catch(InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw e;
+		}
+	}
+
+	/**
+	 * Queue a task on the pool.
+	 * @param task The task.
+	 * @return The future result of the task.
+	 * @throws RejectedExecutionException If the queue is full or the executor is shut down.
+	 */
+	public <T> Future<T> submit(Callable<T> task) {
+		long submitted = System.nanoTime();
+		try {
+			return executor.submit(() -> {
+				recordWait(System.nanoTime() - submitted);
+				return task.call();
+			});
+		} catch(RejectedExecutionException e) {
+			rejected.increment();
+			throw e;
+		}
+	}
+
+	private void recordWait(long nanos) {
+		waitNanos.add(nanos);
+		started.increment();
+		long max = maxWaitNanos.get();
+		while(nanos > max && !maxWaitNanos.compareAndSet(max, nanos)) {
+			max = maxWaitNanos.get();
+		}
+	}
+
+	/**
+	 * @return The number of tasks waiting for a thread.
+	 */
+	public int getQueueDepth() {
+		return executor.getQueue().size();
+	}
+
+	/**
+	 * @return The number of threads running a task.
+	 */
+	public int getActiveThreads() {
+		return executor.getActiveCount();
+	}
+
+	/**
+	 * @return The number of tasks that were started.
+	 */
+	public long getStarted() {
+		return started.sum();
+	}
+
+	/**
+	 * @return The number of tasks rejected because the queue was full.
+	 */
+	public long getRejected() {
+		return rejected.sum();
+	}
+
+	/**
+	 * @return The average time (ms) the started tasks waited in the queue, or 0 if none were started.
+	 */
+	public double getAverageWaitMillis() {
+		long count = started.sum();
+		return count == 0 ? 0 : waitNanos.sum() / 1e6 / count;
+	}
+
+	/**
+	 * @return The longest time (ms) a task waited in the queue.
+	 */
+	public double getMaxWaitMillis() {
+		return maxWaitNanos.get() / 1e6;
+	}
+
+	/**
+	 * Stop accepting tasks. Queued tasks are still run.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,125 @@
+package eu.olympus.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread safe rate limiter with an independent token bucket per key. Each bucket is a single
+ * "theoretical arrival time" updated with compare-and-set (the generic cell rate algorithm), so
+ * acquiring a permit for a known key neither locks nor allocates.
+ * A bucket that has been idle long enough to be full again behaves exactly like a new one, so such
+ * buckets are evicted periodically. If more than maxKeys keys are active at once, the new keys
+ * share a single overflow bucket, bounding the memory used by a flood of distinct keys.
+ */
+public class KeyedRateLimiter {
+
+	private static final long SWEEP_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+	// New buckets arrived long ago, so they are full even for a request that read the clock earlier
+	private static final long FULL = TimeUnit.HOURS.toNanos(1);
+
+	private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+	private final Function<String, AtomicLong> newBucket;
+	private final AtomicLong overflow;
+	private final AtomicLong nextSweep;
+	private final long interval;
+	private final long tolerance;
+	private final int maxKeys;
+	private final LongSupplier clock;
+	private final LongAdder allowed = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+
+	/**
+	 * @param permitsPerSecond Sustained rate allowed for each key.
+	 * @param burst Number of permits a key can acquire at once after being idle.
+	 * @param maxKeys Maximum number of keys with their own bucket.
+	 */
+	public KeyedRateLimiter(double permitsPerSecond, int burst, int maxKeys) {
+		this(permitsPerSecond, burst, maxKeys, System::nanoTime);
+	}
+
+	/**
+	 * @param permitsPerSecond Sustained rate allowed for each key.
+	 * @param burst Number of permits a key can acquire at once after being idle.
+	 * @param maxKeys Maximum number of keys with their own bucket.
+	 * @param clock Source of the current time in ns.
+	 */
+	public KeyedRateLimiter(double permitsPerSecond, int burst, int maxKeys, LongSupplier clock) {
+		if(permitsPerSecond <= 0 || burst < 1 || maxKeys < 1) {
+			throw new IllegalArgumentException("Rate, burst and number of keys must be positive");
+		}
+		this.interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+		this.tolerance = interval * (burst - 1);
+		this.maxKeys = maxKeys;
+		this.clock = clock;
+		this.newBucket = key -> new AtomicLong(clock.getAsLong() - FULL);
+		this.overflow = new AtomicLong(clock.getAsLong() - FULL);
+		this.nextSweep = new AtomicLong(clock.getAsLong() + SWEEP_INTERVAL);
+	}
+
+	/**
+	 * Acquire a permit for a key if one is available.
+	 * @param key The key, e.g. a username or client address.
+	 * @return True if the permit was acquired.
+	 */
+	public boolean tryAcquire(String key) {
+		return acquire(key) == 0;
+	}
+
+	/**
+	 * Acquire a permit for a key if one is available.
+	 * @param key The key, e.g. a username or client address.
+	 * @return 0 if the permit was acquired, otherwise the time in ns until the key gets a permit
+	 * again (if no other request takes it first).
+	 */
+	public long acquire(String key) {
+		long now = clock.getAsLong();
+		long sweep = nextSweep.get();
+		if(now - sweep >= 0 && nextSweep.compareAndSet(sweep, now + SWEEP_INTERVAL)) {
+			evictIdle(now);
+		}
+		AtomicLong bucket = buckets.get(key);
+		if(bucket == null) {
+			bucket = buckets.size() < maxKeys ? buckets.computeIfAbsent(key, newBucket) : overflow;
+		}
+		while(true) {
+			long arrival = bucket.get();
+			long start = arrival - now > 0 ? arrival : now;
+			if(start - now > tolerance) {
+				rejected.increment();
+				return start - tolerance - now;
+			}
+			if(bucket.compareAndSet(arrival, start + interval)) {
+				allowed.increment();
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * Remove the buckets that are full again. A request racing with the eviction may be counted
+	 * on the removed bucket, granting its key at most one extra permit.
+	 */
+	private void evictIdle(long now) {
+		buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+	}
+
+	public long getAllowed() {
+		return allowed.sum();
+	}
+
+	public long getRejected() {
+		return rejected.sum();
+	}
+
+	/**
+	 * @return The number of keys currently with their own bucket.
+	 */
+	public int getKeys() {
+		return buckets.size();
+	}
+}
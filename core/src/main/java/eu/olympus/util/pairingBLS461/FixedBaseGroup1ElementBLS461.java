@@ -0,0 +1,94 @@
+package eu.olympus.util.pairingBLS461;
+
+import eu.olympus.util.pairingInterfaces.FixedBaseGroup1Element;
+import eu.olympus.util.pairingInterfaces.ZpElement;
+import org.miracl.core.BLS12461.ECP;
+
+/**
+ * Group1ElementBLS461 with a fixed-base windowed table: table[i][j]=x^(j*2^(i*windowBits)). An exponentiation
+ * is then one table lookup and one addition per window, with no doublings. Lookups go through the whole window
+ * so the access pattern does not depend on the exponent.
+ */
+public class FixedBaseGroup1ElementBLS461 extends Group1ElementBLS461 implements FixedBaseGroup1Element {
+
+    private final int windowBits;
+    private volatile ECP[][] table;
+
+    public FixedBaseGroup1ElementBLS461(ECP x, int windowBits){
+        super(x);
+        FixedBaseUtils.checkWindowBits(windowBits);
+        this.windowBits=windowBits;
+    }
+
+    @Override
+    public Group1ElementBLS461 exp(ZpElement exp) {
+        if(!(exp instanceof ZpElementBLS461))
+            throw new IllegalArgumentException("Elements must be of the same type");
+        ECP[][] table=getTable();
+        int[] digits=FixedBaseUtils.digits(((ZpElementBLS461)exp).x,windowBits,table.length);
+        ECP res=new ECP();
+        ECP selected=new ECP();
+        for(int i=0;i<table.length;i++){
+            select(selected,table[i],digits[i]);
+            res.add(selected);
+        }
+        return new Group1ElementBLS461(res);
+    }
+
+    @Override
+    public FixedBaseGroup1Element precompute(int windowBits) {
+        if(windowBits==this.windowBits)
+            return this;
+        return super.precompute(windowBits);
+    }
+
+    @Override
+    public int getWindowBits() {
+        return windowBits;
+    }
+
+    /**
+     * The table is built on first use, so elements that are never exponentiated do not pay for it.
+     */
+    private ECP[][] getTable() {
+        ECP[][] result=table;
+        if(result==null){
+            synchronized (this){
+                result=table;
+                if(result==null){
+                    result=buildTable(x,windowBits);
+                    table=result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static ECP[][] buildTable(ECP base, int windowBits) {
+        int windows=FixedBaseUtils.numberOfWindows(windowBits);
+        int entries=1<<windowBits;
+        ECP[][] table=new ECP[windows][entries];
+        ECP windowBase=new ECP(base);
+        for(int i=0;i<windows;i++){
+            table[i][0]=new ECP();
+            for(int j=1;j<entries;j++){
+                ECP entry=new ECP(table[i][j-1]);
+                entry.add(windowBase);
+                table[i][j]=entry;
+            }
+            for(int k=0;k<windowBits;k++)
+                windowBase.dbl();
+        }
+        return table;
+    }
+
+    private static void select(ECP target, ECP[] entries, int digit) {
+        target.inf();
+        for(int j=1;j<entries.length;j++){
+            int d=FixedBaseUtils.teq(j,digit);
+            target.getx().cmove(entries[j].getx(),d);
+            target.gety().cmove(entries[j].gety(),d);
+            target.getz().cmove(entries[j].getz(),d);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package eu.olympus.util.pairingBLS461;
+
+import eu.olympus.util.pairingInterfaces.FixedBaseGroup2Element;
+import eu.olympus.util.pairingInterfaces.ZpElement;
+import org.miracl.core.BLS12461.ECP2;
+
+/**
+ * Group2ElementBLS461 with a fixed-base windowed table: table[i][j]=x^(j*2^(i*windowBits)). An exponentiation
+ * is then one table lookup and one addition per window, with no doublings. Lookups go through the whole window
+ * so the access pattern does not depend on the exponent.
+ */
+public class FixedBaseGroup2ElementBLS461 extends Group2ElementBLS461 implements FixedBaseGroup2Element {
+
+    private final int windowBits;
+    private volatile ECP2[][] table;
+
+    public FixedBaseGroup2ElementBLS461(ECP2 x, int windowBits){
+        super(x);
+        FixedBaseUtils.checkWindowBits(windowBits);
+        this.windowBits=windowBits;
+    }
+
+    @Override
+    public Group2ElementBLS461 exp(ZpElement exp) {
+        if(!(exp instanceof ZpElementBLS461))
+            throw new IllegalArgumentException("Elements must be of the same type");
+        ECP2[][] table=getTable();
+        int[] digits=FixedBaseUtils.digits(((ZpElementBLS461)exp).x,windowBits,table.length);
+        ECP2 res=new ECP2();
+        ECP2 selected=new ECP2();
+        for(int i=0;i<table.length;i++){
+            select(selected,table[i],digits[i]);
+            res.add(selected);
+        }
+        return new Group2ElementBLS461(res);
+    }
+
+    @Override
+    public FixedBaseGroup2Element precompute(int windowBits) {
+        if(windowBits==this.windowBits)
+            return this;
+        return super.precompute(windowBits);
+    }
+
+    @Override
+    public int getWindowBits() {
+        return windowBits;
+    }
+
+    /**
+     * The table is built on first use, so elements that are never exponentiated do not pay for it.
+     */
+    private ECP2[][] getTable() {
+        ECP2[][] result=table;
+        if(result==null){
+            synchronized (this){
+                result=table;
+                if(result==null){
+                    result=buildTable(x,windowBits);
+                    table=result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static ECP2[][] buildTable(ECP2 base, int windowBits) {
+        int windows=FixedBaseUtils.numberOfWindows(windowBits);
+        int entries=1<<windowBits;
+        ECP2[][] table=new ECP2[windows][entries];
+        ECP2 windowBase=new ECP2(base);
+        for(int i=0;i<windows;i++){
+            table[i][0]=new ECP2();
+            for(int j=1;j<entries;j++){
+                ECP2 entry=new ECP2(table[i][j-1]);
+                entry.add(windowBase);
+                table[i][j]=entry;
+            }
+            for(int k=0;k<windowBits;k++)
+                windowBase.dbl();
+        }
+        return table;
+    }
+
+    private static void select(ECP2 target, ECP2[] entries, int digit) {
+        target.inf();
+        for(int j=1;j<entries.length;j++)
+            target.cmove(entries[j],FixedBaseUtils.teq(j,digit));
+    }
+}
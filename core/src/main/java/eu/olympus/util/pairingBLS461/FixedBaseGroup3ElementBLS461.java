@@ -0,0 +1,105 @@
+package eu.olympus.util.pairingBLS461;
+
+import eu.olympus.util.pairingInterfaces.FixedBaseGroup3Element;
+import eu.olympus.util.pairingInterfaces.ZpElement;
+import org.miracl.core.BLS12461.BIG;
+import org.miracl.core.BLS12461.FP12;
+
+/**
+ * Group3ElementBLS461 with a fixed-base windowed table: table[i][j]=x^(j*2^(i*windowBits)). An exponentiation
+ * is then one table lookup and one multiplication per window, with no squarings. Lookups go through the whole
+ * window so the access pattern does not depend on the exponent. The base must be in the order p subgroup (e.g. the
+ * output of a pairing).
+ */
+public class FixedBaseGroup3ElementBLS461 extends Group3ElementBLS461 implements FixedBaseGroup3Element {
+
+    private final int windowBits;
+    private volatile FP12[][] table;
+
+    public FixedBaseGroup3ElementBLS461(FP12 x, int windowBits){
+        super(x);
+        FixedBaseUtils.checkWindowBits(windowBits);
+        this.windowBits=windowBits;
+    }
+
+    @Override
+    public Group3ElementBLS461 exp(ZpElement exp) {
+        if(!(exp instanceof ZpElementBLS461))
+            throw new IllegalArgumentException("Elements must be of the same type");
+        return new Group3ElementBLS461(pow(((ZpElementBLS461)exp).x));
+    }
+
+    /**
+     * Same as FP12.pow, using the precomputed table.
+     * @param exponent Exponent.
+     * @return x^exponent.
+     */
+    public FP12 pow(BIG exponent) {
+        FP12[][] table=getTable();
+        int[] digits=FixedBaseUtils.digits(exponent,windowBits,table.length);
+        FP12 res=new FP12(1);
+        FP12 selected=new FP12();
+        for(int i=0;i<table.length;i++){
+            select(selected,table[i],digits[i]);
+            res.mul(selected);
+        }
+        res.reduce();
+        return res;
+    }
+
+    @Override
+    public FixedBaseGroup3Element precompute(int windowBits) {
+        if(windowBits==this.windowBits)
+            return this;
+        return super.precompute(windowBits);
+    }
+
+    @Override
+    public int getWindowBits() {
+        return windowBits;
+    }
+
+    /**
+     * The table is built on first use, so elements that are never exponentiated do not pay for it.
+     */
+    private FP12[][] getTable() {
+        FP12[][] result=table;
+        if(result==null){
+            synchronized (this){
+                result=table;
+                if(result==null){
+                    result=buildTable(x,windowBits);
+                    table=result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static FP12[][] buildTable(FP12 base, int windowBits) {
+        int windows=FixedBaseUtils.numberOfWindows(windowBits);
+        int entries=1<<windowBits;
+        FP12[][] table=new FP12[windows][entries];
+        FP12 windowBase=new FP12(base);
+        for(int i=0;i<windows;i++){
+            table[i][0]=new FP12(1);
+            for(int j=1;j<entries;j++){
+                FP12 entry=new FP12(table[i][j-1]);
+                entry.mul(windowBase);
+                entry.reduce();
+                table[i][j]=entry;
+            }
+            // Plain squaring: the cyclotomic usqr is only correct for unitary elements, which is not checked here
+            for(int k=0;k<windowBits;k++)
+                windowBase.sqr();
+            windowBase.reduce();
+        }
+        return table;
+    }
+
+    private static void select(FP12 target, FP12[] entries, int digit) {
+        target.one();
+        for(int j=1;j<entries.length;j++)
+            target.cmove(entries[j],FixedBaseUtils.teq(j,digit));
+    }
+}
@@ -0,0 +1,54 @@
+package eu.olympus.util.pairingBLS461;
+
+import org.miracl.core.BLS12461.BIG;
+
+/**
+ * Helpers shared by the fixed-base (precomputed table) group elements.
+ */
+class FixedBaseUtils {
+
+    static final int MAX_WINDOW_BITS = 8;
+
+    private FixedBaseUtils() {
+    }
+
+    static void checkWindowBits(int windowBits) {
+        if(windowBits<1 || windowBits>MAX_WINDOW_BITS)
+            throw new IllegalArgumentException("Window size must be between 1 and "+MAX_WINDOW_BITS+" bits");
+    }
+
+    /**
+     * @param windowBits Size of the windows.
+     * @return Number of windows needed to cover any exponent mod p.
+     */
+    static int numberOfWindows(int windowBits) {
+        return (PairingBLS461.p.nbits()+windowBits-1)/windowBits;
+    }
+
+    /**
+     * Split an exponent in windows (least significant first) without branching on its value.
+     * @param exponent Exponent.
+     * @param windowBits Size of the windows.
+     * @param windows Number of windows.
+     * @return Value of each window.
+     */
+    static int[] digits(BIG exponent, int windowBits, int windows) {
+        BIG e=new BIG(exponent);
+        e.mod(PairingBLS461.p);
+        int[] digits=new int[windows];
+        for(int i=0;i<windows;i++){
+            digits[i]=e.lastbits(windowBits);
+            e.fshr(windowBits);
+        }
+        return digits;
+    }
+
+    /**
+     * @return 1 if a==b, 0 otherwise (constant time).
+     */
+    static int teq(int a, int b) {
+        int x=a^b;
+        x-=1;
+        return (x>>31)&1;
+    }
+}
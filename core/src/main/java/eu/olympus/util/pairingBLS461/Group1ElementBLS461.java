@@ -2,6 +2,7 @@ package eu.olympus.util.pairingBLS461;
 
 import com.google.protobuf.ByteString;
 import eu.olympus.protos.serializer.PabcSerializer;
+import eu.olympus.util.pairingInterfaces.FixedBaseGroup1Element;
 import eu.olympus.util.pairingInterfaces.Group1Element;
 import eu.olympus.util.pairingInterfaces.ZpElement;
 import org.miracl.core.BLS12461.BIG;
@@ -78,7 +79,18 @@ public class Group1ElementBLS461 implements Group1Element {
                 throw new IllegalArgumentException("Elements must be of the same type");
             exp[i]=((ZpElementBLS461)exponents[i]).x;
         }
-        return new Group1ElementBLS461(x.muln(n,bases,exp));
+        if(n<MultiExpUtils.group1Crossover()){
+            Group1Element result=elements[0].exp(exponents[0]);
+            for(int i=1;i<n;i++)
+                result=result.mul(elements[i].exp(exponents[i]));
+            return (Group1ElementBLS461) result;
+        }
+        return new Group1ElementBLS461(MultiExpUtils.multiExp(bases,exp));
+    }
+
+    @Override
+    public FixedBaseGroup1Element precompute(int windowBits) {
+        return new FixedBaseGroup1ElementBLS461(x,windowBits);
     }
 
     @Override
@@ -95,7 +107,7 @@ public class Group1ElementBLS461 implements Group1Element {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Group1ElementBLS461)) return false;
         Group1ElementBLS461 that = (Group1ElementBLS461) o;
         return x.equals(that.x);
     }
@@ -116,5 +128,4 @@ public class Group1ElementBLS461 implements Group1Element {
         byte[] valueY = w.getY().toByteArray();
         return new ECP(BIG.fromBytes(valueX), BIG.fromBytes(valueY));
     }
-
 }
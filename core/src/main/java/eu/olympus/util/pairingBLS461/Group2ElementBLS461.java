@@ -2,6 +2,7 @@ package eu.olympus.util.pairingBLS461;
 
 import com.google.protobuf.ByteString;
 import eu.olympus.protos.serializer.PabcSerializer;
+import eu.olympus.util.pairingInterfaces.FixedBaseGroup2Element;
 import eu.olympus.util.pairingInterfaces.Group2Element;
 import eu.olympus.util.pairingInterfaces.ZpElement;
 import org.miracl.core.BLS12461.BIG;
@@ -59,6 +60,39 @@ public class Group2ElementBLS461 implements Group2Element {
                 .build();
     }
 
+    @Override
+    public Group2Element multiExp(Group2Element[] elements, ZpElement[] exponents) {
+        if (elements.length!=exponents.length)
+            throw new IllegalArgumentException("Not matching lengths");
+        int n=elements.length;
+        if (n==0)
+            throw new IllegalArgumentException("Empty arrays");
+        ECP2[] bases=new ECP2[n];
+        for(int i=0;i<n;i++){
+            if(!(elements[i] instanceof Group2ElementBLS461))
+                throw new IllegalArgumentException("Elements must be of the same type");
+            bases[i]=((Group2ElementBLS461)elements[i]).x;
+        }
+        BIG[] exp=new BIG[n];
+        for(int i=0;i<n;i++){
+            if(!(exponents[i] instanceof ZpElementBLS461))
+                throw new IllegalArgumentException("Elements must be of the same type");
+            exp[i]=((ZpElementBLS461)exponents[i]).x;
+        }
+        if(n<MultiExpUtils.group2Crossover()){
+            Group2Element result=elements[0].exp(exponents[0]);
+            for(int i=1;i<n;i++)
+                result=result.mul(elements[i].exp(exponents[i]));
+            return result;
+        }
+        return new Group2ElementBLS461(MultiExpUtils.multiExp(bases,exp));
+    }
+
+    @Override
+    public FixedBaseGroup2Element precompute(int windowBits) {
+        return new FixedBaseGroup2ElementBLS461(x,windowBits);
+    }
+
     @Override
     public byte[] toBytes() {
         return ecp2ToBytes(x);
@@ -79,7 +113,7 @@ public class Group2ElementBLS461 implements Group2Element {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Group2ElementBLS461)) return false;
         Group2ElementBLS461 that = (Group2ElementBLS461) o;
         return x.equals(that.x);
     }
@@ -125,5 +159,4 @@ public class Group2ElementBLS461 implements Group2Element {
                 .setYb(ByteString.copyFrom(valueYB))
                 .build();
     }
-
 }
@@ -1,5 +1,6 @@
 package eu.olympus.util.pairingBLS461;
 
+import eu.olympus.util.pairingInterfaces.FixedBaseGroup3Element;
 import eu.olympus.util.pairingInterfaces.Group3Element;
 import eu.olympus.util.pairingInterfaces.ZpElement;
 import org.miracl.core.BLS12461.FP12;
@@ -43,10 +44,15 @@ public class Group3ElementBLS461 implements Group3Element {
         return x.isunity();
     }
 
+    @Override
+    public FixedBaseGroup3Element precompute(int windowBits) {
+        return new FixedBaseGroup3ElementBLS461(x,windowBits);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Group3ElementBLS461)) return false;
         Group3ElementBLS461 that = (Group3ElementBLS461) o;
         return x.equals(that.x);
     }
@@ -0,0 +1,266 @@
+package eu.olympus.util.pairingBLS461;
+
+import org.miracl.core.BLS12461.BIG;
+import org.miracl.core.BLS12461.CONFIG_BIG;
+import org.miracl.core.BLS12461.ECP;
+import org.miracl.core.BLS12461.ECP2;
+import org.miracl.core.BLS12461.PAIR;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
+
+/**
+ * Bucket (Pippenger) multi-exponentiation shared by the group elements. Exponents are split in windows of c bits; in
+ * each window every base is added to the bucket of its digit, and the buckets are combined with two additions each
+ * (running sum). Windows are independent, so for large inputs they are computed in parallel in a pool of daemon
+ * threads owned by this class (so they do not compete with other users of the common fork-join pool). Like ECP.muln,
+ * the running time depends on the exponents.
+ * The number of bases from which the bucket method is used is measured by calibrate, which the pairing builder runs
+ * when an IdP or verifier is set up, so requests never pay for it. Until then, or if the measurement is not usable,
+ * the fallback constants are used.
+ */
+public class MultiExpUtils {
+
+    private static final Logger logger = LoggerFactory.getLogger(MultiExpUtils.class);
+
+    /**
+     * Fallback for the smallest number of bases for which the bucket method beats one exponentiation per base in G1
+     * and G2, used when no calibration was done.
+     */
+    static final int GROUP1_CROSSOVER = 16;
+    static final int GROUP2_CROSSOVER = 64;
+    static final int PARALLEL_THRESHOLD = 256;
+    static final int MAX_CALIBRATION_SIZE = 64;
+    private static final int CALIBRATION_RUNS = 3;
+    private static final int MAX_WINDOW_BITS = 16;
+
+    private static volatile int group1Crossover = GROUP1_CROSSOVER;
+    private static volatile int group2Crossover = GROUP2_CROSSOVER;
+    private static boolean calibrated = false;
+
+    private static final ExecutorService windowPool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+        Thread thread = new Thread(r, "MultiExpUtils-window");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private MultiExpUtils() {
+    }
+
+    static int group1Crossover() {
+        return group1Crossover;
+    }
+
+    static int group2Crossover() {
+        return group2Crossover;
+    }
+
+    /**
+     * Measure the crossovers on this machine. Only the first call does the measurement, which takes a few seconds, so
+     * it is meant to be run during initialisation. A group keeps its fallback crossover if the single exponentiations
+     * and the bucket method disagree, as timings of unsound arithmetic say nothing about the real cost.
+     */
+    public static synchronized void calibrate() {
+        if(calibrated)
+            return;
+        calibrated=true;
+        group1Crossover=calibrateCrossover("G1",MultiExpUtils::timeGroup1,GROUP1_CROSSOVER);
+        group2Crossover=calibrateCrossover("G2",MultiExpUtils::timeGroup2,GROUP2_CROSSOVER);
+    }
+
+    /**
+     * Smallest number of bases, doubling from 2, for which the bucket method beats one exponentiation per base. Each
+     * size takes the fastest of a few runs, so the first (JIT warm-up) and disturbed runs do not count. If the bucket
+     * method does not win up to MAX_CALIBRATION_SIZE, it is only used above it.
+     * @param group Name of the group, for logging.
+     * @param timings For a number of bases n and a random generator, the time of n single exponentiations and of a
+     *                bucket multi-exponentiation, in that order, or null if their results differ.
+     * @param fallback Crossover used if the results differ.
+     * @return Crossover number of bases.
+     */
+    static int calibrateCrossover(String group, BiFunction<Integer, Random, long[]> timings, int fallback) {
+        Random random=new Random(0);
+        for(int n=2;n<=MAX_CALIBRATION_SIZE;n*=2){
+            long naive=Long.MAX_VALUE;
+            long bucket=Long.MAX_VALUE;
+            for(int run=0;run<CALIBRATION_RUNS;run++){
+                long[] t=timings.apply(n,random);
+                if(t==null){
+                    logger.warn("Multi-exponentiation in "+group+" does not match single exponentiations, using crossover "+fallback);
+                    return fallback;
+                }
+                naive=Math.min(naive,t[0]);
+                bucket=Math.min(bucket,t[1]);
+            }
+            if(bucket<naive){
+                logger.info("Multi-exponentiation crossover in "+group+": "+n);
+                return n;
+            }
+        }
+        logger.info("Multi-exponentiation crossover in "+group+": above "+MAX_CALIBRATION_SIZE);
+        return 2*MAX_CALIBRATION_SIZE;
+    }
+
+    private static long[] timeGroup1(int n, Random random) {
+        ECP[] bases=new ECP[n];
+        BIG[] exponents=new BIG[n];
+        ECP base=ECP.generator();
+        for(int i=0;i<n;i++){
+            bases[i]=new ECP(base);
+            base.add(bases[i]);
+            exponents[i]=randomExponent(random);
+        }
+        long start=System.nanoTime();
+        ECP naive=new ECP();
+        for(int i=0;i<n;i++)
+            naive.add(PAIR.G1mul(bases[i],exponents[i]));
+        long naiveTime=System.nanoTime()-start;
+        start=System.nanoTime();
+        ECP bucket=multiExp(bases,exponents);
+        long bucketTime=System.nanoTime()-start;
+        return naive.equals(bucket) ? new long[]{naiveTime,bucketTime} : null;
+    }
+
+    private static long[] timeGroup2(int n, Random random) {
+        ECP2[] bases=new ECP2[n];
+        BIG[] exponents=new BIG[n];
+        ECP2 base=ECP2.generator();
+        for(int i=0;i<n;i++){
+            bases[i]=new ECP2(base);
+            base.add(bases[i]);
+            exponents[i]=randomExponent(random);
+        }
+        long start=System.nanoTime();
+        ECP2 naive=new ECP2();
+        for(int i=0;i<n;i++)
+            naive.add(PAIR.G2mul(bases[i],exponents[i]));
+        long naiveTime=System.nanoTime()-start;
+        start=System.nanoTime();
+        ECP2 bucket=multiExp(bases,exponents);
+        long bucketTime=System.nanoTime()-start;
+        return naive.equals(bucket) ? new long[]{naiveTime,bucketTime} : null;
+    }
+
+    // Only for timing, so it does not need to be a secure random
+    private static BIG randomExponent(Random random) {
+        byte[] bytes=new byte[CONFIG_BIG.MODBYTES];
+        random.nextBytes(bytes);
+        BIG e=BIG.fromBytes(bytes);
+        e.mod(PairingBLS461.p);
+        return e;
+    }
+
+    /**
+     * @param n Number of bases.
+     * @return Window size (in bits) minimizing the number of additions, roughly ln(n)+2.
+     */
+    static int windowBits(int n) {
+        if(n<32)
+            return 3;
+        return Math.min((int)Math.log(n)+2,MAX_WINDOW_BITS);
+    }
+
+    private static int[][] digits(BIG[] exponents, int windowBits, int windows) {
+        int[][] digits=new int[exponents.length][];
+        for(int i=0;i<exponents.length;i++)
+            digits[i]=FixedBaseUtils.digits(exponents[i],windowBits,windows);
+        return digits;
+    }
+
+    private static <T> T[] windowSums(int windows, int n, IntFunction<T> windowSum, T[] sums) {
+        if(n<PARALLEL_THRESHOLD){
+            for(int w=0;w<windows;w++)
+                sums[w]=windowSum.apply(w);
+            return sums;
+        }
+        List<Future<T>> futures=new ArrayList<>(windows);
+        for(int w=0;w<windows;w++){
+            int window=w;
+            futures.add(windowPool.submit(() -> windowSum.apply(window)));
+        }
+        try{
+            for(int w=0;w<windows;w++)
+                sums[w]=futures.get(w).get();
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted multi-exponentiation",e);
+        }catch(ExecutionException e){
+            throw new IllegalStateException("Failed multi-exponentiation",e.getCause());
+        }
+        return sums;
+    }
+
+    public static ECP multiExp(ECP[] bases, BIG[] exponents) {
+        int c=windowBits(bases.length);
+        int windows=FixedBaseUtils.numberOfWindows(c);
+        int[][] digits=digits(exponents,c,windows);
+        ECP[] sums=windowSums(windows,bases.length,w -> windowSum(bases,digits,w,c),new ECP[windows]);
+        ECP result=new ECP();
+        for(int w=windows-1;w>=0;w--){
+            for(int k=0;k<c;k++)
+                result.dbl();
+            result.add(sums[w]);
+        }
+        return result;
+    }
+
+    private static ECP windowSum(ECP[] bases, int[][] digits, int window, int c) {
+        ECP[] buckets=new ECP[1<<c];
+        for(int j=1;j<buckets.length;j++)
+            buckets[j]=new ECP();
+        for(int i=0;i<bases.length;i++){
+            int d=digits[i][window];
+            if(d!=0)
+                buckets[d].add(bases[i]);
+        }
+        // sum_j j·bucket_j as the sum of the running sums from the top bucket down
+        ECP running=new ECP();
+        ECP sum=new ECP();
+        for(int j=buckets.length-1;j>0;j--){
+            running.add(buckets[j]);
+            sum.add(running);
+        }
+        return sum;
+    }
+
+    public static ECP2 multiExp(ECP2[] bases, BIG[] exponents) {
+        int c=windowBits(bases.length);
+        int windows=FixedBaseUtils.numberOfWindows(c);
+        int[][] digits=digits(exponents,c,windows);
+        ECP2[] sums=windowSums(windows,bases.length,w -> windowSum(bases,digits,w,c),new ECP2[windows]);
+        ECP2 result=new ECP2();
+        for(int w=windows-1;w>=0;w--){
+            for(int k=0;k<c;k++)
+                result.dbl();
+            result.add(sums[w]);
+        }
+        return result;
+    }
+
+    private static ECP2 windowSum(ECP2[] bases, int[][] digits, int window, int c) {
+        ECP2[] buckets=new ECP2[1<<c];
+        for(int j=1;j<buckets.length;j++)
+            buckets[j]=new ECP2();
+        for(int i=0;i<bases.length;i++){
+            int d=digits[i][window];
+            if(d!=0)
+                buckets[d].add(bases[i]);
+        }
+        ECP2 running=new ECP2();
+        ECP2 sum=new ECP2();
+        for(int j=buckets.length-1;j>0;j--){
+            running.add(buckets[j]);
+            sum.add(running);
+        }
+        return sum;
+    }
+}
@@ -28,6 +28,15 @@ public class PairingBLS461 implements Pairing {
 
     @Override
     public Group3Element multiPair(Collection<Pair<Group2Element,Group1Element>> elements) {
+        return new Group3ElementBLS461(PAIR.fexp(millerLoop(elements)));
+    }
+
+    @Override
+    public boolean isProductUnity(Collection<Pair<Group2Element,Group1Element>> elements) {
+        return PAIR.fexp(millerLoop(elements)).isunity();
+    }
+
+    private static FP12 millerLoop(Collection<Pair<Group2Element,Group1Element>> elements) {
         FP12[] r=PAIR.initmp();
         for(Pair<Group2Element,Group1Element> el:elements){
             if(!(el.getFirst() instanceof Group2ElementBLS461))
@@ -38,8 +47,7 @@ public class PairingBLS461 implements Pairing {
             ECP e1= ((Group1ElementBLS461) el.getSecond()).x;
             PAIR.another(r,e2,e1);
         }
-        FP12 f=PAIR.miller(r);
-        return new Group3ElementBLS461(PAIR.fexp(f));
+        return PAIR.miller(r);
     }
 
 }
@@ -11,6 +11,8 @@ import org.miracl.core.HASH512;
 import org.miracl.core.HMAC;
 import org.miracl.core.RAND;
 
+import java.security.SecureRandom;
+
 public class PairingBuilderBLS461 implements PairingBuilder {
 
     private RAND rng;
@@ -24,6 +26,11 @@ public class PairingBuilderBLS461 implements PairingBuilder {
      	rng.clean();
         rng.seed(seed.length, seed);
     }
+
+    @Override
+    public void calibrate() {
+        MultiExpUtils.calibrate();
+    }
     
     @Override
     public Pairing getPairing() {
@@ -50,6 +57,14 @@ public class PairingBuilderBLS461 implements PairingBuilder {
         return new ZpElementBLS461(BIG.randomnum(PairingBLS461.p, rng));
     }
 
+    @Override
+    public ZpElementBLS461 getRandomZpElement(SecureRandom random) {
+        // Twice the size of the order, so reducing it leaves a negligible bias
+        byte[] bytes=new byte[2*CONFIG_BIG.MODBYTES];
+        random.nextBytes(bytes);
+        return new ZpElementBLS461(DBIG.fromBytes(bytes).mod(PairingBLS461.p));
+    }
+
     @Override
     public ZpElement getZpElementFromAttribute(Attribute attributeValue, AttributeDefinition attributeDefinition) {
         BIG res= Util.BigIntegerToBIG(attributeDefinition.toBigIntegerRepresentation(attributeValue));
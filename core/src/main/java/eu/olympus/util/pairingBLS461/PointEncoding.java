@@ -0,0 +1,204 @@
+package eu.olympus.util.pairingBLS461;
+
+import org.miracl.core.BLS12461.BIG;
+import org.miracl.core.BLS12461.CONFIG_BIG;
+import org.miracl.core.BLS12461.ECP;
+import org.miracl.core.BLS12461.FP12;
+import org.miracl.core.BLS12461.FP2;
+import org.miracl.core.BLS12461.FP4;
+import org.miracl.core.BLS12461.PAIR;
+import org.miracl.core.BLS12461.ROM;
+
+import java.util.Arrays;
+
+/**
+ * Compact encodings of G1 and GT elements, as exchanged in the OPRF. Decoding is strict: it only
+ * accepts canonical encodings of elements of the prime order subgroups, and throws
+ * IllegalArgumentException otherwise.
+ * <p>
+ * G1 elements use the usual compressed point encoding (x and the sign of y).
+ * GT elements are compressed with the algebraic torus T2: for g in GT, g^(p^6) is the inverse of
+ * g, so h=(1+g)/(1-g) satisfies h^(p^6)=-h and lies in a subspace of dimension 6 over Fp. g is
+ * recovered as (h-1)/(h+1). The identity, for which h is undefined, is encoded as all zeros.
+ * Elements that are not on the torus cannot be compressed and keep the full 12 coordinates, which
+ * is also the form older IdPs send. It is checked for GT membership like the compressed form.
+ * <p>
+ * Older clients send a G1 element as the uncompressed encoding at the start of a buffer of
+ * LEGACY_G1_BYTES, the rest of which is zero. That layout is still accepted.
+ */
+public class PointEncoding {
+
+    public static final int G1_COMPRESSED_BYTES = CONFIG_BIG.MODBYTES+1;
+    public static final int G1_BYTES = 2*CONFIG_BIG.MODBYTES+1;
+    public static final int GT_COMPRESSED_BYTES = 6*CONFIG_BIG.MODBYTES;
+    public static final int GT_BYTES = 12*CONFIG_BIG.MODBYTES;
+    public static final int LEGACY_G1_BYTES = 12*CONFIG_BIG.MODBYTES;
+
+    private static final BIG modulus = new BIG(ROM.Modulus);
+
+    private PointEncoding() {
+    }
+
+    public static byte[] encodeG1(ECP point) {
+        byte[] bytes = new byte[G1_COMPRESSED_BYTES];
+        point.toBytes(bytes, true);
+        return bytes;
+    }
+
+    /**
+     * Decode a compressed or uncompressed G1 element, or an uncompressed one in the zero padded
+     * buffer of older clients.
+     */
+    public static ECP decodeG1(byte[] bytes) {
+        if(bytes.length == LEGACY_G1_BYTES) {
+            for(int i = G1_BYTES; i < bytes.length; i++) {
+                if(bytes[i] != 0) {
+                    throw new IllegalArgumentException("Not an encoded G1 element");
+                }
+            }
+            bytes = Arrays.copyOf(bytes, G1_BYTES);
+        }
+        boolean compressed = bytes.length == G1_COMPRESSED_BYTES && (bytes[0] == 0x02 || bytes[0] == 0x03);
+        boolean uncompressed = bytes.length == G1_BYTES && bytes[0] == 0x04;
+        if(!compressed && !uncompressed) {
+            throw new IllegalArgumentException("Not an encoded G1 element");
+        }
+        checkCoordinates(bytes, 1, uncompressed ? 2 : 1);
+        ECP point = ECP.fromBytes(bytes);
+        // fromBytes returns infinity for points not on the curve
+        if(point.is_infinity() || !PAIR.G1member(point)) {
+            throw new IllegalArgumentException("Not a G1 element");
+        }
+        return point;
+    }
+
+    /**
+     * @return Whether the bytes use the compressed G1 encoding.
+     */
+    public static boolean isCompressedG1(byte[] bytes) {
+        return bytes.length == G1_COMPRESSED_BYTES;
+    }
+
+    /**
+     * Encode a GT element, compressed to half its size if it is on the torus.
+     */
+    public static byte[] encodeGT(FP12 element) {
+        if(element.isunity()) {
+            return new byte[GT_COMPRESSED_BYTES];
+        }
+        FP12 norm = new FP12(element);
+        norm.conj();
+        norm.mul(element);
+        if(!norm.isunity()) {
+            byte[] bytes = new byte[GT_BYTES];
+            element.toBytes(bytes);
+            return bytes;
+        }
+        return compress(element);
+    }
+
+    private static byte[] compress(FP12 element) {
+        byte[] bytes = new byte[GT_COMPRESSED_BYTES];
+        FP4 one = new FP4(1);
+        FP4 a = new FP4(element.geta());
+        FP4 b = new FP4(element.getb());
+        FP4 c = new FP4(element.getc());
+        // h = (1+g)/(1-g)
+        FP4 aPlus = new FP4(a);
+        aPlus.add(one);
+        FP4 aMinus = new FP4(one);
+        aMinus.sub(a);
+        b.neg();
+        c.neg();
+        FP12 denominator = new FP12(aMinus, b, c);
+        denominator.inverse();
+        FP12 h = new FP12(aPlus, new FP4(element.getb()), new FP4(element.getc()));
+        h.mul(denominator);
+        // The other half of the coordinates of h is zero
+        int offset = 0;
+        for(FP2 coordinate : new FP2[] {h.geta().getb(), h.getb().geta(), h.getc().getb()}) {
+            System.arraycopy(toBytes(coordinate.getA()), 0, bytes, offset, CONFIG_BIG.MODBYTES);
+            System.arraycopy(toBytes(coordinate.getB()), 0, bytes, offset+CONFIG_BIG.MODBYTES, CONFIG_BIG.MODBYTES);
+            offset += 2*CONFIG_BIG.MODBYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * Decode a compressed or uncompressed GT element.
+     */
+    public static FP12 decodeGT(byte[] bytes) {
+        if(bytes.length == GT_BYTES) {
+            checkCoordinates(bytes, 0, 12);
+            FP12 element = FP12.fromBytes(bytes);
+            if(!element.isunity() && !PAIR.GTmember(element)) {
+                throw new IllegalArgumentException("Not a GT element");
+            }
+            return element;
+        }
+        if(bytes.length != GT_COMPRESSED_BYTES) {
+            throw new IllegalArgumentException("Not an encoded GT element");
+        }
+        checkCoordinates(bytes, 0, 6);
+        FP12 element = decompress(bytes);
+        if(!element.isunity() && !PAIR.GTmember(element)) {
+            throw new IllegalArgumentException("Not a GT element");
+        }
+        return element;
+    }
+
+    /**
+     * Undo the torus compression, without checking that the result is in GT.
+     */
+    static FP12 decompress(byte[] bytes) {
+        BIG[] values = new BIG[6];
+        boolean zero = true;
+        for(int i = 0; i < 6; i++) {
+            values[i] = BIG.fromBytes(slice(bytes, i*CONFIG_BIG.MODBYTES));
+            zero &= values[i].iszilch();
+        }
+        if(zero) {
+            return new FP12(1);
+        }
+        FP2 hab = new FP2(values[0], values[1]);
+        FP2 hba = new FP2(values[2], values[3]);
+        FP2 hcb = new FP2(values[4], values[5]);
+        // g = (h-1)/(h+1)
+        FP4 one = new FP4(1);
+        FP4 aMinus = new FP4(new FP2(0), hab);
+        aMinus.sub(one);
+        FP4 aPlus = new FP4(new FP2(0), hab);
+        aPlus.add(one);
+        FP4 b = new FP4(hba, new FP2(0));
+        FP4 c = new FP4(new FP2(0), hcb);
+        FP12 denominator = new FP12(aPlus, b, c);
+        denominator.inverse();
+        FP12 element = new FP12(aMinus, new FP4(b), new FP4(c));
+        element.mul(denominator);
+        return element;
+    }
+
+    /**
+     * Reject field elements that are not reduced, so every element has a single encoding.
+     */
+    private static void checkCoordinates(byte[] bytes, int offset, int count) {
+        for(int i = 0; i < count; i++) {
+            BIG value = BIG.fromBytes(slice(bytes, offset+i*CONFIG_BIG.MODBYTES));
+            if(BIG.comp(value, modulus) >= 0) {
+                throw new IllegalArgumentException("Coordinate is not reduced");
+            }
+        }
+    }
+
+    private static byte[] slice(byte[] bytes, int offset) {
+        byte[] slice = new byte[CONFIG_BIG.MODBYTES];
+        System.arraycopy(bytes, offset, slice, 0, CONFIG_BIG.MODBYTES);
+        return slice;
+    }
+
+    private static byte[] toBytes(BIG value) {
+        byte[] bytes = new byte[CONFIG_BIG.MODBYTES];
+        value.toBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,14 @@
+package eu.olympus.util.pairingInterfaces;
+
+/**
+ * Group1Element with a precomputed table for fast exponentiation of this (fixed) base. Meant for long-lived elements
+ * (e.g. verification keys or generators) that are raised to many different exponents.
+ */
+public interface FixedBaseGroup1Element extends Group1Element {
+
+    /**
+     * @return Size (in bits) of the windows of the precomputed table. The table holds
+     * ceil(|p|/windowBits)*2^windowBits elements.
+     */
+    int getWindowBits();
+}
@@ -0,0 +1,14 @@
+package eu.olympus.util.pairingInterfaces;
+
+/**
+ * Group2Element with a precomputed table for fast exponentiation of this (fixed) base. Meant for long-lived elements
+ * (e.g. generators) that are raised to many different exponents.
+ */
+public interface FixedBaseGroup2Element extends Group2Element {
+
+    /**
+     * @return Size (in bits) of the windows of the precomputed table. The table holds
+     * ceil(|p|/windowBits)*2^windowBits elements.
+     */
+    int getWindowBits();
+}
@@ -0,0 +1,14 @@
+package eu.olympus.util.pairingInterfaces;
+
+/**
+ * Group3Element with a precomputed table for fast exponentiation of this (fixed) base. Meant for long-lived elements
+ * (e.g. the generator of the target group) that are raised to many different exponents.
+ */
+public interface FixedBaseGroup3Element extends Group3Element {
+
+    /**
+     * @return Size (in bits) of the windows of the precomputed table. The table holds
+     * ceil(|p|/windowBits)*2^windowBits elements.
+     */
+    int getWindowBits();
+}
@@ -41,14 +41,22 @@ public interface Group1Element {
     PabcSerializer.Group1Element toProto();
 
     /**
-     * Multiexponentiation (calling element is only used for type resolution). It may be slower than doing it "by hand"
-     * if the number of elements is small (e.g., for BLS461 breaking point is around 25)
+     * Multiexponentiation (calling element is only used for type resolution). Implementations fall back to one
+     * exponentiation per element when the number of elements is below the point where that is faster.
      * @param elements Group1elements that will be bases
      * @param exponents ZpElements that will be exponents
      * @return elements[0]^exponents[0]···elements[n]^exponents[n]
      */
     Group1Element multiExp(Group1Element[] elements, ZpElement[] exponents);
 
+    /**
+     * Precompute a fixed-base table for this element, so that subsequent exponentiations are faster. The table holds
+     * ceil(|p|/windowBits)*2^windowBits elements, so windowBits trades memory for speed.
+     * @param windowBits Size (in bits) of the windows of the table.
+     * @return Element equal to this one that uses the precomputed table for exponentiation.
+     */
+    FixedBaseGroup1Element precompute(int windowBits);
+
     /**
      * Mostly for hashing/challenge computation purposes
      * @return Bytes from
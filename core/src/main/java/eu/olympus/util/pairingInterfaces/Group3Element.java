@@ -31,4 +31,12 @@ public interface Group3Element {
      * @return this==1G
      */
     boolean isUnity();
+
+    /**
+     * Precompute a fixed-base table for this element, so that subsequent exponentiations are faster. The table holds
+     * ceil(|p|/windowBits)*2^windowBits elements, so windowBits trades memory for speed.
+     * @param windowBits Size (in bits) of the windows of the table.
+     * @return Element equal to this one that uses the precomputed table for exponentiation.
+     */
+    FixedBaseGroup3Element precompute(int windowBits);
 }
@@ -24,5 +24,11 @@ public interface Pairing {
      */
     Group3Element multiPair(Collection<Pair<Group2Element,Group1Element>> elements);
 
+    /**
+     * Check a pairing product equation. All the pairings share a single Miller loop and final exponentiation.
+     * @param elements Pairs of elements that compose the pairing product.
+     * @return e(elements[0].second,elements[0].first)···e(elements[n-1].second,elements[n-1].first)==1
+     */
+    boolean isProductUnity(Collection<Pair<Group2Element,Group1Element>> elements);
 
 }
@@ -3,6 +3,8 @@ package eu.olympus.util.pairingInterfaces;
 import eu.olympus.model.Attribute;
 import eu.olympus.model.AttributeDefinition;
 
+import java.security.SecureRandom;
+
 public interface PairingBuilder {
 
     /**
@@ -15,6 +17,13 @@ public interface PairingBuilder {
      * @param seed
      */
     void seedRandom(byte[] seed);
+
+    /**
+     * Tunes the implementation to the machine it runs on, e.g. by timing alternative algorithms. Meant to be called
+     * during initialisation, before serving requests; repeated calls are cheap. Does nothing by default.
+     */
+    default void calibrate() {
+    }
     
     /**
      * @return Generator of the first group of the pairing.
@@ -36,6 +45,13 @@ public interface PairingBuilder {
      */
     ZpElement getRandomZpElement();
 
+    /**
+     * Random element from Zp drawn from the given generator instead of the (seeded) generator of the builder.
+     * @param random Source of randomness.
+     * @return Random element from Zp.
+     */
+    ZpElement getRandomZpElement(SecureRandom random);
+
     /**
      * @param attributeValue Attribute that has to be transformed into a Zp element.
      * @param attributeDefinition Definition of the attribute for which attributeValue is a value (extra info like min/max...).
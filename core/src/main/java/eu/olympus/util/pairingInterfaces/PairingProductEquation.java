@@ -0,0 +1,45 @@
+package eu.olympus.util.pairingInterfaces;
+
+import eu.olympus.util.Pair;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Product of pairings e(el1_0,el2_0)···e(el1_n,el2_n). Its evaluation (or the check of the equation
+ * "product equals one") is done with a single Miller loop and a single final exponentiation, instead of one of each per pairing.
+ */
+public class PairingProductEquation {
+
+    private final Pairing pairing;
+    private final List<Pair<Group2Element,Group1Element>> terms=new LinkedList<>();
+
+    public PairingProductEquation(Pairing pairing){
+        this.pairing=pairing;
+    }
+
+    /**
+     * Add the factor e(el2,el1) to the product.
+     * @param el2 Element from group 2.
+     * @param el1 Element from group 1.
+     * @return This equation, for chaining.
+     */
+    public PairingProductEquation addTerm(Group2Element el2, Group1Element el1){
+        terms.add(new Pair<>(el2,el1));
+        return this;
+    }
+
+    /**
+     * @return Value of the product of pairings.
+     */
+    public Group3Element evaluate(){
+        return pairing.multiPair(terms);
+    }
+
+    /**
+     * @return True if the product of pairings is the unit of the third group.
+     */
+    public boolean isUnity(){
+        return pairing.isProductUnity(terms);
+    }
+}
@@ -15,12 +15,19 @@ import java.util.stream.Collectors;
  */
 public class PSms implements MS {
 
+    /**
+     * Window size used by default for the fixed-base tables of the generator and aggregated verification keys.
+     */
+    public static final int DEFAULT_FIXED_BASE_WINDOW_BITS = 4;
+
+    private final int fixedBaseWindowBits;
     private Pairing pair;
     private PairingBuilder builder;
     private int n;
     private Set<String> attributeNames;
     private Group2Element g1;
     private Group1Element g2;
+    private Group1Element g2Inv;
     private Hash0 h0;
     private Hash1 h1;
     private Hash2 h2;
@@ -28,7 +35,16 @@ public class PSms implements MS {
     private boolean isSetup;
 
     public PSms(){
+        this(DEFAULT_FIXED_BASE_WINDOW_BITS);
+    }
+
+    /**
+     * @param fixedBaseWindowBits Window size (memory budget) for the fixed-base tables built for the Group1 generator and
+     *                            aggregated verification keys. Values lower than 1 disable precomputation.
+     */
+    public PSms(int fixedBaseWindowBits){
         isSetup = false;
+        this.fixedBaseWindowBits = fixedBaseWindowBits;
     }
 
     @Override
@@ -56,6 +72,9 @@ public class PSms implements MS {
         pair=builder.getPairing();
         g1=builder.getGroup2Generator();
         g2=builder.getGroup1Generator();
+        if(fixedBaseWindowBits>0)
+            g2=g2.precompute(fixedBaseWindowBits);
+        g2Inv=g2.invExp(builder.getZpElementOne());
         h0=builder.getHash0();
         h1=builder.getHash1();
         h2=builder.getHash2();
@@ -104,34 +123,45 @@ public class PSms implements MS {
         }
         //Generate t<-H1(Verification keys)
         ZpElement[] t=h1.hash(vksPS);
-        // Multiplication+exponentiation of member X of the verification keys (Getting X member of Avk).
-        Group1Element ax=vksPS[0].getVX().exp(t[0]);
-        for(int i=1;i<vksPS.length;i++)
-            ax=ax.mul(vksPS[i].getVX().exp(t[i]));
-        // Multiplication+exponentiation of member Y_m' of the verification keys (Getting Y_m' member of Avk).
-        Group1Element ay_m=vksPS[0].getVY_m().exp(t[0]);
-        for(int i=1;i<vksPS.length;i++)
-            ay_m=ay_m.mul(vksPS[i].getVY_m().exp(t[i]));
-        // Multiplication+exponentiation of member Y_epoch of the verification keys (Getting Y_epoch member of Avk).
-        Group1Element ay_epoch=vksPS[0].getVY_epoch().exp(t[0]);
-        for(int i=1;i<vksPS.length;i++)
-            ay_epoch=ay_epoch.mul(vksPS[i].getVY_epoch().exp(t[i]));
-        // Multiplication+exponentiation of members Y_i of the verification keys (Getting Y_i members of Avk).
+        // Multiexponentiation of member X of the verification keys (Getting X member of Avk).
+        Group1Element[] vx=new Group1Element[vksPS.length];
+        for(int i=0;i<vksPS.length;i++)
+            vx[i]=vksPS[i].getVX();
+        Group1Element ax=vx[0].multiExp(vx,t);
+        // Multiexponentiation of member Y_m' of the verification keys (Getting Y_m' member of Avk).
+        Group1Element[] vy_m=new Group1Element[vksPS.length];
+        for(int i=0;i<vksPS.length;i++)
+            vy_m[i]=vksPS[i].getVY_m();
+        Group1Element ay_m=vy_m[0].multiExp(vy_m,t);
+        // Multiexponentiation of member Y_epoch of the verification keys (Getting Y_epoch member of Avk).
+        Group1Element[] vy_epoch=new Group1Element[vksPS.length];
+        for(int i=0;i<vksPS.length;i++)
+            vy_epoch[i]=vksPS[i].getVY_epoch();
+        Group1Element ay_epoch=vy_epoch[0].multiExp(vy_epoch,t);
+        // Multiexponentiation of members Y_i of the verification keys (Getting Y_i members of Avk).
         Map<String,Group1Element> ay=new HashMap<>();
         for(String attr:attributeNames){
-            Group1Element aux=vksPS[0].getVY().get(attr);
-            if(aux==null)       //Check that the verification key has a member for every attribute of the signature scheme.
-                throw new IllegalArgumentException("Invalid verification key for this instance of PS-MS scheme.");
-            Group1Element yattr=aux.exp(t[0]);
-            for (int i=1;i<vksPS.length;i++){
-                aux= vksPS[i].getVY().get(attr);
-                if(aux==null)       //Check that the verification key has a member for every attribute of the signature scheme.
+            Group1Element[] vyattr=new Group1Element[vksPS.length];
+            for (int i=0;i<vksPS.length;i++){
+                vyattr[i]=vksPS[i].getVY().get(attr);
+                if(vyattr[i]==null)       //Check that the verification key has a member for every attribute of the signature scheme.
                     throw new IllegalArgumentException("Invalid verification key for this instance of PS-MS scheme.");
-                yattr=yattr.mul(aux.exp(t[i]));
             }
-            ay.put(attr,yattr);
+            ay.put(attr,vyattr[0].multiExp(vyattr,t));
         }
-        return new PSverfKey(ax,ay_m,ay,ay_epoch);
+        return precompute(new PSverfKey(ax,ay_m,ay,ay_epoch));
+    }
+
+    /**
+     * Build the fixed-base tables (if enabled for this instance) of a verification key that will be used many times,
+     * e.g. an aggregated key obtained by other means than kAggreg.
+     * @param vk Verification key.
+     * @return Equivalent verification key, with precomputed tables if enabled.
+     */
+    public PSverfKey precompute(PSverfKey vk) {
+        if(fixedBaseWindowBits<=0)
+            return vk;
+        return vk.precompute(fixedBaseWindowBits);
     }
 
     @Override
@@ -198,15 +228,16 @@ public class PSms implements MS {
         }
         //Get t<-H1(Verification keys)
         ZpElement[] t=h1.hash(vksPS);
-        //Multiplication+exponentiation of sigma 2 of the signature shares.
+        //Multiexponentiation of sigma 2 of the signature shares.
         ZpElement mPrim=signsPS[0].getMPrim();
         Group2Element sigma1=signsPS[0].getSigma1();
-        Group2Element sigma2=signsPS[0].getSigma2().exp(t[0]);
-        for(int i=1;i<signs.length;i++){
+        Group2Element[] sigma2s=new Group2Element[signs.length];
+        for(int i=0;i<signs.length;i++){
             if(!mPrim.equals(signsPS[i].getMPrim()) || !sigma1.equals(signsPS[i].getSigma1())) //Check m' and sigma1 are equal for every share
                 throw new IllegalArgumentException("Signature shares are not compatible.");
-            sigma2=sigma2.mul(signsPS[i].getSigma2().exp(t[i]));
+            sigma2s[i]=signsPS[i].getSigma2();
         }
+        Group2Element sigma2=sigma2s[0].multiExp(sigma2s,t);
         return new PSsignature(mPrim,sigma1,sigma2);
     }
 
@@ -246,7 +277,11 @@ public class PSms implements MS {
             el2=el2.mul(aux.exp(auxM));
         }
         //Check pairing condition e(sigma1, X * (Y_m')^m'* Prod (Y_i)^m_i )=e(sigma2,Group1generator)
-        return pair.pair(signPS.getSigma1(),el2).equals(pair.pair(signPS.getSigma2(),g2));
+        //as e(sigma1, X * (Y_m')^m'* Prod (Y_i)^m_i )*e(sigma2,Group1generator^-1)=1
+        return new PairingProductEquation(pair)
+                .addTerm(signPS.getSigma1(),el2)
+                .addTerm(signPS.getSigma2(),g2Inv)
+                .isUnity();
     }
 
 
@@ -354,10 +389,10 @@ public class PSms implements MS {
             ZpElement auxExp=revealedAttributesPS.getM().get(revAttr).mul(tokenPS.getC());
             auxEl2=auxEl2.mul(yRevAttr.invExp(auxExp));
         }
-        Collection<Pair<Group2Element,Group1Element>> elements=new LinkedList<>();
-        elements.add(new Pair<>(sigma1,auxEl2));
-        elements.add(new Pair<>(sigma2.exp(tokenPS.getC()),g2));
-        Group3Element aux=pair.multiPair(elements);
+        Group3Element aux=new PairingProductEquation(pair)
+                .addTerm(sigma1,auxEl2)
+                .addTerm(sigma2.exp(tokenPS.getC()),g2)
+                .evaluate();
         //Compute hash H2 for the obtained value and compare with c
         ZpElement newC=h2.hash(m,avkPS,sigma1,sigma2,aux);
         return newC.equals(tokenPS.getC());
@@ -512,10 +547,10 @@ public class PSms implements MS {
             xExponent=xExponent.add(tokenPS.getvGammaj().get(proofAttr));
         }
         auxEl2=auxEl2.mul(avkPS.getVX().exp(xExponent));
-        Collection<Pair<Group2Element,Group1Element>> elements=new LinkedList<>();
-        elements.add(new Pair<>(sigma1,auxEl2));
-        elements.add(new Pair<>(sigma2,g2.exp(c)));
-        Group3Element aux=pair.multiPair(elements);
+        Group3Element aux=new PairingProductEquation(pair)
+                .addTerm(sigma1,auxEl2)
+                .addTerm(sigma2,g2.exp(c))
+                .evaluate();
         //Compute hash H2 for the obtained value and compare with c
         ZpElement newC=h2Mod.hash(m,avkPS,sigma1,sigma2,aux,Vp);
         return newC.equals(c);
@@ -54,6 +54,18 @@ public class PSverfKey implements MSverfKey {
         return vy;
     }
 
+    /**
+     * Build fixed-base tables for every element of the key, so that exponentiations done when verifying are faster.
+     * @param windowBits Size (in bits) of the windows of the tables (memory/speed trade-off).
+     * @return Equivalent verification key whose elements have precomputed tables.
+     */
+    public PSverfKey precompute(int windowBits) {
+        Map<String, Group1Element> precomputedVy=new HashMap<>();
+        for(String attr:vy.keySet())
+            precomputedVy.put(attr,vy.get(attr).precompute(windowBits));
+        return new PSverfKey(vx.precompute(windowBits),vy_m.precompute(windowBits),precomputedVy,vy_epoch.precompute(windowBits));
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,83 @@
+package eu.olympus.util.rangeProof;
+
+import eu.olympus.model.*;
+import eu.olympus.util.Util;
+import eu.olympus.util.pairingInterfaces.Group1Element;
+import eu.olympus.util.pairingInterfaces.PairingBuilder;
+import eu.olympus.util.pairingInterfaces.ZpElement;
+import eu.olympus.util.rangeProof.model.PedersenBase;
+
+/**
+ * Bounds of a (checked) range predicate, as proven in range proofs: x-lowerBound in [0,2^n-1] and
+ * x+offset in [0,2^n-1] with offset=2^n-1-upperBound. A missing lower bound is 0 and a missing upper bound is 2^n-1
+ * (offset 0), so both proofs still rule out modular arithmetic tricks.
+ * For aggregated proofs n is the largest one of all the predicates. With an upper bound this proves the same range,
+ * as the offset grows with n. For greater than predicates the implicit upper bound 2^n-1 grows with n, so a larger n
+ * loosens the second condition (still far below the group order, so it keeps ruling out the tricks).
+ */
+class PredicateBounds {
+
+    private final Attribute lowerBound;
+    private final Attribute upperBound;
+    private final int n;
+
+    PredicateBounds(AttributeDefinition definition, Predicate predicate) {
+        switch (predicate.getOperation()){
+            case LESSTHANOREQUAL:
+                lowerBound=null;
+                upperBound=predicate.getValue();
+                n=Util.nextPowerOfPowerOfTwo(definition.toBigIntegerRepresentation(upperBound));
+                break;
+            case GREATERTHANOREQUAL:
+                lowerBound=predicate.getValue();
+                upperBound=null;
+                Attribute maxValue;
+                if(definition instanceof AttributeDefinitionInteger){
+                    maxValue=new Attribute(((AttributeDefinitionInteger) definition).getMaximumValue());
+                }else { //For now we only support Integer and Date
+                    maxValue=new Attribute(((AttributeDefinitionDate) definition).getMaxDate());
+                }
+                n=Util.nextPowerOfPowerOfTwo(definition.toBigIntegerRepresentation(maxValue));
+                break;
+            case INRANGE:
+                lowerBound=predicate.getValue();
+                upperBound=predicate.getExtraValue();
+                n=Util.nextPowerOfPowerOfTwo(definition.toBigIntegerRepresentation(upperBound));
+                break;
+            default:
+                throw new IllegalArgumentException("Predicate operation not for range proof: "+predicate.getOperation());
+        }
+    }
+
+    /**
+     * @return Minimum n so the bounds of the predicate are in [0,2^n-1]
+     */
+    int getN() {
+        return n;
+    }
+
+    /**
+     * @return Commitment to x-lowerBound, from the commitment v to x
+     */
+    Group1Element lowerBoundCommitment(Group1Element v, PedersenBase base, AttributeDefinition definition, PairingBuilder builder) {
+        return lowerBound==null ? v : v.mul(base.getG().invExp(lowerBound(definition,builder))); //V'=V · Y^(-a)
+    }
+
+    /**
+     * @return Commitment to x+offset, from the commitment v to x
+     */
+    Group1Element upperBoundCommitment(Group1Element v, int n, PedersenBase base, AttributeDefinition definition, PairingBuilder builder) {
+        return upperBound==null ? v : v.mul(base.getG().exp(offset(n,definition,builder))); //V''=V · Y^(offset)
+    }
+
+    ZpElement lowerBound(AttributeDefinition definition, PairingBuilder builder) {
+        return lowerBound==null ? builder.getZpElementZero() : builder.getZpElementFromAttribute(lowerBound,definition);
+    }
+
+    ZpElement offset(int n, AttributeDefinition definition, PairingBuilder builder) {
+        if(upperBound==null)
+            return builder.getZpElementZero();
+        ZpElement one=builder.getZpElementOne();
+        return one.add(one).pow(n).sub(one).sub(builder.getZpElementFromAttribute(upperBound,definition));
+    }
+}
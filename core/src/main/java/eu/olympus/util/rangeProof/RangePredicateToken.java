@@ -5,6 +5,10 @@ import eu.olympus.util.pairingBLS461.Group1ElementBLS461;
 import eu.olympus.util.pairingInterfaces.Group1Element;
 import eu.olympus.util.rangeProof.model.RangeProof;
 
+/**
+ * Commitment and proofs for a range predicate. The proofs are null when they are part of an aggregated range proof
+ * for all the predicates of a presentation token.
+ */
 public class RangePredicateToken {
     private RangeProof proofLowerBound;
     private RangeProof proofUpperBound;
@@ -17,8 +21,8 @@ public class RangePredicateToken {
     }
 
     public RangePredicateToken(PabcSerializer.RangePredToken rangePredToken) {
-        this.proofLowerBound=new RangeProof(rangePredToken.getProofLowerBound());
-        this.proofUpperBound=new RangeProof(rangePredToken.getProofUpperBound());
+        this.proofLowerBound=rangePredToken.hasProofLowerBound() ? new RangeProof(rangePredToken.getProofLowerBound()) : null;
+        this.proofUpperBound=rangePredToken.hasProofUpperBound() ? new RangeProof(rangePredToken.getProofUpperBound()) : null;
         this.commitV=new Group1ElementBLS461(rangePredToken.getCommitV());
     }
 
@@ -35,7 +39,11 @@ public class RangePredicateToken {
     }
 
     public PabcSerializer.RangePredToken toProto() {
-        return PabcSerializer.RangePredToken.newBuilder().setCommitV(commitV.toProto())
-                .setProofLowerBound(proofLowerBound.toProto()).setProofUpperBound(proofUpperBound.toProto()).build();
+        PabcSerializer.RangePredToken.Builder protoBuilder=PabcSerializer.RangePredToken.newBuilder().setCommitV(commitV.toProto());
+        if(proofLowerBound!=null)
+            protoBuilder.setProofLowerBound(proofLowerBound.toProto());
+        if(proofUpperBound!=null)
+            protoBuilder.setProofUpperBound(proofUpperBound.toProto());
+        return protoBuilder.build();
     }
 }
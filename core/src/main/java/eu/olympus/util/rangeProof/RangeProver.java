@@ -4,15 +4,21 @@ import eu.olympus.model.*;
 import eu.olympus.util.Util;
 import eu.olympus.util.pairingInterfaces.PairingBuilder;
 import eu.olympus.util.pairingInterfaces.ZpElement;
+import eu.olympus.util.rangeProof.model.AggregatedRangeProof;
 import eu.olympus.util.rangeProof.model.PedersenBase;
 import eu.olympus.util.rangeProof.model.PedersenCommitment;
 import eu.olympus.util.rangeProof.model.RangeProof;
 import eu.olympus.util.rangeProof.model.RangeProofBase;
+import eu.olympus.util.rangeProof.tools.AggregatedRangeProofProver;
+import eu.olympus.util.rangeProof.tools.RangeProofBaseCache;
 import eu.olympus.util.rangeProof.tools.RangeProofProver;
 import eu.olympus.util.rangeProof.tools.Utils;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 
 
@@ -27,15 +33,28 @@ public class RangeProver {
     //TODO For grater_than and less_than we could probably use only one proof (as they are later linked to the credential, which we can
     // trust contains only attribute values in the range set by the attribute definition)
     private Map<String, PedersenCommitment> generatedCommitments;
+    private List<PendingPredicate> pendingPredicates;
     private String salt;
     private PairingBuilder builder;
+    private RangeProofBaseCache bases;
     private ZpElement one;
     private ZpElement two;
 
     public RangeProver(String salt, PairingBuilder builder){
+        this(salt,builder,RangeProofBaseCache.getShared());
+    }
+
+    /**
+     * @param salt Salt for the base generation (e.g. the policy ID)
+     * @param builder Builder for the group elements
+     * @param bases Cache the range proof bases are taken from
+     */
+    public RangeProver(String salt, PairingBuilder builder, RangeProofBaseCache bases){
         generatedCommitments=new HashMap<>();
+        pendingPredicates=new LinkedList<>();
         this.salt=salt;
         this.builder=builder;
+        this.bases=bases;
         one=builder.getZpElementOne();
         two=one.add(one);
     }
@@ -50,6 +69,64 @@ public class RangeProver {
      * @return
      */
     public RangePredicateToken generateRangePredicateToken(PedersenBase base, Attribute value, AttributeDefinition attributeDefinition, Predicate pred){
+        checkPredicate(value,attributeDefinition,pred);
+        switch (pred.getOperation()){
+            case LESSTHANOREQUAL:
+                return generateRangePredicateTokenLessThan(base,value,attributeDefinition,pred.getValue());
+            case GREATERTHANOREQUAL:
+                return generateRangePredicateTokenGreaterThan(base,value,attributeDefinition,pred.getValue());
+            case INRANGE:
+                return generateRangePredicateTokenInRange(base,value,attributeDefinition,pred.getValue(),pred.getExtraValue());
+            default:
+                throw new IllegalArgumentException("Predicate operation not for range proof: "+pred.getOperation());
+        }
+    }
+
+    /**
+     * Adds a range predicate to the aggregated range proof: instead of two proofs for each predicate, one proof for the
+     * bounds of all the added predicates is created by generateAggregatedProof. The verifier must get the predicates in
+     * the same order.
+     * @param base Pedersen base for the proof (for use in PSCredentialManager it will be h=X, g=Y_{attrDefId}). All the
+     *             predicates must share h.
+     * @param value The attribute value that we want to prove it fulfils the predicate
+     * @param attributeDefinition The corresponding attribute definition. It has to be "numerical" (Integer or Date)
+     * @param pred Predicate we want to prove
+     * @return Token with the commitment to the value and no proofs
+     */
+    public RangePredicateToken addRangePredicate(PedersenBase base, Attribute value, AttributeDefinition attributeDefinition, Predicate pred){
+        checkPredicate(value,attributeDefinition,pred);
+        ZpElement x=builder.getZpElementFromAttribute(value,attributeDefinition);
+        ZpElement gamma=builder.getRandomZpElement();
+        PedersenCommitment witness=new PedersenCommitment(base.getG(),base.getH(), x, gamma);     //V=X^gamma Y^x
+        pendingPredicates.add(new PendingPredicate(witness,attributeDefinition,new PredicateBounds(attributeDefinition,pred)));
+        generatedCommitments.put(attributeDefinition.getId().toLowerCase(),witness);
+        return new RangePredicateToken(null,null,witness.getV());
+    }
+
+    /**
+     * Generates a single proof for the range predicates added with addRangePredicate since the last call.
+     * @return Proof for the lower and upper bounds of every predicate, in the order they were added
+     */
+    public AggregatedRangeProof generateAggregatedProof(){
+        if(pendingPredicates.isEmpty())
+            throw new IllegalStateException("No range predicates were added");
+        int n=0;
+        for(PendingPredicate p:pendingPredicates)
+            n=Math.max(n,p.bounds.getN());
+        List<PedersenCommitment> witnesses=new ArrayList<>(2*pendingPredicates.size());
+        for(PendingPredicate p:pendingPredicates){
+            PedersenCommitment witness=p.witness;
+            ZpElement a=p.bounds.lowerBound(p.definition,builder);
+            ZpElement offset=p.bounds.offset(n,p.definition,builder);
+            witnesses.add(new PedersenCommitment(witness.getG(),witness.getH(),witness.getNumber().sub(a),witness.getGamma())); //Prove x>=lowerBound
+            witnesses.add(new PedersenCommitment(witness.getG(),witness.getH(),witness.getNumber().add(offset),witness.getGamma())); //Prove x<=upperBound
+        }
+        pendingPredicates.clear();
+        RangeProofBase rangeProofBase=bases.get(n*Utils.paddedLength(witnesses.size()),salt,builder);
+        return new AggregatedRangeProofProver(builder).generateProof(rangeProofBase,witnesses);
+    }
+
+    private void checkPredicate(Attribute value, AttributeDefinition attributeDefinition, Predicate pred) {
         if(!(attributeDefinition instanceof AttributeDefinitionInteger || attributeDefinition instanceof AttributeDefinitionDate))
             throw new IllegalArgumentException("Must be a supported 'numerical' attribute definition for a range proof");
         if(!attributeDefinition.getId().equalsIgnoreCase(pred.getAttributeName())){
@@ -61,14 +138,13 @@ public class RangeProver {
             throw new IllegalArgumentException("Predicate value not valid for definition");
         switch (pred.getOperation()){
             case LESSTHANOREQUAL:
-                return generateRangePredicateTokenLessThan(base,value,attributeDefinition,pred.getValue());
             case GREATERTHANOREQUAL:
-                return generateRangePredicateTokenGreaterThan(base,value,attributeDefinition,pred.getValue());
+                break;
             case INRANGE:
                 if(pred.getExtraValue()==null || !attributeDefinition.checkValidValue(pred.getExtraValue()))
                     throw new IllegalArgumentException("Predicate extra value not valid for definition");
                 checkRange(pred.getValue(),pred.getExtraValue());
-                return generateRangePredicateTokenInRange(base,value,attributeDefinition,pred.getValue(),pred.getExtraValue());
+                break;
             default:
                 throw new IllegalArgumentException("Predicate operation not for range proof: "+pred.getOperation());
         }
@@ -77,7 +153,7 @@ public class RangeProver {
 
     private RangePredicateToken generateRangePredicateTokenLessThan(PedersenBase base, Attribute value, AttributeDefinition attributeDefinition, Attribute upperBound) {
         int m= Util.nextPowerOfPowerOfTwo(attributeDefinition.toBigIntegerRepresentation(upperBound));
-        RangeProofBase rangeProofBase=Utils.generateRangeProofBase(m,salt,builder);
+        RangeProofBase rangeProofBase=bases.get(m,salt,builder);
         RangeProofProver prover=new RangeProofProver(builder);
         ZpElement x=builder.getZpElementFromAttribute(value,attributeDefinition);
         ZpElement gamma=builder.getRandomZpElement();
@@ -98,7 +174,7 @@ public class RangeProver {
             upperBound=new Attribute(((AttributeDefinitionDate) attributeDefinition).getMaxDate());
         }
         int m= Util.nextPowerOfPowerOfTwo(attributeDefinition.toBigIntegerRepresentation(upperBound));
-        RangeProofBase rangeProofBase=Utils.generateRangeProofBase(m,salt,builder);
+        RangeProofBase rangeProofBase=bases.get(m,salt,builder);
         RangeProofProver prover=new RangeProofProver(builder);
         ZpElement x=builder.getZpElementFromAttribute(value,attributeDefinition);
         ZpElement gamma=builder.getRandomZpElement();
@@ -113,7 +189,7 @@ public class RangeProver {
 
     private RangePredicateToken generateRangePredicateTokenInRange(PedersenBase base, Attribute value, AttributeDefinition attributeDefinition, Attribute lowerBound, Attribute upperBound) {
         int m= Util.nextPowerOfPowerOfTwo(attributeDefinition.toBigIntegerRepresentation(upperBound));
-        RangeProofBase rangeProofBase=Utils.generateRangeProofBase(m,salt,builder);
+        RangeProofBase rangeProofBase=bases.get(m,salt,builder);
         RangeProofProver prover=new RangeProofProver(builder);
         ZpElement x=builder.getZpElementFromAttribute(value,attributeDefinition);
         ZpElement gamma=builder.getRandomZpElement();
@@ -153,4 +229,16 @@ public class RangeProver {
     public Map<String, PedersenCommitment> getGeneratedCommitments() {
         return generatedCommitments;
     }
+
+    private static class PendingPredicate {
+        private final PedersenCommitment witness;
+        private final AttributeDefinition definition;
+        private final PredicateBounds bounds;
+
+        private PendingPredicate(PedersenCommitment witness, AttributeDefinition definition, PredicateBounds bounds) {
+            this.witness = witness;
+            this.definition = definition;
+            this.bounds = bounds;
+        }
+    }
 }
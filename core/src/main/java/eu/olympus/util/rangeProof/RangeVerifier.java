@@ -1,16 +1,21 @@
 package eu.olympus.util.rangeProof;
 
 import eu.olympus.model.*;
-import eu.olympus.util.Util;
 import eu.olympus.util.pairingInterfaces.Group1Element;
 import eu.olympus.util.pairingInterfaces.PairingBuilder;
-import eu.olympus.util.pairingInterfaces.ZpElement;
+import eu.olympus.util.rangeProof.model.AggregatedRangeProof;
 import eu.olympus.util.rangeProof.model.PedersenBase;
 import eu.olympus.util.rangeProof.model.RangeProofBase;
+import eu.olympus.util.rangeProof.tools.AggregatedRangeProofVerifier;
+import eu.olympus.util.rangeProof.tools.MultiExpBatch;
+import eu.olympus.util.rangeProof.tools.RangeProofBaseCache;
 import eu.olympus.util.rangeProof.tools.RangeProofVerifier;
 import eu.olympus.util.rangeProof.tools.Utils;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
 /**
  * Exposes high level abstraction of Range Proofs to be used by the OL verifier. Idea is to create a new RangeVerifier for each presentation process
@@ -20,14 +25,21 @@ public class RangeVerifier {
 
     private PairingBuilder builder;
     private String salt;
-    private ZpElement one;
-    private ZpElement two;
+    private RangeProofBaseCache bases;
 
     public RangeVerifier(String salt, PairingBuilder builder) {
+        this(salt, builder, RangeProofBaseCache.getShared());
+    }
+
+    /**
+     * @param salt Salt for the base generation (e.g. the policy ID)
+     * @param builder Builder for the group elements
+     * @param bases Cache the range proof bases are taken from
+     */
+    public RangeVerifier(String salt, PairingBuilder builder, RangeProofBaseCache bases) {
         this.builder = builder;
         this.salt = salt;
-        one=builder.getZpElementOne();
-        two=one.add(one);
+        this.bases = bases;
     }
 
 
@@ -40,6 +52,87 @@ public class RangeVerifier {
      * @return
      */
     public RangePredicateVerificationResult verifyRangePredicate(PedersenBase base,RangePredicateToken token, AttributeDefinition definition, Predicate predicate){
+        return verifyRangePredicates(Collections.singletonList(base),Collections.singletonList(token),Collections.singletonList(definition),Collections.singletonList(predicate));
+    }
+
+    /**
+     * Verify the validity of the tokens for a list of range predicates (each with its own proofs), checking all the
+     * proofs at once with a single multi-exponentiation. Proofs for shorter ranges use a prefix of the longest base.
+     * @param pedersenBases Bases used for the Pedersen commitments (for use in PSPABCVerifier they will be h=X, g=Y_{attrDefId}).
+     * @param tokens Tokens we want to check
+     * @param definitions The corresponding attribute definitions. They have to be "numerical" (Integer or Date)
+     * @param predicates The predicates we want to test
+     * @return VALID only if every token is valid
+     */
+    public RangePredicateVerificationResult verifyRangePredicates(List<PedersenBase> pedersenBases, List<RangePredicateToken> tokens, List<AttributeDefinition> definitions, List<Predicate> predicates){
+        List<PredicateBounds> bounds=checkedBounds(pedersenBases,tokens,definitions,predicates);
+        int maxN=0;
+        for(int i=0;i<predicates.size();i++){
+            if(tokens.get(i).getProofLowerBound()==null || tokens.get(i).getProofUpperBound()==null)
+                return RangePredicateVerificationResult.INVALID;
+            maxN=Math.max(maxN,bounds.get(i).getN());
+        }
+        RangeProofBase longestBase=bases.get(maxN,salt,builder);
+        RangeProofVerifier verifier=new RangeProofVerifier(builder);
+        MultiExpBatch batch=new MultiExpBatch();
+        for(int i=0;i<predicates.size();i++){
+            PedersenBase base=pedersenBases.get(i);
+            RangePredicateToken token=tokens.get(i);
+            AttributeDefinition definition=definitions.get(i);
+            int n=bounds.get(i).getN();
+            RangeProofBase rangeProofBase=new RangeProofBase(longestBase.getG().subVector(1,n),longestBase.getH().subVector(1,n));
+            Group1Element vLower=bounds.get(i).lowerBoundCommitment(token.getCommitV(),base,definition,builder);
+            Group1Element vUpper=bounds.get(i).upperBoundCommitment(token.getCommitV(),n,base,definition,builder);
+            if(!verifier.addToBatch(batch,rangeProofBase,base,vLower,token.getProofLowerBound()) //Check x>=lowerBound (or x>=0, i.e., no trick with modular arithmetic)
+                    || !verifier.addToBatch(batch,rangeProofBase,base,vUpper,token.getProofUpperBound())) //Check x<=upperBound (or x<=MAX_VALUE)
+                return RangePredicateVerificationResult.INVALID;
+        }
+        return batch.isUnity() ? RangePredicateVerificationResult.VALID : RangePredicateVerificationResult.INVALID;
+    }
+
+    /**
+     * Verify the aggregated range proof for a list of range predicates, as generated by RangeProver.addRangePredicate and
+     * RangeProver.generateAggregatedProof. The lists must follow the order in which the prover added the predicates.
+     * @param pedersenBases Bases used for the Pedersen commitments (for use in PSPABCVerifier they will be h=X, g=Y_{attrDefId}).
+     * @param tokens Tokens with the commitments for each predicate
+     * @param definitions The corresponding attribute definitions. They have to be "numerical" (Integer or Date)
+     * @param predicates The predicates we want to test
+     * @param proof The aggregated proof
+     * @return
+     */
+    public RangePredicateVerificationResult verifyAggregatedRangePredicates(List<PedersenBase> pedersenBases, List<RangePredicateToken> tokens, List<AttributeDefinition> definitions, List<Predicate> predicates, AggregatedRangeProof proof){
+        List<PredicateBounds> bounds=checkedBounds(pedersenBases,tokens,definitions,predicates);
+        int n=0;
+        for(PredicateBounds predicateBounds:bounds)
+            n=Math.max(n,predicateBounds.getN());
+        List<PedersenBase> commitmentBases=new ArrayList<>(2*predicates.size());
+        List<Group1Element> commitments=new ArrayList<>(2*predicates.size());
+        for(int i=0;i<predicates.size();i++){
+            PedersenBase base=pedersenBases.get(i);
+            AttributeDefinition definition=definitions.get(i);
+            Group1Element v=tokens.get(i).getCommitV();
+            commitmentBases.add(base);
+            commitments.add(bounds.get(i).lowerBoundCommitment(v,base,definition,builder));
+            commitmentBases.add(base);
+            commitments.add(bounds.get(i).upperBoundCommitment(v,n,base,definition,builder));
+        }
+        RangeProofBase rangeProofBase=bases.get(n*Utils.paddedLength(commitments.size()),salt,builder);
+        AggregatedRangeProofVerifier verifier=new AggregatedRangeProofVerifier(builder);
+        return verifier.verify(rangeProofBase,commitmentBases,commitments,proof) ? RangePredicateVerificationResult.VALID : RangePredicateVerificationResult.INVALID;
+    }
+
+    private List<PredicateBounds> checkedBounds(List<PedersenBase> pedersenBases, List<RangePredicateToken> tokens, List<AttributeDefinition> definitions, List<Predicate> predicates) {
+        if(predicates.isEmpty() || pedersenBases.size()!=predicates.size() || tokens.size()!=predicates.size() || definitions.size()!=predicates.size())
+            throw new IllegalArgumentException("There must be a base, token and definition for each predicate");
+        List<PredicateBounds> bounds=new ArrayList<>(predicates.size());
+        for(int i=0;i<predicates.size();i++){
+            checkPredicate(definitions.get(i),predicates.get(i));
+            bounds.add(new PredicateBounds(definitions.get(i),predicates.get(i)));
+        }
+        return bounds;
+    }
+
+    private void checkPredicate(AttributeDefinition definition, Predicate predicate) {
         if(!(definition instanceof AttributeDefinitionInteger || definition instanceof AttributeDefinitionDate))
             throw new IllegalArgumentException("Must be a supported 'numerical' attribute definition for a range proof");
         if(!definition.getId().equalsIgnoreCase(predicate.getAttributeName())){
@@ -49,63 +142,18 @@ public class RangeVerifier {
             throw new IllegalArgumentException("Predicate value not valid for definition");
         switch (predicate.getOperation()){
             case LESSTHANOREQUAL:
-                return verifyRangePredicateLessThan(base,token,definition,predicate.getValue());
             case GREATERTHANOREQUAL:
-                return verifyRangePredicateGreaterThan(base,token,definition,predicate.getValue());
+                break;
             case INRANGE:
                 if(predicate.getExtraValue()==null || !definition.checkValidValue(predicate.getExtraValue()))
                     throw new IllegalArgumentException("Predicate extra value not valid for definition");
                 checkRange(predicate.getValue(),predicate.getExtraValue());
-                return verifyRangePredicateInRange(base,token,definition,predicate.getValue(),predicate.getExtraValue()); //We could perform check/choose the lower and upper bound from predicate instead of relying on definition
+                break;
             default:
                 throw new IllegalArgumentException("Predicate operation not for range proof: "+predicate.getOperation());
         }
     }
 
-    private RangePredicateVerificationResult verifyRangePredicateLessThan(PedersenBase base,RangePredicateToken token, AttributeDefinition definition, Attribute upperBound) {
-        int m= Util.nextPowerOfPowerOfTwo(definition.toBigIntegerRepresentation(upperBound));
-        RangeProofBase rangeProofBase= Utils.generateRangeProofBase(m,salt,builder);
-        RangeProofVerifier verifier=new RangeProofVerifier(builder);
-        ZpElement offset= two.pow(m).sub(one).sub(builder.getZpElementFromAttribute(upperBound,definition));
-        Group1Element v=token.getCommitV();    //V
-        Group1Element vPrime=v.mul(base.getG().exp(offset)); //V'=V · Y^(offset)
-        boolean resultLower=verifier.verify(rangeProofBase,base,v,token.getProofLowerBound()); //Check x>=0 (i.e., no trick with modular arithmetic)
-        boolean resultUpper=verifier.verify(rangeProofBase,base,vPrime,token.getProofUpperBound()); //Check x<=upperBound
-        return (resultLower&&resultUpper? RangePredicateVerificationResult.VALID : RangePredicateVerificationResult.INVALID);
-    }
-
-    private RangePredicateVerificationResult verifyRangePredicateGreaterThan(PedersenBase base,RangePredicateToken token, AttributeDefinition definition, Attribute lowerBound) {
-        Attribute upperBound;
-        if(definition instanceof AttributeDefinitionInteger){
-            upperBound=new Attribute(((AttributeDefinitionInteger) definition).getMaximumValue());
-        }else {
-            upperBound=new Attribute(((AttributeDefinitionDate) definition).getMaxDate());
-        }
-        int m= Util.nextPowerOfPowerOfTwo(definition.toBigIntegerRepresentation(upperBound));
-        RangeProofBase rangeProofBase= Utils.generateRangeProofBase(m,salt,builder);
-        RangeProofVerifier verifier=new RangeProofVerifier(builder);
-        ZpElement a= builder.getZpElementFromAttribute(lowerBound,definition);
-        Group1Element v=token.getCommitV();    //V
-        Group1Element vPrime=v.mul(base.getG().invExp(a)); //V'=V · Y^(-a)
-        boolean resultLower=verifier.verify(rangeProofBase,base,vPrime,token.getProofLowerBound()); //Check x>=lowerBound
-        boolean resultUpper=verifier.verify(rangeProofBase,base,v,token.getProofUpperBound()); //Check x<=MAX_VALUE (i.e. no trick with modular arithmetic)
-        return (resultLower&&resultUpper? RangePredicateVerificationResult.VALID : RangePredicateVerificationResult.INVALID);
-    }
-
-    private RangePredicateVerificationResult verifyRangePredicateInRange(PedersenBase base,RangePredicateToken token, AttributeDefinition definition, Attribute lowerBound, Attribute upperBound) {
-        int m= Util.nextPowerOfPowerOfTwo(definition.toBigIntegerRepresentation(upperBound));
-        RangeProofBase rangeProofBase= Utils.generateRangeProofBase(m,salt,builder);
-        RangeProofVerifier verifier=new RangeProofVerifier(builder);
-        ZpElement offset= two.pow(m).sub(one).sub(builder.getZpElementFromAttribute(upperBound,definition));
-        ZpElement a= builder.getZpElementFromAttribute(lowerBound,definition);
-        Group1Element vPrimePrime=token.getCommitV().mul(base.getG().invExp(a));    //V''=V · Y^(-a)
-        Group1Element vPrime=token.getCommitV().mul(base.getG().exp(offset));  //V'=V · Y^(offset)
-        boolean resultLower=verifier.verify(rangeProofBase,base,vPrimePrime,token.getProofLowerBound()); //Check x>=lowerBound
-        boolean resultUpper=verifier.verify(rangeProofBase,base,vPrime,token.getProofUpperBound()); //Check x<=upperBound
-        return (resultLower&&resultUpper? RangePredicateVerificationResult.VALID : RangePredicateVerificationResult.INVALID);
-    }
-
-
     protected void checkRange(Attribute value, Attribute extraValue) {
         switch (value.getType()){
             case INTEGER:
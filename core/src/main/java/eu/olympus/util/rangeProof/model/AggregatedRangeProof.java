@@ -0,0 +1,94 @@
+package eu.olympus.util.rangeProof.model;
+
+import eu.olympus.protos.serializer.PabcSerializer;
+import eu.olympus.util.pairingBLS461.Group1ElementBLS461;
+import eu.olympus.util.pairingBLS461.ZpElementBLS461;
+import eu.olympus.util.pairingInterfaces.Group1Element;
+import eu.olympus.util.pairingInterfaces.ZpElement;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * A range proof for several commitments at once. Same as a RangeProof, except that tHat is split in one
+ * component for each (padded) commitment, as the commitments may use different Pedersen bases.
+ */
+public class AggregatedRangeProof {
+
+    private Group1Element t1;
+    private Group1Element t2;
+    private ZpElement tauX;
+    private ZpElement mu;
+    private ZpVector tHat;
+    private Group1Element a;
+    private Group1Element s;
+    private InnerProductProof innerProductProof;
+
+    public AggregatedRangeProof(Group1Element t1, Group1Element t2, ZpElement tauX, ZpElement mu, ZpVector tHat, Group1Element a, Group1Element s, InnerProductProof innerProductProof) {
+        this.t1 = t1;
+        this.t2 = t2;
+        this.tauX = tauX;
+        this.mu = mu;
+        this.tHat = tHat;
+        this.a = a;
+        this.s = s;
+        this.innerProductProof = innerProductProof;
+    }
+
+    public AggregatedRangeProof(PabcSerializer.AggregatedRangeProof protoProof) {
+        this.t1 = new Group1ElementBLS461(protoProof.getT1());
+        this.t2 = new Group1ElementBLS461(protoProof.getT2());
+        this.tauX = new ZpElementBLS461(protoProof.getTauX());
+        this.mu = new ZpElementBLS461(protoProof.getMu());
+        ZpElement[] tHat=new ZpElement[protoProof.getTHatCount()];
+        for(int i=0;i<tHat.length;i++)
+            tHat[i]=new ZpElementBLS461(protoProof.getTHat(i));
+        this.tHat = new ZpVector(tHat);
+        this.a =new Group1ElementBLS461(protoProof.getA());
+        this.s = new Group1ElementBLS461(protoProof.getS());
+        this.innerProductProof = new InnerProductProof(protoProof.getInnerProductProof());
+    }
+
+    public Group1Element getT1() {
+        return t1;
+    }
+
+    public Group1Element getT2() {
+        return t2;
+    }
+
+    public ZpElement getTauX() {
+        return tauX;
+    }
+
+    public ZpElement getMu() {
+        return mu;
+    }
+
+    /**
+     * @return (tHat_1,...,tHat_m), with one component for each (padded) commitment
+     */
+    public ZpVector gettHat() {
+        return tHat;
+    }
+
+    public Group1Element getA() {
+        return a;
+    }
+
+    public Group1Element getS() {
+        return s;
+    }
+
+    public InnerProductProof getInnerProductProof() {
+        return innerProductProof;
+    }
+
+    public PabcSerializer.AggregatedRangeProof toProto() {
+        List<PabcSerializer.ZpElement> protoTHat=new LinkedList<>();
+        for(int i=1;i<=tHat.size();i++)
+            protoTHat.add(tHat.getComponent(i).toProto());
+        return PabcSerializer.AggregatedRangeProof.newBuilder().setT1(t1.toProto()).setT2(t2.toProto()).setTauX(tauX.toProto()).setMu(mu.toProto())
+                .addAllTHat(protoTHat).setA(a.toProto()).setS(s.toProto()).setInnerProductProof(innerProductProof.toProto()).build();
+    }
+}
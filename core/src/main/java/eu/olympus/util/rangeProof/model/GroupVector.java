@@ -7,7 +7,6 @@ import java.util.Arrays;
 
 public class GroupVector {
 
-    private final int MULTIEXP_BREAKPOINT=25;
     protected Group1Element[] v;
 
     public GroupVector(Group1Element ... v) {
@@ -72,15 +71,7 @@ public class GroupVector {
     public Group1Element expMult(ZpVector exponents) {
         if(size()!=exponents.size())
             throw new IllegalArgumentException("Not matching sizes");
-        if(size()<MULTIEXP_BREAKPOINT){
-            Group1Element result=v[0].exp(exponents.v[0]);
-            for(int i=1;i<v.length;i++)
-                result=result.mul(v[i].exp(exponents.v[i]));
-            return result;
-        }else{
-            return this.v[0].multiExp(this.v,exponents.v);
-        }
-
+        return this.v[0].multiExp(this.v,exponents.v); // Falls back to single exponentiations for few elements
     }
 
     /**
@@ -134,6 +125,19 @@ public class GroupVector {
         return result;
     }
 
+    /**
+     * Vector with the same components, each with a fixed-base table for its exponentiations (see
+     * Group1Element.precompute). Worth it only for long-lived vectors, as every component holds its own table.
+     * @param windowBits Size (in bits) of the windows of the tables.
+     * @return Vector equal to this one that uses precomputed tables for exponentiation.
+     */
+    public GroupVector precompute(int windowBits) {
+        Group1Element[] result=new Group1Element[v.length];
+        for(int i=0;i<v.length;i++)
+            result[i]=v[i].precompute(windowBits);
+        return new GroupVector(result);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
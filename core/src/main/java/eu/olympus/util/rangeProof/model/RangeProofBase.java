@@ -19,4 +19,13 @@ public class RangeProofBase {
         return h;
     }
 
+    /**
+     * Base with fixed-base tables for the g and h generators, built on the first exponentiation of each one.
+     * @param windowBits Size (in bits) of the windows of the tables.
+     * @return Base equal to this one that uses precomputed tables for exponentiation.
+     */
+    public RangeProofBase precompute(int windowBits) {
+        return new RangeProofBase(g.precompute(windowBits),h.precompute(windowBits));
+    }
+
 }
@@ -0,0 +1,116 @@
+package eu.olympus.util.rangeProof.tools;
+
+import eu.olympus.util.pairingInterfaces.Group1Element;
+import eu.olympus.util.pairingInterfaces.PairingBuilder;
+import eu.olympus.util.pairingInterfaces.ZpElement;
+import eu.olympus.util.rangeProof.model.*;
+
+import java.util.List;
+
+/**
+ * Aggregated range proof (Bulletproofs, section 4.3): proves that each of m committed numbers is in [0,2^n-1] with a
+ * single inner product argument of length n·m. The commitments must share h, but may use different g (in dp-ABC
+ * g is the Y_j of the attribute). For that, t(x) is split in one polynomial t_j(x) for each commitment, committed in
+ * T1=prod g_j^(t1_j) h^(tau1) (and T2), and the proof includes every tHat_j instead of just their sum.
+ * The number of commitments is padded to a power of 2 with commitments to 0 with no randomness, which use the g
+ * of the first commitment.
+ */
+public class AggregatedRangeProofProver {
+
+    PairingBuilder builder;
+
+    public AggregatedRangeProofProver(PairingBuilder builder) {
+        this.builder = builder;
+    }
+
+    // n used for proving range [0,2^n-1] is the base length divided by the padded number of commitments.
+    public AggregatedRangeProof generateProof(RangeProofBase base, List<PedersenCommitment> witnesses){
+        int m=Utils.paddedLength(witnesses.size());
+        int nm=base.getG().size();
+        int n=nm/m;
+        if(n*m!=nm || !((n & (n - 1)) == 0)){
+            throw new IllegalArgumentException("Base length has to be a power of 2 multiple of the padded number of commitments");
+        }
+        Group1Element h=witnesses.get(0).getH();
+        for(PedersenCommitment witness:witnesses)
+            if(!witness.getH().equals(h))
+                throw new IllegalArgumentException("Commitments must share h");
+        Group1Element[] gs=new Group1Element[m];
+        Group1Element[] vs=new Group1Element[witnesses.size()];
+        ZpVector[] bits=new ZpVector[m];
+        for(int j=0;j<m;j++){
+            if(j<witnesses.size()){
+                gs[j]=witnesses.get(j).getG();
+                vs[j]=witnesses.get(j).getV();
+                bits[j]=ZpVector.bitRepresentation(witnesses.get(j).getNumber(),n);
+            } else {
+                gs[j]=gs[0];
+                bits[j]=new ZpVector(builder.getZpElementZero(),n);
+            }
+        }
+        ZpVector ones=new ZpVector(builder.getZpElementOne(),nm);
+        ZpVector aL=ZpVector.concat(bits);
+        ZpVector aR=aL.sub(ones);
+        ZpElement alpha=builder.getRandomZpElement();
+        GroupVector ghBase=GroupVector.concat(base.getG(),base.getH());
+        Group1Element a=ghBase.expMult(ZpVector.concat(aL,aR)).mul(h.exp(alpha));
+        ZpVector sL=ZpVector.randomVector(nm,builder);
+        ZpVector sR=ZpVector.randomVector(nm,builder);
+        ZpElement rho=builder.getRandomZpElement();
+        Group1Element s=ghBase.expMult(ZpVector.concat(sL,sR)).mul(h.exp(rho));
+        ZpElement y=Utils.newChallenge(new GroupVector(vs),a,s,builder);
+        ZpElement z=Utils.newChallenge(y,a,s,builder);
+        ZpVector zs=ZpVector.expandExpN(z,m+2,builder).subvector(3,m+2); // (z^2,...,z^(m+1))
+        ZpVector l0=aL.sub(ones.mulScalar(z));
+        ZpVector l1=sL;
+        ZpVectorPolynomial l=new ZpVectorPolynomial(l0,l1);
+        ZpVector ys=ZpVector.expandExpN(y,nm,builder);
+        ZpElement two=builder.getZpElementOne().add(builder.getZpElementOne());
+        ZpVector twos_n=ZpVector.expandExpN(two,n,builder);
+        ZpVector r0=ys.hadamardProduct(aR.add(ones.mulScalar(z))).add(weightedTwos(twos_n,zs));
+        ZpVector r1=ys.hadamardProduct(sR);
+        ZpVectorPolynomial r=new ZpVectorPolynomial(r0,r1);
+        ZpElement[] t1=new ZpElement[m];
+        ZpElement[] t2=new ZpElement[m];
+        for(int j=0;j<m;j++){
+            int start=j*n+1;
+            int end=(j+1)*n;
+            t1[j]=l0.subvector(start,end).innerProduct(r1.subvector(start,end)).add(l1.subvector(start,end).innerProduct(r0.subvector(start,end)));
+            t2[j]=l1.subvector(start,end).innerProduct(r1.subvector(start,end));
+        }
+        ZpElement tau1=builder.getRandomZpElement();
+        ZpElement tau2=builder.getRandomZpElement();
+        GroupVector gVector=new GroupVector(gs);
+        Group1Element t1Commit=gVector.expMult(new ZpVector(t1)).mul(h.exp(tau1));
+        Group1Element t2Commit=gVector.expMult(new ZpVector(t2)).mul(h.exp(tau2));
+        ZpElement x=Utils.newChallenge(z,t1Commit,t2Commit,builder);
+        ZpVector l_x=l.eval(x);
+        ZpVector r_x=r.eval(x);
+        ZpElement[] tHat=new ZpElement[m];
+        for(int j=0;j<m;j++)
+            tHat[j]=l_x.subvector(j*n+1,(j+1)*n).innerProduct(r_x.subvector(j*n+1,(j+1)*n));
+        ZpElement tauX=tau2.mul(x.pow(2)).add(tau1.mul(x));
+        for(int j=0;j<witnesses.size();j++)
+            tauX=tauX.add(zs.getComponent(j+1).mul(witnesses.get(j).getGamma()));
+        ZpElement mu=alpha.add(rho.mul(x));
+        InnerProductWitness innerProductWitness=new InnerProductWitness(l_x,r_x);
+        InnerProductProver iPprover=new InnerProductProver(builder);
+        GroupVector hPrime=base.getH().exp(ZpVector.expandExpN(y.inverse(),nm,builder));
+        ZpElement uChallenge=Utils.newChallenge(x,ZpVector.concat(new ZpVector(tauX,mu),new ZpVector(tHat)),builder);
+        Group1Element u=gs[0].exp(uChallenge);
+        InnerProductBase innerProductBase=new InnerProductBase(base.getG(),hPrime,u);
+        InnerProductProof innerProductProof=iPprover.generateProof(innerProductBase,innerProductWitness,uChallenge);
+        return new AggregatedRangeProof(t1Commit,t2Commit,tauX,mu,new ZpVector(tHat),a,s,innerProductProof);
+    }
+
+    /**
+     * @return (z^2·2^n || z^3·2^n || ... || z^(m+1)·2^n)
+     */
+    static ZpVector weightedTwos(ZpVector twos_n, ZpVector zs) {
+        ZpVector[] blocks=new ZpVector[zs.size()];
+        for(int j=0;j<zs.size();j++)
+            blocks[j]=twos_n.mulScalar(zs.getComponent(j+1));
+        return ZpVector.concat(blocks);
+    }
+
+}
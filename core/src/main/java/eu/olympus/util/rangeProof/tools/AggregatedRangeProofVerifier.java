@@ -0,0 +1,104 @@
+package eu.olympus.util.rangeProof.tools;
+
+import eu.olympus.util.pairingInterfaces.Group1Element;
+import eu.olympus.util.pairingInterfaces.PairingBuilder;
+import eu.olympus.util.pairingInterfaces.ZpElement;
+import eu.olympus.util.rangeProof.model.*;
+
+import java.util.List;
+
+/**
+ * Verifier for AggregatedRangeProofProver proofs.
+ */
+public class AggregatedRangeProofVerifier {
+
+    PairingBuilder builder;
+
+    public AggregatedRangeProofVerifier(PairingBuilder builder) {
+        this.builder = builder;
+    }
+
+    /**
+     * @param base Base of length n·m, m being the number of commitments padded to a power of 2
+     * @param commitmentBases Pedersen base of each commitment. They must share h
+     * @param v The commitments
+     * @param proof The proof
+     * @return Whether every committed number is in [0,2^n-1]
+     */
+    public boolean verify(RangeProofBase base, List<PedersenBase> commitmentBases, List<Group1Element> v, AggregatedRangeProof proof){
+        MultiExpBatch batch=new MultiExpBatch();
+        return addToBatch(batch,base,commitmentBases,v,proof) && batch.isUnity();
+    }
+
+    /**
+     * Add the verification equations of the proof to the batch, each one with a random weight (see
+     * RangeProofVerifier.addToBatch).
+     * @return False if the proof is malformed (nothing is added to the batch then)
+     */
+    public boolean addToBatch(MultiExpBatch batch, RangeProofBase base, List<PedersenBase> commitmentBases, List<Group1Element> v, AggregatedRangeProof proof){
+        if(v.isEmpty() || commitmentBases.size()!=v.size())
+            return false;
+        int m=Utils.paddedLength(v.size());
+        int nm=base.getG().size();
+        int n=nm/m;
+        if(n*m!=nm || !((n & (n - 1)) == 0) || proof.gettHat().size()!=m){
+            return false;
+        }
+        Group1Element h=commitmentBases.get(0).getH();
+        Group1Element[] gs=new Group1Element[m];
+        for(int j=0;j<m;j++){
+            if(j<v.size()){
+                if(!commitmentBases.get(j).getH().equals(h))
+                    return false;
+                gs[j]=commitmentBases.get(j).getG();
+            } else {
+                gs[j]=gs[0];
+            }
+        }
+        Group1Element a=proof.getA();
+        Group1Element s=proof.getS();
+        Group1Element t1commit=proof.getT1();
+        Group1Element t2commit=proof.getT2();
+        ZpElement tauX=proof.getTauX();
+        ZpElement mu=proof.getMu();
+        ZpVector tHats=proof.gettHat();
+        ZpElement y=Utils.newChallenge(new GroupVector(v.toArray(new Group1Element[0])),a,s,builder);
+        ZpElement z=Utils.newChallenge(y,a,s,builder);
+        ZpElement zSquared=z.pow(2);
+        ZpVector zs=ZpVector.expandExpN(z,m+2,builder).subvector(3,m+2); // (z^2,...,z^(m+1))
+        ZpElement x=Utils.newChallenge(z,t1commit,t2commit,builder);
+        ZpElement xSquared=x.pow(2);
+        ZpElement uChallenge=Utils.newChallenge(x,ZpVector.concat(new ZpVector(tauX,mu),tHats),builder);
+        ZpVector yInvs=ZpVector.expandExpN(y.inverse(),nm,builder);
+        ZpElement weight=batch.randomWeight(builder);
+        // g^(a·s) h^(y^-nm o b·s^-1) prod L_j^(-x_j^2) R_j^(-x_j^-2) u^(a·b), with u=g_1^(uChallenge)
+        ZpElement uExponent=new InnerProductVerifier(builder).addToBatch(batch,base.getG(),base.getH(),yInvs,proof.getInnerProductProof(),uChallenge,weight);
+        if(uExponent==null)
+            return false;
+        // ... = P = A S^x g^(-z) h^(z+(z^2·2^n||...||z^(m+1)·2^n) o y^-nm) h_V^(-mu) u^(sum tHat_j)
+        ZpElement negWeight=weight.neg();
+        ZpVector ones=new ZpVector(builder.getZpElementOne(),nm);
+        ZpElement two=builder.getZpElementOne().add(builder.getZpElementOne());
+        ZpVector twos_n=ZpVector.expandExpN(two,n,builder);
+        batch.add(a,negWeight);
+        batch.add(s,x.mul(negWeight));
+        batch.add(base.getG(),ones.mulScalar(z.mul(weight)));
+        batch.add(base.getH(),AggregatedRangeProofProver.weightedTwos(twos_n,zs).hadamardProduct(yInvs).add(ones.mulScalar(z)).mulScalar(negWeight));
+        batch.add(h,mu.mul(weight));
+        batch.add(gs[0],uChallenge.mul(uExponent.sub(tHats.sumComponents().mul(weight))));
+        // prod g_j^(tHat_j-delta_j(y,z)) h^(tauX) = prod V_j^(z^(j+1)) T1^x T2^(x^2)
+        ZpElement tWeight=batch.randomWeight(builder);
+        ZpVector ys=ZpVector.expandExpN(y,nm,builder);
+        ZpElement sumTwos=twos_n.sumComponents();
+        for(int j=0;j<m;j++){
+            ZpElement delta=z.sub(zSquared).mul(ys.subvector(j*n+1,(j+1)*n).sumComponents()).sub(z.mul(zs.getComponent(j+1)).mul(sumTwos));
+            batch.add(gs[j],tHats.getComponent(j+1).sub(delta).mul(tWeight));
+        }
+        batch.add(h,tauX.mul(tWeight));
+        for(int j=0;j<v.size();j++)
+            batch.add(v.get(j),zs.getComponent(j+1).mul(tWeight).neg());
+        batch.add(t1commit,x.mul(tWeight).neg());
+        batch.add(t2commit,xSquared.mul(tWeight).neg());
+        return true;
+    }
+}
@@ -18,68 +18,84 @@ public class InnerProductVerifier {
     }
 
     public boolean verify(InnerProductBase base, Group1Element p, InnerProductProof proof, ZpElement challengeSalt){
-        ZpElement previousChallenge=challengeSalt!=null ? challengeSalt : builder.getZpElementZero();
-        int n=base.getG().size();
-        if(!((n & (n - 1)) == 0)){
+        MultiExpBatch batch=new MultiExpBatch();
+        ZpElement one=builder.getZpElementOne();
+        ZpElement uExponent=addToBatch(batch,base.getG(),base.getH(),null,proof,challengeSalt,one);
+        if(uExponent==null)
             return false;
-        }
+        batch.add(base.getU(),uExponent);
+        batch.add(p,one.neg());
+        return batch.isUnity();
+    }
+
+    /**
+     * Add the reconstructed P of the proof, g^(a·s) h'^(b·s^-1) prod L_j^(-x_j^2) R_j^(-x_j^-2), raised to weight, to the
+     * batch. The u^(a·b) term is left to the caller, as range proofs do not use u as a base on its own.
+     * @param hScale Exponents applied to h to obtain the h' of the proof (h'_i=h_i^(hScale_i)), or null if h'=h
+     * @param weight Weight of the equation in the batch
+     * @return Exponent of u (weight·a·b), or null if the proof does not match the length of the base (nothing is added
+     * to the batch then)
+     */
+    ZpElement addToBatch(MultiExpBatch batch, GroupVector g, GroupVector h, ZpVector hScale, InnerProductProof proof, ZpElement challengeSalt, ZpElement weight){
+        ZpElement previousChallenge=challengeSalt!=null ? challengeSalt : builder.getZpElementZero();
+        int n=g.size();
         int lsize=proof.getL().size();
+        if(n==0 || !((n & (n - 1)) == 0) || Integer.numberOfTrailingZeros(n)!=lsize || proof.getR().size()!=lsize || h.size()!=n){
+            return null;
+        }
         ZpElement[] xs=new ZpElement[lsize];
-        ZpElement[] xsInv=new ZpElement[lsize];
-        ZpElement[] xsSquared=new ZpElement[lsize];
-        ZpElement[] xsInvSquared=new ZpElement[lsize];
-        ZpElement[] xsSquaredNeg=new ZpElement[lsize];
-        ZpElement[] xsInvSquaredNeg=new ZpElement[lsize];
         Group1Element[] l=new Group1Element[lsize];
         Group1Element[] r=new Group1Element[lsize];
         for(int i=0;i<lsize;i++){
             l[i]=proof.getL().get(i);
             r[i]=proof.getR().get(i);
-            ZpElement x=Utils.newChallenge(previousChallenge,l[i],r[i],builder);
-            ZpElement xInv=x.inverse();
-            ZpElement xSquared=x.pow(2);
-            ZpElement xInvSquared=xInv.pow(2);
-            // Lists of xsSquared/Neg and xsInvSquared/Neg need to be in order for L and R exponentiations
-            // Lists of x and xInv need to be reversed for computing ss
-            //Paper (at least version I was consulting) fails describe this
-            xsSquared[i]=xSquared;
-            xsInvSquared[i]=xInvSquared;
-            xsSquaredNeg[i]=xSquared.neg();
-            xsInvSquaredNeg[i]=xInvSquared.neg();
-            xs[lsize-i-1]=x;
-            xsInv[lsize-i-1]=xInv;
-            previousChallenge=x;
+            xs[i]=Utils.newChallenge(previousChallenge,l[i],r[i],builder);
+            previousChallenge=xs[i];
         }
-        Pair<ZpVector,ZpVector> ss=computeS(xs,xsInv,n);
-        ZpVector aS=ss.getFirst().mulScalar(proof.getA());
-        ZpVector bSinv=ss.getSecond().mulScalar(proof.getB());
-        ZpElement c=proof.getA().mul(proof.getB());
-        ZpVector negX2=new ZpVector(xsSquaredNeg);
-        ZpVector negXInv2=new ZpVector(xsInvSquaredNeg);
-        ZpVector exponents=ZpVector.concat(aS,bSinv,negX2,negXInv2);
-        GroupVector ghlr=GroupVector.concat(base.getG(),base.getH(),new GroupVector(l),new GroupVector(r));
-        Group1Element reconstructedP=ghlr.expMult(exponents).mul(base.getU().exp(c));
-        return p.equals(reconstructedP);
+        ZpElement[] xsInv=Utils.batchInverse(xs);
+        ZpElement[] xsSquared=new ZpElement[lsize];
+        ZpElement[] xsInvSquared=new ZpElement[lsize];
+        ZpElement[] lExponents=new ZpElement[lsize];
+        ZpElement[] rExponents=new ZpElement[lsize];
+        ZpElement negWeight=weight.neg();
+        for(int i=0;i<lsize;i++){
+            xsSquared[i]=xs[i].mul(xs[i]);
+            xsInvSquared[i]=xsInv[i].mul(xsInv[i]);
+            lExponents[i]=xsSquared[i].mul(negWeight);
+            rExponents[i]=xsInvSquared[i].mul(negWeight);
+        }
+        Pair<ZpVector,ZpVector> ss=computeS(xs,xsInv,xsSquared,xsInvSquared,n);
+        ZpVector gExponents=ss.getFirst().mulScalar(proof.getA().mul(weight));
+        ZpVector hExponents=ss.getSecond().mulScalar(proof.getB().mul(weight));
+        if(hScale!=null)
+            hExponents=hExponents.hadamardProduct(hScale);
+        batch.add(g,gExponents);
+        batch.add(h,hExponents);
+        batch.add(new GroupVector(l),new ZpVector(lExponents));
+        batch.add(new GroupVector(r),new ZpVector(rExponents));
+        return proof.getA().mul(proof.getB()).mul(weight);
     }
 
-    private Pair<ZpVector, ZpVector> computeS(ZpElement[] xs, ZpElement[] xsInv, int n) {
+    // s_i is the product of x_j or x_j^-1 depending on bit (lsize-1-j) of i (the paper, at least the version I was
+    // consulting, fails to describe the order). Flipping the highest bit of i from s_(i-2^k) multiplies by x_j^2, so
+    // each s_i and s_i^-1 costs one multiplication and no inversions
+    private Pair<ZpVector, ZpVector> computeS(ZpElement[] xs, ZpElement[] xsInv, ZpElement[] xsSquared, ZpElement[] xsInvSquared, int n) {
+        int lsize=xs.length;
         ZpElement[] s=new ZpElement[n];
         ZpElement[] sInv=new ZpElement[n];
-        for(int i=0;i<n;i++){
-            s[i]=builder.getZpElementOne();
-            for(int j=0;j<xs.length;j++){
-                if(bit(i,j))
-                    s[i]=s[i].mul(xs[j]);
-                else
-                    s[i]=s[i].mul(xsInv[j]);
-            }
-            sInv[i]=s[i].inverse();
+        s[0]=builder.getZpElementOne();
+        sInv[0]=builder.getZpElementOne();
+        for(int j=0;j<lsize;j++){
+            s[0]=s[0].mul(xsInv[j]);
+            sInv[0]=sInv[0].mul(xs[j]);
+        }
+        for(int i=1;i<n;i++){
+            int k=31-Integer.numberOfLeadingZeros(i);
+            int previous=i-(1<<k);
+            s[i]=s[previous].mul(xsSquared[lsize-1-k]);
+            sInv[i]=sInv[previous].mul(xsInvSquared[lsize-1-k]);
         }
         return new Pair<>(new ZpVector(s),new ZpVector(sInv));
     }
 
-    private boolean bit(int i, int j) {
-        return ((i>>j) & 1) != 0;
-    }
-
 }
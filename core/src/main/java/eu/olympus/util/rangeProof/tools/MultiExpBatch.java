@@ -0,0 +1,85 @@
+package eu.olympus.util.rangeProof.tools;
+
+import eu.olympus.util.pairingInterfaces.Group1Element;
+import eu.olympus.util.pairingInterfaces.PairingBuilder;
+import eu.olympus.util.pairingInterfaces.ZpElement;
+import eu.olympus.util.rangeProof.model.GroupVector;
+import eu.olympus.util.rangeProof.model.ZpVector;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accumulates the terms of one or more verification equations of the form prod g_i^(e_i) = 1, so they are checked
+ * with a single multi-exponentiation. Exponents for the same base object are added up, so equations over the same
+ * RangeProofBase (or prefixes of it, see GroupVector.subVector) do not grow the multi-exponentiation. Equations are
+ * expected to be added with independent random weights (see randomWeight), so the combined check only passes (but with
+ * negligible probability) if every one of them holds.
+ */
+public class MultiExpBatch {
+
+    private final Map<Group1Element,Integer> indexes=new IdentityHashMap<>();
+    private final List<Group1Element> bases=new ArrayList<>();
+    private final List<ZpElement> exponents=new ArrayList<>();
+    private final SecureRandom random=new SecureRandom();
+
+    /**
+     * Weight for an equation added to this batch. Weights must be unpredictable for the prover, so they are drawn from
+     * a SecureRandom owned by the batch instead of the (seedable and shared) random generator of the builder.
+     * @param builder Builder for the Zp elements
+     * @return Random element from Zp
+     */
+    public ZpElement randomWeight(PairingBuilder builder) {
+        return builder.getRandomZpElement(random);
+    }
+
+    /**
+     * Add base^exponent to the product
+     * @param base Base
+     * @param exponent Exponent
+     */
+    public void add(Group1Element base, ZpElement exponent) {
+        Integer index=indexes.get(base);
+        if(index==null){
+            indexes.put(base,bases.size());
+            bases.add(base);
+            exponents.add(exponent);
+        }else{
+            exponents.set(index,exponents.get(index).add(exponent));
+        }
+    }
+
+    /**
+     * Add g_1^(exp_1)···g_n^(exp_n) to the product
+     * @param bases Bases
+     * @param exponents Vector of exponents
+     */
+    public void add(GroupVector bases, ZpVector exponents) {
+        if(bases.size()!=exponents.size())
+            throw new IllegalArgumentException("Not matching sizes");
+        for(int i=1;i<=bases.size();i++)
+            add(bases.getComponent(i),exponents.getComponent(i));
+    }
+
+    /**
+     * @return Number of distinct bases in the multi-exponentiation
+     */
+    public int size() {
+        return bases.size();
+    }
+
+    /**
+     * Compute the multi-exponentiation
+     * @return Whether the product of all the added terms is 1
+     */
+    public boolean isUnity() {
+        if(bases.isEmpty())
+            return true;
+        Group1Element[] b=bases.toArray(new Group1Element[0]);
+        ZpElement[] e=exponents.toArray(new ZpElement[0]);
+        return b[0].multiExp(b,e).isUnity();
+    }
+}
@@ -0,0 +1,99 @@
+package eu.olympus.util.rangeProof.tools;
+
+import eu.olympus.util.BoundedCache;
+import eu.olympus.util.pairingInterfaces.PairingBuilder;
+import eu.olympus.util.rangeProof.model.RangeProofBase;
+
+import java.util.Objects;
+
+/**
+ * Bounded cache of the RangeProofBases used for range proofs. A base only depends on its length and salt (the policy
+ * ID), but generating it takes 2n hashes to the group that cannot be parallelized, as each one is seeded by the
+ * previous element. Provers and verifiers handling the same policies repeatedly can then skip the generation.
+ * Optionally, the cached bases get fixed-base tables for their generators (see RangeProofBase.precompute). Each table
+ * holds ceil(|p|/windowBits)*2^windowBits elements and a base has 2n of them, so this is only sensible for verifiers
+ * with a small set of policies.
+ */
+public class RangeProofBaseCache {
+
+    public static final int DEFAULT_MAX_ENTRIES=64;
+
+    private static final RangeProofBaseCache shared=new RangeProofBaseCache(DEFAULT_MAX_ENTRIES,0);
+
+    private final BoundedCache<Key,RangeProofBase> cache;
+    private final int windowBits;
+
+    /**
+     * @param maxEntries Maximum number of bases kept.
+     * @param windowBits Size (in bits) of the windows of the fixed-base tables for the generators, or 0 for no tables.
+     */
+    public RangeProofBaseCache(int maxEntries, int windowBits) {
+        if(windowBits<0)
+            throw new IllegalArgumentException("Window size must be non negative");
+        this.cache=new BoundedCache<>(maxEntries,0);
+        this.windowBits=windowBits;
+    }
+
+    /**
+     * @return Cache shared by the RangeProvers and RangeVerifiers that are not given one, without fixed-base tables.
+     */
+    public static RangeProofBaseCache getShared() {
+        return shared;
+    }
+
+    /**
+     * Get the base for a length and salt, generating it (as Utils.generateRangeProofBase) if it is not cached.
+     * @param n Length of the base
+     * @param salt Salt for the base generation
+     * @param builder Builder for the group elements
+     * @return The RangeProofBase
+     */
+    public RangeProofBase get(int n, String salt, PairingBuilder builder) {
+        return cache.get(new Key(n,salt,builder.getClass()),k->generate(n,salt,builder));
+    }
+
+    private RangeProofBase generate(int n, String salt, PairingBuilder builder) {
+        RangeProofBase base=Utils.generateRangeProofBase(n,salt,builder);
+        return windowBits==0 ? base : base.precompute(windowBits);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    /**
+     * The builder class is part of the key, as bases for different pairings are not interchangeable.
+     */
+    private static final class Key {
+        private final int n;
+        private final String salt;
+        private final Class<?> builderClass;
+
+        private Key(int n, String salt, Class<?> builderClass) {
+            this.n=n;
+            this.salt=salt;
+            this.builderClass=builderClass;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key=(Key) o;
+            return n==key.n && Objects.equals(salt,key.salt) && builderClass==key.builderClass;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(n,salt,builderClass);
+        }
+    }
+}
@@ -14,6 +14,18 @@ public class RangeProofVerifier {
     }
 
     public boolean verify(RangeProofBase base, PedersenBase commitmentBase, Group1Element v, RangeProof proof){
+        MultiExpBatch batch=new MultiExpBatch();
+        return addToBatch(batch,base,commitmentBase,v,proof) && batch.isUnity();
+    }
+
+    /**
+     * Add the verification equations of the proof to the batch, each one with a random weight, so several proofs are
+     * checked with a single multi-exponentiation (see MultiExpBatch). Instead of computing h'=h^(y^-n), P and the
+     * folded bases of the inner product argument, every exponent is expressed over g, h, L, R and the proof elements.
+     * @param base Base of length n, for proving range [0,2^n-1]
+     * @return False if the proof is malformed (nothing is added to the batch then)
+     */
+    public boolean addToBatch(MultiExpBatch batch, RangeProofBase base, PedersenBase commitmentBase, Group1Element v, RangeProof proof){
         int n=base.getG().size();
         if(!((n & (n - 1)) == 0)){
             return false;
@@ -24,27 +36,38 @@ public class RangeProofVerifier {
         Group1Element t2commit=proof.getT2();
         ZpElement tauX=proof.getTauX();
         ZpElement mu=proof.getMu();
+        ZpElement tHat=proof.gettHat();
         ZpElement y=Utils.newChallenge(v,a,s,builder);
         ZpElement z=Utils.newChallenge(y,a,s,builder);
         ZpElement zSquared=z.pow(2);
         ZpElement x=Utils.newChallenge(z,t1commit,t2commit,builder);
         ZpElement xSquared=x.pow(2);
         ZpElement uChallenge=Utils.newChallenge(x,tauX,mu,builder);
-        ZpVector ys=ZpVector.expandExpN(y,n,builder);
+        ZpVector yInvs=ZpVector.expandExpN(y.inverse(),n,builder);
+        ZpElement weight=batch.randomWeight(builder);
+        // g^(a·s) h^(y^-n o b·s^-1) prod L_j^(-x_j^2) R_j^(-x_j^-2) u^(a·b), with u=g_V^(uChallenge)
+        ZpElement uExponent=new InnerProductVerifier(builder).addToBatch(batch,base.getG(),base.getH(),yInvs,proof.getInnerProductProof(),uChallenge,weight);
+        if(uExponent==null)
+            return false;
+        // ... = P = A S^x g^(-z) h^(z+z^2·2^n o y^-n) h_V^(-mu) u^(tHat)
+        ZpElement negWeight=weight.neg();
+        ZpVector ones=new ZpVector(builder.getZpElementOne(),n);
         ZpElement two=builder.getZpElementOne().add(builder.getZpElementOne());
         ZpVector twos_n=ZpVector.expandExpN(two,n,builder);
-        ZpElement delta_yz=z.sub(zSquared).mul(ys.sumComponents()).sub(z.pow(3).mul(twos_n.sumComponents()));
-        ZpElement expForComparison=proof.gettHat().sub(delta_yz); //One less exponentiation
-        Group1Element left=commitmentBase.getG().exp(expForComparison).mul(commitmentBase.getH().exp(tauX));
-        Group1Element right=v.exp(zSquared).mul(t1commit.exp(x)).mul(t2commit.exp(xSquared));
-        if(!left.equals(right))
-            return false;
-        GroupVector hPrime=base.getH().exp(ZpVector.expandExpN(y.inverse(),n,builder));
-        Group1Element u=commitmentBase.getG().exp(uChallenge);
-        InnerProductBase innerProductBase=new InnerProductBase(base.getG(),hPrime,u);
-        InnerProductVerifier iPverifier=new InnerProductVerifier(builder);
-        ZpVector hPrimeExponent=ys.mulScalar(z).add(twos_n.mulScalar(zSquared));
-        Group1Element p=a.mul(s.exp(x)).mul(base.getG().mulComponents().invExp(z)).mul(hPrime.expMult(hPrimeExponent)).mul(commitmentBase.getH().invExp(mu)).mul(u.exp(proof.gettHat()));
-        return iPverifier.verify(innerProductBase,p,proof.getInnerProductProof(),uChallenge);
+        batch.add(a,negWeight);
+        batch.add(s,x.mul(negWeight));
+        batch.add(base.getG(),ones.mulScalar(z.mul(weight)));
+        batch.add(base.getH(),twos_n.hadamardProduct(yInvs).mulScalar(zSquared).add(ones.mulScalar(z)).mulScalar(negWeight));
+        batch.add(commitmentBase.getH(),mu.mul(weight));
+        batch.add(commitmentBase.getG(),uChallenge.mul(uExponent.sub(tHat.mul(weight))));
+        // g_V^(tHat-delta(y,z)) h_V^(tauX) = V^(z^2) T1^x T2^(x^2)
+        ZpElement tWeight=batch.randomWeight(builder);
+        ZpElement delta_yz=z.sub(zSquared).mul(ZpVector.expandExpN(y,n,builder).sumComponents()).sub(z.pow(3).mul(twos_n.sumComponents()));
+        batch.add(commitmentBase.getG(),tHat.sub(delta_yz).mul(tWeight));
+        batch.add(commitmentBase.getH(),tauX.mul(tWeight));
+        batch.add(v,zSquared.mul(tWeight).neg());
+        batch.add(t1commit,x.mul(tWeight).neg());
+        batch.add(t2commit,xSquared.mul(tWeight).neg());
+        return true;
     }
 }
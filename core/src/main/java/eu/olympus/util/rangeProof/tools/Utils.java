@@ -5,6 +5,7 @@ import eu.olympus.util.pairingInterfaces.PairingBuilder;
 import eu.olympus.util.pairingInterfaces.ZpElement;
 import eu.olympus.util.rangeProof.model.GroupVector;
 import eu.olympus.util.rangeProof.model.RangeProofBase;
+import eu.olympus.util.rangeProof.model.ZpVector;
 
 import static eu.olympus.util.Util.append;
 
@@ -32,6 +33,60 @@ public class Utils {
         return builder.hashZpElementFromBytes(bytes);
     }
 
+    /**
+     * Challenge for several commitments at once (aggregated range proofs)
+     */
+    public static ZpElement newChallenge(GroupVector v, Group1Element a, Group1Element s, PairingBuilder builder) {
+        byte[] bytes=new byte[0];
+        for(int i=1;i<=v.size();i++)
+            bytes=append(bytes,v.getComponent(i).toBytes());
+        bytes=append(bytes,a.toBytes());
+        bytes=append(bytes,s.toBytes());
+        return builder.hashZpElementFromBytes(bytes);
+    }
+
+    public static ZpElement newChallenge(ZpElement previousChallenge, ZpVector elements, PairingBuilder builder) {
+        byte[] bytes=previousChallenge.toBytes();
+        for(int i=1;i<=elements.size();i++)
+            bytes=append(bytes,elements.getComponent(i).toBytes());
+        return builder.hashZpElementFromBytes(bytes);
+    }
+
+    /**
+     * Number of commitments an aggregated range proof for m commitments is padded to
+     * @param m Number of commitments
+     * @return Smallest power of 2 that is at least m
+     */
+    public static int paddedLength(int m){
+        if(m<1)
+            throw new IllegalArgumentException("At least one commitment is needed");
+        int highestOneBit=Integer.highestOneBit(m);
+        return highestOneBit==m ? m : highestOneBit<<1;
+    }
+
+    /**
+     * Inverse of every element with a single inversion (Montgomery's trick)
+     * @param elements Elements to invert, none of them zero
+     * @return (elements[0]^-1,...,elements[n-1]^-1)
+     */
+    public static ZpElement[] batchInverse(ZpElement[] elements){
+        int n=elements.length;
+        ZpElement[] result=new ZpElement[n];
+        if(n==0)
+            return result;
+        ZpElement[] prefixProducts=new ZpElement[n];
+        prefixProducts[0]=elements[0];
+        for(int i=1;i<n;i++)
+            prefixProducts[i]=prefixProducts[i-1].mul(elements[i]);
+        ZpElement inverse=prefixProducts[n-1].inverse();
+        for(int i=n-1;i>0;i--){
+            result[i]=inverse.mul(prefixProducts[i-1]);
+            inverse=inverse.mul(elements[i]);
+        }
+        result[0]=inverse;
+        return result;
+    }
+
     public static RangeProofBase generateRangeProofBase(int n,  String salt, PairingBuilder builder){
         Group1Element[] g=new Group1Element[n];
         Group1Element[] h=new Group1Element[n];
@@ -14,9 +14,11 @@ import eu.olympus.util.pairingInterfaces.Group1Element;
 import eu.olympus.util.pairingInterfaces.PairingBuilder;
 import eu.olympus.util.pairingInterfaces.ZpElement;
 import eu.olympus.util.psmultisign.*;
+import eu.olympus.util.rangeProof.RangePredicateToken;
 import eu.olympus.util.rangeProof.RangePredicateVerificationResult;
 import eu.olympus.util.rangeProof.RangeVerifier;
 import eu.olympus.util.rangeProof.model.PedersenBase;
+import eu.olympus.util.rangeProof.tools.RangeProofBaseCache;
 import eu.olympus.verifier.interfaces.PABCVerifier;
 
 import java.util.*;
@@ -31,6 +33,19 @@ public class PSPABCVerifier implements PABCVerifier {
     private MSpublicParam schemePublicParameters;
     private MSverfKey olympusVerificationKey;
     private PairingBuilder builder;
+    private final RangeProofBaseCache rangeProofBases;
+
+    public PSPABCVerifier() {
+        this(RangeProofBaseCache.getShared());
+    }
+
+    /**
+     * @param rangeProofBases Cache for the bases of the range proofs, e.g. with fixed-base tables for a verifier that
+     *                        checks a few policies many times.
+     */
+    public PSPABCVerifier(RangeProofBaseCache rangeProofBases) {
+        this.rangeProofBases = rangeProofBases;
+    }
 
     public void setup(List<? extends PabcIdP> servers, byte[] seed) throws OperationFailedException {
         PabcPublicParameters publicParameters = servers.get(0).getPabcPublicParam();
@@ -48,6 +63,7 @@ public class PSPABCVerifier implements PABCVerifier {
             multiSignatureScheme.setup(schemePublicParameters.getN(), auxArg, seed);
             builder = (PairingBuilder) Class.forName(auxArg.getPairingName()).newInstance();
             builder.seedRandom(seed);
+            builder.calibrate();
         } catch (Exception e) {//TODO Handle exception
             throw new RuntimeException("Could not create scheme", e);
         }
@@ -67,15 +83,17 @@ public class PSPABCVerifier implements PABCVerifier {
         } catch (InvalidProtocolBufferException e) {
             throw new IllegalArgumentException("Could not retrieve scheme public param");
         }
-        multiSignatureScheme=new PSms();
+        PSms psScheme=new PSms();
+        multiSignatureScheme=psScheme;
         PSauxArg auxArg= (PSauxArg) schemePublicParameters.getAuxArg();
         multiSignatureScheme.setup(schemePublicParameters.getN(),auxArg, seed); //TODO Treat exception instead of throwing it?
         if(!checkAttributeDefinitions())
             throw new IllegalArgumentException("Conflicting sets of attribute names");
-        this.olympusVerificationKey=olympusVerificationKey;
+        this.olympusVerificationKey=olympusVerificationKey instanceof PSverfKey ? psScheme.precompute((PSverfKey) olympusVerificationKey) : olympusVerificationKey;
         try {
             builder=(PairingBuilder) Class.forName(auxArg.getPairingName()).newInstance();
             builder.seedRandom(seed);
+            builder.calibrate();
         } catch (Exception e) {
             throw new RuntimeException(e);
             //Should never reach this point, as the newInstance method must be successful for setting up the scheme
@@ -95,26 +113,27 @@ public class PSPABCVerifier implements PABCVerifier {
         if(multiSignatureScheme==null) {
             throw new IllegalStateException("It is necessary to run setup before using this method");
         }
+        return verifyPresentationToken(token, policy, new PolicyRequirements(policy));
+    }
+
+    @Override
+    public List<VerificationResult> verifyPresentationTokens(List<String> tokens, Policy policy) {
+        if(multiSignatureScheme==null) {
+            throw new IllegalStateException("It is necessary to run setup before using this method");
+        }
+        // Policy analysis, range verifier and Pedersen bases only depend on the policy, so they are computed once
+        // for the whole batch. Each token still needs its own pairing product, as it is the input to the challenge hash.
+        PolicyRequirements requirements=new PolicyRequirements(policy);
+        List<VerificationResult> results=new ArrayList<>(tokens.size());
+        for(String token:tokens)
+            results.add(verifyPresentationToken(token,policy,requirements));
+        return results;
+    }
+
+    private VerificationResult verifyPresentationToken(String token, Policy policy, PolicyRequirements requirements) {
         try {
             PresentationToken reconstructedToken=new PresentationToken(token);
-            Set<String> attributesToReveal = new HashSet<>();
-            Set<String> attributesForRange = new HashSet<>();
-            List<Predicate> rangePredicates = new LinkedList<>();
-    		for(Predicate p: policy.getPredicates()) {
-    			if(p.getOperation() == Operation.REVEAL) {
-    				attributesToReveal.add(p.getAttributeName().toLowerCase());
-    			} else if (p.getOperation() == Operation.INRANGE || p.getOperation() == Operation.GREATERTHANOREQUAL || p.getOperation() == Operation.LESSTHANOREQUAL) {
-                    rangePredicates.add(p);
-                    attributesForRange.add(p.getAttributeName().toLowerCase());
-                } else {
-    				throw new IllegalArgumentException("Could not satisfy policy: "+p.getOperation()+" is not supported for dp-ABC");
-    			}
-    		}
-            if(!attrDefMap.keySet().containsAll(attributesToReveal) || !attrDefMap.keySet().containsAll(attributesForRange))
-                throw new IllegalArgumentException("Wrong policy: Attributes requested are not fit for the setup of the verifier");
-            if (attributesForRange.size() != rangePredicates.size())
-                throw new IllegalArgumentException("Wrong policy: Repeated attribute ID in different range predicates");
-            if(!reconstructedToken.getRevealedAttributes().keySet().containsAll(attributesToReveal))
+            if(!reconstructedToken.getRevealedAttributes().keySet().containsAll(requirements.attributesToReveal))
                 return VerificationResult.POLICY_NOT_FULFILLED;
             if(reconstructedToken.getEpoch()<System.currentTimeMillis())
                 return VerificationResult.BAD_TIMESTAMP;
@@ -127,7 +146,7 @@ public class PSPABCVerifier implements PABCVerifier {
                 revealedZpAttributes.put(attr,builder.getZpElementFromAttribute(attrValue,def));
             }
             MSmessage revealedAttributesMessage=new PSmessage(revealedZpAttributes,builder.getZpElementFromEpoch(reconstructedToken.getEpoch()));
-            if(rangePredicates.isEmpty()){
+            if(requirements.rangePredicates.isEmpty()){
                 if(!(reconstructedToken.getZkToken() instanceof PSzkToken))
                     return VerificationResult.INVALID_SIGNATURE;
                 if(!multiSignatureScheme.verifyZKtoken(reconstructedToken.getZkToken(),olympusVerificationKey,policy.getPolicyId(), revealedAttributesMessage)) {
@@ -137,20 +156,29 @@ public class PSPABCVerifier implements PABCVerifier {
             } else {
                 if(!(reconstructedToken.getZkToken() instanceof PSzkTokenModified))
                     return VerificationResult.INVALID_SIGNATURE;
-                if(!reconstructedToken.getRangeTokens().keySet().equals(attributesForRange))
+                if(!reconstructedToken.getRangeTokens().keySet().equals(requirements.attributesForRange))
                     return VerificationResult.INVALID_SIGNATURE;
                 Map<String, Group1Element> Vp=reconstructedToken.getRangeTokens().entrySet().stream().collect(Collectors.toMap(e -> e.getKey(),e -> e.getValue().getCommitV()));
                 if(!multiSignatureScheme.verifyZKtokenModified(reconstructedToken.getZkToken(),olympusVerificationKey,policy.getPolicyId(), revealedAttributesMessage,Vp))
                     return VerificationResult.INVALID_SIGNATURE;
-                RangeVerifier verifier=new RangeVerifier(policy.getPolicyId(),builder);
-                PSverfKey key = (PSverfKey) olympusVerificationKey;
-                for(Predicate p:rangePredicates){
+                // Range predicates in the order of the policy
+                List<PedersenBase> bases=new ArrayList<>(requirements.rangePredicates.size());
+                List<RangePredicateToken> rangeTokens=new ArrayList<>(requirements.rangePredicates.size());
+                List<AttributeDefinition> definitions=new ArrayList<>(requirements.rangePredicates.size());
+                for(Predicate p:requirements.rangePredicates){
                     String attrId=p.getAttributeName().toLowerCase();
-                    AttributeDefinition def=attrDefMap.get(attrId);//Already checked that they are all present
-                    PedersenBase base = new PedersenBase(key.getVY().get(attrId), key.getVX()); //Base has to be g=Y_j h=X
-                    if(verifier.verifyRangePredicate(base,reconstructedToken.getRangeTokens().get(attrId),def,p)== RangePredicateVerificationResult.INVALID)
-                        return VerificationResult.INVALID_SIGNATURE;
+                    bases.add(requirements.rangeBases.get(attrId));
+                    rangeTokens.add(reconstructedToken.getRangeTokens().get(attrId));
+                    definitions.add(attrDefMap.get(attrId));//Already checked that they are all present
                 }
+                RangePredicateVerificationResult rangeResult;
+                if(reconstructedToken.getAggregatedRangeProof()!=null){
+                    rangeResult=requirements.rangeVerifier.verifyAggregatedRangePredicates(bases,rangeTokens,definitions,requirements.rangePredicates,reconstructedToken.getAggregatedRangeProof());
+                } else {
+                    rangeResult=requirements.rangeVerifier.verifyRangePredicates(bases,rangeTokens,definitions,requirements.rangePredicates);
+                }
+                if(rangeResult== RangePredicateVerificationResult.INVALID)
+                    return VerificationResult.INVALID_SIGNATURE;
                 return VerificationResult.VALID;
             }
         } catch (InvalidProtocolBufferException e) {
@@ -163,4 +191,39 @@ public class PSPABCVerifier implements PABCVerifier {
         return attrIds.equals(((PSauxArg) schemePublicParameters.getAuxArg()).getAttributes());
     }
 
+
+    /**
+     * Token independent information extracted (and checked) from a policy.
+     */
+    private class PolicyRequirements {
+        private final Set<String> attributesToReveal = new HashSet<>();
+        private final Set<String> attributesForRange = new HashSet<>();
+        private final List<Predicate> rangePredicates = new LinkedList<>();
+        private final Map<String, PedersenBase> rangeBases = new HashMap<>();
+        private RangeVerifier rangeVerifier;
+
+        private PolicyRequirements(Policy policy) {
+            for(Predicate p: policy.getPredicates()) {
+                if(p.getOperation() == Operation.REVEAL) {
+                    attributesToReveal.add(p.getAttributeName().toLowerCase());
+                } else if (p.getOperation() == Operation.INRANGE || p.getOperation() == Operation.GREATERTHANOREQUAL || p.getOperation() == Operation.LESSTHANOREQUAL) {
+                    rangePredicates.add(p);
+                    attributesForRange.add(p.getAttributeName().toLowerCase());
+                } else {
+                    throw new IllegalArgumentException("Could not satisfy policy: "+p.getOperation()+" is not supported for dp-ABC");
+                }
+            }
+            if(!attrDefMap.keySet().containsAll(attributesToReveal) || !attrDefMap.keySet().containsAll(attributesForRange))
+                throw new IllegalArgumentException("Wrong policy: Attributes requested are not fit for the setup of the verifier");
+            if (attributesForRange.size() != rangePredicates.size())
+                throw new IllegalArgumentException("Wrong policy: Repeated attribute ID in different range predicates");
+            if(!rangePredicates.isEmpty()){
+                rangeVerifier=new RangeVerifier(policy.getPolicyId(),builder,rangeProofBases);
+                PSverfKey key = (PSverfKey) olympusVerificationKey;
+                for(String attrId:attributesForRange)
+                    rangeBases.put(attrId,new PedersenBase(key.getVY().get(attrId), key.getVX())); //Base has to be g=Y_j h=X
+            }
+        }
+    }
+
 }
@@ -2,6 +2,7 @@ package eu.olympus.verifier.interfaces;
 
 import eu.olympus.model.Policy;
 import eu.olympus.verifier.VerificationResult;
+import java.util.List;
 
 
 public interface PABCVerifier {
@@ -15,4 +16,12 @@ public interface PABCVerifier {
      * @return VerificationResult.VALID if the token is valid and fulfills all the policy. A description of the error otherwise.
      */
     VerificationResult verifyPresentationToken(String token, Policy policy);
+
+    /**
+     * Verify a batch of PABC (PS) presentation tokens that must conform to the same policy.
+     * @param tokens Presentation tokens.
+     * @param policy Policy all of them need to comply to, including message signed.
+     * @return A VerificationResult for each token (in the same order), equal to the one verifyPresentationToken would give.
+     */
+    List<VerificationResult> verifyPresentationTokens(List<String> tokens, Policy policy);
 }
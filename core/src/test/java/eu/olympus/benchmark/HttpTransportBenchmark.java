@@ -0,0 +1,65 @@
+package eu.olympus.benchmark;
+
+import eu.olympus.client.PestoClient;
+import eu.olympus.client.PestoIdPRESTConnection;
+import eu.olympus.client.SoftwareClientCryptoModule;
+import eu.olympus.client.interfaces.UserClient;
+import eu.olympus.model.HttpTransportConfiguration;
+import java.security.SecureRandom;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import javax.net.ssl.HostnameVerifier;
+import org.apache.http.conn.ssl.DefaultHostnameVerifier;
+
+/**
+ * Measures registrations/s against running IdPs, given as arguments (eg. https://127.0.0.1:9933),
+ * with the client connecting through the default Jersey transport and through the pooled
+ * keep-alive transport. The transport used between the IdPs is set in their configuration
+ * (httpTransport), so run it once against IdPs with pooling disabled and once with it enabled
+ * to compare the full registration flow.
+ */
+public class HttpTransportBenchmark {
+
+	private static final int ITERATIONS = 50;
+	private static final int WARMUP = 20;
+	private static final String password = "password";
+
+	public static void main(String[] args) throws Exception {
+		Properties systemProps = System.getProperties();
+		systemProps.put("javax.net.ssl.trustStore", "core/src/test/resources/truststore.jks");
+		systemProps.put("javax.net.ssl.trustStorePassword", "OLYMPUS");
+		HostnameVerifier verifier = new DefaultHostnameVerifier();
+		javax.net.ssl.HttpsURLConnection.setDefaultHostnameVerifier(verifier);
+
+		System.out.println("Executing " + ITERATIONS + " time each with " + WARMUP + " warmups");
+		HttpTransportConfiguration defaultTransport = new HttpTransportConfiguration();
+		System.out.println("Default transport: " + benchmarkCreateUser(createClient(args, defaultTransport)) + " registrations/s");
+		HttpTransportConfiguration pooledTransport = new HttpTransportConfiguration();
+		pooledTransport.setPooled(true);
+		System.out.println("Pooled transport: " + benchmarkCreateUser(createClient(args, pooledTransport)) + " registrations/s");
+	}
+
+	private static UserClient createClient(String[] servers, HttpTransportConfiguration transport) throws Exception {
+		List<PestoIdPRESTConnection> idps = new ArrayList<>();
+		for (int i = 0; i < servers.length; i++) {
+			idps.add(new PestoIdPRESTConnection(servers[i], "", i, 100000, transport));
+		}
+		return new PestoClient(idps, new SoftwareClientCryptoModule(new SecureRandom(),
+				((RSAPublicKey) idps.get(0).getCertificate().getPublicKey()).getModulus()));
+	}
+
+	private static double benchmarkCreateUser(UserClient client) throws Exception {
+		String user = UUID.randomUUID().toString();
+		long startTime = 0;
+		for (int i = 0; i < ITERATIONS + WARMUP; i++) {
+			if (i == WARMUP) {
+				startTime = System.nanoTime();
+			}
+			client.createUser(user + i, password);
+		}
+		return ITERATIONS / ((System.nanoTime() - startTime) / 1e9);
+	}
+}
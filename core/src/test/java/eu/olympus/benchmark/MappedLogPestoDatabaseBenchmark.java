@@ -0,0 +1,85 @@
+package eu.olympus.benchmark;
+
+import eu.olympus.TestParameters;
+import eu.olympus.server.storage.MappedLogPestoDatabase;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.PublicKey;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Measures MappedLogPestoDatabase with many users: the time to add them, to reopen the database
+ * after a clean close and after a crash (rebuilding the index), and the average time of salt and
+ * key lookups of random users.
+ * The number of users and the directory used can be given as arguments, the directory is deleted
+ * afterwards.
+ */
+public class MappedLogPestoDatabaseBenchmark {
+
+	private static final int USERS = 5000000;
+	private static final int LOOKUPS = 1000000;
+
+	public static void main(String[] args) throws Exception {
+		int users = args.length > 0 ? Integer.parseInt(args[0]) : USERS;
+		Path directory = args.length > 1 ? Paths.get(args[1]) : Files.createTempDirectory("pesto");
+		PublicKey key = TestParameters.getRSAPublicKey1();
+		try {
+			long start = System.nanoTime();
+			MappedLogPestoDatabase db = new MappedLogPestoDatabase(directory);
+			for (int i = 0; i < users; i++) {
+				db.addUser("user" + i, key, i);
+			}
+			System.out.println("Added " + users + " users in " + (System.nanoTime() - start) / 1e9 + " s");
+			lookups(db, users);
+			db.close();
+
+			start = System.nanoTime();
+			db = new MappedLogPestoDatabase(directory);
+			System.out.println("Reopened after close in " + (System.nanoTime() - start) / 1e6 + " ms");
+			lookups(db, users);
+			// Leave the index marked as in use, as after a crash
+			db.flush();
+
+			start = System.nanoTime();
+			MappedLogPestoDatabase rebuilt = new MappedLogPestoDatabase(directory);
+			System.out.println("Reopened after crash in " + (System.nanoTime() - start) / 1e6 + " ms");
+			rebuilt.close();
+			db.close();
+		} finally {
+			try (Stream<Path> files = Files.walk(directory)) {
+				files.sorted(Comparator.reverseOrder()).forEach(MappedLogPestoDatabaseBenchmark::delete);
+			}
+		}
+	}
+
+	private static void lookups(MappedLogPestoDatabase db, int users) throws Exception {
+		Random rnd = new Random(1);
+		long sum = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < LOOKUPS; i++) {
+			sum += db.getLastSalt("user" + rnd.nextInt(users));
+		}
+		long saltTime = System.nanoTime() - start;
+		start = System.nanoTime();
+		for (int i = 0; i < LOOKUPS / 10; i++) {
+			if (db.getUserKey("user" + rnd.nextInt(users)) == null) {
+				throw new IllegalStateException("Missing user");
+			}
+		}
+		long keyTime = System.nanoTime() - start;
+		System.out.println("getLastSalt " + saltTime / LOOKUPS + " ns, getUserKey " + keyTime / (LOOKUPS / 10)
+				+ " ns (checksum " + sum + ")");
+	}
+
+	private static void delete(Path path) {
+		try {
+			Files.delete(path);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package eu.olympus.benchmark;
+
+import eu.olympus.util.pairingBLS461.MultiExpUtils;
+import eu.olympus.util.pairingBLS461.PairingBLS461;
+import java.util.Random;
+import org.miracl.core.BLS12461.BIG;
+import org.miracl.core.BLS12461.CONFIG_BIG;
+import org.miracl.core.BLS12461.ECP;
+import org.miracl.core.BLS12461.ECP2;
+import org.miracl.core.BLS12461.PAIR;
+
+/**
+ * Measures, for a growing number of bases, n single exponentiations against a bucket multi-exponentiation in G1 and
+ * G2, and reports the smallest n for which the bucket method is faster. MultiExpUtils.calibrate does a shorter version
+ * of this measurement during initialisation; this benchmark reports the timings behind it.
+ */
+public class MultiExpBenchmark {
+
+	private static final int ITERATIONS = 50;
+	private static final int WARMUP = 10;
+	private static final int MAX_SIZE = 64;
+
+	public static void main(String[] args) {
+		System.out.println("Executing " + ITERATIONS + " time each with " + WARMUP + " warmups");
+		System.out.println("G1 crossover: " + crossover("G1", MultiExpBenchmark::timeGroup1));
+		System.out.println("G2 crossover: " + crossover("G2", MultiExpBenchmark::timeGroup2));
+	}
+
+	private interface Timing {
+		long[] time(int n, Random random);
+	}
+
+	private static int crossover(String group, Timing timing) {
+		int crossover = MAX_SIZE;
+		for (int n = 2; n <= MAX_SIZE; n *= 2) {
+			Random random = new Random(n);
+			long naive = 0;
+			long bucket = 0;
+			for (int i = 0; i < ITERATIONS + WARMUP; i++) {
+				long[] times = timing.time(n, random);
+				if (i >= WARMUP) {
+					naive += times[0];
+					bucket += times[1];
+				}
+			}
+			System.out.println(group + " n=" + n + ": single exponentiations " + naive / 1e3 / ITERATIONS
+					+ " us, bucket " + bucket / 1e3 / ITERATIONS + " us");
+			if (bucket < naive && crossover == MAX_SIZE) {
+				crossover = n;
+			}
+		}
+		return crossover;
+	}
+
+	private static long[] timeGroup1(int n, Random random) {
+		ECP[] bases = new ECP[n];
+		BIG[] exponents = new BIG[n];
+		for (int i = 0; i < n; i++) {
+			bases[i] = PAIR.G1mul(ECP.generator(), randomExponent(random));
+			exponents[i] = randomExponent(random);
+		}
+		long start = System.nanoTime();
+		ECP naive = new ECP();
+		for (int i = 0; i < n; i++) {
+			naive.add(PAIR.G1mul(bases[i], exponents[i]));
+		}
+		long naiveTime = System.nanoTime() - start;
+		start = System.nanoTime();
+		MultiExpUtils.multiExp(bases, exponents);
+		return new long[] {naiveTime, System.nanoTime() - start};
+	}
+
+	private static long[] timeGroup2(int n, Random random) {
+		ECP2[] bases = new ECP2[n];
+		BIG[] exponents = new BIG[n];
+		for (int i = 0; i < n; i++) {
+			bases[i] = PAIR.G2mul(ECP2.generator(), randomExponent(random));
+			exponents[i] = randomExponent(random);
+		}
+		long start = System.nanoTime();
+		ECP2 naive = new ECP2();
+		for (int i = 0; i < n; i++) {
+			naive.add(PAIR.G2mul(bases[i], exponents[i]));
+		}
+		long naiveTime = System.nanoTime() - start;
+		start = System.nanoTime();
+		MultiExpUtils.multiExp(bases, exponents);
+		return new long[] {naiveTime, System.nanoTime() - start};
+	}
+
+	// Only for timing, so it does not need to be a secure random
+	private static BIG randomExponent(Random random) {
+		byte[] bytes = new byte[CONFIG_BIG.MODBYTES];
+		random.nextBytes(bytes);
+		BIG e = BIG.fromBytes(bytes);
+		e.mod(PairingBLS461.p);
+		return e;
+	}
+}
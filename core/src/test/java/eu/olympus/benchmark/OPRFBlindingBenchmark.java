@@ -0,0 +1,108 @@
+package eu.olympus.benchmark;
+
+import eu.olympus.model.KeyShares;
+import eu.olympus.model.RSASharedKey;
+import eu.olympus.server.SoftwareServerCryptoModule;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.miracl.core.BLS12461.BIG;
+import org.miracl.core.BLS12461.ECP;
+import org.miracl.core.BLS12461.ECP2;
+import org.miracl.core.BLS12461.FP12;
+import org.miracl.core.BLS12461.PAIR;
+
+/**
+ * Measures the server CPU time of the OPRF step of a login (hashAndPair and generateBlinding) for different numbers
+ * of servers, computing the blinding with plain FP12 exponentiations (before) and with the precomputed generator
+ * table of SoftwareServerCryptoModule (after).
+ */
+public class OPRFBlindingBenchmark {
+
+	private static final int ITERATIONS = 50;
+	private static final int WARMUP = 10;
+	private static final int[] SERVERS = {2, 3, 5};
+
+	public static void main(String[] args) {
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		FP12 generator = PAIR.fexp(PAIR.ate(ECP2.generator(), ECP.generator()));
+		ECP x = ECP.generator().mul(new BIG(42));
+		byte[] username = "username".getBytes(StandardCharsets.UTF_8);
+
+		System.out.println("Executing " + ITERATIONS + " time each with " + WARMUP + " warmups");
+		for (int servers : SERVERS) {
+			Random rnd = new Random(1);
+			Map<Integer, BigInteger> oprfBlindings = new HashMap<>();
+			for (int i = 0; i < servers; i++) {
+				oprfBlindings.put(i, new BigInteger(256, rnd));
+			}
+			// The RSA share is not used by the OPRF
+			RSASharedKey rsaShare = new RSASharedKey(BigInteger.ONE, BigInteger.ONE, BigInteger.ONE);
+			SoftwareServerCryptoModule crypto = new SoftwareServerCryptoModule(rnd);
+			if (!crypto.setupServer(new KeyShares(rsaShare, new HashMap<>(), new BigInteger(256, rnd), oprfBlindings))) {
+				throw new IllegalStateException("Could not set up crypto module");
+			}
+
+			List<Long> before = new ArrayList<>(ITERATIONS);
+			List<Long> after = new ArrayList<>(ITERATIONS);
+			for (int i = 0; i < ITERATIONS + WARMUP; i++) {
+				String ssid = "ssid" + i;
+				long startTime = threadBean.getCurrentThreadCpuTime();
+				FP12 y = crypto.hashAndPair(username, x);
+				y.mul(plainBlinding(crypto, generator, oprfBlindings, ssid, 0));
+				long middleTime = threadBean.getCurrentThreadCpuTime();
+				y = crypto.hashAndPair(username, x);
+				y.mul(crypto.generateBlinding(ssid, 0));
+				long endTime = threadBean.getCurrentThreadCpuTime();
+				if (i >= WARMUP) {
+					before.add(middleTime - startTime);
+					after.add(endTime - middleTime);
+				}
+			}
+			System.out.println(servers + " servers: before " + avg(before) / 1e6 + " ms (std " + std(before) / 1e6
+					+ "), after " + avg(after) / 1e6 + " ms (std " + std(after) / 1e6 + ")");
+		}
+	}
+
+	// The blinding as computed before the generator table, with one full FP12.pow per peer
+	private static FP12 plainBlinding(SoftwareServerCryptoModule crypto, FP12 generator,
+			Map<Integer, BigInteger> oprfBlindings, String ssid, int myId) {
+		FP12 product = new FP12();
+		product.one();
+		for (int i : oprfBlindings.keySet()) {
+			if (i != myId) {
+				byte[] bytes = crypto.hashList(Arrays.asList(oprfBlindings.get(i).toByteArray(), ssid.getBytes(StandardCharsets.UTF_8)));
+				FP12 val = generator.pow(BIG.fromBytes(bytes));
+				if (i < myId) {
+					val.inverse();
+				}
+				product.mul(val);
+			}
+		}
+		return product;
+	}
+
+	private static double avg(List<Long> times) {
+		double sum = 0;
+		for (Long time : times) {
+			sum += time.doubleValue();
+		}
+		return sum / times.size();
+	}
+
+	private static double std(List<Long> times) {
+		double avg = avg(times);
+		double sum = 0;
+		for (Long time : times) {
+			sum += Math.pow(time.doubleValue() - avg, 2);
+		}
+		return Math.sqrt(sum / times.size());
+	}
+}
@@ -0,0 +1,162 @@
+package eu.olympus.benchmark;
+
+import eu.olympus.client.PSCredentialManagement;
+import eu.olympus.model.Attribute;
+import eu.olympus.model.AttributeDefinition;
+import eu.olympus.model.AttributeDefinitionDate;
+import eu.olympus.model.AttributeDefinitionInteger;
+import eu.olympus.model.AttributeDefinitionString;
+import eu.olympus.model.Operation;
+import eu.olympus.model.PABCConfigurationImpl;
+import eu.olympus.model.PSCredential;
+import eu.olympus.model.PabcPublicParameters;
+import eu.olympus.model.Policy;
+import eu.olympus.model.Predicate;
+import eu.olympus.server.ThresholdPSSharesGenerator;
+import eu.olympus.server.interfaces.PestoDatabase;
+import eu.olympus.server.storage.InMemoryPestoDatabase;
+import eu.olympus.util.multisign.MSpublicParam;
+import eu.olympus.util.multisign.MSverfKey;
+import eu.olympus.util.psmultisign.PSms;
+import eu.olympus.util.psmultisign.PSpublicParam;
+import eu.olympus.verifier.PSPABCVerifier;
+import eu.olympus.verifier.VerificationResult;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Measures presentation token verification throughput (tokens/s) for token-by-token verification
+ * and for batch verification with different batch sizes.
+ */
+public class PresentationVerificationBenchmark {
+
+	private static final int ITERATIONS = 10;
+	private static final int WARMUP = 5;
+	private static final int[] BATCH_SIZES = {1, 10, 50, 100};
+	private static final int N_SERVERS = 3;
+	private static final byte[] seed = "random value random value random value random value random".getBytes();
+
+	public static void main(String[] args) throws Exception {
+		String username = "benchmarkUser";
+		PestoDatabase database = new InMemoryPestoDatabase();
+		Map<String, Attribute> userAttr = new HashMap<>();
+		userAttr.put("name", new Attribute("Joe"));
+		userAttr.put("age", new Attribute(21));
+		userAttr.put("now", new Attribute(new Date(System.currentTimeMillis())));
+		database.addUser(username, null, 1);
+		database.addAttributes(username, userAttr);
+
+		Map<Integer, ThresholdPSSharesGenerator> generators = new HashMap<>();
+		PabcPublicParameters publicParams = null;
+		for (int i = 0; i < N_SERVERS; i++) {
+			ThresholdPSSharesGenerator generator = new ThresholdPSSharesGenerator(database, seed);
+			PABCConfigurationImpl config = new PABCConfigurationImpl();
+			config.setAttrDefinitions(generateAttributeDefinitions());
+			config.setSeed(seed);
+			config.setLifetime(72000000);
+			config.setAllowedTimeDifference(10000L);
+			config.setServers(Arrays.asList("1", "2"));
+			generator.setup(config);
+			publicParams = generator.getPublicParam();
+			generators.put(i, generator);
+		}
+		MSpublicParam schemePublicParam = new PSpublicParam(publicParams.getEncodedSchemePublicParam());
+		Map<Integer, MSverfKey> verificationKeyShares = new HashMap<>();
+		MSverfKey[] verificationKeys = new MSverfKey[N_SERVERS];
+		for (int i = 0; i < N_SERVERS; i++) {
+			verificationKeys[i] = generators.get(i).getVerificationKeyShare();
+			verificationKeyShares.put(i, verificationKeys[i]);
+		}
+		PSms scheme = new PSms();
+		scheme.setup(schemePublicParam.getN(), schemePublicParam.getAuxArg(), seed);
+		MSverfKey aggregatedKey = scheme.kAggreg(verificationKeys);
+
+		PSCredentialManagement credentialManagement = new PSCredentialManagement(false, null);
+		credentialManagement.setup(publicParams, verificationKeyShares, seed);
+		PSPABCVerifier verifier = new PSPABCVerifier();
+		verifier.setup(publicParams, aggregatedKey, seed);
+
+		List<Predicate> predicates = new ArrayList<>();
+		predicates.add(new Predicate("now", Operation.REVEAL, null));
+		predicates.add(new Predicate("age", Operation.REVEAL, null));
+		Policy policy = new Policy(predicates, "benchmarkMessage");
+		Map<Integer, PSCredential> credentialShares = new HashMap<>();
+		long timestamp = System.currentTimeMillis();
+		for (Integer id : generators.keySet()) {
+			credentialShares.put(id, generators.get(id).createCredentialShare(username, timestamp));
+		}
+		int maxBatch = BATCH_SIZES[BATCH_SIZES.length - 1];
+		List<String> tokens = new ArrayList<>(maxBatch);
+		tokens.add(credentialManagement.combineAndGeneratePresentationToken(credentialShares, policy).getEncoded());
+		for (int i = 1; i < maxBatch; i++) {
+			// Same credential and policy, but fresh randomization for each token
+			PSCredentialManagement manager = new PSCredentialManagement(false, null);
+			manager.setup(publicParams, verificationKeyShares, seed);
+			tokens.add(manager.combineAndGeneratePresentationToken(credentialShares, policy).getEncoded());
+		}
+
+		System.out.println("Executing " + ITERATIONS + " time each with " + WARMUP + " warmups");
+		for (int batchSize : BATCH_SIZES) {
+			List<String> batch = tokens.subList(0, batchSize);
+			List<Long> single = benchmarkSingle(verifier, batch, policy);
+			List<Long> batched = benchmarkBatch(verifier, batch, policy);
+			System.out.println("Batch size " + batchSize + ": one by one " + throughput(batchSize, single)
+					+ " tokens/s, batch " + throughput(batchSize, batched) + " tokens/s");
+		}
+	}
+
+	private static List<Long> benchmarkSingle(PSPABCVerifier verifier, List<String> tokens, Policy policy) {
+		List<Long> times = new ArrayList<>(ITERATIONS);
+		for (int i = 0; i < ITERATIONS + WARMUP; i++) {
+			long startTime = System.nanoTime();
+			for (String token : tokens) {
+				if (verifier.verifyPresentationToken(token, policy) != VerificationResult.VALID) {
+					throw new IllegalStateException("Benchmark token did not verify");
+				}
+			}
+			long endTime = System.nanoTime();
+			if (i >= WARMUP) {
+				times.add(endTime - startTime);
+			}
+		}
+		return times;
+	}
+
+	private static List<Long> benchmarkBatch(PSPABCVerifier verifier, List<String> tokens, Policy policy) {
+		List<Long> times = new ArrayList<>(ITERATIONS);
+		for (int i = 0; i < ITERATIONS + WARMUP; i++) {
+			long startTime = System.nanoTime();
+			List<VerificationResult> results = verifier.verifyPresentationTokens(tokens, policy);
+			long endTime = System.nanoTime();
+			if (results.stream().anyMatch(r -> r != VerificationResult.VALID)) {
+				throw new IllegalStateException("Benchmark token did not verify");
+			}
+			if (i >= WARMUP) {
+				times.add(endTime - startTime);
+			}
+		}
+		return times;
+	}
+
+	private static double throughput(int batchSize, List<Long> times) {
+		double sum = 0;
+		for (Long time : times) {
+			sum += time.doubleValue();
+		}
+		return batchSize / (sum / times.size() / 1e9);
+	}
+
+	private static Set<AttributeDefinition> generateAttributeDefinitions() {
+		Set<AttributeDefinition> res = new HashSet<>();
+		res.add(new AttributeDefinitionString("name", "name", 0, 16));
+		res.add(new AttributeDefinitionInteger("age", "age", 0, 123));
+		res.add(new AttributeDefinitionDate("now", "now", "1900-01-01T00:00:00", "2100-09-01T00:00:00"));
+		return res;
+	}
+}
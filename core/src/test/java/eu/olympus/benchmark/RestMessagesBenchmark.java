@@ -0,0 +1,77 @@
+package eu.olympus.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.olympus.model.Attribute;
+import eu.olympus.model.Operation;
+import eu.olympus.model.Policy;
+import eu.olympus.model.Predicate;
+import eu.olympus.model.server.rest.OPRFRequest;
+import eu.olympus.model.server.rest.SignatureAndPolicy;
+import eu.olympus.server.rest.ProtobufMessageProvider;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures the size and the encode plus decode time of REST messages in JSON (as Jersey sends them with Jackson) and
+ * in the protobuf form of ProtobufMessageProvider, for an OPRF request (compressed G1 element) and an authentication
+ * request (RSA signature and a policy).
+ */
+public class RestMessagesBenchmark {
+
+	private static final int ITERATIONS = 100000;
+	private static final int WARMUP = 20000;
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+	private static final ProtobufMessageProvider provider = new ProtobufMessageProvider();
+
+	public static void main(String[] args) throws Exception {
+		Random rnd = new Random(1);
+		byte[] element = new byte[59];
+		rnd.nextBytes(element);
+		OPRFRequest oprf = new OPRFRequest("ssid", "username", element);
+		byte[] cookie = new byte[64];
+		rnd.nextBytes(cookie);
+		byte[] signature = new byte[256];
+		rnd.nextBytes(signature);
+		Policy policy = new Policy(Arrays.asList(new Predicate("name", Operation.REVEAL, null),
+				new Predicate("age", Operation.INRANGE, new Attribute(18), new Attribute(65))), "policy");
+		SignatureAndPolicy authentication = new SignatureAndPolicy("username", cookie, 1000, signature, policy);
+
+		System.out.println("Executing " + ITERATIONS + " time each with " + WARMUP + " warmups");
+		benchmark("OPRFRequest", oprf);
+		benchmark("SignatureAndPolicy", authentication);
+	}
+
+	private static void benchmark(String name, Object message) throws Exception {
+		Class<?> type = message.getClass();
+		long json = 0;
+		long protobuf = 0;
+		for (int i = 0; i < ITERATIONS + WARMUP; i++) {
+			long startTime = System.nanoTime();
+			mapper.readValue(mapper.writeValueAsBytes(message), type);
+			long middleTime = System.nanoTime();
+			readProtobuf(type, writeProtobuf(message));
+			long endTime = System.nanoTime();
+			if (i >= WARMUP) {
+				json += middleTime - startTime;
+				protobuf += endTime - middleTime;
+			}
+		}
+		System.out.println(name + ": JSON " + mapper.writeValueAsBytes(message).length + " bytes, "
+				+ json / 1e3 / ITERATIONS + " us; protobuf " + writeProtobuf(message).length + " bytes, "
+				+ protobuf / 1e3 / ITERATIONS + " us");
+	}
+
+	private static byte[] writeProtobuf(Object message) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		provider.writeTo(message, message.getClass(), message.getClass(), null, ProtobufMessageProvider.APPLICATION_PROTOBUF_TYPE, null, out);
+		return out.toByteArray();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Object readProtobuf(Class<?> type, byte[] bytes) throws Exception {
+		return provider.readFrom((Class<Object>) type, type, null, ProtobufMessageProvider.APPLICATION_PROTOBUF_TYPE, null, new ByteArrayInputStream(bytes));
+	}
+}
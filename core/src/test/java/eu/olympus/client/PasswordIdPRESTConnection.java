@@ -36,7 +36,6 @@ import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
-import org.apache.commons.codec.binary.Base64;
 import org.eclipse.jetty.http.HttpStatus;
 
 
@@ -80,7 +79,7 @@ public class PasswordIdPRESTConnection extends PasswordJWTIdP {
 	public String authenticate(String username, byte[] cookie, Policy policy) throws AuthenticationFailedException {
 		try {
 			AuthenticationAndPolicy data = new AuthenticationAndPolicy(username,
-					Base64.encodeBase64String(cookie), policy);
+					cookie, policy);
 			return client.target(host+ CommonRESTEndpoints.AUTHENTICATE).request().post(Entity.entity(data, MediaType.APPLICATION_JSON), String.class);
 		} catch (Exception e) {
 	    	throw new AuthenticationFailedException(e);
@@ -116,7 +115,7 @@ public class PasswordIdPRESTConnection extends PasswordJWTIdP {
 	@Override
 	public void addAttributes(String username, byte[] cookie, IdentityProof idProof) throws AuthenticationFailedException {
 		try{
-			AuthenticationAndIDProof pwAndProof = new AuthenticationAndIDProof(username, Base64.encodeBase64String(cookie), idProof);
+			AuthenticationAndIDProof pwAndProof = new AuthenticationAndIDProof(username, cookie, idProof);
 			Response response = client.target(host+ CommonRESTEndpoints.ADD_ATTRIBUTES).request().post(Entity.entity(pwAndProof, MediaType.APPLICATION_JSON));
 
 		    if(response.getStatus() != 204) {
@@ -130,7 +129,7 @@ public class PasswordIdPRESTConnection extends PasswordJWTIdP {
 	@Override
 	public Map<String, Attribute> getAllAttributes(String username, byte[] cookie) throws AuthenticationFailedException {
 	    try {
-				UsernameAndCookie usernameAndCookie = new UsernameAndCookie(username, Base64.encodeBase64String(cookie));
+				UsernameAndCookie usernameAndCookie = new UsernameAndCookie(username, cookie);
 	    	AttributeMap attributes = client.target(host+ CommonRESTEndpoints.GET_ALL_ATTRIBUTES).request().post(Entity.entity(usernameAndCookie, MediaType.APPLICATION_JSON), AttributeMap.class);
 	    	return attributes.getAttributes();
 	    } catch (Exception e) {
@@ -141,7 +140,7 @@ public class PasswordIdPRESTConnection extends PasswordJWTIdP {
 	@Override
 	public boolean deleteAttribute(String username, byte[] cookie, List<String> attributes) throws AuthenticationFailedException {
 		try {
-			AuthenticationAndAttributes data = new AuthenticationAndAttributes(username, Base64.encodeBase64String(cookie), attributes);
+			AuthenticationAndAttributes data = new AuthenticationAndAttributes(username, cookie, attributes);
 			return client.target(host+ CommonRESTEndpoints.DELETE_ATTRIBUTES).request().post(Entity.entity(data, MediaType.APPLICATION_JSON), Boolean.class);
 		} catch(Exception e) {
 			throw new AuthenticationFailedException(e);
@@ -151,7 +150,7 @@ public class PasswordIdPRESTConnection extends PasswordJWTIdP {
 	@Override
 	public boolean deleteAccount(UsernameAndPassword authentication, byte[] cookie) throws AuthenticationFailedException {
 		try {
-			PasswordAuthentication data = new PasswordAuthentication(authentication, Base64.encodeBase64String(cookie));
+			PasswordAuthentication data = new PasswordAuthentication(authentication, cookie);
 			return  client.target(host+ CommonRESTEndpoints.DELETE_ACCOUNT).request().post(Entity.entity(data, MediaType.APPLICATION_JSON), Boolean.class);
 		} catch(Exception e) {
 			throw new AuthenticationFailedException(e);
@@ -163,7 +162,7 @@ public class PasswordIdPRESTConnection extends PasswordJWTIdP {
 			UsernameAndPassword oldAuthenticationData, String newPassword, byte[] cookie)
 			throws UserCreationFailedException, AuthenticationFailedException {
 		PasswordAuthenticationAndPassword request = new PasswordAuthenticationAndPassword(
-				oldAuthenticationData, Base64.encodeBase64String(cookie), newPassword);
+				oldAuthenticationData, cookie, newPassword);
 		Response resp;
 		try {
 			resp = client.target(host + CommonRESTEndpoints.CHANGE_PASSWORD).request()
@@ -181,7 +180,7 @@ public class PasswordIdPRESTConnection extends PasswordJWTIdP {
 	public String requestMFA(UsernameAndPassword authentication, byte[] cookie, String type)
 			throws AuthenticationFailedException {
 		PasswordAuthenticationAndMFAType request = new PasswordAuthenticationAndMFAType(authentication,
-				Base64.encodeBase64String(cookie), type);
+				cookie, type);
 		try {
 			return client.target(host + CommonRESTEndpoints.REQUEST_MFA).request()
 					.post(Entity.entity(request, MediaType.APPLICATION_JSON), String.class);
@@ -195,7 +194,7 @@ public class PasswordIdPRESTConnection extends PasswordJWTIdP {
 			String type) {
 		PasswordAuthenticationAndMFAToken request = new PasswordAuthenticationAndMFAToken(
 				authentication,
-				Base64.encodeBase64String(cookie), mfaToken, type);
+				cookie, mfaToken, type);
 
 		try {
 			return client.target(host + CommonRESTEndpoints.CONFIRM_MFA).request()
@@ -209,7 +208,7 @@ public class PasswordIdPRESTConnection extends PasswordJWTIdP {
 	public boolean removeMFA(UsernameAndPassword authentication, byte[] cookie, String mfaToken,
 			String type) {
 		PasswordAuthenticationAndMFAToken request = new PasswordAuthenticationAndMFAToken(
-				authentication, Base64.encodeBase64String(cookie),
+				authentication, cookie,
 				mfaToken, type);
 
 		try {
@@ -5,10 +5,12 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -19,6 +21,7 @@ import eu.olympus.model.Attribute;
 import eu.olympus.model.AttributeDefinition;
 import eu.olympus.model.AttributeDefinitionString;
 import eu.olympus.model.Authorization;
+import eu.olympus.model.HttpTransportConfiguration;
 import eu.olympus.model.OPRFResponse;
 import eu.olympus.model.Operation;
 import eu.olympus.model.PabcPublicParameters;
@@ -26,12 +29,16 @@ import eu.olympus.model.Policy;
 import eu.olympus.model.Predicate;
 import eu.olympus.model.exceptions.OperationFailedException;
 import eu.olympus.model.exceptions.UserCreationFailedException;
+import eu.olympus.model.server.rest.OPRFRequest;
+import eu.olympus.model.server.rest.OPRFRestResponse;
 import eu.olympus.server.PestoIdPImpl;
 import eu.olympus.server.rest.AuthenticationFilter;
 import eu.olympus.server.rest.PestoIdPServlet;
+import eu.olympus.server.rest.PestoRESTEndpoints;
 import eu.olympus.server.rest.RESTIdPServer;
 import eu.olympus.server.rest.Role;
 import eu.olympus.util.multisign.MSverfKey;
+import eu.olympus.util.pairingBLS461.PointEncoding;
 import eu.olympus.util.psmultisign.PSverfKey;
 import java.security.PublicKey;
 import java.security.cert.Certificate;
@@ -42,39 +49,29 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import org.apache.commons.codec.binary.Base64;
+import java.util.concurrent.CompletableFuture;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.miracl.core.BLS12461.BIG;
+import org.miracl.core.BLS12461.CONFIG_BIG;
 import org.miracl.core.BLS12461.ECP;
+import org.miracl.core.BLS12461.ECP2;
 import org.miracl.core.BLS12461.FP12;
+import org.miracl.core.BLS12461.PAIR;
 import org.mockito.ArgumentCaptor;
 
 public class TestPestoIdPRESTConnection {
 
 	private static RESTIdPServer server = new RESTIdPServer();
 	private static final String url = "http://127.0.0.1:8666";
-	private static final String fp12String = "CCX3MY6l5x691jSy"
-			+ "NJKM8Q3BKGPiWJQt8zYkhATkkYNT7of"
-			+ "4OBnhQJdGxU3Tf1gQ+pprdhTI57mMHQ0rcnrycDqG8QuDYc11oh0+cu"
-			+ "KFR01XWojvSGGcU+FLzM7wpWNmKG1qI4iVW/vyUzoK6Xxj1c5po+kG7"
-			+ "hMZe3NEeAzzXhbTZUUjydnQaTGG2iKo2/rwMM3EvbcX3HVG8VlK2mqq"
-			+ "usVYyKKRIRNdbLdJLmK/EFwGMFAOIsJR8hlk8dZQS5dUdjC4uUk1dCT"
-			+ "dkieiII21MBSoTzwavllqooJ0ITnWJBXtdxJpnoU1lBQJIzSQT+gIq5"
-			+ "PxLYcmuANfxEv8Tpf9ayqDjTr0GWHNAxMYYV5gP0RrLv96gEOYc98W7"
-			+ "rS8GE6HrKUJqrkW+JTAUzHbgCd5+a61sDT+M/qUExZxrINT+JPVXaio"
-			+ "TUwvHs6PiykYsnJUJV6jHpdty0skbJ0rC4vWxPlcX8pB6MVhqeokKd0"
-			+ "0Q6on125OUtq5LgV5RgSFO9i2c8PbCvakUx/UFr8fdD/Jrf3JWOmfYQ"
-			+ "gf/Cxv86hovCepIs9rvs0wbprmEKvsdLJlVnjRnhtvfSKTjQnUnMph9"
-			+ "KX6Y2y6OFy02aNfjt0J7REB0VidQJKK/74gEHMB3mbmi3ChqqVaRU5l"
-			+ "a2J5OHzhSFhoZyIF/5VckCpyJiiV8vlLNDVKzglIJ1LyCepVeJO3rYj"
-			+ "tK+bqSSTs4pxE5C8n2TzPpHcv4ZO3crP4qIzWbSEAdRde+YXQUw3fOc"
-			+ "tSrgmBd+mPnwwgDotTsuOCztaMFHjttwHYvFUWVbYWwQEIWDW9qVaDM"
-			+ "in/IB0AjklFyzHr7w9gN2GBS0vQOS4Zn0gMlTbLbdHc+aVxVDp28zo7"
-			+ "Yz4zsNM9z3XeWm6/1L7wawqxQhM7FdSiZInyDzqU0kRubYGXva2e5CZ"
-			+ "i";
-	private static final FP12 fp12 = FP12.fromBytes(Base64.decodeBase64(fp12String));
+	// Clients check that the OPRF result is in GT
+	private static final FP12 fp12 = PAIR.fexp(PAIR.ate(ECP2.generator(), ECP.generator().mul(new BIG(42))));
 
 	private static PestoIdPImpl idp;
 
@@ -98,14 +95,14 @@ public class TestPestoIdPRESTConnection {
 
 		doReturn(true).when(idp).startRefresh();
 		doReturn(new OPRFResponse(fp12, "ssid", "session")).when(idp).performOPRF(anyString(), anyString(), any(), anyString(), anyString());
-		doReturn("reply".getBytes()).when(idp).finishRegistration(anyString(), any(), any(), any(), anyLong(), anyString());
+		doReturn(CompletableFuture.completedFuture("reply".getBytes())).when(idp).finishRegistrationAsync(anyString(), any(), any(), any(), anyLong(), anyString());
 		doReturn("token").when(idp).authenticate(anyString(), any(), anyLong(), any(), any());
     doReturn(TestParameters.getRSA1Cert()).when(idp).getCertificate();
 		doReturn(true).when(idp).addAttributes(anyString(), any(), anyLong(), any(), anyString());
 		doReturn(attr).when(idp).getAllAttributes(anyString(), any(), anyLong(), any());
 		doReturn(true).when(idp).deleteAttributes(anyString(), any(), anyLong(), any(), any());
 		doReturn(true).when(idp).deleteAccount(anyString(), any(), anyLong(), any());
-		doReturn("response".getBytes()).when(idp).changePassword(anyString(), any(), any(), any(), any(), anyLong());
+		doReturn(CompletableFuture.completedFuture("response".getBytes())).when(idp).changePasswordAsync(anyString(), any(), any(), any(), any(), anyLong());
 		doReturn(10000).when(idp).getRateLimit();
 
 		return idp;
@@ -129,15 +126,41 @@ public class TestPestoIdPRESTConnection {
 		server.stop();
 	}
 
+	/**
+	 * Skip the tests decoding an OPRF result on MIRACL builds whose Fp12 arithmetic cannot produce GT elements.
+	 */
+	private static void assumeGTMember() {
+		assumeTrue(PAIR.GTmember(fp12));
+	}
+
 	@Test
 	public void testPerformOPRFMFA() throws Exception {
+		assumeGTMember();
 		PestoIdPRESTConnection connection = new PestoIdPRESTConnection(url, "token", 0, 100000);
 		OPRFResponse response = connection.performOPRF("ssid", "username", ECP.generator(), "", "NONE");
 		verify(idp, times(1)).performOPRF(anyString(), anyString(), any(), anyString(), anyString());
 		assertEquals("ssid", response.getSsid());
-		byte[] bytes = new byte[696]; 
-		response.getY().toBytes(bytes);
-		assertEquals(fp12String, Base64.encodeBase64String(bytes));
+		assertTrue(fp12.equals(response.getY()));
+	}
+
+	@Test
+	public void testLegacyOPRFRequest() throws Exception {
+		// Older clients send the uncompressed point in a zero padded buffer of 12 field elements
+		byte[] rawBytes = new byte[CONFIG_BIG.MODBYTES*12];
+		ECP.generator().toBytes(rawBytes, false);
+		OPRFRequest request = new OPRFRequest("ssid", "username", rawBytes);
+		request.setMfaToken("");
+		request.setMfaType("NONE");
+		clearInvocations(idp);
+		try {
+			Response response = ClientBuilder.newClient().target(url + "/idp/" + PestoRESTEndpoints.REQUEST_OPRF).request()
+					.post(Entity.entity(request, MediaType.APPLICATION_JSON));
+			assertEquals(200, response.getStatus());
+			// They get the uncompressed result back
+			assertEquals(PointEncoding.GT_BYTES, response.readEntity(OPRFRestResponse.class).getElement().length);
+		} finally {
+			clearInvocations(idp);
+		}
 	}
 
 	@Test
@@ -190,7 +213,7 @@ public class TestPestoIdPRESTConnection {
 	public void testFinishRegistration() throws Exception {
 		PestoIdPRESTConnection connection = new PestoIdPRESTConnection(url, "token", 0, 100000);
 		byte[] response = connection.finishRegistration("username", "session".getBytes(), TestParameters.getRSAPublicKey1(), "signature".getBytes(), 1000, "idProof");
-		verify(idp, times(1)).finishRegistration(userCaptor.capture(), any(), publickeyCaptor.capture(), sigCaptor.capture(), saltCaptor.capture(), stringCaptor.capture());
+		verify(idp, times(1)).finishRegistrationAsync(userCaptor.capture(), any(), publickeyCaptor.capture(), sigCaptor.capture(), saltCaptor.capture(), stringCaptor.capture());
 
 		assertEquals("username", userCaptor.getValue());
 		assertEquals(TestParameters.getRSAPublicKey1(), publickeyCaptor.getValue());
@@ -203,7 +226,9 @@ public class TestPestoIdPRESTConnection {
 	@Test (expected = UserCreationFailedException.class)
 	public void testFinishRegistrationException() throws Exception {
 		PestoIdPRESTConnection connection = new PestoIdPRESTConnection(url, "token", 0, 100000);
-		doThrow(UserCreationFailedException.class).when(idp).finishRegistration(anyString(), any(), any(), any(), anyLong(), anyString());
+		CompletableFuture<byte[]> failed = new CompletableFuture<>();
+		failed.completeExceptionally(new UserCreationFailedException("failed"));
+		doReturn(failed).when(idp).finishRegistrationAsync(anyString(), any(), any(), any(), anyLong(), anyString());
 		connection.finishRegistration("user2", "session".getBytes(), TestParameters.getRSAPublicKey1(), "signature".getBytes(), 1000, "idProof");
 		fail();
 	}
@@ -296,7 +321,7 @@ public class TestPestoIdPRESTConnection {
 	public void testChangePassword() throws Exception {
 		PestoIdPRESTConnection connection = new PestoIdPRESTConnection(url, "token", 0, 100000);
 		byte[] response = connection.changePassword("username", "session".getBytes(), TestParameters.getECPublicKey2(), "oldsignature".getBytes(), "newsignature".getBytes(), 100);
-		verify(idp, times(1)).changePassword(userCaptor.capture(), any(), publickeyCaptor.capture(), sigCaptor.capture(), oldSigCaptor.capture(), anyLong());
+		verify(idp, times(1)).changePasswordAsync(userCaptor.capture(), any(), publickeyCaptor.capture(), sigCaptor.capture(), oldSigCaptor.capture(), anyLong());
 		assertEquals("username", userCaptor.getValue());
 		assertEquals(TestParameters.getECPublicKey2(), publickeyCaptor.getValue());
 		assertEquals("oldsignature", new String(sigCaptor.getValue()));
@@ -304,6 +329,64 @@ public class TestPestoIdPRESTConnection {
 		assertEquals("response", new String(response));
 	}
 
+	@Test
+	public void testProtobufOPRF() throws Exception {
+		assumeGTMember();
+		HttpTransportConfiguration transport = new HttpTransportConfiguration();
+		transport.setProtobuf(true);
+		PestoIdPRESTConnection connection = new PestoIdPRESTConnection(url, "token", 0, 100000, transport);
+		// The other tests count the calls to the mock
+		clearInvocations(idp);
+		try {
+			OPRFResponse oprf = connection.performOPRF("ssid", "username", ECP.generator(), "", "NONE");
+			assertEquals("ssid", oprf.getSsid());
+			assertEquals("session", oprf.getSessionCookie());
+			assertTrue(fp12.equals(oprf.getY()));
+		} finally {
+			clearInvocations(idp);
+		}
+	}
+
+	@Test
+	public void testProtobuf() throws Exception {
+		HttpTransportConfiguration transport = new HttpTransportConfiguration();
+		transport.setProtobuf(true);
+		PestoIdPRESTConnection connection = new PestoIdPRESTConnection(url, "token", 0, 100000, transport);
+		// The other tests count the calls to the mock
+		clearInvocations(idp);
+		try {
+			Policy policy = new Policy();
+			Predicate predicate = new Predicate("name", Operation.EQ, new Attribute("John"));
+			policy.setPredicates(Arrays.asList(predicate));
+			policy.setPolicyId("policy");
+			ArgumentCaptor<Policy> policyCaptor = ArgumentCaptor.forClass(Policy.class);
+			assertEquals("token", connection.authenticate("username", "session".getBytes(), 1000, "signature".getBytes(), policy));
+			verify(idp).authenticate(userCaptor.capture(), any(), longCaptor.capture(), sigCaptor.capture(), policyCaptor.capture());
+			assertEquals("username", userCaptor.getValue());
+			assertEquals(Long.valueOf(1000), longCaptor.getValue());
+			assertEquals("signature", new String(sigCaptor.getValue()));
+			assertEquals("policy", policyCaptor.getValue().getPolicyId());
+			Predicate received = policyCaptor.getValue().getPredicates().get(0);
+			assertEquals("name", received.getAttributeName());
+			assertEquals(Operation.EQ, received.getOperation());
+			assertEquals(new Attribute("John"), received.getValue());
+			assertNull(received.getExtraValue());
+
+			Map<String, Attribute> attributes = connection.getAllAttributes("username", "session".getBytes(), 200, "sig".getBytes());
+			assertEquals(new Attribute("John"), attributes.get("name"));
+			assertEquals(1, attributes.size());
+
+			assertTrue(connection.deleteAttributes("username", "session".getBytes(), 300, "signature".getBytes(), Arrays.asList("name")));
+
+			byte[] response = connection.changePassword("username", "session".getBytes(), TestParameters.getECPublicKey2(), "oldsignature".getBytes(), "newsignature".getBytes(), 100);
+			verify(idp).changePasswordAsync(anyString(), any(), publickeyCaptor.capture(), any(), any(), anyLong());
+			assertEquals(TestParameters.getECPublicKey2(), publickeyCaptor.getValue());
+			assertEquals("response", new String(response));
+		} finally {
+			clearInvocations(idp);
+		}
+	}
+
 	@Test(expected = UnsupportedOperationException.class)
 	public void testAddSession() throws Exception {
 		PestoIdPRESTConnection connection = new PestoIdPRESTConnection(url, "token", 0, 100000);
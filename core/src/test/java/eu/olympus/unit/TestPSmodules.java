@@ -167,6 +167,9 @@ public class TestPSmodules {
 		PresentationToken zkPT2 = credentialClientModule.generatePresentationToken(policy2);
 		VerificationResult result2=credentialVerifierModule.verifyPresentationToken(zkPT2.getEncoded(),policy2);
 		assertEquals(VerificationResult.VALID, result2);
+		PresentationToken zkPT3 = credentialClientModule.generatePresentationToken(policy2);
+		List<VerificationResult> batchResults=credentialVerifierModule.verifyPresentationTokens(Arrays.asList(zkPT2.getEncoded(),zkPT3.getEncoded(),zkPT.getEncoded()),policy2);
+		assertEquals(Arrays.asList(VerificationResult.VALID,VerificationResult.VALID,VerificationResult.INVALID_SIGNATURE), batchResults);
 	}
 
 	@Test
@@ -5,6 +5,7 @@ import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
@@ -28,6 +29,7 @@ import eu.olympus.server.storage.InMemoryKeyDB;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -133,12 +135,12 @@ public class TestAuthenticationHandler {
 
         AuthenticationHandler authHandler = testAuthenticationHandler(db,mock(UserAuthorizationDatabase.class));
         List<String> attributes = new ArrayList<String>(1);
-        attributes.add("attribute");
+        attributes.add("Attribute");
         authHandler.deleteAttributes("username", attributes);
         authHandler.deleteAccount("username");
-        verify(db, times(1)).deleteAttribute(usernameCaptor.capture(), attributeCaptor.capture());
+        // Deleted in one call, with the name in lower case
+        verify(db, times(1)).deleteAttributes(usernameCaptor.capture(), eq(Arrays.asList("attribute")));
         assertEquals("username", usernameCaptor.getValue());
-        assertEquals("attribute", attributeCaptor.getValue());
     }
 
     @Test
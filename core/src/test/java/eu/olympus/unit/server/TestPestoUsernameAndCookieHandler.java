@@ -2,13 +2,17 @@ package eu.olympus.unit.server;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -19,6 +23,7 @@ import eu.olympus.model.Attribute;
 import eu.olympus.model.AttributeDefinition;
 import eu.olympus.model.AttributeDefinitionInteger;
 import eu.olympus.model.AttributeDefinitionString;
+import eu.olympus.model.Authorization;
 import eu.olympus.model.KeyShares;
 import eu.olympus.model.MFAInformation;
 import eu.olympus.model.OPRFResponse;
@@ -54,6 +59,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.apache.commons.codec.Charsets;
 import org.junit.Before;
 import org.junit.Rule;
@@ -152,7 +160,7 @@ public class TestPestoUsernameAndCookieHandler {
 
 	@Test(expected = AuthenticationFailedException.class)
 	public void testPerformOPRFUserTimedOut() throws Exception {
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(false).when(db).hasUser(anyString());
 		doReturn(System.currentTimeMillis()).when(db).getLastAuthAttempt(anyString());
 		doReturn(10).when(db).getNumberOfFailedAuthAttempts(anyString());
@@ -194,7 +202,7 @@ public class TestPestoUsernameAndCookieHandler {
 
 	@Test
 	public void testFinishRegistrationSingleIdP() throws Exception {
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(false).when(db).hasUser(anyString());
 		ServerCryptoModule cm = new SoftwareServerCryptoModule(new Random(0)) {
 			@Override
@@ -242,7 +250,7 @@ public class TestPestoUsernameAndCookieHandler {
 	
 	@Test(expected = ExistingUserException.class)
 	public void testFinishRegistrationExistingUser() throws Exception {
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(true).when(db).hasUser(anyString());
 		ServerCryptoModule cm = new SoftwareServerCryptoModule(new Random(0)) {
 		};
@@ -253,7 +261,7 @@ public class TestPestoUsernameAndCookieHandler {
 	
 	@Test(expected = UserCreationFailedException.class)
 	public void testFinishRegistrationBadSalt() throws Exception {
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(false).when(db).hasUser(anyString());
 		ServerCryptoModule cm = new SoftwareServerCryptoModule(new Random(0));
 		PestoAuthenticationHandler pestoHandler = new PestoAuthenticationHandler(db, cm, sessionDb, new HashMap<>() );
@@ -265,7 +273,7 @@ public class TestPestoUsernameAndCookieHandler {
 	
 	@Test(expected = UserCreationFailedException.class)
 	public void testFinishRegistrationBadSalt2() throws Exception {
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(false).when(db).hasUser(anyString());
 		ServerCryptoModule cm = new SoftwareServerCryptoModule(new Random(0));
 		PestoAuthenticationHandler pestoHandler = new PestoAuthenticationHandler(db, cm, sessionDb, new HashMap<>() );
@@ -277,7 +285,7 @@ public class TestPestoUsernameAndCookieHandler {
 	
 	@Test
 	public void testFinishRegistrationMultiIdP() throws Exception {
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(false).when(db).hasUser(anyString());
 		ServerCryptoModule cm = new SoftwareServerCryptoModule(new Random(0)) {
 			@Override
@@ -335,10 +343,106 @@ public class TestPestoUsernameAndCookieHandler {
 		byte[] result = pestoHandler.finishRegistration(user, "session".getBytes(), TestParameters.getRSAPublicKey2(), signature, salt, null);
 		assertEquals("combinedSignature", new String(result));
 	}
- 	
+
+	@Test
+	public void testFinishRegistrationAsyncMultiIdP() throws Exception {
+		PestoDatabase db = mockDatabase();
+		doReturn(false).when(db).hasUser(anyString());
+		ServerCryptoModule cm = new SoftwareServerCryptoModule(new Random(0)) {
+			@Override
+			public boolean verifySignature(PublicKey pk, List<byte[]> list, byte[] sig) {
+				return true;
+			}
+
+			@Override
+			public boolean verifySignature(PublicKey pk, byte[] input, byte[] sig) {
+				return true;
+			}
+
+			@Override
+			public byte[] sign(PublicKey pk, byte[] bytes, int myId) {
+				return "signature".getBytes();
+			}
+
+			@Override
+			public byte[] combineSignatures(List<byte[]> partialSignatures)  {
+				assertEquals(2, partialSignatures.size());
+				return "combinedSignature".getBytes();
+			}
+			@Override
+			public PublicKey getStandardRSAkey() {
+				return TestParameters.getRSAPublicKey2();
+			}
+		};
+		PestoAuthenticationHandler pestoHandler = new PestoAuthenticationHandler(db, cm, sessionDb, new HashMap<>() );
+		List<PestoIdP> others = new LinkedList<PestoIdP>();
+		others.add(new PestoIdPImpl(new InMemoryPestoDatabase(), null, new HashMap<String, MFAAuthenticator>(), cm, 10000));
+		boolean res = pestoHandler.setup("setup", masterKey, new byte[6], new HashMap<Integer, byte[]>(), 0, allowedTimeDiff, 10000, sessionLength, others);
+		assertTrue(res);
+
+		// The future is returned before the other server has answered
+		CompletableFuture<byte[]> result = pestoHandler.finishRegistrationAsync(user, "session".getBytes(), TestParameters.getRSAPublicKey2(), "signature".getBytes(), System.currentTimeMillis(), null);
+		assertFalse(result.isDone());
+		pestoHandler.addPartialServerSignature(user, "signature".getBytes());
+		assertEquals("combinedSignature", new String(result.get(10000, TimeUnit.MILLISECONDS)));
+		verify(db, times(1)).addUser(anyString(), any(), anyLong());
+	}
+
+	@Test
+	public void testFinishRegistrationAsyncContinuesOffPeerThread() throws Exception {
+		PestoDatabase db = mockDatabase();
+		doReturn(false).when(db).hasUser(anyString());
+		CountDownLatch release = new CountDownLatch(1);
+		Thread caller = Thread.currentThread();
+		ServerCryptoModule cm = new SoftwareServerCryptoModule(new Random(0)) {
+			@Override
+			public boolean verifySignature(PublicKey pk, List<byte[]> list, byte[] sig) {
+				return true;
+			}
+
+			@Override
+			public boolean verifySignature(PublicKey pk, byte[] input, byte[] sig) {
+				return true;
+			}
+
+			@Override
+			public byte[] sign(PublicKey pk, byte[] bytes, int myId) {
+				return "signature".getBytes();
+			}
+
+			@Override
+			public byte[] combineSignatures(List<byte[]> partialSignatures)  {
+				assertNotEquals(caller, Thread.currentThread());
+				try {
+					release.await(10000, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return "combinedSignature".getBytes();
+			}
+			@Override
+			public PublicKey getStandardRSAkey() {
+				return TestParameters.getRSAPublicKey2();
+			}
+		};
+		PestoAuthenticationHandler pestoHandler = new PestoAuthenticationHandler(db, cm, sessionDb, new HashMap<>() );
+		List<PestoIdP> others = new LinkedList<PestoIdP>();
+		others.add(new PestoIdPImpl(new InMemoryPestoDatabase(), null, new HashMap<String, MFAAuthenticator>(), cm, 10000));
+		boolean res = pestoHandler.setup("setup", masterKey, new byte[6], new HashMap<Integer, byte[]>(), 0, allowedTimeDiff, 10000, sessionLength, others);
+		assertTrue(res);
+
+		CompletableFuture<byte[]> result = pestoHandler.finishRegistrationAsync(user, "session".getBytes(), TestParameters.getRSAPublicKey2(), "signature".getBytes(), System.currentTimeMillis(), null);
+		// Delivering the last partial signature, as the other server does, must not run the combination
+		pestoHandler.addPartialServerSignature(user, "signature".getBytes());
+		assertFalse(result.isDone());
+		release.countDown();
+		assertEquals("combinedSignature", new String(result.get(10000, TimeUnit.MILLISECONDS)));
+		verify(db, times(1)).addUser(anyString(), any(), anyLong());
+	}
+
 	@Test(expected = UserCreationFailedException.class)
 	public void testFinishRegistrationMultiIdPNoRespondingServer() throws Exception {
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(false).when(db).hasUser(anyString());
 		ServerCryptoModule cm = new SoftwareServerCryptoModule(new Random(0)) {
 			@Override
@@ -409,7 +513,7 @@ public class TestPestoUsernameAndCookieHandler {
 
 	@Test(expected = UserCreationFailedException.class)
 	public void testFinishRegistrationBadUserSignature() throws Exception {
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(false).when(db).hasUser(anyString());
 		ServerCryptoModule cm = new SoftwareServerCryptoModule(new Random(0)) {
 			@Override
@@ -452,7 +556,7 @@ public class TestPestoUsernameAndCookieHandler {
 	
 	@Test(expected = UserCreationFailedException.class)
 	public void testFinishRegistrationBadServerSignature() throws Exception {
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(false).when(db).hasUser(anyString());
 		ServerCryptoModule cm = new SoftwareServerCryptoModule(new Random(0)) {
 			@Override
@@ -651,7 +755,7 @@ public class TestPestoUsernameAndCookieHandler {
 	@Test
 	public void testAuthenticate() throws OperationFailedException {
 		Long globalSalt = System.currentTimeMillis();
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(true).when(db).hasUser(anyString());
 		doReturn(globalSalt-3).when(db).getLastSalt(anyString());
 		doReturn(TestParameters.getRSAPublicKey1()).when(db).getUserKey(anyString());
@@ -677,7 +781,7 @@ public class TestPestoUsernameAndCookieHandler {
 	@Test
 	public void testFailedAuthenticate() throws OperationFailedException {
 		Long globalSalt = System.currentTimeMillis();
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(false).when(db).hasUser(anyString());
 		doReturn(globalSalt-3).when(db).getLastSalt(anyString());
 		doReturn(TestParameters.getRSAPublicKey1()).when(db).getUserKey(anyString());
@@ -698,7 +802,7 @@ public class TestPestoUsernameAndCookieHandler {
 	@Test
 	public void testRepeatedFailedAuthenticate() throws OperationFailedException {
 		Long globalSalt = System.currentTimeMillis();
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(false).when(db).hasUser(anyString());
 		doReturn(globalSalt-3).when(db).getLastSalt(anyString());
 		doReturn(TestParameters.getRSAPublicKey1()).when(db).getUserKey(anyString());
@@ -722,7 +826,7 @@ public class TestPestoUsernameAndCookieHandler {
 	@Test
 	public void testAuthenticateBadSignature() throws Exception {
 		Long globalSalt = System.currentTimeMillis();
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(true).when(db).hasUser(anyString());
 		doReturn(globalSalt-3).when(db).getLastSalt(anyString());
 		doReturn(TestParameters.getRSAPublicKey1()).when(db).getUserKey(anyString());
@@ -757,7 +861,7 @@ public class TestPestoUsernameAndCookieHandler {
 	@Test
 	public void testAuthenticateNoUserKey() throws Exception {
 		long globalSalt = System.currentTimeMillis();
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(null).when(db).getUserKey(anyString());
 
 		ServerCryptoModule cm = new SoftwareServerCryptoModule(new Random(0)) {
@@ -776,7 +880,7 @@ public class TestPestoUsernameAndCookieHandler {
 	@Test
 	public void testAuthenticateTooOldSalt() throws Exception {
 		long globalSalt = System.currentTimeMillis();
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(true).when(db).hasUser(anyString());
 		doReturn(globalSalt+3).when(db).getLastSalt(anyString());
 		doReturn(TestParameters.getRSAPublicKey2()).when(db).getUserKey(anyString());
@@ -799,7 +903,7 @@ public class TestPestoUsernameAndCookieHandler {
 	@Test
 	public void testAuthenticateSaltDeviateFromCurrentTime() throws Exception {
 		long globalSalt = System.currentTimeMillis()+10501;
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(true).when(db).hasUser(anyString());
 		doReturn(globalSalt-3).when(db).getLastSalt(anyString());
 		doReturn(TestParameters.getRSAPublicKey2()).when(db).getUserKey(anyString());
@@ -823,7 +927,7 @@ public class TestPestoUsernameAndCookieHandler {
 	@Test
 	public void testAuthenticateSaltDeviateFromCurrentTime2() throws Exception {
 		long globalSalt = System.currentTimeMillis()-10501;
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(true).when(db).hasUser(anyString());
 		doReturn(globalSalt-3).when(db).getLastSalt(anyString());
 		doReturn(TestParameters.getRSAPublicKey2()).when(db).getUserKey(anyString());
@@ -847,7 +951,7 @@ public class TestPestoUsernameAndCookieHandler {
 	public void testChangePassword() throws Exception {
 
 		long globalSalt = System.currentTimeMillis()-10501;
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(true).when(db).hasUser(anyString());
 		doReturn(globalSalt-3).when(db).getLastSalt(anyString());
 		doReturn(TestParameters.getRSAPublicKey1()).when(db).getUserKey(anyString());
@@ -918,7 +1022,7 @@ public class TestPestoUsernameAndCookieHandler {
 	
 	@Test
 	public void testChangePasswordMultiIdP() throws Exception {
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(true).when(db).hasUser(anyString());
 		doReturn(TestParameters.getRSAPublicKey1()).when(db).getUserKey(anyString());
 
@@ -1001,7 +1105,7 @@ public class TestPestoUsernameAndCookieHandler {
 	@Test(expected = OperationFailedException.class)
 	public void testChangePasswordMultiIdPNonRespondingServer() throws Exception {
 
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(true).when(db).hasUser(anyString());
 		doReturn(TestParameters.getRSAPublicKey1()).when(db).getUserKey(anyString());
 
@@ -1079,7 +1183,7 @@ public class TestPestoUsernameAndCookieHandler {
 	
 	@Test(expected = OperationFailedException.class)
 	public void testChangePasswordNoUser() throws Exception {
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(false).when(db).hasUser(anyString());
 		doReturn(TestParameters.getRSAPublicKey1()).when(db).getUserKey(anyString());
 
@@ -1094,7 +1198,7 @@ public class TestPestoUsernameAndCookieHandler {
 	
 	@Test(expected = OperationFailedException.class)
 	public void testChangePasswordBadSalt() throws Exception {
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(true).when(db).hasUser(anyString());
 
 		ServerCryptoModule cm = new SoftwareServerCryptoModule(new Random(0));
@@ -1109,7 +1213,7 @@ public class TestPestoUsernameAndCookieHandler {
 	@Test(expected = OperationFailedException.class)
 	public void testChangePasswordBadSalt2() throws Exception {
 		long globalSalt = System.currentTimeMillis()-10501;
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(true).when(db).hasUser(anyString());
 		doReturn(globalSalt-3).when(db).getLastSalt(anyString());
 
@@ -1123,7 +1227,7 @@ public class TestPestoUsernameAndCookieHandler {
 	
 	@Test(expected = OperationFailedException.class)
 	public void testChangePasswordBadSignature() throws Exception {
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(true).when(db).hasUser(anyString());
 		doReturn(TestParameters.getRSAPublicKey1()).when(db).getUserKey(anyString());
 
@@ -1152,7 +1256,7 @@ public class TestPestoUsernameAndCookieHandler {
 	
 	@Test(expected = OperationFailedException.class)
 	public void testChangePasswordBadServerSignature() throws Exception {
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(true).when(db).hasUser(anyString());
 		doReturn(TestParameters.getRSAPublicKey1()).when(db).getUserKey(anyString());
 
@@ -1292,7 +1396,7 @@ public class TestPestoUsernameAndCookieHandler {
 			}
 		}
 
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(true).when(db).hasUser(anyString());
 
 		SoftwareServerCryptoModule crypto = new SoftwareServerCryptoModule(new Random(0)) {
@@ -1325,7 +1429,7 @@ public class TestPestoUsernameAndCookieHandler {
 			}
 		};
 
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(true).when(db).hasUser(anyString());
 
 		Map<String, MFAAuthenticator> mfaAuthenticators = new HashMap<>();
@@ -1365,7 +1469,7 @@ public class TestPestoUsernameAndCookieHandler {
 			}
 		};
 
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(true).when(db).hasUser(anyString());
 
 		Map<String, MFAAuthenticator> mfas = new HashMap<>();
@@ -1394,7 +1498,7 @@ public class TestPestoUsernameAndCookieHandler {
 		}
 
 
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(false).when(db).hasUser(anyString());
 
 		SoftwareServerCryptoModule crypto = new SoftwareServerCryptoModule(new Random(0));
@@ -1483,7 +1587,7 @@ public class TestPestoUsernameAndCookieHandler {
 		MFAInformation mfaInfo = new MFAInformation(GoogleAuthenticator.TYPE,"secret",1000,true);
 		mockMFAInfo.put(GoogleAuthenticator.TYPE, mfaInfo);
 
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(true).when(db).hasUser("user1");
 		doReturn(mockMFAInfo).when(db).getMFAInformation("user1");
 		doReturn(0).when(db).getNumberOfFailedMFAAttempts("user1");
@@ -1566,7 +1670,7 @@ public class TestPestoUsernameAndCookieHandler {
 		MFAInformation mfaInfo = new MFAInformation(GoogleAuthenticator.TYPE,"secret",1000,true);
 		mockMFAInfo.put(GoogleAuthenticator.TYPE, mfaInfo);
 
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(true).when(db).hasUser("user1");
 		doReturn(mockMFAInfo).when(db).getMFAInformation("user1");
 		doReturn(0).when(db).getNumberOfFailedMFAAttempts("user1");
@@ -1658,6 +1762,34 @@ public class TestPestoUsernameAndCookieHandler {
 		handler.validateSession(cookie, Arrays.asList(Role.USER));
 	}
 	
+	@Test
+	public void testStatelessSessionCookie() throws Exception {
+		PestoAuthenticationHandler handler = new PestoAuthenticationHandler(db, crypto, sessionDb, new HashMap<>());
+		handler.setStatelessSessions(true);
+		assertTrue(handler.setup("setup", masterKey, new byte[6], new HashMap<Integer, byte[]>(), 0, allowedTimeDiff, waitTime, sessionLength, new LinkedList<PestoIdP>()));
+		String cookie = handler.generateSessionCookie(user);
+		assertNull(sessionDb.lookupCookie(cookie));
+		handler.validateSession(cookie, Arrays.asList(Role.USER));
+
+		// A replica set up with the same configuration accepts the cookie
+		PestoAuthenticationHandler replica = new PestoAuthenticationHandler(new InMemoryPestoDatabase(), crypto, new InMemoryKeyDB(), new HashMap<>());
+		replica.setStatelessSessions(true);
+		assertTrue(replica.setup("setup", masterKey, new byte[6], new HashMap<Integer, byte[]>(), 0, allowedTimeDiff, waitTime, sessionLength, new LinkedList<PestoIdP>()));
+		replica.validateSession(cookie, Arrays.asList(Role.USER));
+		String refreshed = replica.refreshCookie(cookie);
+		assertNotEquals(cookie, refreshed);
+		handler.validateSession(refreshed, Arrays.asList(Role.USER));
+
+		// Stored sessions, like the server tokens, are still accepted
+		handler.storeAuthorization("token", new Authorization("server", Arrays.asList(Role.SERVER), System.currentTimeMillis()+10000));
+		handler.validateSession("token", Arrays.asList(Role.SERVER));
+		try {
+			handler.validateSession(cookie, Arrays.asList(Role.ADMIN));
+			fail();
+		} catch (AuthenticationFailedException e) {
+		}
+	}
+
 	@Test
 	public void testStartRefreshIdPFailing() throws Exception {
 		PestoDatabase db = new InMemoryPestoDatabase();
@@ -1700,7 +1832,7 @@ public class TestPestoUsernameAndCookieHandler {
 	
 	@Test
 	public void testStartRefreshBadKeyDigest() throws Exception {
-		PestoDatabase db = mock(PestoDatabase.class);
+		PestoDatabase db = mockDatabase();
 		doReturn(new byte[] {0x00, 0x11, 0x22, 0x33}).when(db).getKeyDigest();
 		ServerCryptoModule cm = new SoftwareServerCryptoModule(new Random(0));
 		PestoAuthenticationHandler pestoHandler = new PestoAuthenticationHandler(db, cm, sessionDb, new HashMap<>() );
@@ -1717,6 +1849,14 @@ public class TestPestoUsernameAndCookieHandler {
 		assertFalse(val);
 	}
 
+	// Mock that uses the default implementations of the combined database operations
+	private PestoDatabase mockDatabase() throws OperationFailedException {
+		PestoDatabase db = mock(PestoDatabase.class);
+		doCallRealMethod().when(db).getUserAuthState(anyString());
+		doCallRealMethod().when(db).recordAuthAttempt(anyString(), anyLong(), anyBoolean());
+		return db;
+	}
+
 	private ServerCryptoModule mockCrypto(){
 		ServerCryptoModule cm = mock(ServerCryptoModule.class);
 		doAnswer(i -> "signature".equals(new String(i.getArgument(2,byte[].class)))).when(cm).verifySignature(any(),anyList(),any());
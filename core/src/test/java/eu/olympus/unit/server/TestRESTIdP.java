@@ -28,6 +28,7 @@ import java.util.concurrent.Future;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import org.eclipse.jetty.http.HttpStatus;
@@ -50,7 +51,7 @@ public class TestRESTIdP {
 
         Client client = ClientBuilder.newClient();
 
-        AddPartialSignatureRequest request = new AddPartialSignatureRequest("ssid", "signature");
+        AddPartialSignatureRequest request = new AddPartialSignatureRequest("ssid", "signature".getBytes());
         Response response = client.target("http://localhost:10666/idp/" + PestoRESTEndpoints.ADD_PARTIAL_SIGNATURE).request().header("Authorization", "Bearer authToken")
             .post(Entity.entity(request, MediaType.APPLICATION_JSON));
 
@@ -80,9 +81,10 @@ public class TestRESTIdP {
 
         server.stop();
 
-        //Ensure both clients were blocked by the rate limit
+        //Ensure both clients were blocked by the rate limit, and told when to retry
         assertNotNull(response);
         assertNotNull(responseTwo);
+        assertNotNull(response.getHeaderString(HttpHeaders.RETRY_AFTER));
     }
 
     /**
@@ -90,7 +92,7 @@ public class TestRESTIdP {
      */
     public Response executeSimultaneousRequests(Client client, int port) throws ExecutionException, InterruptedException {
 
-        AddPartialSignatureRequest request = new AddPartialSignatureRequest("ssid", "signature");
+        AddPartialSignatureRequest request = new AddPartialSignatureRequest("ssid", "signature".getBytes());
         ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
 
         List<Future<Response>> responses = new ArrayList<>();
@@ -102,7 +104,7 @@ public class TestRESTIdP {
         Response result = null;
         for (Future<Response> responseFuture: responses) {
             Response response = responseFuture.get();
-            if(response.getStatus() == HttpStatus.NOT_ACCEPTABLE_406){
+            if(response.getStatus() == HttpStatus.TOO_MANY_REQUESTS_429){
                 // Rate limit is reached
                 result = response;
             }
@@ -126,7 +128,7 @@ public class TestRESTIdP {
 
 
         Client client = ClientBuilder.newClient();
-        AddPartialSignatureRequest request = new AddPartialSignatureRequest("ssid", "signature");
+        AddPartialSignatureRequest request = new AddPartialSignatureRequest("ssid", "signature".getBytes());
         Response response = client.target("http://localhost:10666/idp/" + PestoRESTEndpoints.ADD_PARTIAL_SIGNATURE).request().header("Authorization", "Bearer authToken")
             .post(Entity.entity(request, MediaType.APPLICATION_JSON));
 
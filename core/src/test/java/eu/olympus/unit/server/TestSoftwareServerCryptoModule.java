@@ -207,6 +207,23 @@ public class TestSoftwareServerCryptoModule {
 		assertEquals(expected, b64(bytes));
 	}
 
+	@Test
+	public void testHashAndPairCache() {
+		if(crypto == null) {
+			testSetup();
+		}
+		ECP point = ECP.generator();
+		byte[] first = new byte[696];
+		crypto.hashAndPair("cachedValue".getBytes(), point).toBytes(first);
+		assertThat(crypto.getHashCacheMisses(), is(1L));
+		byte[] second = new byte[696];
+		crypto.hashAndPair("cachedValue".getBytes(), point).toBytes(second);
+		assertThat(crypto.getHashCacheHits(), is(1L));
+		assertEquals(b64(first), b64(second));
+		crypto.hashAndPair("otherValue".getBytes(), point);
+		assertThat(crypto.getHashCacheMisses(), is(2L));
+	}
+
 	@Test
 	public void sanityCheckCurveHashing() {
 		if(crypto == null) {
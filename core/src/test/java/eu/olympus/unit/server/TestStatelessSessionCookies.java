@@ -0,0 +1,67 @@
+package eu.olympus.unit.server;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import eu.olympus.model.Authorization;
+import eu.olympus.server.StatelessSessionCookies;
+import eu.olympus.server.rest.Role;
+import java.util.Arrays;
+import org.apache.commons.codec.binary.Base64;
+import org.junit.Test;
+
+public class TestStatelessSessionCookies {
+
+	private static byte[] key(int value) {
+		byte[] key = new byte[32];
+		Arrays.fill(key, (byte) value);
+		return key;
+	}
+
+	@Test
+	public void testEncodeDecode() {
+		StatelessSessionCookies cookies = new StatelessSessionCookies(key(1));
+		String cookie = cookies.encode(new Authorization("üser", Arrays.asList(Role.USER, Role.ADMIN), 1234567L));
+		Authorization decoded = cookies.decode(cookie);
+		assertThat(decoded.getId(), is("üser"));
+		assertThat(decoded.getRoles(), is(Arrays.asList(Role.USER, Role.ADMIN)));
+		assertThat(decoded.getExpiration(), is(1234567L));
+		// Each cookie is unique
+		assertThat(cookies.encode(new Authorization("üser", Arrays.asList(Role.USER, Role.ADMIN), 1234567L)), not(cookie));
+		// Another IdP with the same key accepts it
+		assertThat(new StatelessSessionCookies(key(1)).decode(cookie).getId(), is("üser"));
+	}
+
+	@Test
+	public void testInvalidCookies() {
+		StatelessSessionCookies cookies = new StatelessSessionCookies(key(1));
+		String cookie = cookies.encode(new Authorization("user", Arrays.asList(Role.USER), 1234567L));
+		byte[] bytes = Base64.decodeBase64(cookie);
+		bytes[20] ^= 1;
+		assertThat(cookies.decode(Base64.encodeBase64String(bytes)), nullValue());
+		assertThat(new StatelessSessionCookies(key(2)).decode(cookie), nullValue());
+		assertThat(cookies.decode(Base64.encodeBase64String(new byte[64])), nullValue());
+		assertThat(cookies.decode("notacookie"), nullValue());
+		assertThat(cookies.decode(""), nullValue());
+	}
+
+	@Test
+	public void testRotateKey() {
+		StatelessSessionCookies cookies = new StatelessSessionCookies(key(1));
+		String first = cookies.encode(new Authorization("user", Arrays.asList(Role.USER), 1234567L));
+		cookies.rotateKey(key(2));
+		String second = cookies.encode(new Authorization("user", Arrays.asList(Role.USER), 1234567L));
+		assertThat(cookies.decode(first).getId(), is("user"));
+		assertThat(cookies.decode(second).getId(), is("user"));
+		cookies.rotateKey(key(3));
+		assertThat(cookies.decode(first), nullValue());
+		assertThat(cookies.decode(second).getId(), is("user"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testShortKey() {
+		new StatelessSessionCookies(new byte[16]);
+	}
+}
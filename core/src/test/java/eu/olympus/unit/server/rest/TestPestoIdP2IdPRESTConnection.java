@@ -4,9 +4,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import eu.olympus.TestParameters;
 import eu.olympus.model.Authorization;
+import eu.olympus.model.HttpTransportConfiguration;
 import eu.olympus.model.PABCConfigurationImpl;
 import eu.olympus.server.PestoIdPImpl;
 import eu.olympus.server.SoftwareServerCryptoModule;
@@ -16,11 +18,13 @@ import eu.olympus.server.interfaces.PestoDatabase;
 import eu.olympus.server.interfaces.PestoIdP;
 import eu.olympus.server.rest.PestoIdP2IdPRESTConnection;
 import eu.olympus.server.rest.PestoIdPServlet;
+import eu.olympus.server.rest.RESTClientFactory;
 import eu.olympus.server.rest.RESTIdPServer;
 import eu.olympus.server.rest.Role;
 import eu.olympus.server.storage.InMemoryPestoDatabase;
 import eu.olympus.util.keyManagement.CertificateUtil;
 import eu.olympus.util.keyManagement.SecureStoreUtil;
+import java.net.ServerSocket;
 import java.security.KeyStore;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
@@ -30,6 +34,13 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -94,12 +105,137 @@ public class TestPestoIdP2IdPRESTConnection {
 		Certificate certificate = connection.getCertificate();
 		assertNotNull(certificate);
 		assertEquals(certificate,CertificateUtil.loadCertificate(TestParameters.TEST_DIR +"testCert.crt"));
+		assertTrue(addPartialReached);
+		assertTrue(addMasterReached);
+		assertTrue(setKeyShareReached);
+
+		addPartialReached = false;
+		addMasterReached = false;
+		setKeyShareReached = false;
+		// addMasterShare refreshes the cookie, so it must not overlap with the other requests
+		CompletableFuture.allOf(connection.addPartialServerSignatureAsync("ssid", "signature".getBytes()),
+				connection.setKeyShareAsync(1, "newShare".getBytes())).get(10, TimeUnit.SECONDS);
+		connection.addMasterShareAsync("newSsid", "newShare".getBytes()).get(10, TimeUnit.SECONDS);
 		server.stop();
 		assertTrue(addPartialReached);
 		assertTrue(addMasterReached);
 		assertTrue(setKeyShareReached);
 	}
 
+	@Test
+	public void testPooledTransport() throws Exception {
+		RESTIdPServer server = new RESTIdPServer();
+		PestoIdPImpl testIdP = new PestoIdPImpl(new InMemoryPestoDatabase(), new ArrayList<>(), new HashMap<String, MFAAuthenticator>(), new SoftwareServerCryptoModule(new Random(1)), 1000) {
+
+			@Override
+			public Certificate getCertificate(){
+				try {
+					return CertificateUtil.loadCertificate(TestParameters.TEST_DIR +"testCert.crt");
+				} catch (Exception e) {
+					return null;
+				}
+			}
+
+			@Override
+			public void addPartialServerSignature(String ssid, byte[] signature) {
+				addPartialReached = true;
+			}
+
+			@Override
+			public void setKeyShare(int id, byte[] newShares) {
+				setKeyShareReached = true;
+			}
+		};
+		server.setIdP(testIdP);
+		List<String> types = new ArrayList<String>();
+		types.add(PestoIdPServlet.class.getCanonicalName());
+		testIdP.addSession("server1", new Authorization("user",  Arrays.asList(new Role[]{Role.SERVER}), System.currentTimeMillis()+10000l));
+		server.start(10666, types, 10667, null, null, null);
+
+		// A single connection per route, so every request must reuse the pooled connection
+		HttpTransportConfiguration transport = new HttpTransportConfiguration(true, 1, 1, 60000);
+		PestoIdP2IdPRESTConnection connection = new PestoIdP2IdPRESTConnection("http://localhost:10666", 1, "server1", transport);
+		assertFalse(new HttpTransportConfiguration().isPooled());
+		for (int i = 0; i < 5; i++) {
+			connection.addPartialServerSignature("ssid"+i, "signature".getBytes());
+			assertEquals(CertificateUtil.loadCertificate(TestParameters.TEST_DIR +"testCert.crt"), connection.getCertificate());
+		}
+		List<CompletableFuture<Void>> requests = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			requests.add(connection.setKeyShareAsync(i, "newShare".getBytes()));
+		}
+		CompletableFuture.allOf(requests.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+		server.stop();
+		assertTrue(addPartialReached);
+		assertTrue(setKeyShareReached);
+	}
+
+	@Test
+	public void testUnresponsivePeerTimesOut() throws Exception {
+		// Accepts connections, but never answers
+		try (ServerSocket peer = new ServerSocket(0)) {
+			String url = "http://localhost:" + peer.getLocalPort();
+			HttpTransportConfiguration pooled = new HttpTransportConfiguration(true, 1, 1, 60000);
+			pooled.setReadTimeout(500);
+			HttpTransportConfiguration plain = new HttpTransportConfiguration(false, 1, 1, 60000);
+			plain.setReadTimeout(500);
+			for (HttpTransportConfiguration transport : Arrays.asList(pooled, plain)) {
+				PestoIdP2IdPRESTConnection connection = new PestoIdP2IdPRESTConnection(url, 1, "server1", transport);
+				CompletableFuture<Void> request = connection.setKeyShareAsync(1, "newShare".getBytes());
+				// The call returns without waiting for the reply
+				assertFalse(request.isDone());
+				try {
+					request.get(10, TimeUnit.SECONDS);
+					fail();
+				} catch (ExecutionException e) {
+					// The read timeout failed the request, well before the test gave up on it
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testFullRequestQueueFailsAtOnce() throws Exception {
+		// Accepts connections, but never answers
+		try (ServerSocket peer = new ServerSocket(0)) {
+			HttpTransportConfiguration pooled = new HttpTransportConfiguration(true, 1, 1, 60000);
+			pooled.setReadTimeout(5000);
+			pooled.setMaxQueuedRequests(1);
+			Client client = RESTClientFactory.newClient(pooled);
+			WebTarget target = client.target("http://localhost:" + peer.getLocalPort());
+			// One request holds the only thread of the connector and one waits in its queue
+			Future<Response> running = target.request().async().get();
+			Future<Response> queued = target.request().async().get();
+			long start = System.currentTimeMillis();
+			try {
+				target.request().async().get().get(10, TimeUnit.SECONDS);
+				fail();
+			} catch (ExecutionException e) {
+				// Rejected without waiting for the read timeout of the others
+				assertTrue(System.currentTimeMillis() - start < 5000);
+			}
+			assertFalse(queued.isDone());
+			assertFalse(running.isDone());
+			client.close();
+		}
+	}
+
+	@Test
+	public void testZeroTimeoutIsNoTimeout() throws Exception {
+		// Accepts connections, but never answers
+		try (ServerSocket peer = new ServerSocket(0)) {
+			String url = "http://localhost:" + peer.getLocalPort();
+			HttpTransportConfiguration plain = new HttpTransportConfiguration(false, 1, 1, 60000);
+			plain.setReadTimeout(0);
+			PestoIdP2IdPRESTConnection connection = new PestoIdP2IdPRESTConnection(url, 1, "server1", plain);
+			CompletableFuture<Void> request = connection.setKeyShareAsync(1, "newShare".getBytes());
+			// Still waiting after the default read timeout would have failed it
+			Thread.sleep(HttpTransportConfiguration.DEFAULT_READ_TIMEOUT + 1000);
+			assertFalse(request.isDone());
+			request.cancel(true);
+		}
+	}
+
 	@Ignore
 	@Test(expected = CertificateException.class)
 	public void testWrongDomainCert() throws Exception {
@@ -0,0 +1,173 @@
+package eu.olympus.unit.server.rest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.olympus.model.Attribute;
+import eu.olympus.model.Operation;
+import eu.olympus.model.Policy;
+import eu.olympus.model.Predicate;
+import eu.olympus.model.server.rest.AttributeMap;
+import eu.olympus.model.server.rest.DeleteAttributesRequest;
+import eu.olympus.model.server.rest.OPRFRequest;
+import eu.olympus.model.server.rest.SignatureAndPolicy;
+import eu.olympus.protos.rest.RestMessages;
+import eu.olympus.server.rest.ProtobufMessageProvider;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.ws.rs.BadRequestException;
+import org.apache.commons.codec.binary.Base64;
+import org.junit.Test;
+
+public class TestProtobufMessageProvider {
+
+	private final ProtobufMessageProvider provider = new ProtobufMessageProvider();
+
+	private byte[] write(Object message) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		provider.writeTo(message, message.getClass(), message.getClass(), null, ProtobufMessageProvider.APPLICATION_PROTOBUF_TYPE, null, out);
+		return out.toByteArray();
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T read(Class<T> type, byte[] bytes) throws Exception {
+		return (T) provider.readFrom((Class<Object>) type, type, null, ProtobufMessageProvider.APPLICATION_PROTOBUF_TYPE, null, new ByteArrayInputStream(bytes));
+	}
+
+	@Test
+	public void testNullAndEmptyFields() throws Exception {
+		OPRFRequest request = new OPRFRequest("ssid", null, new byte[] {1, 2, 3});
+		request.setMfaToken("");
+		request.setSessionCookie(new byte[0]);
+		OPRFRequest received = read(OPRFRequest.class, write(request));
+		assertEquals("ssid", received.getSsid());
+		assertNull(received.getUsername());
+		assertArrayEquals(request.getElement(), received.getElement());
+		assertEquals("", received.getMfaToken());
+		assertNull(received.getMfaType());
+		assertArrayEquals(new byte[0], received.getSessionCookie());
+		request.setSessionCookie(null);
+		assertNull(read(OPRFRequest.class, write(request)).getSessionCookie());
+	}
+
+	@Test
+	public void testRawBytes() throws Exception {
+		byte[] element = new byte[] {1, 2, 3};
+		RestMessages.OPRFRequest proto = RestMessages.OPRFRequest.parseFrom(write(new OPRFRequest("ssid", "user", element)));
+		assertArrayEquals(element, proto.getElement().toByteArray());
+		// The JSON form still carries the bytes as Base64
+		assertEquals("\"" + Base64.encodeBase64String(element) + "\"",
+			new ObjectMapper().readTree(new ObjectMapper().writeValueAsBytes(new OPRFRequest("ssid", "user", element))).get("element").toString());
+		OPRFRequest fromJson = new ObjectMapper().readValue("{\"element\":\"" + Base64.encodeBase64String(element) + "\"}", OPRFRequest.class);
+		assertArrayEquals(element, fromJson.getElement());
+	}
+
+	@Test
+	public void testOperationValues() throws Exception {
+		// The enum numbers of the wire format do not follow the declaration order of Operation
+		assertEquals(4, RestMessages.Operation.REVEAL.getNumber());
+		assertEquals(0, RestMessages.Operation.OPERATION_UNSPECIFIED.getNumber());
+		for (Operation operation : Operation.values()) {
+			Policy policy = new Policy(Arrays.asList(new Predicate("name", operation, null)), "policy");
+			RestMessages.Policy proto = RestMessages.Policy.parseFrom(write(policy));
+			assertEquals(operation.name(), proto.getPredicates(0).getOperation().name());
+			assertEquals(operation, read(Policy.class, proto.toByteArray()).getPredicates().get(0).getOperation());
+		}
+		// No operation, or one added by a newer IdP
+		RestMessages.Policy unknown = RestMessages.Policy.newBuilder()
+			.addPredicates(RestMessages.Predicate.newBuilder().setAttributeName("name"))
+			.addPredicates(RestMessages.Predicate.newBuilder().setAttributeName("name").setOperationValue(42))
+			.build();
+		Policy received = read(Policy.class, unknown.toByteArray());
+		assertNull(received.getPredicates().get(0).getOperation());
+		assertNull(received.getPredicates().get(1).getOperation());
+	}
+
+	@Test
+	public void testNestedMessages() throws Exception {
+		Policy policy = new Policy();
+		policy.setPolicyId("policy");
+		policy.setPredicates(Arrays.asList(new Predicate("name", Operation.REVEAL, null),
+			new Predicate("age", Operation.INRANGE, new Attribute(18), new Attribute(65))));
+		SignatureAndPolicy request = new SignatureAndPolicy("user", "cookie".getBytes(), 1000, "signature".getBytes(), policy);
+
+		byte[] bytes = write(request);
+		SignatureAndPolicy received = read(SignatureAndPolicy.class, bytes);
+		assertEquals("user", received.getUsername());
+		assertEquals(1000, received.getSaltIndex());
+		assertArrayEquals(request.getSessionCookie(), received.getSessionCookie());
+		assertArrayEquals(request.getSignature(), received.getSignature());
+		assertEquals("policy", received.getPolicy().getPolicyId());
+		assertEquals(2, received.getPolicy().getPredicates().size());
+		Predicate reveal = received.getPolicy().getPredicates().get(0);
+		assertEquals("name", reveal.getAttributeName());
+		assertEquals(Operation.REVEAL, reveal.getOperation());
+		assertNull(reveal.getValue());
+		Predicate range = received.getPolicy().getPredicates().get(1);
+		assertEquals(Operation.INRANGE, range.getOperation());
+		assertEquals(new Attribute(18), range.getValue());
+		assertEquals(new Attribute(65), range.getExtraValue());
+
+		assertTrue(bytes.length < new ObjectMapper().writeValueAsBytes(request).length);
+	}
+
+	@Test
+	public void testAttributeMap() throws Exception {
+		Map<String, Attribute> attributes = new LinkedHashMap<>();
+		attributes.put("name", new Attribute("John"));
+		attributes.put("age", new Attribute(42));
+		attributes.put("verified", new Attribute(true));
+		attributes.put("born", new Attribute(new Date(0)));
+		AttributeMap received = read(AttributeMap.class, write(new AttributeMap(attributes)));
+		assertEquals(attributes, received.getAttributes());
+
+		assertTrue(read(AttributeMap.class, new byte[0]).getAttributes().isEmpty());
+	}
+
+	@Test
+	public void testRepeatedStrings() throws Exception {
+		DeleteAttributesRequest request = new DeleteAttributesRequest("user", null, 1, null, Arrays.asList("name", "age"));
+		assertEquals(Arrays.asList("name", "age"), read(DeleteAttributesRequest.class, write(request)).getAttributes());
+	}
+
+	@Test
+	public void testWrappedValues() throws Exception {
+		assertEquals("token", read(String.class, write("token")));
+		assertEquals("", read(String.class, write("")));
+		assertTrue(read(Boolean.class, write(Boolean.TRUE)));
+		assertFalse(read(boolean.class, write(false)));
+	}
+
+	@Test
+	public void testUnknownFieldsAreSkipped() throws Exception {
+		byte[] known = write(new OPRFRequest("ssid", "user", null));
+		// Field 15 as a string and field 16 as a varint, as a newer IdP might send
+		byte[] unknown = new byte[] {0x7a, 0x02, 'h', 'i', (byte) 0x80, 0x01, 0x05};
+		byte[] bytes = Arrays.copyOf(unknown, unknown.length + known.length);
+		System.arraycopy(known, 0, bytes, unknown.length, known.length);
+		OPRFRequest received = read(OPRFRequest.class, bytes);
+		assertEquals("ssid", received.getSsid());
+		assertEquals("user", received.getUsername());
+	}
+
+	@Test(expected = BadRequestException.class)
+	public void testMalformed() throws Exception {
+		// A string field claiming more bytes than are sent
+		read(OPRFRequest.class, new byte[] {0x0a, 0x10, 'a'});
+	}
+
+	@Test
+	public void testSupportedTypes() {
+		assertTrue(provider.isReadable(OPRFRequest.class, null, null, ProtobufMessageProvider.APPLICATION_PROTOBUF_TYPE));
+		assertTrue(provider.isWriteable(String.class, null, null, ProtobufMessageProvider.APPLICATION_PROTOBUF_TYPE));
+		assertFalse(provider.isWriteable(Date.class, null, null, ProtobufMessageProvider.APPLICATION_PROTOBUF_TYPE));
+	}
+}
@@ -0,0 +1,89 @@
+package eu.olympus.unit.server.rest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import eu.olympus.server.PestoIdPImpl;
+import eu.olympus.server.rest.RequestRateLimiter;
+import eu.olympus.server.rest.RequestRateLimiter.EndpointClass;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import org.junit.Test;
+
+public class TestRequestRateLimiter {
+
+	@Test
+	public void testBudgetsAreSeparate() {
+		RequestRateLimiter limiter = new RequestRateLimiter(1, 2, 1);
+		assertTrue(limiter.tryAcquire(EndpointClass.SERVER, "10.0.0.1"));
+		assertFalse(limiter.tryAcquire(EndpointClass.SERVER, "10.0.0.1"));
+		// Other addresses and endpoint classes are not affected
+		assertTrue(limiter.tryAcquire(EndpointClass.SERVER, "10.0.0.2"));
+		assertTrue(limiter.tryAcquire(EndpointClass.USER, "10.0.0.1"));
+		assertTrue(limiter.tryAcquire(EndpointClass.EXPENSIVE, "10.0.0.1"));
+		assertTrue(limiter.tryAcquire(EndpointClass.EXPENSIVE, "10.0.0.1"));
+		assertFalse(limiter.tryAcquire(EndpointClass.EXPENSIVE, "10.0.0.1"));
+
+		assertTrue(limiter.tryAcquireUser("alice"));
+		assertFalse(limiter.tryAcquireUser("alice"));
+		assertTrue(limiter.tryAcquireUser("bob"));
+		assertEquals(2, limiter.getUserLimiter().getAllowed());
+		assertEquals(1, limiter.getUserLimiter().getRejected());
+		assertEquals(2, limiter.getLimiter(EndpointClass.SERVER).getKeys());
+	}
+
+	@Test
+	public void testClientAddress() {
+		HttpServletRequest request = mock(HttpServletRequest.class);
+		doReturn("10.0.0.1").when(request).getRemoteAddr();
+		doReturn("1.2.3.4, 5.6.7.8").when(request).getHeader("X-Forwarded-For");
+		assertEquals("10.0.0.1", new RequestRateLimiter(1, 0, 0).clientAddress(request));
+		// The last entry is the one added by the proxy
+		RequestRateLimiter limiter = new RequestRateLimiter(1, 0, 0, "X-Forwarded-For");
+		assertEquals("5.6.7.8", limiter.clientAddress(request));
+		doReturn(null).when(request).getHeader("X-Forwarded-For");
+		assertEquals("10.0.0.1", limiter.clientAddress(request));
+
+		assertEquals(0, limiter.acquire(EndpointClass.USER, "5.6.7.8"));
+		assertTrue(limiter.acquire(EndpointClass.USER, "5.6.7.8") > 0);
+	}
+
+	@Test
+	public void testDisabledLimits() {
+		RequestRateLimiter limiter = new RequestRateLimiter(0, 0, 0);
+		for (int i = 0; i < 100; i++) {
+			assertTrue(limiter.tryAcquire(EndpointClass.EXPENSIVE, "10.0.0.1"));
+			assertTrue(limiter.tryAcquireUser("alice"));
+		}
+		assertNull(limiter.getUserLimiter());
+	}
+
+	@Test
+	public void testCreatedFromIdP() {
+		PestoIdPImpl idp = mock(PestoIdPImpl.class);
+		doReturn(5).when(idp).getRateLimit();
+		doReturn(1).when(idp).getUserRateLimit();
+		ServletContext context = mock(ServletContext.class);
+		doReturn(idp).when(context).getAttribute("idp");
+
+		RequestRateLimiter limiter = RequestRateLimiter.get(context);
+		verify(context).setAttribute(eq("rateLimiter"), eq(limiter));
+		assertTrue(limiter.tryAcquireUser("alice"));
+		assertFalse(limiter.tryAcquireUser("alice"));
+		// The expensive endpoints fall back to the general limit
+		for (int i = 0; i < 5; i++) {
+			assertTrue(limiter.tryAcquire(EndpointClass.EXPENSIVE, "10.0.0.1"));
+		}
+		assertFalse(limiter.tryAcquire(EndpointClass.EXPENSIVE, "10.0.0.1"));
+
+		doReturn(limiter).when(context).getAttribute("rateLimiter");
+		assertSame(limiter, RequestRateLimiter.get(context));
+	}
+}
@@ -14,7 +14,6 @@ import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
-import org.apache.commons.codec.binary.Base64;
 import org.junit.Test;
 
 import eu.olympus.model.Authorization;
@@ -51,7 +50,7 @@ public class TestUsernameAndCookieFilter {
 		String host = "http://localhost:10666/idp/";
 	    Client client = ClientBuilder.newClient();
 	    
-	    AddPartialSignatureRequest request = new AddPartialSignatureRequest("ssid", Base64.encodeBase64String("signature".getBytes()));
+	    AddPartialSignatureRequest request = new AddPartialSignatureRequest("ssid", "signature".getBytes());
 	    
 	    
 		Response response = client.target(host+ PestoRESTEndpoints.ADD_PARTIAL_SIGNATURE).request()
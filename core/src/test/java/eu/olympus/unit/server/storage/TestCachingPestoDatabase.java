@@ -0,0 +1,110 @@
+package eu.olympus.unit.server.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import eu.olympus.TestParameters;
+import eu.olympus.model.Attribute;
+import eu.olympus.model.UserAuthState;
+import eu.olympus.server.interfaces.PestoDatabase;
+import eu.olympus.server.storage.CachingPestoDatabase;
+import eu.olympus.server.storage.InMemoryPestoDatabase;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestCachingPestoDatabase {
+
+	private PestoDatabase backing;
+	private CachingPestoDatabase db;
+
+	@Before
+	public void setup() throws Exception {
+		backing = spy(new InMemoryPestoDatabase());
+		db = new CachingPestoDatabase(backing, 10, 0);
+		db.addUser("user", TestParameters.getRSAPublicKey1(), 1000L);
+	}
+
+	@Test
+	public void testUserKey() throws Exception {
+		assertEquals(TestParameters.getRSAPublicKey1(), db.getUserKey("user"));
+		assertEquals(TestParameters.getRSAPublicKey1(), db.getUserKey("user"));
+		verify(backing, times(1)).getUserKey("user");
+
+		db.replaceUserKey("user", TestParameters.getRSAPublicKey2(), 2000L);
+		assertEquals(TestParameters.getRSAPublicKey2(), db.getUserKey("user"));
+		assertEquals(2000L, db.getLastSalt("user"));
+		verify(backing, times(2)).getUserKey("user");
+		// Unknown users are not cached
+		assertNull(db.getUserKey("unknown"));
+		assertNull(db.getUserKey("unknown"));
+		verify(backing, times(2)).getUserKey("unknown");
+	}
+
+	@Test
+	public void testSalt() throws Exception {
+		assertEquals(1000L, db.getLastSalt("user"));
+		assertEquals(1000L, db.getLastSalt("user"));
+		verify(backing, times(1)).getLastSalt("user");
+		db.setSalt("user", 1500L);
+		assertEquals(1500L, db.getLastSalt("user"));
+		db.recordAuthAttempt("user", 1600L, false);
+		assertEquals(1600L, db.getLastSalt("user"));
+		verify(backing, times(3)).getLastSalt("user");
+	}
+
+	@Test
+	public void testAttributes() throws Exception {
+		db.addAttribute("user", "name", new Attribute("John"));
+		assertEquals(1, db.getAttributes("user").size());
+		Map<String, Attribute> attributes = db.getAttributes("user");
+		// Changes by the caller do not affect the cache
+		attributes.clear();
+		assertEquals(new Attribute("John"), db.getAttributes("user").get("name"));
+		verify(backing, times(1)).getAttributes("user");
+
+		db.addAttribute("user", "age", new Attribute(42));
+		assertEquals(2, db.getAttributes("user").size());
+		assertTrue(db.deleteAttribute("user", "age"));
+		assertEquals(1, db.getAttributes("user").size());
+		assertTrue(db.deleteUser("user"));
+		assertFalse(db.hasUser("user"));
+		assertNull(db.getUserKey("user"));
+	}
+
+	@Test
+	public void testUserAuthState() throws Exception {
+		UserAuthState state = db.getUserAuthState("user");
+		assertTrue(state.userExists());
+		assertEquals(0, state.getFailedAuthAttempts());
+		assertEquals(state, db.getUserAuthState("user"));
+		db.recordAuthAttempt("user", 2000L, false);
+		assertEquals(2000L, db.getUserAuthState("user").getSalt());
+		db.assignMFASecret("user", "type", "secret");
+		assertEquals(1, db.getUserAuthState("user").getMFAInformation().size());
+
+		assertFalse(db.getUserAuthState("new").userExists());
+		db.addUser("new", TestParameters.getRSAPublicKey2(), 1000L);
+		assertTrue(db.getUserAuthState("new").userExists());
+	}
+
+	@Test
+	public void testHitRatio() throws Exception {
+		assertEquals(0.0, db.getHitRatio(), 0.0);
+		db.getUserKey("user");
+		db.getUserKey("user");
+		db.getUserKey("user");
+		db.getUserKey("user");
+		assertEquals(3, db.getHits());
+		assertEquals(1, db.getMisses());
+		assertEquals(0.75, db.getHitRatio(), 0.0);
+		db.clear();
+		db.getUserKey("user");
+		assertEquals(2, db.getMisses());
+	}
+}
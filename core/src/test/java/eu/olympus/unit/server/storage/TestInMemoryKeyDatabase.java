@@ -1,9 +1,13 @@
 package eu.olympus.unit.server.storage;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
@@ -25,6 +29,84 @@ public class TestInMemoryKeyDatabase {
 		assertEquals(db.getPartialSignatures("user").size(), 0);
 	}
 	
+	@Test
+	public void testWaitForPartialSignatures() throws Exception {
+		InMemoryKeyDB db = new InMemoryKeyDB();
+		db.addPartialSignature("user", "sig1".getBytes());
+		Thread sender = new Thread(() -> {
+			db.addPartialSignature("user", "sig2".getBytes());
+			db.addPartialSignature("user", "sig3".getBytes());
+		});
+		sender.start();
+		assertTrue(db.waitForPartialSignatures("user", 3, 10000));
+		assertEquals(3, db.getPartialSignatures("user").size());
+		sender.join();
+		assertFalse(db.waitForPartialSignatures("user", 4, 10));
+	}
+
+	@Test
+	public void testWaitForDeletedPartialSignatures() throws Exception {
+		InMemoryKeyDB db = new InMemoryKeyDB();
+		db.addPartialSignature("user", "sig1".getBytes());
+		Thread deleter = new Thread(() -> db.deletePartialSignatures("user"));
+		long start = System.currentTimeMillis();
+		deleter.start();
+		assertFalse(db.waitForPartialSignatures("user", 2, 10000));
+		assertTrue(System.currentTimeMillis() - start < 10000);
+		deleter.join();
+	}
+
+	@Test
+	public void testAwaitPartialSignatures() throws Exception {
+		InMemoryKeyDB db = new InMemoryKeyDB();
+		db.addPartialSignature("user", "sig1".getBytes());
+		CompletableFuture<Boolean> complete = db.awaitPartialSignatures("user", 2, 10000);
+		assertFalse(complete.isDone());
+		db.addPartialSignature("user", "sig2".getBytes());
+		assertTrue(complete.getNow(false));
+		assertTrue(db.awaitPartialSignatures("user", 2, 10000).getNow(false));
+
+		CompletableFuture<Boolean> timedOut = db.awaitPartialSignatures("user", 3, 10);
+		assertFalse(timedOut.get(10000, TimeUnit.MILLISECONDS));
+
+		CompletableFuture<Boolean> deleted = db.awaitPartialSignatures("user", 3, 10000);
+		db.deletePartialSignatures("user");
+		assertFalse(deleted.getNow(true));
+	}
+
+	@Test
+	public void testAwaitPartialMFASecrets() throws Exception {
+		InMemoryKeyDB db = new InMemoryKeyDB();
+		CompletableFuture<Boolean> complete = db.awaitPartialMFASecrets("user", 2, 10000);
+		Thread sender = new Thread(() -> {
+			db.addPartialMFASecret("user", "secret1");
+			db.addPartialMFASecret("user", "secret2");
+		});
+		sender.start();
+		assertTrue(complete.get(10000, TimeUnit.MILLISECONDS));
+		sender.join();
+		assertEquals(2, db.getPartialMFASecrets("user").size());
+	}
+
+	@Test
+	public void testWaitForPartialMFASecretsAndMasterShares() throws Exception {
+		InMemoryKeyDB db = new InMemoryKeyDB();
+		Thread sender = new Thread(() -> {
+			db.addPartialMFASecret("user", "secret1");
+			db.addPartialMFASecret("user", "secret2");
+			db.addMasterShare("ssid1", "share1".getBytes());
+			db.addMasterShare("ssid2", "share2".getBytes());
+		});
+		sender.start();
+		assertTrue(db.waitForPartialMFASecrets("user", 2, 10000));
+		assertTrue(db.waitForMasterShares(2, 10000));
+		assertEquals(2, db.getSsids().size());
+		sender.join();
+		db.deleteMasterShares();
+		assertEquals(0, db.getMasterShares().size());
+		assertFalse(db.waitForMasterShares(1, 10));
+	}
+
 	@Test
 	public void testTokens() {
 		UserAuthorizationDatabase db = new InMemoryKeyDB();
@@ -36,4 +118,39 @@ public class TestInMemoryKeyDatabase {
 		db.deleteCookie("token");
 		assertNull(db.lookupCookie("token"));
 	}
+
+	@Test
+	public void testRemoveExpired() throws Exception {
+		InMemoryKeyDB db = new InMemoryKeyDB(0, 50);
+		db.storeCookie("expired", new Authorization("id", Arrays.asList(new Role[] {Role.USER}), System.currentTimeMillis()-1));
+		db.storeCookie("valid", new Authorization("id", Arrays.asList(new Role[] {Role.USER}), System.currentTimeMillis()+10000l));
+		db.addPartialSignature("user", "sig1".getBytes());
+		db.addPartialMFASecret("user", "secret1");
+		db.removeExpired();
+		assertNull(db.lookupCookie("expired"));
+		assertEquals("id", db.lookupCookie("valid").getId());
+		assertEquals(1, db.getPartialSignatures("user").size());
+		Thread.sleep(100);
+		db.addPartialSignature("user2", "sig1".getBytes());
+		db.removeExpired();
+		assertEquals(0, db.getPartialSignatures("user").size());
+		assertEquals(0, db.getPartialMFASecrets("user").size());
+		assertEquals(1, db.getPartialSignatures("user2").size());
+	}
+
+	@Test
+	public void testBackgroundCleanup() throws Exception {
+		InMemoryKeyDB db = new InMemoryKeyDB(10, 10000);
+		db.storeCookie("expired", new Authorization("id", Arrays.asList(new Role[] {Role.USER}), System.currentTimeMillis()-1));
+		long deadline = System.currentTimeMillis() + 10000;
+		while(db.lookupCookie("expired") != null && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertNull(db.lookupCookie("expired"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCleanupInterval() {
+		new InMemoryKeyDB(-1, 1000);
+	}
 }
@@ -0,0 +1,397 @@
+package eu.olympus.unit.server.storage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import eu.olympus.TestParameters;
+import eu.olympus.model.Attribute;
+import eu.olympus.model.MFAInformation;
+import eu.olympus.model.UserAuthState;
+import eu.olympus.model.exceptions.OperationFailedException;
+import eu.olympus.server.storage.MappedLogPestoDatabase;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestMappedLogPestoDatabase {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path directory;
+	private MappedLogPestoDatabase db;
+
+	@Before
+	public void setup() throws Exception {
+		directory = folder.newFolder("db").toPath();
+		db = new MappedLogPestoDatabase(directory, 64 * 1024, 0);
+	}
+
+	@After
+	public void teardown() throws Exception {
+		db.close();
+	}
+
+	@Test
+	public void testUser() throws Exception {
+		assertFalse(db.hasUser("user"));
+		assertNull(db.getUserKey("user"));
+		assertEquals(0, db.getLastSalt("user"));
+		db.addUser("user", TestParameters.getRSAPublicKey1(), 1000L);
+		assertTrue(db.hasUser("user"));
+		assertEquals(TestParameters.getRSAPublicKey1(), db.getUserKey("user"));
+		assertEquals(1000L, db.getLastSalt("user"));
+
+		db.setSalt("user", 1500L);
+		assertEquals(1500L, db.getLastSalt("user"));
+		db.replaceUserKey("user", TestParameters.getRSAPublicKey2(), 2000L);
+		assertEquals(TestParameters.getRSAPublicKey2(), db.getUserKey("user"));
+		assertEquals(2000L, db.getLastSalt("user"));
+
+		assertTrue(db.deleteUser("user"));
+		assertFalse(db.deleteUser("user"));
+		assertFalse(db.hasUser("user"));
+		assertEquals(0, db.size());
+	}
+
+	@Test
+	public void testAttributes() throws Exception {
+		db.addUser("user", TestParameters.getRSAPublicKey1(), 1000L);
+		Map<String, Attribute> attributes = new HashMap<>();
+		attributes.put("name", new Attribute("John"));
+		attributes.put("age", new Attribute(42));
+		db.addAttributes("user", attributes);
+		db.addAttribute("user", "verified", new Attribute(true));
+		assertEquals(3, db.getAttributes("user").size());
+		assertEquals(new Attribute("John"), db.getAttributes("user").get("name"));
+		assertEquals(new Attribute(42), db.getAttributes("user").get("age"));
+
+		assertTrue(db.deleteAttributes("user", Arrays.asList("name", "age")));
+		assertFalse(db.deleteAttribute("user", "name"));
+		assertEquals(1, db.getAttributes("user").size());
+		// The key and salt are kept when the record is rewritten
+		assertEquals(TestParameters.getRSAPublicKey1(), db.getUserKey("user"));
+		assertEquals(1000L, db.getLastSalt("user"));
+		try {
+			db.addAttribute("unknown", "name", new Attribute("John"));
+			fail();
+		} catch (OperationFailedException e) {
+		}
+	}
+
+	@Test
+	public void testDeleteMissingAttributes() throws Exception {
+		db.addUser("user", TestParameters.getRSAPublicKey1(), 1000L);
+		db.addAttribute("user", "name", new Attribute("John"));
+		int files = directory.toFile().listFiles().length;
+		// Nothing is removed, so nothing is appended to the log (enough rewrites would fill new segments)
+		for (int i = 0; i < 1000; i++) {
+			assertFalse(db.deleteAttributes("user", Arrays.asList("age", "verified")));
+		}
+		assertEquals(files, directory.toFile().listFiles().length);
+		// Partially deleted, and repeated names count once
+		assertFalse(db.deleteAttributes("user", Arrays.asList("name", "age")));
+		assertTrue(db.getAttributes("user").isEmpty());
+		db.addAttribute("user", "name", new Attribute("John"));
+		assertTrue(db.deleteAttributes("user", Arrays.asList("name", "name")));
+	}
+
+	@Test
+	public void testAttempts() throws Exception {
+		db.addUser("user", TestParameters.getRSAPublicKey1(), 1000L);
+		db.failedAuthAttempt("user");
+		db.failedAuthAttempt("user");
+		assertEquals(2, db.getNumberOfFailedAuthAttempts("user"));
+		assertTrue(db.getLastAuthAttempt("user") > 0);
+		db.clearFailedAuthAttempts("user");
+		assertEquals(0, db.getNumberOfFailedAuthAttempts("user"));
+
+		db.failedMFAAttempt("user");
+		assertEquals(1, db.getNumberOfFailedMFAAttempts("user"));
+		assertTrue(db.getLastMFAAttempt("user") > 0);
+		db.clearFailedMFAAttempts("user");
+		assertEquals(0, db.getNumberOfFailedMFAAttempts("user"));
+
+		db.recordAuthAttempt("user", 1100L, false);
+		assertEquals(1100L, db.getLastSalt("user"));
+		assertEquals(1, db.getNumberOfFailedAuthAttempts("user"));
+		db.recordAuthAttempt("user", 1200L, true);
+		assertEquals(1200L, db.getLastSalt("user"));
+		assertEquals(0, db.getNumberOfFailedAuthAttempts("user"));
+		// Unknown users are ignored
+		db.failedAuthAttempt("unknown");
+		assertEquals(0, db.getNumberOfFailedAuthAttempts("unknown"));
+	}
+
+	@Test
+	public void testMFA() throws Exception {
+		db.addUser("user", TestParameters.getRSAPublicKey1(), 1000L);
+		assertTrue(db.getMFAInformation("user").isEmpty());
+		db.assignMFASecret("user", "totp", "secret");
+		MFAInformation info = db.getMFAInformation("user").get("totp");
+		assertEquals("secret", info.getSecret());
+		assertFalse(info.isActivated());
+		db.activateMFA("user", "totp");
+		assertTrue(db.getMFAInformation("user").get("totp").isActivated());
+		try {
+			db.activateMFA("user", "other");
+			fail();
+		} catch (OperationFailedException e) {
+		}
+		db.deleteMFA("user", "totp");
+		assertTrue(db.getMFAInformation("user").isEmpty());
+	}
+
+	@Test
+	public void testUserAuthState() throws Exception {
+		assertFalse(db.getUserAuthState("user").userExists());
+		db.addUser("user", TestParameters.getRSAPublicKey1(), 1000L);
+		db.assignMFASecret("user", "totp", "secret");
+		db.failedAuthAttempt("user");
+		UserAuthState state = db.getUserAuthState("user");
+		assertTrue(state.userExists());
+		assertEquals(TestParameters.getRSAPublicKey1(), state.getUserKey());
+		assertEquals(1000L, state.getSalt());
+		assertEquals(1, state.getFailedAuthAttempts());
+		assertEquals("secret", state.getMFAInformation().get("totp").getSecret());
+	}
+
+	@Test
+	public void testKeys() throws Exception {
+		assertNull(db.getKeyDigest());
+		assertNull(db.getKeyShare(1));
+		db.setKeyDigest(new byte[] {1, 2});
+		db.setKeyShare(1, new byte[] {3});
+		db.setKeyShare(2, new byte[] {4});
+		db.setKeyShare(1, new byte[] {5});
+		// Keys do not clash with users of the same name
+		db.addUser("keyDigest", TestParameters.getRSAPublicKey1(), 1000L);
+		assertArrayEquals(new byte[] {1, 2}, db.getKeyDigest());
+		assertArrayEquals(new byte[] {5}, db.getKeyShare(1));
+		assertArrayEquals(new byte[] {4}, db.getKeyShare(2));
+	}
+
+	@Test
+	public void testReopen() throws Exception {
+		fill(100);
+		db.deleteUser("user0");
+		db.close();
+		db = new MappedLogPestoDatabase(directory, 64 * 1024, 0);
+		verify(100);
+	}
+
+	@Test
+	public void testRebuildAfterCrash() throws Exception {
+		fill(100);
+		db.deleteUser("user0");
+		// Leave the index marked as in use, as after a crash
+		db.flush();
+		MappedLogPestoDatabase reopened = new MappedLogPestoDatabase(directory, 64 * 1024, 0);
+		try {
+			MappedLogPestoDatabase crashed = db;
+			db = reopened;
+			verify(100);
+			crashed.close();
+		} finally {
+			db = reopened;
+		}
+	}
+
+	@Test
+	public void testRebuildAfterTornAppend() throws Exception {
+		fill(100);
+		db.deleteUser("user0");
+		db.flush();
+		db.close();
+		// Leave the body of an append whose length was never written after the last record, as a crash would
+		int last = 0;
+		while (Files.exists(directory.resolve("segment-" + (last + 1) + ".log"))) {
+			last++;
+		}
+		Path segment = directory.resolve("segment-" + last + ".log");
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+			int end = 0;
+			int length;
+			while ((length = buffer.getInt(end)) > 0) {
+				end += length;
+			}
+			for (int i = end + 4; i < Math.min(end + 1000, buffer.capacity()); i++) {
+				buffer.put(i, (byte) 1);
+			}
+			buffer.force();
+		}
+		Files.delete(directory.resolve("index"));
+		db = new MappedLogPestoDatabase(directory, 64 * 1024, 0);
+		verify(100);
+		// A record shorter than the torn one, then another rebuild
+		db.setKeyShare(1, new byte[]{1});
+		db.flush();
+		MappedLogPestoDatabase crashed = db;
+		db = new MappedLogPestoDatabase(directory, 64 * 1024, 0);
+		assertArrayEquals(new byte[]{1}, db.getKeyShare(1));
+		// The users and the key share
+		assertEquals(100, db.size());
+		assertEquals(new Attribute("name99"), db.getAttributes("user99").get("name"));
+		db.addUser("user100", TestParameters.getRSAPublicKey1(), 100);
+		assertTrue(db.hasUser("user100"));
+		crashed.close();
+	}
+
+	@Test
+	public void testCompaction() throws Exception {
+		fill(100);
+		// Rewrite every user several times, leaving the first segments mostly dead
+		for (int round = 0; round < 3; round++) {
+			for (int i = 1; i < 100; i++) {
+				db.addAttribute("user" + i, "round", new Attribute(round));
+			}
+		}
+		db.deleteUser("user0");
+		long before = directory.toFile().listFiles().length;
+		db.compact();
+		assertTrue(directory.toFile().listFiles().length < before);
+		verify(100);
+		db.close();
+		db = new MappedLogPestoDatabase(directory, 64 * 1024, 0);
+		verify(100);
+	}
+
+	@Test
+	public void testConcurrentCompaction() throws Exception {
+		fill(100);
+		for (int round = 0; round < 3; round++) {
+			for (int i = 1; i < 100; i++) {
+				db.addAttribute("user" + i, "round", new Attribute(round));
+			}
+		}
+		db.deleteUser("user0");
+		long before = directory.toFile().listFiles().length;
+		List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				try {
+					db.compact();
+				} catch (Throwable e) {
+					failures.add(e);
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertTrue(failures.isEmpty());
+		assertTrue(directory.toFile().listFiles().length < before);
+		verify(100);
+	}
+
+	@Test
+	public void testCompactionOfUnindexedRecord() throws Exception {
+		fill(100);
+		// Leave user0 alone in the first segments
+		for (int round = 0; round < 3; round++) {
+			for (int i = 1; i < 100; i++) {
+				db.addAttribute("user" + i, "round", new Attribute(round));
+			}
+		}
+		db.close();
+		// Drop the index entry of user0, the live record at the lowest location
+		try (FileChannel channel = FileChannel.open(directory.resolve("index"), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+			int lowest = -1;
+			for (int position = 64; position < index.capacity(); position += 16) {
+				if (index.getLong(position) != 0 && (lowest < 0 || index.getLong(position + 8) < index.getLong(lowest + 8))) {
+					lowest = position;
+				}
+			}
+			index.putLong(lowest, 0);
+			index.putLong(lowest + 8, 0);
+			index.putInt(12, index.getInt(12) - 1);
+			index.force();
+		}
+		db = new MappedLogPestoDatabase(directory, 64 * 1024, 0);
+		assertFalse(db.hasUser("user0"));
+		Thread compaction = new Thread(() -> {
+			try {
+				db.compact();
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		});
+		compaction.setDaemon(true);
+		compaction.start();
+		compaction.join(30000);
+		assertFalse(compaction.isAlive());
+		assertEquals(new Attribute("name99"), db.getAttributes("user99").get("name"));
+		db.addUser("user100", TestParameters.getRSAPublicKey1(), 100);
+		assertTrue(db.hasUser("user100"));
+	}
+
+	@Test
+	public void testIndexGrowth() throws Exception {
+		int users = 100000;
+		for (int i = 0; i < users; i++) {
+			db.setKeyShare(i, new byte[] {(byte) i});
+		}
+		assertEquals(users, db.size());
+		for (int i = 0; i < users; i += 997) {
+			assertArrayEquals(new byte[] {(byte) i}, db.getKeyShare(i));
+		}
+		db.close();
+		db = new MappedLogPestoDatabase(directory, 64 * 1024, 0);
+		assertEquals(users, db.size());
+		assertArrayEquals(new byte[] {(byte) 12345}, db.getKeyShare(12345));
+	}
+
+	@Test
+	public void testClosed() throws Exception {
+		db.close();
+		try {
+			db.hasUser("user");
+			fail();
+		} catch (IllegalStateException e) {
+		}
+		File[] files = directory.toFile().listFiles();
+		assertTrue(files.length > 0);
+	}
+
+	private void fill(int users) throws Exception {
+		for (int i = 0; i < users; i++) {
+			db.addUser("user" + i, TestParameters.getRSAPublicKey1(), i);
+			db.addAttribute("user" + i, "name", new Attribute("name" + i));
+		}
+		db.failedAuthAttempt("user1");
+	}
+
+	private void verify(int users) throws Exception {
+		assertFalse(db.hasUser("user0"));
+		assertEquals(users - 1, db.size());
+		for (int i = 1; i < users; i++) {
+			assertEquals(TestParameters.getRSAPublicKey1(), db.getUserKey("user" + i));
+			assertEquals(i, db.getLastSalt("user" + i));
+			assertEquals(new Attribute("name" + i), db.getAttributes("user" + i).get("name"));
+		}
+		assertEquals(1, db.getNumberOfFailedAuthAttempts("user1"));
+	}
+}
@@ -1,5 +1,6 @@
 package eu.olympus.unit.util;
 
+import static eu.olympus.util.pairingBLS461.ExtensionFieldAssumptions.assumeSoundExtensionFields;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
@@ -16,6 +17,9 @@ import eu.olympus.util.pairingBLS461.Hash2BLS461;
 import eu.olympus.util.pairingBLS461.PairingBLS461;
 import eu.olympus.util.pairingBLS461.PairingBuilderBLS461;
 import eu.olympus.util.pairingBLS461.ZpElementBLS461;
+import eu.olympus.util.pairingInterfaces.FixedBaseGroup1Element;
+import eu.olympus.util.pairingInterfaces.FixedBaseGroup2Element;
+import eu.olympus.util.pairingInterfaces.FixedBaseGroup3Element;
 import eu.olympus.util.pairingInterfaces.Group1Element;
 import eu.olympus.util.pairingInterfaces.Group2Element;
 import eu.olympus.util.pairingInterfaces.Group3Element;
@@ -25,6 +29,7 @@ import eu.olympus.util.pairingInterfaces.Hash2;
 import eu.olympus.util.pairingInterfaces.Hash2Modified;
 import eu.olympus.util.pairingInterfaces.Pairing;
 import eu.olympus.util.pairingInterfaces.PairingBuilder;
+import eu.olympus.util.pairingInterfaces.PairingProductEquation;
 import eu.olympus.util.pairingInterfaces.ZpElement;
 import eu.olympus.util.psmultisign.PSauxArg;
 import eu.olympus.util.psmultisign.PSms;
@@ -216,6 +221,108 @@ public class TestBLS461 {
         assertThat(res1.equals(res2),is(true));
     }
 
+    @Test
+    public void testPairingProductEquation() {
+        assumeSoundExtensionFields();
+        PairingBuilder builder=new PairingBuilderBLS461();
+        builder.seedRandom(seed);
+        PairingBLS461 pair=new PairingBLS461();
+        Group2Element g1=builder.getGroup2Generator();
+        Group1Element g2=builder.getGroup1Generator();
+        ZpElement a=builder.getRandomZpElement();
+        ZpElement b=builder.getRandomZpElement();
+        // e(g1^a,g2^b)*e(g1^-(ab),g2)=1
+        PairingProductEquation equation=new PairingProductEquation(pair)
+                .addTerm(g1.exp(a),g2.exp(b))
+                .addTerm(g1.invExp(a.mul(b)),g2);
+        assertThat(equation.isUnity(),is(true));
+        assertThat(equation.evaluate().isUnity(),is(true));
+        PairingProductEquation wrongEquation=new PairingProductEquation(pair)
+                .addTerm(g1.exp(a),g2.exp(b))
+                .addTerm(g1.invExp(a.add(b)),g2);
+        assertThat(wrongEquation.isUnity(),is(false));
+        assertThat(wrongEquation.evaluate().equals(pair.pair(g1.exp(a),g2.exp(b)).mul(pair.pair(g1.invExp(a.add(b)),g2))),is(true));
+    }
+
+    @Test
+    public void testFixedBaseGroup1() {
+        PairingBuilder builder=new PairingBuilderBLS461();
+        builder.seedRandom(seed);
+        Group1Element base=builder.getGroup1Generator().exp(builder.getRandomZpElement());
+        for(int windowBits=1;windowBits<=8;windowBits++){
+            FixedBaseGroup1Element fixedBase=base.precompute(windowBits);
+            assertThat(fixedBase.getWindowBits(),is(windowBits));
+            assertThat(fixedBase.equals(base),is(true));
+            assertThat(base.equals(fixedBase),is(true));
+            assertThat(fixedBase.precompute(windowBits)==fixedBase,is(true));
+            for(int i=0;i<5;i++){
+                ZpElement exp=builder.getRandomZpElement();
+                assertThat(fixedBase.exp(exp).equals(base.exp(exp)),is(true));
+                assertThat(fixedBase.invExp(exp).equals(base.invExp(exp)),is(true));
+            }
+            assertThat(fixedBase.exp(builder.getZpElementZero()).isUnity(),is(true));
+            assertThat(fixedBase.exp(builder.getZpElementOne()).equals(base),is(true));
+            assertThat(fixedBase.exp(builder.getZpElementZero().sub(builder.getZpElementOne())).equals(base.invExp(builder.getZpElementOne())),is(true));
+        }
+        assertThat(base.precompute(3).precompute(5).getWindowBits(),is(5));
+    }
+
+    @Test
+    public void testFixedBaseGroup2() {
+        assumeSoundExtensionFields();
+        PairingBuilder builder=new PairingBuilderBLS461();
+        builder.seedRandom(seed);
+        Group2Element base=builder.getGroup2Generator().exp(builder.getRandomZpElement());
+        FixedBaseGroup2Element fixedBase=base.precompute(4);
+        assertThat(fixedBase.getWindowBits(),is(4));
+        assertThat(fixedBase.equals(base),is(true));
+        assertThat(base.equals(fixedBase),is(true));
+        for(int i=0;i<5;i++){
+            ZpElement exp=builder.getRandomZpElement();
+            assertThat(fixedBase.exp(exp).equals(base.exp(exp)),is(true));
+            assertThat(fixedBase.invExp(exp).equals(base.invExp(exp)),is(true));
+        }
+        assertThat(fixedBase.exp(builder.getZpElementZero()).isUnity(),is(true));
+    }
+
+    @Test
+    public void testFixedBaseGroup3() {
+        assumeSoundExtensionFields();
+        PairingBuilder builder=new PairingBuilderBLS461();
+        builder.seedRandom(seed);
+        Group3Element base=builder.getGroup3Generator().exp(builder.getRandomZpElement());
+        FixedBaseGroup3Element fixedBase=base.precompute(4);
+        assertThat(fixedBase.getWindowBits(),is(4));
+        assertThat(fixedBase.equals(base),is(true));
+        assertThat(base.equals(fixedBase),is(true));
+        for(int i=0;i<5;i++){
+            ZpElement exp=builder.getRandomZpElement();
+            assertThat(fixedBase.exp(exp).equals(base.exp(exp)),is(true));
+            assertThat(fixedBase.invExp(exp).equals(base.invExp(exp)),is(true));
+        }
+        assertThat(fixedBase.exp(builder.getZpElementZero()).isUnity(),is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFixedBaseWrongWindow() {
+        new PairingBuilderBLS461().getGroup1Generator().precompute(0);
+    }
+
+    @Test
+    public void testPrecomputedVerificationKey() {
+        PairingBuilder builder=new PairingBuilderBLS461();
+        builder.seedRandom(seed);
+        Group1Element g=builder.getGroup1Generator();
+        Map<String,Group1Element> vy=new HashMap<>();
+        vy.put("name",g.exp(builder.getRandomZpElement()));
+        PSverfKey key=new PSverfKey(g.exp(builder.getRandomZpElement()),g.exp(builder.getRandomZpElement()),vy,g.exp(builder.getRandomZpElement()));
+        PSverfKey precomputed=key.precompute(4);
+        assertThat(precomputed.getVX() instanceof FixedBaseGroup1Element,is(true));
+        assertThat(precomputed.getVY().get("name") instanceof FixedBaseGroup1Element,is(true));
+        assertThat(precomputed.equals(key),is(true));
+        assertThat(Arrays.equals(precomputed.getEncoded(),key.getEncoded()),is(true));
+    }
+
     @Test
     public void testMultiExponentiation(){
         PairingBuilder builder=new PairingBuilderBLS461();
@@ -680,4 +787,44 @@ public class TestBLS461 {
 
     }
 
+    @Test
+    public void testMultiExponentiationExceptionsGroup2(){
+        PairingBuilder builder=new PairingBuilderBLS461();
+        Group2Element g=builder.getGroup2Generator();
+        builder.seedRandom(seed);
+        int n=2;
+        Group2Element[] elements=new Group2Element[n];
+        for(int i=0;i<n;i++)
+            elements[i]=g;
+        ZpElement[] zpElements=new ZpElement[n];
+        for(int i=0;i<n;i++)
+            zpElements[i]=builder.getRandomZpElement();
+        Group2Element[] elementsMock=new Group2Element[n];
+        for(int i=0;i<n;i++)
+            elementsMock[i]=MockFactory.mockGroup2Element();
+        ZpElement[] zpElementsMock=new ZpElement[n];
+        for(int i=0;i<n;i++)
+            zpElementsMock[i]=MockFactory.mockZpElement();
+        try {
+            g.multiExp(elements,new ZpElement[0]);
+            fail("Should throw IllegalArgumentException different lengths");
+        }catch (IllegalArgumentException e){
+        }
+        try {
+            g.multiExp(new Group2Element[0],new ZpElement[0]);
+            fail("Should throw IllegalArgumentException 0 length");
+        }catch (IllegalArgumentException e){
+        }
+        try {
+            g.multiExp(elementsMock,zpElements);
+            fail("Should throw IllegalArgumentException wrong type Group2");
+        }catch (IllegalArgumentException e){
+        }
+        try {
+            g.multiExp(elements,zpElementsMock);
+            fail("Should throw IllegalArgumentException wrong type ZpElement");
+        }catch (IllegalArgumentException e){
+        }
+    }
+
 }
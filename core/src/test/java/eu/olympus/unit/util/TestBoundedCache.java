@@ -0,0 +1,80 @@
+package eu.olympus.unit.util;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import eu.olympus.util.BoundedCache;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class TestBoundedCache {
+
+	@Test
+	public void testHitsAndMisses() {
+		AtomicInteger loads = new AtomicInteger();
+		BoundedCache<String, Integer> cache = new BoundedCache<>(10, 0);
+		assertThat(cache.get("a", k -> loads.incrementAndGet()), is(1));
+		assertThat(cache.get("a", k -> loads.incrementAndGet()), is(1));
+		assertThat(cache.get("b", k -> loads.incrementAndGet()), is(2));
+		assertThat(cache.getHits(), is(1L));
+		assertThat(cache.getMisses(), is(2L));
+		assertThat(cache.size(), is(2));
+		cache.clear();
+		assertThat(cache.size(), is(0));
+		assertThat(cache.get("a", k -> loads.incrementAndGet()), is(3));
+	}
+
+	@Test
+	public void testSizeBound() {
+		BoundedCache<Integer, Integer> cache = new BoundedCache<>(100, 0);
+		for(int i = 0; i < 10000; i++) {
+			cache.get(i, k -> k);
+		}
+		assertThat(cache.size() <= 100, is(true));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEvicted() {
+		BoundedCache<Integer, Integer> cache = new BoundedCache<>(1, 0);
+		cache.get(1, k -> k);
+		cache.get(2, k -> k);
+		cache.get(1, k -> k);
+		assertThat(cache.getHits(), is(0L));
+		assertThat(cache.size(), is(1));
+	}
+
+	@Test
+	public void testExpiration() {
+		AtomicLong time = new AtomicLong(0);
+		AtomicInteger loads = new AtomicInteger();
+		BoundedCache<String, Integer> cache = new BoundedCache<>(10, 100, time::get);
+		cache.get("a", k -> loads.incrementAndGet());
+		time.set(99);
+		assertThat(cache.get("a", k -> loads.incrementAndGet()), is(1));
+		time.set(100);
+		assertThat(cache.get("a", k -> loads.incrementAndGet()), is(2));
+		cache.get("b", k -> loads.incrementAndGet());
+		time.set(250);
+		cache.removeExpired();
+		assertThat(cache.size(), is(0));
+	}
+
+	@Test
+	public void testPutAndInvalidate() {
+		BoundedCache<String, Integer> cache = new BoundedCache<>(10, 0);
+		assertNull(cache.getIfPresent("a"));
+		cache.put("a", 1);
+		assertThat(cache.getIfPresent("a"), is(1));
+		cache.invalidate("a");
+		assertNull(cache.getIfPresent("a"));
+		assertThat(cache.getHits(), is(1L));
+		assertThat(cache.getMisses(), is(2L));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBadSize() {
+		new BoundedCache<String, String>(0, 0);
+	}
+}
@@ -0,0 +1,64 @@
+package eu.olympus.unit.util;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import eu.olympus.model.exceptions.OperationFailedException;
+import eu.olympus.util.BoundedExecutor;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.Test;
+
+public class TestBoundedExecutor {
+
+	@Test
+	public void testExecute() throws Exception {
+		BoundedExecutor executor = new BoundedExecutor("test", 2, 2);
+		assertThat(executor.execute(() -> 42), is(42));
+		try {
+			executor.execute(() -> {
+				throw new OperationFailedException("failed");
+			});
+			fail();
+		} catch(OperationFailedException e) {
+			assertThat(e.getMessage(), is("failed"));
+		}
+		assertThat(executor.getStarted(), is(2L));
+		executor.shutdown();
+	}
+
+	@Test
+	public void testRejectWhenSaturated() throws Exception {
+		BoundedExecutor executor = new BoundedExecutor("test", 1, 1);
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Future<Integer> first = executor.submit(() -> {
+			running.countDown();
+			release.await();
+			return 1;
+		});
+		running.await();
+		Future<Integer> second = executor.submit(() -> 2);
+		assertThat(executor.getQueueDepth(), is(1));
+		assertThat(executor.getActiveThreads(), is(1));
+		try {
+			executor.execute(() -> 3);
+			fail();
+		} catch(RejectedExecutionException e) {
+		}
+		assertThat(executor.getRejected(), is(1L));
+		release.countDown();
+		assertThat(first.get(), is(1));
+		assertThat(second.get(), is(2));
+		assertThat(executor.getMaxWaitMillis() > 0, is(true));
+		assertThat(executor.getAverageWaitMillis() > 0, is(true));
+		executor.shutdown();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidSize() {
+		new BoundedExecutor("test", 0, 1);
+	}
+}
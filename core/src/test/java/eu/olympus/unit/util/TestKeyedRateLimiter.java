@@ -0,0 +1,85 @@
+package eu.olympus.unit.util;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import eu.olympus.util.KeyedRateLimiter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class TestKeyedRateLimiter {
+
+	private final AtomicLong clock = new AtomicLong(1000);
+
+	@Test
+	public void testBurstAndRefill() {
+		KeyedRateLimiter limiter = new KeyedRateLimiter(10, 3, 100, clock::get);
+		assertThat(limiter.tryAcquire("a"), is(true));
+		assertThat(limiter.tryAcquire("a"), is(true));
+		assertThat(limiter.tryAcquire("a"), is(true));
+		assertThat(limiter.tryAcquire("a"), is(false));
+		// One permit every 100 ms
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+		assertThat(limiter.tryAcquire("a"), is(true));
+		assertThat(limiter.tryAcquire("a"), is(false));
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		assertThat(limiter.tryAcquire("a"), is(true));
+		assertThat(limiter.tryAcquire("a"), is(true));
+		assertThat(limiter.tryAcquire("a"), is(true));
+		assertThat(limiter.tryAcquire("a"), is(false));
+		assertThat(limiter.getAllowed(), is(7L));
+		assertThat(limiter.getRejected(), is(3L));
+	}
+
+	@Test
+	public void testWaitUntilNextPermit() {
+		KeyedRateLimiter limiter = new KeyedRateLimiter(10, 2, 100, clock::get);
+		assertThat(limiter.acquire("a"), is(0L));
+		assertThat(limiter.acquire("a"), is(0L));
+		// One permit every 100 ms, the burst is used up
+		assertThat(limiter.acquire("a"), is(TimeUnit.MILLISECONDS.toNanos(100)));
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(40));
+		assertThat(limiter.acquire("a"), is(TimeUnit.MILLISECONDS.toNanos(60)));
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(60));
+		assertThat(limiter.acquire("a"), is(0L));
+	}
+
+	@Test
+	public void testKeysAreIndependent() {
+		KeyedRateLimiter limiter = new KeyedRateLimiter(1, 1, 100, clock::get);
+		assertThat(limiter.tryAcquire("a"), is(true));
+		assertThat(limiter.tryAcquire("a"), is(false));
+		assertThat(limiter.tryAcquire("b"), is(true));
+		assertThat(limiter.tryAcquire("b"), is(false));
+		assertThat(limiter.getKeys(), is(2));
+	}
+
+	@Test
+	public void testIdleEviction() {
+		KeyedRateLimiter limiter = new KeyedRateLimiter(1, 1, 100, clock::get);
+		limiter.tryAcquire("a");
+		limiter.tryAcquire("b");
+		assertThat(limiter.getKeys(), is(2));
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(11));
+		assertThat(limiter.tryAcquire("c"), is(true));
+		assertThat(limiter.getKeys(), is(1));
+		// An evicted key starts with a full bucket
+		assertThat(limiter.tryAcquire("a"), is(true));
+	}
+
+	@Test
+	public void testOverflowShared() {
+		KeyedRateLimiter limiter = new KeyedRateLimiter(1, 1, 2, clock::get);
+		assertThat(limiter.tryAcquire("a"), is(true));
+		assertThat(limiter.tryAcquire("b"), is(true));
+		assertThat(limiter.tryAcquire("c"), is(true));
+		assertThat(limiter.tryAcquire("d"), is(false));
+		assertThat(limiter.getKeys(), is(2));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidRate() {
+		new KeyedRateLimiter(0, 1, 1);
+	}
+}
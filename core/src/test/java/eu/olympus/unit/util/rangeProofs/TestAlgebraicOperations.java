@@ -45,6 +45,19 @@ public class TestAlgebraicOperations {
         g7=generator.exp(z7);
     }
 
+    @Test
+    public void testBatchInverse(){
+        PairingBuilder builder=new PairingBuilderBLS461();
+        builder.seedRandom(seed);
+        ZpElement[] elements={z2,builder.getRandomZpElement(),z7,builder.getRandomZpElement(),z3};
+        ZpElement[] inverses=Utils.batchInverse(elements);
+        assertThat(inverses.length,is(elements.length));
+        for(int i=0;i<elements.length;i++)
+            assertThat(inverses[i],is(elements[i].inverse()));
+        assertThat(Utils.batchInverse(new ZpElement[]{z5})[0],is(z5.inverse()));
+        assertThat(Utils.batchInverse(new ZpElement[0]).length,is(0));
+    }
+
     @Test
     public void testNextPowerOfPowerOfTwo(){
         BigInteger val1=new BigInteger("16");
@@ -0,0 +1,77 @@
+package eu.olympus.unit.util.rangeProofs;
+
+import eu.olympus.util.pairingBLS461.PairingBuilderBLS461;
+import eu.olympus.util.pairingInterfaces.FixedBaseGroup1Element;
+import eu.olympus.util.pairingInterfaces.PairingBuilder;
+import eu.olympus.util.pairingInterfaces.ZpElement;
+import eu.olympus.util.rangeProof.model.RangeProofBase;
+import eu.olympus.util.rangeProof.tools.RangeProofBaseCache;
+import eu.olympus.util.rangeProof.tools.Utils;
+import org.junit.Test;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class TestRangeProofBaseCache {
+    private static final byte[] seed="RandomSeedForTestsblablablalbalalblabla".getBytes();
+
+    @Test
+    public void testCachedBase() {
+        PairingBuilder builder=new PairingBuilderBLS461();
+        RangeProofBaseCache cache=new RangeProofBaseCache(10,0);
+        RangeProofBase base=cache.get(8,"salt",builder);
+        RangeProofBase expected=Utils.generateRangeProofBase(8,"salt",builder);
+        assertThat(base.getG(),is(expected.getG()));
+        assertThat(base.getH(),is(expected.getH()));
+        assertThat(cache.get(8,"salt",new PairingBuilderBLS461()),sameInstance(base));
+        assertThat(cache.getHits(),is(1L));
+        assertThat(cache.getMisses(),is(1L));
+    }
+
+    @Test
+    public void testKeyedByLengthAndSalt() {
+        PairingBuilder builder=new PairingBuilderBLS461();
+        RangeProofBaseCache cache=new RangeProofBaseCache(10,0);
+        RangeProofBase base=cache.get(8,"salt",builder);
+        RangeProofBase otherSalt=cache.get(8,"otherSalt",builder);
+        RangeProofBase otherLength=cache.get(16,"salt",builder);
+        assertThat(otherSalt.getG(),not(base.getG()));
+        assertThat(otherLength.getG().size(),is(16));
+        // The first 8 generators do not depend on the length
+        assertThat(otherLength.getG().subVector(1,8),is(base.getG()));
+        assertThat(cache.size(),is(3));
+        assertThat(cache.getMisses(),is(3L));
+    }
+
+    @Test
+    public void testBounded() {
+        PairingBuilder builder=new PairingBuilderBLS461();
+        RangeProofBaseCache cache=new RangeProofBaseCache(1,0);
+        cache.get(2,"salt",builder);
+        cache.get(2,"otherSalt",builder);
+        assertThat(cache.size(),is(1));
+    }
+
+    @Test
+    public void testPrecomputedBase() {
+        PairingBuilder builder=new PairingBuilderBLS461();
+        builder.seedRandom(seed);
+        RangeProofBaseCache cache=new RangeProofBaseCache(10,2);
+        RangeProofBase base=cache.get(2,"salt",builder);
+        RangeProofBase expected=Utils.generateRangeProofBase(2,"salt",builder);
+        ZpElement exponent=builder.getRandomZpElement();
+        for(int i=1;i<=2;i++){
+            assertThat(base.getG().getComponent(i) instanceof FixedBaseGroup1Element,is(true));
+            assertThat(base.getH().getComponent(i) instanceof FixedBaseGroup1Element,is(true));
+            assertThat(base.getG().getComponent(i).exp(exponent),is(expected.getG().getComponent(i).exp(exponent)));
+            assertThat(base.getH().getComponent(i).exp(exponent),is(expected.getH().getComponent(i).exp(exponent)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeWindow() {
+        new RangeProofBaseCache(10,-1);
+    }
+}
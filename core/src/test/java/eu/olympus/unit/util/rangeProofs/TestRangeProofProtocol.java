@@ -10,6 +10,11 @@ import eu.olympus.util.rangeProof.tools.*;
 import org.junit.Test;
 import org.miracl.core.BLS12461.BIG;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 
@@ -113,6 +118,142 @@ public class TestRangeProofProtocol {
         prover.generateProof(base,commitment);
     }
 
+    @Test
+    public void testBatchVerification() {
+        PairingBuilder builder=new PairingBuilderBLS461();
+        builder.seedRandom(seed);
+        RangeProofProver prover=new RangeProofProver(builder);
+        RangeProofVerifier verifier=new RangeProofVerifier(builder);
+        PedersenBase pedersenBase=generateTestPedersenBase(builder);
+        RangeProofBase base=generateTestBase(builder,16);
+        // Shorter proof over a prefix of the same base
+        RangeProofBase prefixBase=new RangeProofBase(base.getG().subVector(1,8),base.getH().subVector(1,8));
+        PedersenCommitment commitment1=new PedersenCommitment(pedersenBase.getG(),pedersenBase.getH(),new ZpElementBLS461(new BIG(65000)),builder.getRandomZpElement());
+        PedersenCommitment commitment2=new PedersenCommitment(pedersenBase.getG(),pedersenBase.getH(),new ZpElementBLS461(new BIG(200)),builder.getRandomZpElement());
+        PedersenCommitment commitment3=new PedersenCommitment(pedersenBase.getG(),pedersenBase.getH(),new ZpElementBLS461(new BIG(300)),builder.getRandomZpElement());
+        RangeProof proof1=prover.generateProof(base,commitment1);
+        RangeProof proof2=prover.generateProof(prefixBase,commitment2);
+        RangeProof proof3=prover.generateProof(prefixBase,commitment3);
+        MultiExpBatch batch=new MultiExpBatch();
+        assertThat(verifier.addToBatch(batch,base,pedersenBase,commitment1.getV(),proof1),is(true));
+        assertThat(verifier.addToBatch(batch,prefixBase,pedersenBase,commitment2.getV(),proof2),is(true));
+        // Bases are shared, so only the proof elements and commitments add new terms
+        assertThat(batch.size(),is(2*16+2+(5+2*4)+(5+2*3)));
+        assertThat(batch.isUnity(),is(true));
+        // 300 is not in [0,2^8-1]
+        assertThat(verifier.addToBatch(batch,prefixBase,pedersenBase,commitment3.getV(),proof3),is(true));
+        assertThat(batch.isUnity(),is(false));
+        // Malformed proof is rejected before touching the batch
+        batch=new MultiExpBatch();
+        assertThat(verifier.addToBatch(batch,base,pedersenBase,commitment2.getV(),proof2),is(false));
+        assertThat(batch.size(),is(0));
+    }
+
+    @Test
+    public void testBatchVerificationTamperedProof() {
+        PairingBuilder builder=new PairingBuilderBLS461();
+        builder.seedRandom(seed);
+        RangeProofProver prover=new RangeProofProver(builder);
+        RangeProofVerifier verifier=new RangeProofVerifier(builder);
+        PedersenBase pedersenBase=generateTestPedersenBase(builder);
+        RangeProofBase base=generateTestBase(builder,8);
+        PedersenCommitment commitment1=new PedersenCommitment(pedersenBase.getG(),pedersenBase.getH(),new ZpElementBLS461(new BIG(100)),builder.getRandomZpElement());
+        PedersenCommitment commitment2=new PedersenCommitment(pedersenBase.getG(),pedersenBase.getH(),new ZpElementBLS461(new BIG(200)),builder.getRandomZpElement());
+        RangeProof proof1=prover.generateProof(base,commitment1);
+        RangeProof proof2=prover.generateProof(base,commitment2);
+        ZpElement shift=builder.getRandomZpElement();
+        RangeProof tamperedTHat=new RangeProof(proof2.getT1(),proof2.getT2(),proof2.getTauX(),proof2.getMu(),proof2.gettHat().add(shift),proof2.getA(),proof2.getS(),proof2.getInnerProductProof());
+        RangeProof tamperedTauX=new RangeProof(proof2.getT1(),proof2.getT2(),proof2.getTauX().add(shift),proof2.getMu(),proof2.gettHat(),proof2.getA(),proof2.getS(),proof2.getInnerProductProof());
+        for(RangeProof tampered:Arrays.asList(tamperedTHat,tamperedTauX)){
+            MultiExpBatch batch=new MultiExpBatch();
+            assertThat(verifier.addToBatch(batch,base,pedersenBase,commitment1.getV(),proof1),is(true));
+            assertThat(verifier.addToBatch(batch,base,pedersenBase,commitment2.getV(),tampered),is(true));
+            assertThat(batch.isUnity(),is(false));
+        }
+        // Weights do not depend on the (known) seed of the builder
+        builder.seedRandom(seed);
+        ZpElement weight=new MultiExpBatch().randomWeight(builder);
+        builder.seedRandom(seed);
+        assertThat(new MultiExpBatch().randomWeight(builder).equals(weight),is(false));
+    }
+
+    @Test
+    public void testAggregatedVerification() {
+        int n=8;
+        PairingBuilder builder=new PairingBuilderBLS461();
+        builder.seedRandom(seed);
+        Group1Element h=builder.getGroup1Generator().exp(builder.getRandomZpElement());
+        int[] numbers={0,255,17}; // Padded to 4 commitments
+        List<PedersenCommitment> commitments=new ArrayList<>();
+        List<PedersenBase> pedersenBases=new ArrayList<>();
+        List<Group1Element> v=new ArrayList<>();
+        for(int number:numbers){
+            PedersenBase pedersenBase=new PedersenBase(builder.getGroup1Generator().exp(builder.getRandomZpElement()),h);
+            PedersenCommitment commitment=new PedersenCommitment(pedersenBase.getG(),pedersenBase.getH(),new ZpElementBLS461(new BIG(number)),builder.getRandomZpElement());
+            commitments.add(commitment);
+            pedersenBases.add(pedersenBase);
+            v.add(commitment.getV());
+        }
+        RangeProofBase base=generateTestBase(builder,n*4);
+        AggregatedRangeProof proof=new AggregatedRangeProofProver(builder).generateProof(base,commitments);
+        assertThat(proof.gettHat().size(),is(4));
+        assertThat(proof.getInnerProductProof().getL().size(),is(5));
+        AggregatedRangeProofVerifier verifier=new AggregatedRangeProofVerifier(builder);
+        assertThat(verifier.verify(base,pedersenBases,v,proof),is(true));
+        // Commitments in a different order
+        assertThat(verifier.verify(base,pedersenBases,Arrays.asList(v.get(1),v.get(0),v.get(2)),proof),is(false));
+        // Base for a different n
+        assertThat(verifier.verify(generateTestBase(builder,n*8),pedersenBases,v,proof),is(false));
+    }
+
+    @Test
+    public void testAggregatedSingleCommitment() {
+        int n=16;
+        PairingBuilder builder=new PairingBuilderBLS461();
+        builder.seedRandom(seed);
+        PedersenBase pedersenBase=generateTestPedersenBase(builder);
+        PedersenCommitment commitment=new PedersenCommitment(pedersenBase.getG(),pedersenBase.getH(),new ZpElementBLS461(new BIG(65000)),builder.getRandomZpElement());
+        RangeProofBase base=generateTestBase(builder,n);
+        AggregatedRangeProof proof=new AggregatedRangeProofProver(builder).generateProof(base,Collections.singletonList(commitment));
+        assertThat(new AggregatedRangeProofVerifier(builder).verify(base,Collections.singletonList(pedersenBase),Collections.singletonList(commitment.getV()),proof),is(true));
+    }
+
+    @Test
+    public void testAggregatedFalseVerification() {
+        int n=8;
+        PairingBuilder builder=new PairingBuilderBLS461();
+        builder.seedRandom(seed);
+        Group1Element h=builder.getGroup1Generator().exp(builder.getRandomZpElement());
+        PedersenBase pedersenBase1=new PedersenBase(builder.getGroup1Generator().exp(builder.getRandomZpElement()),h);
+        PedersenBase pedersenBase2=new PedersenBase(builder.getGroup1Generator().exp(builder.getRandomZpElement()),h);
+        PedersenCommitment inRange=new PedersenCommitment(pedersenBase1.getG(),h,new ZpElementBLS461(new BIG(100)),builder.getRandomZpElement());
+        PedersenCommitment outOfRange=new PedersenCommitment(pedersenBase2.getG(),h,new ZpElementBLS461(new BIG(300)),builder.getRandomZpElement());
+        RangeProofBase base=generateTestBase(builder,n*2);
+        AggregatedRangeProof proof=new AggregatedRangeProofProver(builder).generateProof(base,Arrays.asList(inRange,outOfRange));
+        AggregatedRangeProofVerifier verifier=new AggregatedRangeProofVerifier(builder);
+        assertThat(verifier.verify(base,Arrays.asList(pedersenBase1,pedersenBase2),Arrays.asList(inRange.getV(),outOfRange.getV()),proof),is(false));
+
+        PedersenCommitment inRange2=new PedersenCommitment(pedersenBase2.getG(),h,new ZpElementBLS461(new BIG(200)),builder.getRandomZpElement());
+        proof=new AggregatedRangeProofProver(builder).generateProof(base,Arrays.asList(inRange,inRange2));
+        assertThat(verifier.verify(base,Arrays.asList(pedersenBase1,pedersenBase2),Arrays.asList(inRange.getV(),inRange2.getV()),proof),is(true));
+        // Moving value between the tHat components
+        ZpElement shift=builder.getRandomZpElement();
+        AggregatedRangeProof modified=new AggregatedRangeProof(proof.getT1(),proof.getT2(),proof.getTauX(),proof.getMu(),
+                new ZpVector(proof.gettHat().getComponent(1).add(shift),proof.gettHat().getComponent(2).sub(shift)),proof.getA(),proof.getS(),proof.getInnerProductProof());
+        assertThat(verifier.verify(base,Arrays.asList(pedersenBase1,pedersenBase2),Arrays.asList(inRange.getV(),inRange2.getV()),modified),is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAggregatedNotSharedH() {
+        PairingBuilder builder=new PairingBuilderBLS461();
+        builder.seedRandom(seed);
+        PedersenBase pedersenBase1=generateTestPedersenBase(builder);
+        PedersenBase pedersenBase2=generateTestPedersenBase(builder);
+        PedersenCommitment commitment1=new PedersenCommitment(pedersenBase1.getG(),pedersenBase1.getH(),new ZpElementBLS461(new BIG(1)),builder.getRandomZpElement());
+        PedersenCommitment commitment2=new PedersenCommitment(pedersenBase2.getG(),pedersenBase2.getH(),new ZpElementBLS461(new BIG(1)),builder.getRandomZpElement());
+        new AggregatedRangeProofProver(builder).generateProof(generateTestBase(builder,16),Arrays.asList(commitment1,commitment2));
+    }
+
     private RangeProofBase generateTestBase(PairingBuilder builder, int n) {
         return Utils.generateRangeProofBase(n,"salt",builder);
     }
@@ -1,6 +1,7 @@
 package eu.olympus.unit.util.rangeProofs;
 
 import eu.olympus.model.*;
+import eu.olympus.protos.serializer.PabcSerializer;
 import eu.olympus.util.Util;
 import eu.olympus.util.pairingBLS461.PairingBuilderBLS461;
 import eu.olympus.util.pairingInterfaces.Group1Element;
@@ -9,7 +10,12 @@ import eu.olympus.util.rangeProof.RangePredicateToken;
 import eu.olympus.util.rangeProof.RangePredicateVerificationResult;
 import eu.olympus.util.rangeProof.RangeProver;
 import eu.olympus.util.rangeProof.RangeVerifier;
+import eu.olympus.util.rangeProof.model.AggregatedRangeProof;
 import eu.olympus.util.rangeProof.model.PedersenBase;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import static org.hamcrest.core.Is.is;
@@ -110,8 +116,137 @@ public class TestRangeProofs {
     }
 
 
+    @Test
+    public void testBatchVerification() {
+        String messageSalt="salt";
+        PairingBuilder builder=new PairingBuilderBLS461();
+        builder.seedRandom(seed);
+        RangeProver prover=new RangeProver(messageSalt,builder);
+        PedersenBase baseInt=generateTestPedersenBase(builder);
+        PedersenBase baseDate=generateTestPedersenBase(builder);
+        Predicate predInt=new Predicate(definitionInt.getId(),Operation.INRANGE,new Attribute(99),new Attribute(101));
+        Predicate predDate=new Predicate(definitionDate.getId(),Operation.GREATERTHANOREQUAL,new Attribute(Util.fromRFC3339UTC("1971-06-04T00:00:01")));
+        Predicate falsePredInt=new Predicate(definitionInt.getId(),Operation.LESSTHANOREQUAL,new Attribute(7));
+        RangePredicateToken tokenInt=prover.generateRangePredicateToken(baseInt,new Attribute(100),definitionInt,predInt);
+        RangePredicateToken tokenDate=prover.generateRangePredicateToken(baseDate,new Attribute(Util.fromRFC3339UTC("1990-06-04T00:00:01")),definitionDate,predDate);
+        RangePredicateToken falseTokenInt=prover.generateRangePredicateToken(baseInt,new Attribute(100),definitionInt,falsePredInt);
+        RangeVerifier verifier=new RangeVerifier(messageSalt,builder);
+        assertThat(verifier.verifyRangePredicates(Arrays.asList(baseInt,baseDate),Arrays.asList(tokenInt,tokenDate),
+                Arrays.asList(definitionInt,definitionDate),Arrays.asList(predInt,predDate)),is(RangePredicateVerificationResult.VALID));
+        assertThat(verifier.verifyRangePredicates(Arrays.asList(baseInt,baseDate,baseInt),Arrays.asList(tokenInt,tokenDate,falseTokenInt),
+                Arrays.asList(definitionInt,definitionDate,definitionInt),Arrays.asList(predInt,predDate,falsePredInt)),is(RangePredicateVerificationResult.INVALID));
+        // Tokens swapped
+        assertThat(verifier.verifyRangePredicates(Arrays.asList(baseInt,baseDate),Arrays.asList(tokenDate,tokenInt),
+                Arrays.asList(definitionInt,definitionDate),Arrays.asList(predInt,predDate)),is(RangePredicateVerificationResult.INVALID));
+        try {
+            verifier.verifyRangePredicates(Arrays.asList(baseInt,baseDate),Arrays.asList(tokenInt,tokenDate),
+                    Collections.singletonList(definitionInt),Arrays.asList(predInt,predDate));
+            fail("Should throw IllegalArgumentException: missing definition");
+        }catch (IllegalArgumentException e){
+        }
+    }
+
+    @Test
+    public void testAggregatedVerification() throws Exception {
+        String messageSalt="salt";
+        PairingBuilder builder=new PairingBuilderBLS461();
+        builder.seedRandom(seed);
+        Group1Element h=builder.getGroup1Generator().exp(builder.getRandomZpElement());
+        List<PedersenBase> bases=Arrays.asList(generateTestPedersenBase(builder,h),generateTestPedersenBase(builder,h),generateTestPedersenBase(builder,h));
+        List<AttributeDefinition> definitions=Arrays.asList(definitionInt,definitionDate,definitionInt);
+        List<Predicate> predicates=Arrays.asList(new Predicate(definitionInt.getId(),Operation.GREATERTHANOREQUAL,new Attribute(20)),
+                new Predicate(definitionDate.getId(),Operation.INRANGE,
+                        new Attribute(Util.fromRFC3339UTC("1990-05-03T00:00:01")),new Attribute(Util.fromRFC3339UTC("1990-07-05T00:00:01"))),
+                new Predicate(definitionInt.getId(),Operation.LESSTHANOREQUAL,new Attribute(-100)));
+        List<Attribute> values=Arrays.asList(new Attribute(100),new Attribute(Util.fromRFC3339UTC("1990-06-04T00:00:01")),new Attribute(-1500));
+        RangeProver prover=new RangeProver(messageSalt,builder);
+        List<RangePredicateToken> tokens=new ArrayList<>();
+        for(int i=0;i<predicates.size();i++){
+            RangePredicateToken token=prover.addRangePredicate(bases.get(i),values.get(i),definitions.get(i),predicates.get(i));
+            assertThat(token.getProofLowerBound()==null && token.getProofUpperBound()==null,is(true));
+            tokens.add(new RangePredicateToken(PabcSerializer.RangePredToken.parseFrom(token.toProto().toByteArray())));
+        }
+        AggregatedRangeProof proof=prover.generateAggregatedProof();
+        AggregatedRangeProof received=new AggregatedRangeProof(PabcSerializer.AggregatedRangeProof.parseFrom(proof.toProto().toByteArray()));
+        RangeVerifier verifier=new RangeVerifier(messageSalt,builder);
+        assertThat(verifier.verifyAggregatedRangePredicates(bases,tokens,definitions,predicates,received),is(RangePredicateVerificationResult.VALID));
+        // The predicates must be in the order used by the prover
+        assertThat(verifier.verifyAggregatedRangePredicates(Arrays.asList(bases.get(2),bases.get(1),bases.get(0)),Arrays.asList(tokens.get(2),tokens.get(1),tokens.get(0)),
+                Arrays.asList(definitions.get(2),definitions.get(1),definitions.get(0)),Arrays.asList(predicates.get(2),predicates.get(1),predicates.get(0)),received),
+                is(RangePredicateVerificationResult.INVALID));
+        // A different salt gives a different range proof base
+        assertThat(new RangeVerifier("otherSalt",builder).verifyAggregatedRangePredicates(bases,tokens,definitions,predicates,received),is(RangePredicateVerificationResult.INVALID));
+        // Aggregated tokens have no proofs of their own
+        assertThat(verifier.verifyRangePredicate(bases.get(0),tokens.get(0),definitions.get(0),predicates.get(0)),is(RangePredicateVerificationResult.INVALID));
+    }
+
+    @Test
+    public void testAggregatedFalseVerification() {
+        String messageSalt="salt";
+        PairingBuilder builder=new PairingBuilderBLS461();
+        builder.seedRandom(seed);
+        Group1Element h=builder.getGroup1Generator().exp(builder.getRandomZpElement());
+        PedersenBase baseInt=generateTestPedersenBase(builder,h);
+        PedersenBase baseDate=generateTestPedersenBase(builder,h);
+        Predicate predInt=new Predicate(definitionInt.getId(),Operation.INRANGE,new Attribute(4),new Attribute(8));
+        Predicate predDate=new Predicate(definitionDate.getId(),Operation.GREATERTHANOREQUAL,new Attribute(Util.fromRFC3339UTC("1971-06-04T00:00:01")));
+        RangeProver prover=new RangeProver(messageSalt,builder);
+        RangePredicateToken tokenInt=prover.addRangePredicate(baseInt,new Attribute(10),definitionInt,predInt); // Not fulfilled
+        RangePredicateToken tokenDate=prover.addRangePredicate(baseDate,new Attribute(Util.fromRFC3339UTC("1990-06-04T00:00:01")),definitionDate,predDate);
+        AggregatedRangeProof proof=prover.generateAggregatedProof();
+        RangeVerifier verifier=new RangeVerifier(messageSalt,builder);
+        assertThat(verifier.verifyAggregatedRangePredicates(Arrays.asList(baseInt,baseDate),Arrays.asList(tokenInt,tokenDate),
+                Arrays.asList(definitionInt,definitionDate),Arrays.asList(predInt,predDate),proof),is(RangePredicateVerificationResult.INVALID));
+
+        Predicate fulfilled=new Predicate(definitionInt.getId(),Operation.INRANGE,new Attribute(4),new Attribute(12));
+        tokenInt=prover.addRangePredicate(baseInt,new Attribute(10),definitionInt,fulfilled);
+        tokenDate=prover.addRangePredicate(baseDate,new Attribute(Util.fromRFC3339UTC("1990-06-04T00:00:01")),definitionDate,predDate);
+        proof=prover.generateAggregatedProof();
+        assertThat(verifier.verifyAggregatedRangePredicates(Arrays.asList(baseInt,baseDate),Arrays.asList(tokenInt,tokenDate),
+                Arrays.asList(definitionInt,definitionDate),Arrays.asList(fulfilled,predDate),proof),is(RangePredicateVerificationResult.VALID));
+        // Proof does not hold for a stricter predicate
+        assertThat(verifier.verifyAggregatedRangePredicates(Arrays.asList(baseInt,baseDate),Arrays.asList(tokenInt,tokenDate),
+                Arrays.asList(definitionInt,definitionDate),Arrays.asList(predInt,predDate),proof),is(RangePredicateVerificationResult.INVALID));
+        // Bases that do not share h
+        assertThat(verifier.verifyAggregatedRangePredicates(Arrays.asList(baseInt,generateTestPedersenBase(builder)),Arrays.asList(tokenInt,tokenDate),
+                Arrays.asList(definitionInt,definitionDate),Arrays.asList(fulfilled,predDate),proof),is(RangePredicateVerificationResult.INVALID));
+    }
+
         //Exceptions
 
+    @Test
+    public void testAggregatedExceptions() {
+        String messageSalt="salt";
+        PairingBuilder builder=new PairingBuilderBLS461();
+        builder.seedRandom(seed);
+        RangeProver prover=new RangeProver(messageSalt,builder);
+        try {
+            prover.generateAggregatedProof();
+            fail("Should throw IllegalStateException: no predicates");
+        }catch (IllegalStateException e){
+        }
+        Predicate pred=new Predicate(definitionInt.getId(),Operation.GREATERTHANOREQUAL,new Attribute(15));
+        try {
+            prover.addRangePredicate(generateTestPedersenBase(builder),new Attribute(20),definitionString,pred);
+            fail("Should throw IllegalArgumentException: wrong Attribute def");
+        }catch (IllegalArgumentException e){
+        }
+        prover.addRangePredicate(generateTestPedersenBase(builder),new Attribute(20),definitionInt,pred);
+        prover.addRangePredicate(generateTestPedersenBase(builder),new Attribute(20),definitionInt,pred);
+        try {
+            prover.generateAggregatedProof();
+            fail("Should throw IllegalArgumentException: bases do not share h");
+        }catch (IllegalArgumentException e){
+        }
+        RangeVerifier verifier=new RangeVerifier(messageSalt,builder);
+        try {
+            verifier.verifyAggregatedRangePredicates(Collections.emptyList(),Collections.emptyList(),Collections.emptyList(),Collections.emptyList(),null);
+            fail("Should throw IllegalArgumentException: no predicates");
+        }catch (IllegalArgumentException e){
+        }
+    }
+
+
     @Test
     public void testProverExceptions() {
         String messageSalt="salt";
@@ -255,4 +390,9 @@ public class TestRangeProofs {
         return new PedersenBase(g,h);
     }
 
+    private PedersenBase generateTestPedersenBase(PairingBuilder builder, Group1Element h) {
+        Group1Element g=builder.getGroup1Generator().exp(builder.getRandomZpElement());
+        return new PedersenBase(g,h);
+    }
+
 }
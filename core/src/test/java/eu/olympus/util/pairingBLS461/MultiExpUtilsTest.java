@@ -0,0 +1,117 @@
+package eu.olympus.util.pairingBLS461;
+
+import static eu.olympus.util.pairingBLS461.ExtensionFieldAssumptions.assumeSoundFp2;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.miracl.core.BLS12461.BIG;
+import org.miracl.core.BLS12461.ECP;
+import org.miracl.core.BLS12461.ECP2;
+import org.miracl.core.BLS12461.PAIR;
+import org.miracl.core.BLS12461.ROM;
+import org.miracl.core.RAND;
+
+public class MultiExpUtilsTest {
+
+    private static RAND rng() {
+        RAND rng = new RAND();
+        rng.seed(4, new byte[] {5, 6, 7, 8});
+        return rng;
+    }
+
+    private static BIG random(RAND rng) {
+        return BIG.randomnum(new BIG(ROM.CURVE_Order), rng);
+    }
+
+    private static void checkAgainstSingleExponentiations(int n) {
+        RAND rng = rng();
+        ECP[] bases = new ECP[n];
+        BIG[] exponents = new BIG[n];
+        ECP expected = new ECP();
+        for (int i = 0; i < n; i++) {
+            bases[i] = PAIR.G1mul(ECP.generator(), random(rng));
+            exponents[i] = random(rng);
+            expected.add(PAIR.G1mul(bases[i], exponents[i]));
+        }
+        assertTrue("n=" + n, MultiExpUtils.multiExp(bases, exponents).equals(expected));
+    }
+
+    private static void checkAgainstSingleExponentiationsGroup2(int n) {
+        RAND rng = rng();
+        ECP2[] bases = new ECP2[n];
+        BIG[] exponents = new BIG[n];
+        ECP2 expected = new ECP2();
+        for (int i = 0; i < n; i++) {
+            bases[i] = PAIR.G2mul(ECP2.generator(), random(rng));
+            exponents[i] = random(rng);
+            expected.add(PAIR.G2mul(bases[i], exponents[i]));
+        }
+        assertTrue("n=" + n, MultiExpUtils.multiExp(bases, exponents).equals(expected));
+    }
+
+    @Test
+    public void testSmallInput() {
+        checkAgainstSingleExponentiations(1);
+        checkAgainstSingleExponentiations(3);
+    }
+
+    @Test
+    public void testLargerWindows() {
+        checkAgainstSingleExponentiations(40);
+    }
+
+    @Test
+    public void testParallelWindows() {
+        checkAgainstSingleExponentiations(MultiExpUtils.PARALLEL_THRESHOLD + 3);
+    }
+
+    @Test
+    public void testGroup2() {
+        assumeSoundFp2();
+        checkAgainstSingleExponentiationsGroup2(3);
+        checkAgainstSingleExponentiationsGroup2(40);
+        checkAgainstSingleExponentiationsGroup2(MultiExpUtils.PARALLEL_THRESHOLD + 3);
+    }
+
+    @Test
+    public void testSpecialExponentsAndRepeatedBases() {
+        RAND rng = rng();
+        ECP base = PAIR.G1mul(ECP.generator(), random(rng));
+        BIG exponent = random(rng);
+        BIG minusOne = new BIG(ROM.CURVE_Order);
+        minusOne.dec(1);
+        ECP[] bases = {base, base, ECP.generator(), base};
+        BIG[] exponents = {exponent, new BIG(0), new BIG(1), minusOne};
+        // base^(exponent-1)·g
+        BIG exponentMinusOne = new BIG(exponent);
+        exponentMinusOne.dec(1);
+        ECP expected = PAIR.G1mul(base, exponentMinusOne);
+        expected.add(ECP.generator());
+        assertTrue(MultiExpUtils.multiExp(bases, exponents).equals(expected));
+        assertTrue(MultiExpUtils.multiExp(new ECP[] {base}, new BIG[] {new BIG(0)}).is_infinity());
+    }
+
+    @Test
+    public void testCalibrateCrossover() {
+        assertEquals(8, MultiExpUtils.calibrateCrossover("test", (n, random) -> new long[] {n, 6}, 16));
+        assertEquals(2 * MultiExpUtils.MAX_CALIBRATION_SIZE,
+                MultiExpUtils.calibrateCrossover("test", (n, random) -> new long[] {1, 2}, 16));
+        assertEquals(16, MultiExpUtils.calibrateCrossover("test", (n, random) -> null, 16));
+    }
+
+    @Test
+    public void testCalibrate() {
+        MultiExpUtils.calibrate();
+        assertTrue(MultiExpUtils.group1Crossover() >= 2);
+        assertTrue(MultiExpUtils.group2Crossover() >= 2);
+        checkAgainstSingleExponentiations(MultiExpUtils.group1Crossover());
+    }
+
+    @Test
+    public void testWindowBits() {
+        assertEquals(3, MultiExpUtils.windowBits(1));
+        assertEquals(5, MultiExpUtils.windowBits(32));
+        assertEquals(8, MultiExpUtils.windowBits(1024));
+    }
+}
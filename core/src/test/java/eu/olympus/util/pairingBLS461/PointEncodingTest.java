@@ -0,0 +1,195 @@
+package eu.olympus.util.pairingBLS461;
+
+import static eu.olympus.util.pairingBLS461.ExtensionFieldAssumptions.assumeSoundFp12;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Arrays;
+import org.junit.Test;
+import org.miracl.core.BLS12461.BIG;
+import org.miracl.core.BLS12461.BLS;
+import org.miracl.core.BLS12461.CONFIG_BIG;
+import org.miracl.core.BLS12461.ECP;
+import org.miracl.core.BLS12461.ECP2;
+import org.miracl.core.BLS12461.FP;
+import org.miracl.core.BLS12461.FP12;
+import org.miracl.core.BLS12461.FP2;
+import org.miracl.core.BLS12461.FP4;
+import org.miracl.core.BLS12461.PAIR;
+import org.miracl.core.BLS12461.ROM;
+import org.miracl.core.RAND;
+
+public class PointEncodingTest {
+
+    private static RAND rng() {
+        RAND rng = new RAND();
+        rng.seed(4, new byte[] {1, 2, 3, 4});
+        return rng;
+    }
+
+    private static BIG random(RAND rng) {
+        return BIG.randomnum(new BIG(ROM.CURVE_Order), rng);
+    }
+
+    /**
+     * x^(p^6-1) is on the torus for any x, even if it is not in GT.
+     */
+    private static FP12 torusElement(RAND rng) {
+        FP12 x = new FP12(new FP4(rng), new FP4(rng), new FP4(rng));
+        FP12 inverse = new FP12(x);
+        inverse.inverse();
+        x.conj();
+        x.mul(inverse);
+        return x;
+    }
+
+    @Test
+    public void testG1() {
+        RAND rng = rng();
+        for(int i = 0; i < 10; i++) {
+            ECP point = BLS.bls_hash_to_point(new byte[] {(byte) i}).mul(random(rng));
+            byte[] bytes = PointEncoding.encodeG1(point);
+            assertEquals(PointEncoding.G1_COMPRESSED_BYTES, bytes.length);
+            assertTrue(PointEncoding.isCompressedG1(bytes));
+            assertTrue(point.equals(PointEncoding.decodeG1(bytes)));
+
+            byte[] uncompressed = new byte[PointEncoding.G1_BYTES];
+            point.toBytes(uncompressed, false);
+            assertFalse(PointEncoding.isCompressedG1(uncompressed));
+            assertTrue(point.equals(PointEncoding.decodeG1(uncompressed)));
+        }
+    }
+
+    @Test
+    public void testLegacyG1() {
+        RAND rng = rng();
+        ECP point = PAIR.G1mul(ECP.generator(), random(rng));
+        // What older clients send: the uncompressed point in a buffer sized for an Fp12 element
+        byte[] rawBytes = new byte[CONFIG_BIG.MODBYTES*12];
+        point.toBytes(rawBytes, false);
+        assertEquals(696, rawBytes.length);
+        assertFalse(PointEncoding.isCompressedG1(rawBytes));
+        assertTrue(point.equals(PointEncoding.decodeG1(rawBytes)));
+
+        byte[] trailing = rawBytes.clone();
+        trailing[trailing.length-1] = 1;
+        assertInvalidG1(trailing);
+        byte[] compressed = new byte[CONFIG_BIG.MODBYTES*12];
+        point.toBytes(compressed, true);
+        assertInvalidG1(compressed);
+        assertInvalidG1(new byte[CONFIG_BIG.MODBYTES*12]);
+    }
+
+    @Test
+    public void testInvalidG1() {
+        byte[] bytes = PointEncoding.encodeG1(ECP.generator());
+        assertInvalidG1(Arrays.copyOf(bytes, bytes.length-1));
+        byte[] prefix = bytes.clone();
+        prefix[0] = 0x05;
+        assertInvalidG1(prefix);
+        // x >= p
+        byte[] unreduced = bytes.clone();
+        Arrays.fill(unreduced, 1, unreduced.length, (byte) 0xff);
+        assertInvalidG1(unreduced);
+        // Infinity
+        byte[] infinity = new byte[PointEncoding.G1_COMPRESSED_BYTES];
+        infinity[0] = 0x02;
+        assertInvalidG1(infinity);
+        // On the curve but outside the subgroup, as the cofactor is not cleared
+        ECP outside = ECP.map2point(new FP(7));
+        assertFalse(outside.is_infinity());
+        assertInvalidG1(PointEncoding.encodeG1(outside));
+    }
+
+    private static void assertInvalidG1(byte[] bytes) {
+        try {
+            PointEncoding.decodeG1(bytes);
+            fail();
+        } catch(IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void testTorusCompression() {
+        assumeSoundFp12();
+        RAND rng = rng();
+        for(int i = 0; i < 10; i++) {
+            FP12 element = torusElement(rng);
+            byte[] bytes = PointEncoding.encodeGT(element);
+            assertEquals(PointEncoding.GT_COMPRESSED_BYTES, bytes.length);
+            assertTrue(element.equals(PointEncoding.decompress(bytes)));
+            // On the torus, but not of order r
+            assertInvalidGT(bytes);
+        }
+    }
+
+    @Test
+    public void testIdentity() {
+        byte[] identity = PointEncoding.encodeGT(new FP12(1));
+        assertArrayEquals(new byte[PointEncoding.GT_COMPRESSED_BYTES], identity);
+        assertTrue(PointEncoding.decodeGT(identity).isunity());
+    }
+
+    @Test
+    public void testGT() {
+        assumeSoundFp12();
+        RAND rng = rng();
+        ECP2 base = ECP2.map2point(new FP2(5));
+        base.cfp();
+        FP12 element = PAIR.fexp(PAIR.ate(base.mul(random(rng)), BLS.bls_hash_to_point(new byte[] {1})));
+        assumeTrue(PAIR.GTmember(element));
+        byte[] bytes = PointEncoding.encodeGT(element);
+        assertEquals(PointEncoding.GT_COMPRESSED_BYTES, bytes.length);
+        assertTrue(element.equals(PointEncoding.decodeGT(bytes)));
+    }
+
+    @Test
+    public void testUncompressedGT() {
+        // Not on the torus, so it keeps all coordinates, and not in GT
+        FP12 element = new FP12(new FP4(rng()), new FP4(2), new FP4(3));
+        byte[] bytes = PointEncoding.encodeGT(element);
+        assertEquals(PointEncoding.GT_BYTES, bytes.length);
+        assertInvalidGT(bytes);
+
+        byte[] identity = new byte[PointEncoding.GT_BYTES];
+        new FP12(1).toBytes(identity);
+        assertTrue(PointEncoding.decodeGT(identity).isunity());
+
+        byte[] unreduced = bytes.clone();
+        Arrays.fill(unreduced, 0, CONFIG_BIG.MODBYTES, (byte) 0xff);
+        assertInvalidGT(unreduced);
+        assertInvalidGT(new byte[PointEncoding.GT_BYTES]);
+        assertInvalidGT(Arrays.copyOf(bytes, bytes.length+1));
+    }
+
+    @Test
+    public void testUncompressedGTMember() {
+        assumeSoundFp12();
+        RAND rng = rng();
+        ECP2 base = ECP2.map2point(new FP2(5));
+        base.cfp();
+        FP12 element = PAIR.fexp(PAIR.ate(base.mul(random(rng)), BLS.bls_hash_to_point(new byte[] {2})));
+        assumeTrue(PAIR.GTmember(element));
+        // The form older IdPs send
+        byte[] bytes = new byte[PointEncoding.GT_BYTES];
+        element.toBytes(bytes);
+        assertTrue(element.equals(PointEncoding.decodeGT(bytes)));
+        // On the torus, but not of order r
+        FP12 torus = torusElement(rng);
+        bytes = new byte[PointEncoding.GT_BYTES];
+        torus.toBytes(bytes);
+        assertInvalidGT(bytes);
+    }
+
+    private static void assertInvalidGT(byte[] bytes) {
+        try {
+            PointEncoding.decodeGT(bytes);
+            fail();
+        } catch(IllegalArgumentException e) {
+        }
+    }
+}
@@ -1,32 +1,46 @@
 package eu.olympus.verifier;
 
+import static eu.olympus.util.pairingBLS461.ExtensionFieldAssumptions.assumeSoundFp12;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import com.google.protobuf.InvalidProtocolBufferException;
+import eu.olympus.client.PSCredentialManagement;
 import eu.olympus.model.Attribute;
 import eu.olympus.model.AttributeDefinition;
 import eu.olympus.model.AttributeDefinitionDate;
 import eu.olympus.model.AttributeDefinitionInteger;
 import eu.olympus.model.AttributeDefinitionString;
 import eu.olympus.model.Operation;
+import eu.olympus.model.PABCConfigurationImpl;
+import eu.olympus.model.PSCredential;
 import eu.olympus.model.PabcPublicParameters;
 import eu.olympus.model.Policy;
 import eu.olympus.model.Predicate;
+import eu.olympus.model.PresentationToken;
 import eu.olympus.model.exceptions.MSSetupException;
 import eu.olympus.server.PabcIdPImpl;
 import eu.olympus.server.SoftwareServerCryptoModule;
+import eu.olympus.server.ThresholdPSSharesGenerator;
 import eu.olympus.server.interfaces.MFAAuthenticator;
 import eu.olympus.server.interfaces.PestoDatabase;
 import eu.olympus.server.interfaces.ServerCryptoModule;
 import eu.olympus.server.storage.InMemoryPestoDatabase;
 import eu.olympus.util.multisign.MSpublicParam;
+import eu.olympus.util.multisign.MSverfKey;
 import eu.olympus.util.psmultisign.PSauxArg;
+import eu.olympus.util.psmultisign.PSms;
 import eu.olympus.util.psmultisign.PSpublicParam;
 import eu.olympus.util.psmultisign.PSverfKey;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import org.apache.commons.codec.binary.Base64;
@@ -98,6 +112,105 @@ public class TestPSPABCVerifier {
 		}
 	}
 
+	@Test
+	public void testVerifyPresentationTokensMatchesSingleVerification() throws Exception {
+		assumeSoundFp12();
+		String username = "user";
+		PestoDatabase database = new InMemoryPestoDatabase();
+		Map<String, Attribute> userAttr = new HashMap<>();
+		userAttr.put("name", new Attribute("Joe"));
+		userAttr.put("age", new Attribute(21));
+		userAttr.put("now", new Attribute(new Date(System.currentTimeMillis())));
+		database.addUser(username, null, 1);
+		database.addAttributes(username, userAttr);
+
+		int nServers = 2;
+		Map<Integer, ThresholdPSSharesGenerator> generators = new HashMap<>();
+		PabcPublicParameters publicParameters = null;
+		for (int i = 0; i < nServers; i++) {
+			ThresholdPSSharesGenerator generator = new ThresholdPSSharesGenerator(database, seed);
+			PABCConfigurationImpl config = new PABCConfigurationImpl();
+			config.setAttrDefinitions(generateLowerCaseAttributeDefinitions());
+			config.setSeed(seed);
+			config.setLifetime(72000000);
+			config.setAllowedTimeDifference(10000L);
+			config.setServers(Collections.singletonList("1"));
+			generator.setup(config);
+			publicParameters = generator.getPublicParam();
+			generators.put(i, generator);
+		}
+		Map<Integer, MSverfKey> verificationKeyShares = new HashMap<>();
+		MSverfKey[] verificationKeys = new MSverfKey[nServers];
+		for (int i = 0; i < nServers; i++) {
+			verificationKeys[i] = generators.get(i).getVerificationKeyShare();
+			verificationKeyShares.put(i, verificationKeys[i]);
+		}
+		MSpublicParam schemePublicParam = new PSpublicParam(publicParameters.getEncodedSchemePublicParam());
+		PSms scheme = new PSms();
+		scheme.setup(schemePublicParam.getN(), schemePublicParam.getAuxArg(), seed);
+		PSPABCVerifier verifier = new PSPABCVerifier();
+		verifier.setup(publicParameters, scheme.kAggreg(verificationKeys), seed);
+
+		List<Predicate> predicates = new ArrayList<>();
+		predicates.add(new Predicate("age", Operation.REVEAL, null));
+		Policy policy = new Policy(predicates, "message");
+		Map<Integer, PSCredential> credentialShares = new HashMap<>();
+		long timestamp = System.currentTimeMillis();
+		for (Integer id : generators.keySet()) {
+			credentialShares.put(id, generators.get(id).createCredentialShare(username, timestamp));
+		}
+		PSCredentialManagement credentialManagement = new PSCredentialManagement(false, null);
+		credentialManagement.setup(publicParameters, verificationKeyShares, seed);
+		PresentationToken token = credentialManagement.combineAndGeneratePresentationToken(credentialShares, policy);
+		// Same proof, but claiming another age
+		Map<String, Attribute> tamperedAttributes = new HashMap<>(token.getRevealedAttributes());
+		tamperedAttributes.put("age", new Attribute(22));
+		PresentationToken tampered = new PresentationToken(token.getEpoch(), tamperedAttributes, token.getZkToken(), token.getRangeTokens());
+
+		List<String> tokens = new ArrayList<>();
+		tokens.add(token.getEncoded());
+		tokens.add(tampered.getEncoded());
+		List<VerificationResult> results = verifier.verifyPresentationTokens(tokens, policy);
+		assertEquals(2, results.size());
+		assertEquals(VerificationResult.VALID, results.get(0));
+		assertEquals(VerificationResult.INVALID_SIGNATURE, results.get(1));
+		for (int i = 0; i < tokens.size(); i++) {
+			assertEquals(verifier.verifyPresentationToken(tokens.get(i), policy), results.get(i));
+		}
+		assertTrue(verifier.verifyPresentationTokens(new ArrayList<>(), policy).isEmpty());
+	}
+
+	@Test
+	public void testVerifyPresentationTokensUnsupportedPredicate() throws InvalidProtocolBufferException, MSSetupException {
+		PSPABCVerifier verifier = new PSPABCVerifier();
+		PSverfKey key = new PSverfKey(Base64.decodeBase64(key0));
+		PabcPublicParameters publicParameters = new PabcPublicParameters(generateAttributeDefinitions(),param);
+		verifier.setup(publicParameters, key, seed);
+		List<Predicate> predicates = new ArrayList<>();
+		predicates.add(new Predicate("Name", Operation.EQ, new Attribute(15)));
+		Policy policy = new Policy(predicates, "message");
+		String testToken = "CN6ZhYDyLhIPCgNBZ2USCAoEAAAAFRABIrEGCvMBCvABCjoIlIzhiR3lE04K17TQs1MPXSxvdqNDaC3VxMsyBWqW+Px3xc8tts90OonUe+Opi3TPO0bmxgmoD3xUEjoRsxmeWHAq24oV0S/fl3DbklY8IUfyy3Odw1TA+KcPFpM0NU06I1zfrOkRAD3/bN0kh0ZuFKYw4nBnGjoSFMsQAPHocIy08YzXmby6htgbo21OhfxcYLPg7BaNUA9hROfAwnBIOe5EA2FpJxWx9KrLsgu0Z06fIjoLCnEbCrzuiD7gef5dIVoiVUIy+0qC4BYoHlLfgf8enMocwugxFcHEVEahnEMhjUJNfk/amEURLZhPEvMBCvABCjoGBrUCBMRmTmG5x0jeNegd1L8UKBLjYnibFdksEG7ddjl0MWCI05x6zsaNkIS93m4svWn2SpCgvtFsEjoQ/Cyco/PgTT8tAA95/zM8JMuHdA32b/J2XSf76m39BwErDfMOWEmv+WgC1KMq36VI+dT9UhmyU5GoGjoC4wZrQrVlZPd+xsh3zmcPG/II6bjiiQmF5fBcUgVlz//6euGYI57cNzx1ELTucbiwFbMBxDEnSCQHIjoNaHY8NbipEzwm1VzRmKiwnna9jVfB7wjkUWizGi/TDAaOWduUe7pPL10EyxAIUzPqdck3Cj/rFxbsGjwKOgAAAAAAAAAAAAAAAAAAAAAAAAACKlDC7crysZxafk4uSrkp5Qpq+oVnbEZeYmf3YhcgLTseSiFPRtsiQwoDTm93EjwKOgAAAAAAAAAAAAAAAAAAAAAAAAAJ5CoJ5lmgScCzU12DN8q4OmzZxDJicZT38yzhBjONRvwgsWt94+siRAoETmFtZRI8CjoAAAAAAAAAAAAAAAAAAAAAAAAAAUoTSPJ1ISEJ68XXZasWdSq+/puIGPq4co1E1O/WDQw6BzUcFVKZKjwKOgAAAAAAAAAAAAAAAAAAAAAAAAAPLiB4b4SMisd607PXiX2eUeqEnW7XFxJ1LNGemIaHIMgNZl0WeOsyPAo6AAAAAAAAAAAAAAAAAAAAAAAAAAJ2i1oQ9Z/w9t3ELwZZ+36N4wuamR4c7GDrOeM70cel4biQfilRRA==";
+		// Same handling as the single token path: the policy is checked before any token is looked at
+		for (List<String> tokens : Arrays.asList(Collections.singletonList(testToken), Collections.singletonList("notAToken"), new ArrayList<String>())) {
+			try {
+				verifier.verifyPresentationTokens(tokens, policy);
+				fail();
+			} catch (IllegalArgumentException e) {
+			}
+		}
+		try {
+			verifier.verifyPresentationToken("notAToken", policy);
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testVerifyPresentationTokensNoSetup() {
+		PSPABCVerifier verifier = new PSPABCVerifier();
+		verifier.verifyPresentationTokens(new ArrayList<>(), new Policy(new ArrayList<>(), "message"));
+	}
+
 	//Revealed/Range attributes not in AttrDefinitions
 
 
@@ -109,6 +222,14 @@ public class TestPSPABCVerifier {
 		return res;
 	}
 
+	private Set<AttributeDefinition> generateLowerCaseAttributeDefinitions() {
+		Set<AttributeDefinition> res=new HashSet<>();
+		res.add(new AttributeDefinitionString("name","name",0,16));
+		res.add(new AttributeDefinitionInteger("age","age",0,123));
+		res.add(new AttributeDefinitionDate("now","now","1900-01-01T00:00:00","2100-09-01T00:00:00"));
+		return res;
+	}
+
 	@Test(expected = RuntimeException.class)
 	public void testSetupBadInput() throws Exception {
 		PestoDatabase db = new InMemoryPestoDatabase();
@@ -16,6 +16,7 @@ import eu.olympus.server.interfaces.ServerCryptoModule;
 import eu.olympus.server.rest.PestoIdP2IdPRESTConnection;
 import eu.olympus.server.rest.PestoIdPServlet;
 import eu.olympus.server.rest.RESTIdPServer;
+import eu.olympus.server.storage.CachingPestoDatabase;
 import java.io.File;
 import java.security.SecureRandom;
 import java.util.ArrayList;
@@ -54,14 +55,15 @@ public class RunOIDCServer {
 		List<IdPRESTWrapper> others = new ArrayList<>();
 		for (String s: configuration.getServers()) {
 			others.add(new PestoIdP2IdPRESTConnection(s, configuration.getId(), configuration.getKeyStorePath(), configuration.getKeyStorePassword(),
-					configuration.getTrustStorePath(), configuration.getTrustStorePassword(), configuration.getMyAuthorizationCookie()));
+					configuration.getTrustStorePath(), configuration.getTrustStorePassword(), configuration.getMyAuthorizationCookie(),
+					configuration.getHttpTransport()));
 		}
 		//Setup databases
 		//Currently uses a simple in memory database
 		PestoDatabase db = new InMemoryPestoDatabase();
 		if(url != null){
 			String pathToDb = SqlitePestoDatabase.createDatabase(url);
-			db = new SqlitePestoDatabase(SqlitePestoDatabase.constructConnection(pathToDb));
+			db = new CachingPestoDatabase(new SqlitePestoDatabase(SqlitePestoDatabase.constructConnection(pathToDb)));
 		}
 		//Setup identity provers
 		//Currently uses a Demo Identity Prover that stores a key-value mapping of attributes
@@ -5,6 +5,7 @@ import eu.olympus.model.Attribute;
 import eu.olympus.model.AttributeType;
 import eu.olympus.model.MFAInformation;
 import eu.olympus.model.SerializedKey;
+import eu.olympus.model.UserAuthState;
 import eu.olympus.model.exceptions.OperationFailedException;
 import eu.olympus.model.exceptions.SetupException;
 import eu.olympus.protos.serializer.PabcSerializer;
@@ -24,26 +25,79 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.lang3.SerializationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class SqlitePestoDatabase implements PestoDatabase {
+/**
+ * PestoDatabase stored in SQLite. It can either run every operation on one given connection, or,
+ * for higher throughput, on a pool of read connections and a single serialized write connection
+ * to a database in WAL mode, which lets the reads run concurrently with each other and with the
+ * writes. In the pooled mode the prepared statements are cached per connection.
+ */
+public class SqlitePestoDatabase implements PestoDatabase, AutoCloseable {
 
 
     private static final Logger logger = LoggerFactory.getLogger(PabcIdPServlet.class);
+    // Tables and the columns each of their rows is unique by
+    private static final String[][] UNIQUE_KEYS = {{"users", "username"}, {"idpKeyShares", "idp"}, {"attributes", "username, type"}};
     private Connection connection;
+    // Only set in the pooled mode
+    private BlockingQueue<CachedConnection> readers;
+    private CachedConnection writer;
 
     public SqlitePestoDatabase(Connection connection) {
         this.connection = connection;
         logger.info("Connection succeeded");
     }
 
+    /**
+     * Open the database in the pooled mode. The database is switched to WAL journaling.
+     * @param url The url of a database file created by createDatabase. In-memory databases can not
+     *            be shared by several connections.
+     * @param readConnections The number of read connections
+     * @throws SetupException If the connections could not be opened
+     */
+    public SqlitePestoDatabase(String url, int readConnections) throws SetupException {
+        if (readConnections < 1) {
+            throw new IllegalArgumentException("At least one read connection is needed");
+        }
+        this.readers = new ArrayBlockingQueue<>(readConnections);
+        try {
+            this.writer = new CachedConnection(constructConnection(url));
+            try (Statement stmt = writer.connection.createStatement()) {
+                stmt.execute("PRAGMA journal_mode=WAL");
+                // Safe in WAL mode, a crash can only lose the last transactions, not corrupt the database
+                stmt.execute("PRAGMA synchronous=NORMAL");
+                stmt.execute("PRAGMA busy_timeout=5000");
+            }
+            for (int i = 0; i < readConnections; i++) {
+                CachedConnection reader = new CachedConnection(constructConnection(url));
+                try (Statement stmt = reader.connection.createStatement()) {
+                    stmt.execute("PRAGMA query_only=1");
+                    stmt.execute("PRAGMA busy_timeout=5000");
+                }
+                readers.add(reader);
+            }
+        } catch (SQLException e) {
+            close();
+            logger.error("Failed to configure database", e);
+            throw new SetupException("Failed to configure database", e);
+        }
+        logger.info("Connection pool with " + readConnections + " readers succeeded");
+    }
+
     public static String createDatabase(String fileName) throws OperationFailedException {
         String url = "jdbc:sqlite:" + fileName;
         try (Connection conn = DriverManager.getConnection(url)) {
@@ -76,6 +130,20 @@ public class SqlitePestoDatabase implements PestoDatabase {
                 String createMFAInformationTableSql = "CREATE TABLE IF NOT EXISTS mfaInformation" + "(username TEXT," + "type TEXT," + "mfaInfo BLOB)";
                 stmt.execute(createMFAInformationTableSql);
 
+                // Older databases may hold duplicates, which the unique indexes do not allow. Deleting rows is
+                // left to an explicit migration (removeDuplicates)
+                List<String> duplicates = tablesWithDuplicates(stmt);
+                if (!duplicates.isEmpty()) {
+                    logger.error("Duplicate rows in " + duplicates + " of " + fileName);
+                    throw new OperationFailedException("The database has duplicate rows in " + duplicates
+                        + " and can not be upgraded. Back it up and run SqlitePestoDatabase.removeDuplicates on it first");
+                }
+                stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS usersByUsername ON users(username)");
+                stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS idpKeySharesByIdp ON idpKeyShares(idp)");
+                // Replaced by the unique index, so attributes can be upserted
+                stmt.execute("DROP INDEX IF EXISTS attributesByUsername");
+                stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS attributesByUsernameType ON attributes(username, type)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS mfaInformationByUsername ON mfaInformation(username, type)");
 
             }
         } catch (SQLException e) {
@@ -85,6 +153,44 @@ public class SqlitePestoDatabase implements PestoDatabase {
         return url;
     }
 
+    private static List<String> tablesWithDuplicates(Statement stmt) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        for (String[] key : UNIQUE_KEYS) {
+            try (ResultSet resultSet = stmt.executeQuery("SELECT 1 FROM " + key[0] + " GROUP BY " + key[1] + " HAVING COUNT(*) > 1 LIMIT 1")) {
+                if (resultSet.next()) {
+                    tables.add(key[0]);
+                }
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Migration for databases written before the unique indexes were added, which createDatabase
+     * refuses to open while they hold duplicate rows. It keeps the first row of each user (the one
+     * lookups returned) and the last row of each key share and attribute (the one last set), and
+     * deletes the rest in a single transaction. The number of deleted rows is logged per table.
+     * @param fileName The database file
+     * @throws OperationFailedException If the rows could not be deleted, in which case nothing is deleted
+     */
+    public static void removeDuplicates(String fileName) throws OperationFailedException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + fileName)) {
+            transaction(conn, () -> {
+                try (Statement stmt = conn.createStatement()) {
+                    int users = stmt.executeUpdate("DELETE FROM users WHERE rowid NOT IN (SELECT MIN(rowid) FROM users GROUP BY username)");
+                    int keyShares = stmt.executeUpdate("DELETE FROM idpKeyShares WHERE rowid NOT IN (SELECT MAX(rowid) FROM idpKeyShares GROUP BY idp)");
+                    int attributes = stmt.executeUpdate("DELETE FROM attributes WHERE rowid NOT IN (SELECT MAX(rowid) FROM attributes GROUP BY username, type)");
+                    logger.warn("Removed duplicate rows from " + fileName + ": " + users + " from users, " + keyShares
+                        + " from idpKeyShares, " + attributes + " from attributes");
+                    return null;
+                }
+            });
+        } catch (SQLException e) {
+            logger.error("Failed to remove duplicate rows", e);
+            throw new OperationFailedException("Failed to remove duplicate rows", e);
+        }
+    }
+
     public static Connection constructConnection(String url) throws SetupException {
         // SQLite connection string
         Connection conn = null;
@@ -101,13 +207,15 @@ public class SqlitePestoDatabase implements PestoDatabase {
     @Override
     public void addUser(String username, PublicKey key, long salt) throws OperationFailedException {
         String query = "INSERT INTO users(username,salt," + "publicKey,lastAuthAttempt," + "lastMFAAttempt,numberOfAuthAttempts,numberOfMFAAttempts) " + "VALUES (?,?,?,NULL,NULL,NULL,NULL)";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, username);
-            stmt.setLong(2, salt);
+        try {
             SerializedKey serializedKey = KeySerializer.serialize(key);
             String keyEncoded = Base64.encodeBase64String(serializedKey.getBytes());
-            stmt.setString(3, keyEncoded);
-            stmt.execute();
+            write(query, stmt -> {
+                stmt.setString(1, username);
+                stmt.setLong(2, salt);
+                stmt.setString(3, keyEncoded);
+                return stmt.execute();
+            });
             logger.info("User was successfully added: " + username);
         } catch (SQLException e) {
             logger.error("Failed to create user", e);
@@ -118,14 +226,16 @@ public class SqlitePestoDatabase implements PestoDatabase {
     @Override
     public PublicKey getUserKey(String username) throws OperationFailedException {
         String query = "SELECT publicKey FROM users WHERE username = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, username);
-            ResultSet resultSet = stmt.executeQuery();
-            if(resultSet.isClosed()){
+        try {
+            String encoded = read(query, stmt -> {
+                stmt.setString(1, username);
+                ResultSet resultSet = stmt.executeQuery();
+                return resultSet.isClosed() ? null : resultSet.getString("publicKey");
+            });
+            if(encoded == null){
                 throw new OperationFailedException("Failed to retrieve public key for user. User was not found");
             }
-            byte[] res = Base64.decodeBase64(resultSet.getString("publicKey"));
-            SerializedKey serializedKey = new SerializedKey(res);
+            SerializedKey serializedKey = new SerializedKey(Base64.decodeBase64(encoded));
             return (PublicKey) KeySerializer.deSerialize(serializedKey);
         } catch (SQLException | NoSuchAlgorithmException | InvalidKeySpecException | InvalidKeyException e) {
             logger.error("Failed to retrieve public key for user", e);
@@ -136,10 +246,12 @@ public class SqlitePestoDatabase implements PestoDatabase {
     @Override
     public long getLastSalt(String username) throws OperationFailedException {
         String query = "SELECT salt FROM users WHERE username = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, username);
-            ResultSet resultSet = stmt.executeQuery();
-            return resultSet.getLong("salt");
+        try {
+            return read(query, stmt -> {
+                stmt.setString(1, username);
+                ResultSet resultSet = stmt.executeQuery();
+                return resultSet.getLong("salt");
+            });
         } catch (SQLException e) {
             logger.error("Failed to retrieve salt for user", e);
             throw new OperationFailedException("Failed to retrieve salt for user", e);
@@ -149,10 +261,12 @@ public class SqlitePestoDatabase implements PestoDatabase {
     @Override
     public void setSalt(String username, long salt) throws OperationFailedException {
         String query = "UPDATE users SET salt=? WHERE username =?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setLong(1, salt);
-            stmt.setString(2, username);
-            stmt.execute();
+        try {
+            write(query, stmt -> {
+                stmt.setLong(1, salt);
+                stmt.setString(2, username);
+                return stmt.execute();
+            });
         } catch (SQLException e) {
             logger.error("Failed to set salt for user", e);
             throw new OperationFailedException("Failed to set salt for user", e);
@@ -162,12 +276,14 @@ public class SqlitePestoDatabase implements PestoDatabase {
     @Override
     public void replaceUserKey(String username, PublicKey publicKey, long salt) throws OperationFailedException {
         String query = "UPDATE users SET publicKey=?, salt=? WHERE username =?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try {
             String keyEncoded = Base64.encodeBase64String(KeySerializer.serialize(publicKey).getBytes());
-            stmt.setString(1, keyEncoded);
-            stmt.setLong(2, salt);
-            stmt.setString(3, username);
-            stmt.execute();
+            write(query, stmt -> {
+                stmt.setString(1, keyEncoded);
+                stmt.setLong(2, salt);
+                stmt.setString(3, username);
+                return stmt.execute();
+            });
         } catch (SQLException e) {
             logger.error("Failed to replace public key for user", e);
             throw new OperationFailedException("Failed to replace public key for user", e);
@@ -177,9 +293,11 @@ public class SqlitePestoDatabase implements PestoDatabase {
     @Override
     public byte[] getKeyDigest() throws OperationFailedException {
         String query = "SELECT * FROM keyDigest";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            ResultSet resultSet = stmt.executeQuery();
-            return Base64.decodeBase64(resultSet.getString("digest"));
+        try {
+            return read(query, stmt -> {
+                ResultSet resultSet = stmt.executeQuery();
+                return Base64.decodeBase64(resultSet.getString("digest"));
+            });
         } catch (SQLException e) {
             logger.error("Failed to retrieve key digest", e);
             throw new OperationFailedException("Failed to retrieve key digest", e);
@@ -189,9 +307,11 @@ public class SqlitePestoDatabase implements PestoDatabase {
     @Override
     public void setKeyDigest(byte[] digest) throws OperationFailedException {
         String query = "REPLACE INTO keyDigest(digest) " + "VALUES (?)";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, Base64.encodeBase64String(digest));
-            stmt.execute();
+        try {
+            write(query, stmt -> {
+                stmt.setString(1, Base64.encodeBase64String(digest));
+                return stmt.execute();
+            });
         } catch (SQLException e) {
             logger.error("Failed to set key digest", e);
             throw new OperationFailedException("Failed to set key digest", e);
@@ -202,10 +322,12 @@ public class SqlitePestoDatabase implements PestoDatabase {
     public void setKeyShare(int id, byte[] shares) throws OperationFailedException {
         String query = "REPLACE INTO idpKeyShares(idp,keyShare) " + "VALUES (?,?)";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, id);
-            stmt.setString(2, Base64.encodeBase64String(shares));
-            stmt.execute();
+        try {
+            write(query, stmt -> {
+                stmt.setInt(1, id);
+                stmt.setString(2, Base64.encodeBase64String(shares));
+                return stmt.execute();
+            });
         } catch (SQLException e) {
             logger.error("Failed to set key share for idp", e);
             throw new OperationFailedException("Failed to set key share for idp", e);
@@ -215,10 +337,12 @@ public class SqlitePestoDatabase implements PestoDatabase {
     @Override
     public byte[] getKeyShare(int id) throws OperationFailedException {
         String query = "SELECT * FROM idpKeyShares WHERE idp = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, id);
-            ResultSet resultSet = stmt.executeQuery();
-            return Base64.decodeBase64(resultSet.getString("keyShare"));
+        try {
+            return read(query, stmt -> {
+                stmt.setInt(1, id);
+                ResultSet resultSet = stmt.executeQuery();
+                return Base64.decodeBase64(resultSet.getString("keyShare"));
+            });
         } catch (SQLException e) {
             logger.error("Failed to retrieve key share for idp", e);
             throw new OperationFailedException("Failed to retrieve key share for idp", e);
@@ -227,11 +351,13 @@ public class SqlitePestoDatabase implements PestoDatabase {
 
     @Override
     public boolean hasUser(String username) throws OperationFailedException {
-        String query = "SELECT * FROM users WHERE username = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, username);
-            ResultSet resultSet = stmt.executeQuery();
-            return resultSet.next();
+        String query = "SELECT 1 FROM users WHERE username = ?";
+        try {
+            return read(query, stmt -> {
+                stmt.setString(1, username);
+                ResultSet resultSet = stmt.executeQuery();
+                return resultSet.next();
+            });
         } catch (SQLException e) {
             logger.error("Failed to check if database has user", e);
             throw new OperationFailedException("Failed to check if database has user", e);
@@ -240,16 +366,21 @@ public class SqlitePestoDatabase implements PestoDatabase {
 
     @Override
     public Map<String, Attribute> getAttributes(String username) throws OperationFailedException {
-        String query = "SELECT * FROM attributes WHERE username = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        String query = "SELECT type, attr FROM attributes WHERE username = ?";
+        try {
+            Map<String, byte[]> rawAttributes = read(query, stmt -> {
+                Map<String, byte[]> raw = new HashMap<>();
+                stmt.setString(1, username);
+                ResultSet resultSet = stmt.executeQuery();
+                while (resultSet.next()) {
+                    raw.put(resultSet.getString("type"), resultSet.getBytes("attr"));
+                }
+                return raw;
+            });
             Map<String, Attribute> res = new HashMap<>();
-            stmt.setString(1, username);
-            ResultSet resultSet = stmt.executeQuery();
-            while (resultSet.next()) {
-                String type = resultSet.getString("type");
-                byte[] attrByte = resultSet.getBytes("attr");
-                PabcSerializer.Attribute parsedAttr = PabcSerializer.Attribute.parseFrom(attrByte);
-                res.put(type, constructAttribute(parsedAttr));
+            for (Entry<String, byte[]> entry : rawAttributes.entrySet()) {
+                PabcSerializer.Attribute parsedAttr = PabcSerializer.Attribute.parseFrom(entry.getValue());
+                res.put(entry.getKey(), constructAttribute(parsedAttr));
             }
             return res;
         } catch (SQLException | InvalidProtocolBufferException e) {
@@ -294,21 +425,34 @@ public class SqlitePestoDatabase implements PestoDatabase {
 
     @Override
     public void addAttributes(String username, Map<String, Attribute> attributes) throws OperationFailedException {
-        for (Entry<String, Attribute> entry : attributes.entrySet()) {
-            String key = entry.getKey();
-            Attribute attr = entry.getValue();
-            addAttribute(username, key, attr);
+        String query = "INSERT OR REPLACE INTO attributes(username,type,attr) " + "VALUES (?,?,?)";
+        try {
+            batch(query, stmt -> {
+                for (Entry<String, Attribute> entry : attributes.entrySet()) {
+                    stmt.setString(1, username);
+                    stmt.setString(2, entry.getKey());
+                    stmt.setBytes(3, entry.getValue().toProto().toByteArray());
+                    stmt.addBatch();
+                }
+                return stmt.executeBatch();
+            });
+        } catch (SQLException e) {
+            logger.error("Failed to add attributes to user", e);
+            throw new OperationFailedException("Failed to add attributes to user", e);
         }
     }
 
     @Override
     public void addAttribute(String username, String key, Attribute value) throws OperationFailedException {
-        String query = "INSERT INTO attributes(username,type,attr) " + "VALUES (?,?,?)";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, username);
-            stmt.setString(2, key);
-            stmt.setBytes(3, value.toProto().toByteArray());
-            stmt.execute();
+        String query = "INSERT OR REPLACE INTO attributes(username,type,attr) " + "VALUES (?,?,?)";
+        try {
+            byte[] serialized = value.toProto().toByteArray();
+            write(query, stmt -> {
+                stmt.setString(1, username);
+                stmt.setString(2, key);
+                stmt.setBytes(3, serialized);
+                return stmt.execute();
+            });
         } catch (SQLException e) {
             logger.error("Failed to add attributes to user", e);
             throw new OperationFailedException("Failed to add attributes to user", e);
@@ -318,10 +462,12 @@ public class SqlitePestoDatabase implements PestoDatabase {
     @Override
     public boolean deleteAttribute(String username, String attributeName) throws OperationFailedException {
         String query = "DELETE FROM attributes WHERE username = ? AND type = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, username);
-            stmt.setString(2, attributeName);
-            stmt.execute();
+        try {
+            write(query, stmt -> {
+                stmt.setString(1, username);
+                stmt.setString(2, attributeName);
+                return stmt.execute();
+            });
             return true;
         } catch (SQLException e) {
             logger.info("Failed to delete attribute", e);
@@ -329,12 +475,42 @@ public class SqlitePestoDatabase implements PestoDatabase {
         }
     }
 
+    @Override
+    public boolean deleteAttributes(String username, List<String> attributeNames) throws OperationFailedException {
+        String query = "DELETE FROM attributes WHERE username = ? AND type = ?";
+        Set<String> distinctNames = new LinkedHashSet<>(attributeNames);
+        try {
+            int[] counts = batch(query, stmt -> {
+                for (String attributeName : distinctNames) {
+                    stmt.setString(1, username);
+                    stmt.setString(2, attributeName);
+                    stmt.addBatch();
+                }
+                return stmt.executeBatch();
+            });
+            // True only if every requested attribute was deleted, as in Storage.deleteAttributes.
+            // A count of SUCCESS_NO_INFO (the driver did not report it) counts as deleted
+            int deleted = 0;
+            for (int count : counts) {
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    deleted++;
+                }
+            }
+            return deleted == distinctNames.size();
+        } catch (SQLException e) {
+            logger.info("Failed to delete attributes", e);
+            return false;
+        }
+    }
+
     @Override
     public boolean deleteUser(String username) throws OperationFailedException {
         String query = "DELETE FROM users WHERE username = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, username);
-            stmt.execute();
+        try {
+            write(query, stmt -> {
+                stmt.setString(1, username);
+                return stmt.execute();
+            });
             return true;
         } catch (SQLException e) {
             logger.info("Failed to delete user", e);
@@ -345,13 +521,15 @@ public class SqlitePestoDatabase implements PestoDatabase {
     @Override
     public void assignMFASecret(String username, String type, String secret) throws OperationFailedException {
         String query = "INSERT INTO mfaInformation(username,type,mfaInfo) " + "VALUES (?,?,?)";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try {
             MFAInformation information = new MFAInformation(type, secret, System.currentTimeMillis(), false);
-
-            stmt.setString(1, username);
-            stmt.setString(2, type);
-            stmt.setString(3, Base64.encodeBase64String(SerializationUtils.serialize(information)));
-            stmt.execute();
+            String serialized = Base64.encodeBase64String(SerializationUtils.serialize(information));
+            write(query, stmt -> {
+                stmt.setString(1, username);
+                stmt.setString(2, type);
+                stmt.setString(3, serialized);
+                return stmt.execute();
+            });
         } catch (SQLException e) {
             logger.error("Failed to assign MFA secret to user", e);
             throw new OperationFailedException("Failed to assign MFA secret to user", e);
@@ -360,16 +538,18 @@ public class SqlitePestoDatabase implements PestoDatabase {
 
     @Override
     public Map<String, MFAInformation> getMFAInformation(String username) throws OperationFailedException {
-        String query = "SELECT * FROM mfaInformation WHERE username = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            Map<String, MFAInformation> result = new HashMap<>();
-            stmt.setString(1, username);
-            ResultSet resultSet = stmt.executeQuery();
-            while (resultSet.next()) {
-                String type = resultSet.getString("type");
-                result.put(type, SerializationUtils.deserialize(Base64.decodeBase64(resultSet.getBytes("mfaInfo"))));
-            }
-            return result;
+        String query = "SELECT type, mfaInfo FROM mfaInformation WHERE username = ?";
+        try {
+            return read(query, stmt -> {
+                Map<String, MFAInformation> result = new HashMap<>();
+                stmt.setString(1, username);
+                ResultSet resultSet = stmt.executeQuery();
+                while (resultSet.next()) {
+                    String type = resultSet.getString("type");
+                    result.put(type, SerializationUtils.deserialize(Base64.decodeBase64(resultSet.getBytes("mfaInfo"))));
+                }
+                return result;
+            });
         } catch (SQLException e) {
             logger.error("Failed to retrieve MFA information for user", e);
             throw new OperationFailedException("Failed to retrieve MFA information for user", e);
@@ -380,27 +560,31 @@ public class SqlitePestoDatabase implements PestoDatabase {
     public void activateMFA(String username, String type) throws OperationFailedException {
         String query = "SELECT * FROM mfaInformation WHERE username=? AND type=?";
         MFAInformation information;
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, username);
-            stmt.setString(2, type);
-            ResultSet resultSet = stmt.executeQuery();
-            if (resultSet.next()) {
-                information = SerializationUtils.deserialize(Base64.decodeBase64(resultSet.getBytes("mfaInfo")));
-            } else {
-                logger.info("The user did not have a MFAInformation of the given type: " + type);
-                throw new OperationFailedException("The user did not have a MFAInformation of the given type: " + type);
-            }
+        try {
+            information = read(query, stmt -> {
+                stmt.setString(1, username);
+                stmt.setString(2, type);
+                ResultSet resultSet = stmt.executeQuery();
+                return resultSet.next() ? SerializationUtils.deserialize(Base64.decodeBase64(resultSet.getBytes("mfaInfo"))) : null;
+            });
         } catch (SQLException e) {
             logger.error("Failed to activate MFAInformation for user", e);
             throw new OperationFailedException("Failed to activate MFAInformation for user", e);
         }
+        if (information == null) {
+            logger.info("The user did not have a MFAInformation of the given type: " + type);
+            throw new OperationFailedException("The user did not have a MFAInformation of the given type: " + type);
+        }
 
         information.setActivated(true);
         query = "UPDATE mfaInformation SET mfaInfo=? WHERE type =?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, Base64.encodeBase64String(SerializationUtils.serialize(information)));
-            stmt.setString(2, type);
-            stmt.execute();
+        try {
+            String serialized = Base64.encodeBase64String(SerializationUtils.serialize(information));
+            write(query, stmt -> {
+                stmt.setString(1, serialized);
+                stmt.setString(2, type);
+                return stmt.execute();
+            });
         } catch (SQLException e) {
             logger.error("Failed to activate MFAInformation for user", e);
             throw new OperationFailedException("Failed to activate MFAInformation for user", e);
@@ -411,10 +595,12 @@ public class SqlitePestoDatabase implements PestoDatabase {
     @Override
     public void deleteMFA(String username, String type) throws OperationFailedException {
         String query = "DELETE FROM mfaInformation WHERE username = ? AND type = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, username);
-            stmt.setString(2, type);
-            stmt.execute();
+        try {
+            write(query, stmt -> {
+                stmt.setString(1, username);
+                stmt.setString(2, type);
+                return stmt.execute();
+            });
         } catch (SQLException e) {
             logger.error("Failed to delete MFA for user", e);
             throw new OperationFailedException("Failed to delete MFA for user", e);
@@ -423,15 +609,8 @@ public class SqlitePestoDatabase implements PestoDatabase {
 
     @Override
     public long getLastAuthAttempt(String username) throws OperationFailedException {
-        String query = "SELECT lastAuthAttempt FROM users WHERE username = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, username);
-            ResultSet resultSet = stmt.executeQuery();
-            if (resultSet.next()) {
-                return resultSet.getLong("lastAuthAttempt");
-            } else {
-                return 0;
-            }
+        try {
+            return readLong("SELECT lastAuthAttempt FROM users WHERE username = ?", username);
         } catch (SQLException e) {
             logger.error("Failed to retrieve last authentication attempt for user", e);
             throw new OperationFailedException("Failed to retrieve last authentication attempt for user", e);
@@ -440,15 +619,8 @@ public class SqlitePestoDatabase implements PestoDatabase {
 
     @Override
     public int getNumberOfFailedAuthAttempts(String username) throws OperationFailedException {
-        String query = "SELECT numberOfAuthAttempts FROM users WHERE username = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, username);
-            ResultSet resultSet = stmt.executeQuery();
-            if (resultSet.next()) {
-                return resultSet.getInt("numberOfAuthAttempts");
-            } else {
-                return 0;
-            }
+        try {
+            return (int) readLong("SELECT numberOfAuthAttempts FROM users WHERE username = ?", username);
         } catch (SQLException e) {
             logger.error("Failed to retrieve the number of failed authentication" + " attempts for user", e);
             throw new OperationFailedException("Failed to retrieve the number of failed authentication" + " attempts for user", e);
@@ -457,24 +629,14 @@ public class SqlitePestoDatabase implements PestoDatabase {
 
     @Override
     public void failedAuthAttempt(String username) throws OperationFailedException {
-        String query = "SELECT numberOfAuthAttempts FROM users WHERE username = ?";
-        int prevAttempts = 1;
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, username);
-            ResultSet resultSet = stmt.executeQuery();
-            if (resultSet.next()) {
-                prevAttempts += resultSet.getInt("numberOfAuthAttempts");
-            }
-        } catch (SQLException e) {
-            logger.error("Failed to retrieve number of failed authentication attempts for user", e);
-            throw new OperationFailedException("Failed to retrieve number of failed authentication attempts for user", e);
-        }
-        query = "UPDATE users SET numberOfAuthAttempts=?, lastAuthAttempt=? WHERE username =?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setLong(1, prevAttempts);
-            stmt.setLong(2, System.currentTimeMillis());
-            stmt.setString(3, username);
-            stmt.execute();
+        // A single statement, so concurrent failures are all counted
+        String query = "UPDATE users SET numberOfAuthAttempts=IFNULL(numberOfAuthAttempts,0)+1, lastAuthAttempt=? WHERE username =?";
+        try {
+            write(query, stmt -> {
+                stmt.setLong(1, System.currentTimeMillis());
+                stmt.setString(2, username);
+                return stmt.execute();
+            });
         } catch (SQLException e) {
             logger.error("Failed to update number of failed authentication attempts for user", e);
             throw new OperationFailedException("Failed to update number of failed authentication attempts for user", e);
@@ -484,10 +646,12 @@ public class SqlitePestoDatabase implements PestoDatabase {
     @Override
     public void clearFailedAuthAttempts(String username) throws OperationFailedException {
         String query = "UPDATE users SET numberOfAuthAttempts=? WHERE username =?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setLong(1, 0);
-            stmt.setString(2, username);
-            stmt.execute();
+        try {
+            write(query, stmt -> {
+                stmt.setLong(1, 0);
+                stmt.setString(2, username);
+                return stmt.execute();
+            });
         } catch (SQLException e) {
             logger.error("Failed to clear failed authentication attempts for user", e);
             throw new OperationFailedException("Failed to clear failed authentication attempts for user", e);
@@ -496,15 +660,8 @@ public class SqlitePestoDatabase implements PestoDatabase {
 
     @Override
     public int getNumberOfFailedMFAAttempts(String username) throws OperationFailedException {
-        String query = "SELECT numberOfMFAAttempts FROM users WHERE username = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, username);
-            ResultSet resultSet = stmt.executeQuery();
-            if (resultSet.next()) {
-                return resultSet.getInt("numberOfMFAAttempts");
-            } else {
-                return 0;
-            }
+        try {
+            return (int) readLong("SELECT numberOfMFAAttempts FROM users WHERE username = ?", username);
         } catch (SQLException e) {
             logger.error("Failed to retrieve number of failed MFA attempts for user", e);
             throw new OperationFailedException("Failed to retrieve number of failed MFA attempts for user", e);
@@ -513,24 +670,14 @@ public class SqlitePestoDatabase implements PestoDatabase {
 
     @Override
     public void failedMFAAttempt(String username) throws OperationFailedException {
-        String query = "SELECT numberOfMFAAttempts FROM users WHERE username = ?";
-        int prevAttempts = 1;
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, username);
-            ResultSet resultSet = stmt.executeQuery();
-            if (resultSet.next()) {
-                prevAttempts += resultSet.getInt("numberOfMFAAttempts");
-            }
-        } catch (SQLException e) {
-            logger.error("Failed to retrieve number of failed MFA attempts for user", e);
-            throw new OperationFailedException("Failed to retrieve number of failed MFA attempts for user", e);
-        }
-        query = "UPDATE users SET numberOfMFAAttempts=?, lastMFAAttempt=? WHERE username =?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setLong(1, prevAttempts);
-            stmt.setLong(2, System.currentTimeMillis());
-            stmt.setString(3, username);
-            stmt.execute();
+        // A single statement, so concurrent failures are all counted
+        String query = "UPDATE users SET numberOfMFAAttempts=IFNULL(numberOfMFAAttempts,0)+1, lastMFAAttempt=? WHERE username =?";
+        try {
+            write(query, stmt -> {
+                stmt.setLong(1, System.currentTimeMillis());
+                stmt.setString(2, username);
+                return stmt.execute();
+            });
         } catch (SQLException e) {
             logger.error("Failed to update number of failed MFA attempts for user", e);
             throw new OperationFailedException("Failed to update number of failed MFA attempts for user", e);
@@ -540,10 +687,12 @@ public class SqlitePestoDatabase implements PestoDatabase {
     @Override
     public void clearFailedMFAAttempts(String username) throws OperationFailedException {
         String query = "UPDATE users SET numberOfMFAAttempts=? WHERE username =?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setLong(1, 0);
-            stmt.setString(2, username);
-            stmt.execute();
+        try {
+            write(query, stmt -> {
+                stmt.setLong(1, 0);
+                stmt.setString(2, username);
+                return stmt.execute();
+            });
         } catch (SQLException e) {
             logger.error("Failed to clear number of failed MFA attempts for user", e);
             throw new OperationFailedException("Failed to clear number of failed MFA attempts for user", e);
@@ -552,18 +701,221 @@ public class SqlitePestoDatabase implements PestoDatabase {
 
     @Override
     public long getLastMFAAttempt(String username) throws OperationFailedException {
-        String query = "SELECT lastMFAAttempt FROM users WHERE username = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, username);
-            ResultSet resultSet = stmt.executeQuery();
-            if (resultSet.next()) {
-                return resultSet.getLong("lastMFAAttempt");
-            } else {
-                return 0;
-            }
+        try {
+            return readLong("SELECT lastMFAAttempt FROM users WHERE username = ?", username);
         } catch (SQLException e) {
             logger.error("Failed to retrieve number of failed MFA attempts for user", e);
             throw new OperationFailedException("Failed to retrieve number of failed MFA attempts for user", e);
         }
     }
+
+    @Override
+    public UserAuthState getUserAuthState(String username) throws OperationFailedException {
+        // One row per MFA type, or a single row with NULL MFA columns
+        String query = "SELECT u.salt, u.publicKey, u.lastAuthAttempt, u.numberOfAuthAttempts, m.type, m.mfaInfo"
+                + " FROM users u LEFT JOIN mfaInformation m ON m.username = u.username WHERE u.username = ?";
+        try {
+            RawAuthState raw = read(query, stmt -> {
+                stmt.setString(1, username);
+                ResultSet resultSet = stmt.executeQuery();
+                if (!resultSet.next()) {
+                    return null;
+                }
+                RawAuthState res = new RawAuthState(resultSet.getLong("salt"), resultSet.getString("publicKey"),
+                        resultSet.getLong("lastAuthAttempt"), resultSet.getInt("numberOfAuthAttempts"));
+                do {
+                    String type = resultSet.getString("type");
+                    if (type != null) {
+                        res.mfaInformation.put(type, SerializationUtils.deserialize(Base64.decodeBase64(resultSet.getBytes("mfaInfo"))));
+                    }
+                } while (resultSet.next());
+                return res;
+            });
+            if (raw == null) {
+                return new UserAuthState(false, null, 0, 0, 0, null);
+            }
+            PublicKey key = (PublicKey) KeySerializer.deSerialize(new SerializedKey(Base64.decodeBase64(raw.publicKey)));
+            return new UserAuthState(true, key, raw.salt, raw.lastAuthAttempt, raw.failedAuthAttempts, raw.mfaInformation);
+        } catch (SQLException | NoSuchAlgorithmException | InvalidKeySpecException | InvalidKeyException e) {
+            logger.error("Failed to retrieve authentication state for user", e);
+            throw new OperationFailedException("Failed to retrieve authentication state for user", e);
+        }
+    }
+
+    @Override
+    public void recordAuthAttempt(String username, long salt, boolean successful) throws OperationFailedException {
+        String query = successful
+                ? "UPDATE users SET salt=?, numberOfAuthAttempts=0 WHERE username =?"
+                : "UPDATE users SET salt=?, numberOfAuthAttempts=IFNULL(numberOfAuthAttempts,0)+1, lastAuthAttempt=? WHERE username =?";
+        try {
+            write(query, stmt -> {
+                stmt.setLong(1, salt);
+                if (successful) {
+                    stmt.setString(2, username);
+                } else {
+                    stmt.setLong(2, System.currentTimeMillis());
+                    stmt.setString(3, username);
+                }
+                return stmt.execute();
+            });
+        } catch (SQLException e) {
+            logger.error("Failed to record authentication attempt for user", e);
+            throw new OperationFailedException("Failed to record authentication attempt for user", e);
+        }
+    }
+
+    /**
+     * Close the connections of the pooled mode. A database constructed with a connection does not
+     * close it.
+     */
+    @Override
+    public void close() {
+        List<CachedConnection> connections = new ArrayList<>();
+        if (readers != null) {
+            readers.drainTo(connections);
+        }
+        if (writer != null) {
+            connections.add(writer);
+        }
+        for (CachedConnection cached : connections) {
+            try {
+                cached.connection.close();
+            } catch (SQLException e) {
+                logger.info("Failed to close connection", e);
+            }
+        }
+    }
+
+    // The single column of the first row, or 0 if there is no row
+    private long readLong(String query, String username) throws SQLException {
+        return read(query, stmt -> {
+            stmt.setString(1, username);
+            ResultSet resultSet = stmt.executeQuery();
+            return resultSet.next() ? resultSet.getLong(1) : 0L;
+        });
+    }
+
+    private <T> T read(String query, StatementAction<T> action) throws SQLException {
+        if (readers == null) {
+            // A read on the shared connection would otherwise run inside the transaction of a concurrent batch,
+            // and see its uncommitted rows
+            synchronized (connection) {
+                return execute(query, action);
+            }
+        }
+        CachedConnection reader;
+        try {
+            reader = readers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+        try {
+            return reader.execute(query, action);
+        } finally {
+            readers.add(reader);
+        }
+    }
+
+    private <T> T write(String query, StatementAction<T> action) throws SQLException {
+        if (writer == null) {
+            // Kept out of the transaction of a concurrent batch on the shared connection
+            synchronized (connection) {
+                return execute(query, action);
+            }
+        }
+        // SQLite only allows one writer at a time, so the writes are serialized here instead of waiting on the file lock
+        synchronized (writer) {
+            return writer.execute(query, action);
+        }
+    }
+
+    // Runs all the statements of the batch in one transaction, so they cost a single commit. The
+    // transaction switches off autocommit on the connection, so it holds the lock of the connection
+    // like the other writes
+    private int[] batch(String query, StatementAction<int[]> action) throws SQLException {
+        if (writer == null) {
+            synchronized (connection) {
+                return transaction(connection, () -> execute(query, action));
+            }
+        }
+        synchronized (writer) {
+            return transaction(writer.connection, () -> writer.execute(query, action));
+        }
+    }
+
+    private static <T> T transaction(Connection conn, SqlTask<T> task) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            T result = task.run();
+            conn.commit();
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private <T> T execute(String query, StatementAction<T> action) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            return action.apply(stmt);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlTask<T> {
+        T run() throws SQLException;
+    }
+
+    private static class RawAuthState {
+        private final long salt;
+        private final String publicKey;
+        private final long lastAuthAttempt;
+        private final int failedAuthAttempts;
+        private final Map<String, MFAInformation> mfaInformation = new HashMap<>();
+
+        private RawAuthState(long salt, String publicKey, long lastAuthAttempt, int failedAuthAttempts) {
+            this.salt = salt;
+            this.publicKey = publicKey;
+            this.lastAuthAttempt = lastAuthAttempt;
+            this.failedAuthAttempts = failedAuthAttempts;
+        }
+    }
+
+    @FunctionalInterface
+    private interface StatementAction<T> {
+        T apply(PreparedStatement stmt) throws SQLException;
+    }
+
+    /**
+     * A connection with its prepared statements. It must only be used by one thread at a time.
+     */
+    private static class CachedConnection {
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        private CachedConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        private <T> T execute(String query, StatementAction<T> action) throws SQLException {
+            PreparedStatement stmt = statements.get(query);
+            if (stmt == null) {
+                stmt = connection.prepareStatement(query);
+                statements.put(query, stmt);
+            }
+            try {
+                return action.apply(stmt);
+            } finally {
+                // Resetting the statement ends the read transaction it may hold open
+                ResultSet resultSet = stmt.getResultSet();
+                if (resultSet != null) {
+                    resultSet.close();
+                }
+                stmt.clearParameters();
+            }
+        }
+    }
 }
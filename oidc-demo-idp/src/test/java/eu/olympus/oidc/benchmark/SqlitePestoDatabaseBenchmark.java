@@ -0,0 +1,106 @@
+package eu.olympus.oidc.benchmark;
+
+import eu.olympus.oidc.TestParameters;
+import eu.olympus.oidc.server.storage.SqlitePestoDatabase;
+import eu.olympus.server.interfaces.PestoDatabase;
+import eu.olympus.util.KeySerializer;
+import java.io.File;
+import java.security.PublicKey;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.codec.binary.Base64;
+
+/**
+ * Measures the login lookups per second of SqlitePestoDatabase with a large user table, using a single
+ * shared connection (before) and the pooled WAL mode (after). Each lookup performs the reads of a
+ * password login: hasUser, getLastSalt, getUserKey, getLastAuthAttempt, getNumberOfFailedAuthAttempts
+ * and getMFAInformation. Usage: SqlitePestoDatabaseBenchmark [users] [threads]
+ */
+public class SqlitePestoDatabaseBenchmark {
+
+    private static final String FILE = "target/benchmark-db";
+    private static final long DURATION = 10000;
+    private static final long WARMUP = 2000;
+
+    public static void main(String[] args) throws Exception {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        new File(FILE).delete();
+        String url = SqlitePestoDatabase.createDatabase(FILE);
+        populate(url, users);
+        System.out.println(users + " users, " + threads + " threads, " + DURATION + " ms each");
+
+        Connection connection = SqlitePestoDatabase.constructConnection(url);
+        double before = run(new SqlitePestoDatabase(connection), users, threads);
+        connection.close();
+        double after;
+        try (SqlitePestoDatabase pooled = new SqlitePestoDatabase(url, threads)) {
+            after = run(pooled, users, threads);
+        }
+        System.out.println("single connection: " + before + " logins/s, pooled: " + after + " logins/s");
+        new File(FILE).delete();
+    }
+
+    // Bulk insert in one transaction, adding users one by one through the database would take hours
+    private static void populate(String url, int users) throws Exception {
+        PublicKey key = TestParameters.getECPublicKey2();
+        String keyEncoded = Base64.encodeBase64String(KeySerializer.serialize(key).getBytes());
+        try (Connection connection = SqlitePestoDatabase.constructConnection(url);
+                PreparedStatement stmt = connection.prepareStatement("INSERT INTO users(username,salt,publicKey) VALUES (?,?,?)")) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < users; i++) {
+                stmt.setString(1, "user" + i);
+                stmt.setLong(2, i);
+                stmt.setString(3, keyEncoded);
+                stmt.addBatch();
+                if (i % 10000 == 9999) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private static double run(PestoDatabase db, int users, int threadCount) throws InterruptedException {
+        AtomicLong logins = new AtomicLong();
+        long start = System.currentTimeMillis();
+        long measureStart = start + WARMUP;
+        long end = measureStart + DURATION;
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            Random rnd = new Random(i);
+            Thread thread = new Thread(() -> {
+                try {
+                    long now;
+                    while ((now = System.currentTimeMillis()) < end) {
+                        String username = "user" + rnd.nextInt(users);
+                        if (!db.hasUser(username)) {
+                            throw new IllegalStateException("Missing user " + username);
+                        }
+                        db.getLastSalt(username);
+                        db.getUserKey(username);
+                        db.getLastAuthAttempt(username);
+                        db.getNumberOfFailedAuthAttempts(username);
+                        db.getMFAInformation(username);
+                        if (now >= measureStart) {
+                            logins.incrementAndGet();
+                        }
+                    }
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return logins.get() * 1000.0 / DURATION;
+    }
+}
@@ -7,6 +7,7 @@ import static org.mockito.Mockito.mock;
 import eu.olympus.model.Attribute;
 import eu.olympus.model.AttributeType;
 import eu.olympus.model.MFAInformation;
+import eu.olympus.model.UserAuthState;
 import eu.olympus.model.exceptions.OperationFailedException;
 import eu.olympus.model.exceptions.SetupException;
 import eu.olympus.oidc.TestParameters;
@@ -15,6 +16,9 @@ import java.nio.charset.StandardCharsets;
 import java.security.PublicKey;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -55,6 +59,33 @@ public class SqlitePestoDatabaseTest {
         SqlitePestoDatabase.createDatabase("/src/test/resources/does/not/exist/db");
     }
 
+    @Test
+    public void testCreateDatabaseWithDuplicates() throws Exception {
+        byte[] share = "share".getBytes(StandardCharsets.UTF_8);
+        db.setKeyShare(1, share);
+        // As written before the unique indexes
+        try (Connection conn = SqlitePestoDatabase.constructConnection("jdbc:sqlite:src/test/resources/db");
+            Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP INDEX usersByUsername");
+            stmt.execute("DROP INDEX idpKeySharesByIdp");
+            stmt.execute("INSERT INTO users(username,salt) VALUES ('test',2000)");
+            stmt.execute("INSERT INTO idpKeyShares(idp,keyShare) VALUES (1,'AA==')");
+        }
+        try {
+            SqlitePestoDatabase.createDatabase("src/test/resources/db");
+            Assert.fail();
+        } catch (OperationFailedException e) {
+            Assert.assertTrue(e.getMessage().contains("[users, idpKeyShares]"));
+        }
+        // Nothing was deleted
+        Assert.assertEquals(1000L, db.getLastSalt("test"));
+
+        SqlitePestoDatabase.removeDuplicates("src/test/resources/db");
+        SqlitePestoDatabase.createDatabase("src/test/resources/db");
+        Assert.assertEquals(1000L, db.getLastSalt("test"));
+        Assert.assertArrayEquals(new byte[1], db.getKeyShare(1));
+    }
+
     @Test
     public void testAddUser() throws OperationFailedException {
         db.addUser("username", TestParameters.getECPublicKey2(),1000L);
@@ -364,6 +395,78 @@ public class SqlitePestoDatabaseTest {
         Assert.assertFalse(failingDb().deleteAttribute("username","test"));
     }
     @Test
+    public void testReplaceAndDeleteAttributes() throws OperationFailedException {
+        Map<String, Attribute> attrs = new HashMap<>();
+        attrs.put("anInt", new Attribute(24, AttributeType.INTEGER));
+        attrs.put("aString", new Attribute("string", AttributeType.STRING));
+        attrs.put("aBool", new Attribute(true, AttributeType.BOOLEAN));
+        db.addAttributes("test", attrs);
+        attrs.put("anInt", new Attribute(25, AttributeType.INTEGER));
+        db.addAttributes("test", attrs);
+        db.addAttribute("test", "aString", new Attribute("other", AttributeType.STRING));
+
+        Map<String, Attribute> res = db.getAttributes("test");
+        Assert.assertEquals(3, res.size());
+        Assert.assertEquals(new Attribute(25, AttributeType.INTEGER), res.get("anInt"));
+        Assert.assertEquals(new Attribute("other", AttributeType.STRING), res.get("aString"));
+
+        Assert.assertTrue(db.deleteAttributes("test", Arrays.asList("anInt", "aBool")));
+        res = db.getAttributes("test");
+        Assert.assertEquals(1, res.size());
+        Assert.assertNotNull(res.get("aString"));
+        // Nothing left to delete
+        Assert.assertFalse(db.deleteAttributes("test", Arrays.asList("anInt", "aBool")));
+    }
+    @Test
+    public void testPartialDeleteAttributes() throws OperationFailedException {
+        Map<String, Attribute> attrs = new HashMap<>();
+        attrs.put("anInt", new Attribute(24, AttributeType.INTEGER));
+        attrs.put("aString", new Attribute("string", AttributeType.STRING));
+        db.addAttributes("test", attrs);
+
+        // Only one of the two attributes exists
+        Assert.assertFalse(db.deleteAttributes("test", Arrays.asList("anInt", "missing")));
+        Map<String, Attribute> res = db.getAttributes("test");
+        Assert.assertEquals(1, res.size());
+        Assert.assertNotNull(res.get("aString"));
+        // Repeated names count once
+        Assert.assertTrue(db.deleteAttributes("test", Arrays.asList("aString", "aString")));
+        Assert.assertTrue(db.getAttributes("test").isEmpty());
+    }
+    @Test
+    public void testConcurrentBatchesOnSharedConnection() throws Exception {
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            String attribute = "attribute" + i;
+            threads[i] = new Thread(() -> {
+                try {
+                    for (int j = 0; j < 25; j++) {
+                        db.addAttributes("test", Collections.singletonMap(attribute, new Attribute(j, AttributeType.INTEGER)));
+                        db.failedAuthAttempt("test");
+                    }
+                } catch (OperationFailedException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(200, db.getNumberOfFailedAuthAttempts("test"));
+        Map<String, Attribute> res = db.getAttributes("test");
+        Assert.assertEquals(threads.length, res.size());
+        Assert.assertEquals(new Attribute(24, AttributeType.INTEGER), res.get("attribute0"));
+    }
+    @Test(expected = OperationFailedException.class)
+    public void testAddAttributesBatchDbException() throws OperationFailedException, SQLException {
+        failingDb().addAttributes("username", Collections.singletonMap("anInt", new Attribute(24, AttributeType.INTEGER)));
+    }
+    @Test
+    public void testDeleteAttributesDbException() throws OperationFailedException, SQLException {
+        Assert.assertFalse(failingDb().deleteAttributes("username", Arrays.asList("test")));
+    }
+    @Test
     public void testSetKeyShare() throws OperationFailedException {
         byte[] share = "share".getBytes(StandardCharsets.UTF_8);
         db.setKeyShare(1,share);
@@ -392,4 +495,83 @@ public class SqlitePestoDatabaseTest {
     public void testSetKeyDigestDbException() throws OperationFailedException, SQLException {
         failingDb().getKeyDigest();
     }
+    @Test
+    public void testGetUserAuthState() throws OperationFailedException {
+        UserAuthState state = db.getUserAuthState("test");
+        Assert.assertTrue(state.userExists());
+        Assert.assertEquals(TestParameters.getECPublicKey2(), state.getUserKey());
+        Assert.assertEquals(1000L, state.getSalt());
+        Assert.assertEquals(0, state.getFailedAuthAttempts());
+        Assert.assertTrue(state.getMFAInformation().isEmpty());
+
+        db.assignMFASecret("test", "type1", "secret1");
+        db.assignMFASecret("test", "type2", "secret2");
+        db.recordAuthAttempt("test", 2000L, false);
+        state = db.getUserAuthState("test");
+        Assert.assertEquals(2000L, state.getSalt());
+        Assert.assertEquals(1, state.getFailedAuthAttempts());
+        Assert.assertEquals(db.getLastAuthAttempt("test"), state.getLastAuthAttempt());
+        Assert.assertEquals(2, state.getMFAInformation().size());
+        Assert.assertEquals("secret2", state.getMFAInformation().get("type2").getSecret());
+
+        db.recordAuthAttempt("test", 3000L, true);
+        Assert.assertEquals(3000L, db.getLastSalt("test"));
+        Assert.assertEquals(0, db.getNumberOfFailedAuthAttempts("test"));
+
+        state = db.getUserAuthState("unknown");
+        Assert.assertFalse(state.userExists());
+        Assert.assertNull(state.getUserKey());
+    }
+
+    @Test(expected = OperationFailedException.class)
+    public void testGetUserAuthStateDbException() throws OperationFailedException, SQLException {
+        failingDb().getUserAuthState("test");
+    }
+
+    @Test(expected = OperationFailedException.class)
+    public void testRecordAuthAttemptDbException() throws OperationFailedException, SQLException {
+        failingDb().recordAuthAttempt("test", 1000L, true);
+    }
+
+    @Test
+    public void testPooledConnections() throws Exception {
+        byte[] share = "share".getBytes(StandardCharsets.UTF_8);
+        db.setKeyShare(1, share);
+        db.setKeyShare(1, share);
+        try (SqlitePestoDatabase pooled = new SqlitePestoDatabase("jdbc:sqlite:src/test/resources/db", 4)) {
+            Assert.assertTrue(pooled.hasUser("test"));
+            Assert.assertEquals(1000L, pooled.getLastSalt("test"));
+            Assert.assertArrayEquals(share, pooled.getKeyShare(1));
+            pooled.addUser("username", TestParameters.getECPublicKey2(), 2000L);
+            Assert.assertEquals(TestParameters.getECPublicKey2(), pooled.getUserKey("username"));
+            // Visible to the other connections
+            Assert.assertTrue(db.hasUser("username"));
+
+            Thread[] threads = new Thread[8];
+            for (int i = 0; i < threads.length; i++) {
+                threads[i] = new Thread(() -> {
+                    try {
+                        for (int j = 0; j < 25; j++) {
+                            pooled.failedAuthAttempt("username");
+                            Assert.assertTrue(pooled.hasUser("username"));
+                        }
+                    } catch (OperationFailedException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+                threads[i].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            Assert.assertEquals(200, pooled.getNumberOfFailedAuthAttempts("username"));
+            Assert.assertTrue(pooled.deleteUser("username"));
+            Assert.assertFalse(pooled.hasUser("username"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPooledConnectionsNoReaders() throws SetupException {
+        new SqlitePestoDatabase("jdbc:sqlite:src/test/resources/db", 0);
+    }
 }